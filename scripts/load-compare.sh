@@ -0,0 +1,51 @@
+#!/usr/bin/env bash
+# Compare throughput and latency of platform threads, virtual threads, and the reactive stack at high concurrency.
+# Starts the service once per mode, drives the same read-heavy load with hey, and prints requests/sec and p99.
+#
+# Requires: a built jar (gradle bootJar), hey (https://github.com/rakyll/hey), MONGO_URI, AUTH_ISSUER, and a
+# bearer token in TOKEN with read access.
+#
+# Usage: scripts/load-compare.sh [concurrency] [requests]
+set -euo pipefail
+
+CONCURRENCY=${1:-400}
+REQUESTS=${2:-50000}
+JAR=$(ls build/libs/*-SNAPSHOT.jar | grep -v plain | head -n 1)
+BASE_URL=http://localhost:8080/inventory/v1
+ENDPOINTS=(
+  "slabs/search?type=quartz&limit=50"
+  "samples/search?only_available=true&limit=50"
+  "prices/search?type=quartz&color=white"
+)
+
+: "${TOKEN:?TOKEN must be set to a bearer token with read access}"
+
+run_mode() {
+  local mode=$1 profiles=$2
+  # Pinned virtual threads are reported on stderr, any output there means a blocking call holds a monitor
+  java -Djdk.tracePinnedThreads=short -jar "$JAR" --spring.profiles.active="$profiles" > "build/load-$mode.log" 2>&1 &
+  local pid=$!
+  # Wait for the service to exit so the next mode can bind the port
+  trap 'kill $pid 2>/dev/null || true; wait $pid 2>/dev/null || true' RETURN
+
+  # Health requires authentication like every other endpoint
+  until curl -sf -H "Authorization: Bearer $TOKEN" http://localhost:8080/inventory/actuator/health > /dev/null; do
+    kill -0 "$pid" 2>/dev/null || { echo "$mode failed to start, see build/load-$mode.log" >&2; return 1; }
+    sleep 1
+  done
+
+  for endpoint in "${ENDPOINTS[@]}"; do
+    # Warm up the JIT and connection pool before measuring
+    hey -n 2000 -c 50 -H "Authorization: Bearer $TOKEN" "$BASE_URL/$endpoint" > /dev/null
+    hey -n "$REQUESTS" -c "$CONCURRENCY" -H "Authorization: Bearer $TOKEN" "$BASE_URL/$endpoint" \
+      | awk -v mode="$mode" -v endpoint="$endpoint" '
+          /Requests\/sec/ { rps = $2 }
+          /99% in/ { p99 = $3 }
+          /\[5[0-9][0-9]\]/ { errors += $2 }
+          END { printf "%-8s %-45s %10s req/s  p99 %8ss  5xx %d\n", mode, endpoint, rps, p99, errors }'
+  done
+}
+
+run_mode platform "${BASE_PROFILES:-prod}"
+run_mode virtual "${BASE_PROFILES:-prod},virtual"
+run_mode reactive "${BASE_PROFILES:-prod},reactive"
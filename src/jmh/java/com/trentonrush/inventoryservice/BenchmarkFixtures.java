@@ -0,0 +1,79 @@
+package com.trentonrush.inventoryservice;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.trentonrush.inventoryservice.models.Slab;
+import com.trentonrush.inventoryservice.models.dtos.SlabDTO;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared inputs for the benchmarks, shaped like real request bodies so each benchmark measures representative work.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-26
+ */
+public final class BenchmarkFixtures {
+
+    private static final String[] TYPES = {"granite", "quartz", "marble", "quartzite"};
+    private static final String[] COLORS = {"white", "black", "gray", "beige", "blue"};
+
+    private BenchmarkFixtures() {
+        throw new AssertionError();
+    }
+
+    /**
+     * An ObjectMapper configured like the one Spring Boot gives the controllers
+     */
+    public static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    /**
+     * The JSON body of a request to add a slab, measured in inches
+     * @param i varies the type, color, and size between slabs
+     */
+    public static String slabJson(int i) {
+        return """
+                {"image":"https://images.example.com/slabs/%d.jpg","description":"Polished slab %d",\
+                "dimensions":{"length":{"feet":10,"inches":%d,"centimeters":0},\
+                "width":{"feet":5,"inches":%d,"centimeters":0},\
+                "thickness":{"feet":0,"inches":1.25,"centimeters":0}},\
+                "color":"%s","type":"%s","sqftPrice":"%d.50","location":"Yard %d","supplier":"Supplier %d","quantity":%d}"""
+                .formatted(i, i, i % 12, i % 6, COLORS[i % COLORS.length], TYPES[i % TYPES.length], 40 + i % 60, i % 8, i % 5, i % 20);
+    }
+
+    /**
+     * A valid request to add a slab
+     */
+    public static SlabDTO slabDTO(ObjectMapper objectMapper, int i) {
+        try {
+            return objectMapper.readValue(slabJson(i), SlabDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Slabs as they are returned from the database
+     * @param size the number of slabs
+     */
+    public static List<Slab> slabs(ObjectMapper objectMapper, int size) {
+        Instant now = Instant.now();
+        List<Slab> slabs = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Slab slab = Slab.build(slabDTO(objectMapper, i));
+            slab.setId("%024x".formatted(i));
+            slab.setCreationDate(now);
+            slab.setModificationDate(now);
+            slabs.add(slab);
+        }
+        return slabs;
+    }
+}
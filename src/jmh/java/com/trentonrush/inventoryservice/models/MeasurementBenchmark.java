@@ -0,0 +1,47 @@
+package com.trentonrush.inventoryservice.models;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit conversions of {@link Measurement}, called for every side of every slab that is sized, quoted, or packed.
+ * Both branches are covered since imperial and metric measurements convert differently.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-26
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class MeasurementBenchmark {
+
+    private Measurement imperial;
+    private Measurement metric;
+
+    @Setup
+    public void setup() {
+        imperial = new Measurement(10, 6.5, 0);
+        metric = new Measurement(0, 0, 320);
+    }
+
+    @Benchmark
+    public void imperialConversions(Blackhole blackhole) {
+        blackhole.consume(imperial.getTotalInFeet());
+        blackhole.consume(imperial.getTotalInInches());
+        blackhole.consume(imperial.getTotalInCentimeters());
+    }
+
+    @Benchmark
+    public void metricConversions(Blackhole blackhole) {
+        blackhole.consume(metric.getTotalInFeet());
+        blackhole.consume(metric.getTotalInInches());
+        blackhole.consume(metric.getTotalInCentimeters());
+    }
+
+    @Benchmark
+    public SlabSize slabSize() {
+        return SlabSize.of(new Dimensions(imperial, new Measurement(0, 1.25, 0), metric));
+    }
+}
@@ -0,0 +1,41 @@
+package com.trentonrush.inventoryservice.models;
+
+import com.trentonrush.inventoryservice.BenchmarkFixtures;
+import com.trentonrush.inventoryservice.models.dtos.SlabDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building models from request bodies, done once per created slab, sample, or price and once per row of a batch.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-26
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class ModelBuildBenchmark {
+
+    private SlabDTO slabDTO;
+
+    @Setup
+    public void setup() {
+        slabDTO = BenchmarkFixtures.slabDTO(BenchmarkFixtures.objectMapper(), 7);
+    }
+
+    @Benchmark
+    public Slab buildSlab() {
+        return Slab.build(slabDTO);
+    }
+
+    @Benchmark
+    public SampleSlab buildSample() {
+        return SampleSlab.build(slabDTO);
+    }
+
+    @Benchmark
+    public SlabPrice buildSlabPrice() {
+        return SlabPrice.buildSlabPrice(slabDTO);
+    }
+}
@@ -0,0 +1,80 @@
+package com.trentonrush.inventoryservice.models;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.trentonrush.inventoryservice.BenchmarkFixtures;
+import com.trentonrush.inventoryservice.models.dtos.SlabDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Jackson (de)serialization of lists, the shape of search responses and batch request bodies.
+ * Sizes cover a single item, the default page, and the largest page.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-26
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+    @Param({"1", "100", "500"})
+    public int size;
+
+    private ObjectWriter slabsWriter;
+    private ObjectReader slabsReader;
+    private ObjectWriter slabDTOsWriter;
+    private ObjectReader slabDTOsReader;
+
+    private List<Slab> slabs;
+    private List<SlabDTO> slabDTOs;
+    private byte[] slabsJson;
+    private byte[] slabDTOsJson;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper objectMapper = BenchmarkFixtures.objectMapper();
+        slabsWriter = objectMapper.writerFor(new TypeReference<List<Slab>>() {});
+        slabsReader = objectMapper.readerFor(new TypeReference<List<Slab>>() {});
+        slabDTOsWriter = objectMapper.writerFor(new TypeReference<List<SlabDTO>>() {});
+        slabDTOsReader = objectMapper.readerFor(new TypeReference<List<SlabDTO>>() {});
+
+        slabs = BenchmarkFixtures.slabs(objectMapper, size);
+        slabsJson = slabsWriter.writeValueAsBytes(slabs);
+        slabDTOsJson = IntStream.range(0, size)
+                .mapToObj(BenchmarkFixtures::slabJson)
+                .collect(Collectors.joining(",", "[", "]"))
+                .getBytes(StandardCharsets.UTF_8);
+        slabDTOs = slabDTOsReader.readValue(slabDTOsJson);
+    }
+
+    @Benchmark
+    public byte[] serializeSlabs() throws JsonProcessingException {
+        return slabsWriter.writeValueAsBytes(slabs);
+    }
+
+    @Benchmark
+    public List<Slab> deserializeSlabs() throws IOException {
+        return slabsReader.readValue(slabsJson);
+    }
+
+    @Benchmark
+    public byte[] serializeSlabDTOs() throws JsonProcessingException {
+        return slabDTOsWriter.writeValueAsBytes(slabDTOs);
+    }
+
+    @Benchmark
+    public List<SlabDTO> deserializeSlabDTOs() throws IOException {
+        return slabDTOsReader.readValue(slabDTOsJson);
+    }
+}
@@ -0,0 +1,28 @@
+package com.trentonrush.inventoryservice.models.enums;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of status parameters, done for every slab search and count that filters by status.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-26
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class StatusBenchmark {
+
+    /**
+     * Statuses arrive in any case, anything but upper case allocates a new string
+     */
+    @Param({"AVAILABLE", "reserved"})
+    public String status;
+
+    @Benchmark
+    public Status fromString() {
+        return Status.fromString(status);
+    }
+}
@@ -0,0 +1,51 @@
+package com.trentonrush.inventoryservice.utils;
+
+import com.trentonrush.inventoryservice.BenchmarkFixtures;
+import com.trentonrush.inventoryservice.models.dtos.SlabDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of request bodies, run before every write. Only the passing path is measured,
+ * a failing request ends in an exception and an error response either way.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-26
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class ValidationUtilBenchmark {
+
+    private SlabDTO slabDTO;
+
+    @Setup
+    public void setup() {
+        slabDTO = BenchmarkFixtures.slabDTO(BenchmarkFixtures.objectMapper(), 3);
+    }
+
+    @Benchmark
+    public SlabDTO validateSlabDTO() {
+        ValidationUtil.validateSlabDTO(slabDTO, true);
+        return slabDTO;
+    }
+
+    @Benchmark
+    public SlabDTO validateSampleDTO() {
+        ValidationUtil.validateSlabDTO(slabDTO, false);
+        return slabDTO;
+    }
+
+    @Benchmark
+    public SlabDTO validateDimensions() {
+        ValidationUtil.validateDimensions(slabDTO.getDimensions());
+        return slabDTO;
+    }
+
+    @Benchmark
+    public SlabDTO validatePriceDetails() {
+        ValidationUtil.validatePriceDetails(slabDTO);
+        return slabDTO;
+    }
+}
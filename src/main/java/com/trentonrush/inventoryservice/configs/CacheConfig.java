@@ -0,0 +1,13 @@
+package com.trentonrush.inventoryservice.configs;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cache Config
+ * Caches are backed by Caffeine and configured under spring.cache, hit/miss metrics are published through actuator.
+ */
+@EnableCaching
+@Configuration
+public class CacheConfig {
+}
@@ -0,0 +1,33 @@
+package com.trentonrush.inventoryservice.configs;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.trentonrush.inventoryservice.models.SampleSlab;
+import com.trentonrush.inventoryservice.models.Slab;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static com.trentonrush.inventoryservice.utils.InventoryConstants.SPARSE_FIELDS_FILTER;
+
+/**
+ * Jackson Config
+ * Lets list responses write only the fields a client asked for. The filter is attached with a mixin so only the
+ * application's ObjectMapper knows about it, and it writes every field unless a response sets its own filter.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsCustomizer() {
+        return builder -> builder
+                .mixIn(Slab.class, SparseFieldsMixin.class)
+                .mixIn(SampleSlab.class, SparseFieldsMixin.class)
+                .filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    }
+
+    @JsonFilter(SPARSE_FIELDS_FILTER)
+    private interface SparseFieldsMixin {
+    }
+}
@@ -0,0 +1,21 @@
+package com.trentonrush.inventoryservice.configs;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Layout Config
+ * Cut layouts run every heuristic in parallel on their own pool, so a large job can't starve the common pool
+ * used by parallel streams elsewhere. The work is CPU bound, so it stays on platform threads in the virtual profile.
+ */
+@Configuration
+public class LayoutConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool layoutPool(@Value("${inventory.layouts.parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+}
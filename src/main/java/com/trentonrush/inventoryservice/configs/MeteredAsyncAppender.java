@@ -0,0 +1,41 @@
+package com.trentonrush.inventoryservice.configs;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+
+import static com.trentonrush.inventoryservice.utils.InventoryConstants.LOGS_DROPPED_COUNTER;
+
+/**
+ * Async appender that counts the events it drops.
+ * With neverBlock the appender discards TRACE to INFO events once the queue passes the discarding threshold and
+ * any event once the queue is full, rather than stalling the request thread. Configured in logback-spring.xml.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-29
+ */
+public class MeteredAsyncAppender extends AsyncAppender {
+
+    // logback starts before the application context, so the counter lives on the global registry Boot binds later
+    private final Counter dropped = Metrics.counter(LOGS_DROPPED_COUNTER);
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (isStarted() && willDrop(event)) {
+            dropped.increment();
+        }
+        super.append(event);
+    }
+
+    /**
+     * Mirrors the checks in AsyncAppenderBase, racing with the worker only makes the count approximate
+     */
+    private boolean willDrop(ILoggingEvent event) {
+        int remaining = getRemainingCapacity();
+        if (remaining < getDiscardingThreshold() && isDiscardable(event)) {
+            return true;
+        }
+        return isNeverBlock() && remaining == 0;
+    }
+}
@@ -0,0 +1,29 @@
+package com.trentonrush.inventoryservice.configs;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Function;
+
+/**
+ * Metrics Config
+ * Enables @Timed on services and the in-memory repositories. Requests and Mongo repository calls are timed by actuator,
+ * histograms and the Prometheus endpoint are configured under management.metrics.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        // Tag by the class of the bean rather than the class declaring the method, so inherited methods stay apart
+        Function<ProceedingJoinPoint, Iterable<Tag>> tags = joinPoint -> Tags.of(
+                "class", joinPoint.getTarget().getClass().getSimpleName(),
+                "method", joinPoint.getStaticPart().getSignature().getName());
+        return new TimedAspect(meterRegistry, tags);
+    }
+}
@@ -0,0 +1,27 @@
+package com.trentonrush.inventoryservice.configs;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mongo Config
+ * Sizes the driver's connection pool, which bounds how many requests can talk to the database at once.
+ * The defaults match the driver's own, the virtual profile raises them.
+ */
+@Configuration
+public class MongoConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer connectionPoolCustomizer(
+            @Value("${inventory.mongo.max-pool-size:100}") int maxPoolSize,
+            @Value("${inventory.mongo.max-wait:PT2M}") Duration maxWait) {
+        return settings -> settings.applyToConnectionPoolSettings(pool -> pool
+                .maxSize(maxPoolSize)
+                .maxWaitTime(maxWait.toMillis(), TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,57 @@
+package com.trentonrush.inventoryservice.configs;
+
+import com.trentonrush.inventoryservice.models.RenditionJob;
+import com.trentonrush.inventoryservice.models.SampleSlab;
+import com.trentonrush.inventoryservice.models.Slab;
+import com.trentonrush.inventoryservice.models.SlabPrice;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+
+import java.util.List;
+
+/**
+ * Mongo Index Config
+ * Ensures the indexes declared on the documents exist at startup so searches and availability checks never fall back
+ * to a collection scan.
+ */
+@Profile("!inmemory")
+@Configuration
+public class MongoIndexConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexConfig.class);
+
+    private static final List<Class<?>> INDEXED_DOCUMENTS = List.of(Slab.class, SampleSlab.class, SlabPrice.class, RenditionJob.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoIndexConfig(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+
+        for (Class<?> document : INDEXED_DOCUMENTS) {
+            IndexOperations indexOps = mongoTemplate.indexOps(document);
+            resolver.resolveIndexFor(document).forEach(index -> {
+                try {
+                    indexOps.ensureIndex(index);
+                } catch (DataAccessException e) {
+                    // Don't stop the service from starting, e.g. a unique index over existing duplicates
+                    logger.error("Failed to ensure index {} for {}", index.getIndexKeys(), document.getSimpleName(), e);
+                }
+            });
+            logger.info("Indexes ensured for collection: {}", mongoTemplate.getCollectionName(document));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.trentonrush.inventoryservice.configs;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+
+/**
+ * Security Config for the reactive web stack, mirrors {@link SecurityConfig}
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableWebFluxSecurity
+@Configuration
+public class ReactiveSecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain webFilterChain(ServerHttpSecurity http) {
+        return http
+                .authorizeExchange(authorize -> authorize
+                        // Authorization rules for slabs
+                        .pathMatchers(HttpMethod.POST, "/v1/slabs").hasAuthority("SCOPE_add:slabs")
+                        .pathMatchers(HttpMethod.PUT, "/v1/slabs/**").hasAuthority("SCOPE_update:slabs")
+                        .pathMatchers(HttpMethod.PATCH, "/v1/slabs/**").hasAuthority("SCOPE_update:slabs")
+                        .pathMatchers(HttpMethod.DELETE, "/v1/slabs/**").hasAuthority("SCOPE_delete:slabs")
+
+                        // Authorization rules for prices
+                        .pathMatchers(HttpMethod.POST, "/v1/prices").hasAuthority("SCOPE_add:prices")
+                        .pathMatchers(HttpMethod.PUT, "/v1/prices/**").hasAuthority("SCOPE_update:prices")
+                        .pathMatchers(HttpMethod.PATCH, "/v1/prices/**").hasAuthority("SCOPE_update:prices")
+                        .pathMatchers(HttpMethod.DELETE, "/v1/prices/**").hasAuthority("SCOPE_delete:prices")
+
+                        // Authorization rules for samples
+                        .pathMatchers(HttpMethod.POST, "/v1/samples").hasAuthority("SCOPE_add:samples")
+                        .pathMatchers(HttpMethod.PUT, "/v1/samples/**").hasAuthority("SCOPE_update:samples")
+                        .pathMatchers(HttpMethod.PATCH, "/v1/samples/**").hasAuthority("SCOPE_update:samples")
+                        .pathMatchers(HttpMethod.DELETE, "/v1/samples/**").hasAuthority("SCOPE_delete:samples")
+
+                        // Authorized GET requests
+                        .pathMatchers(HttpMethod.GET, "/v1/**").authenticated()
+
+                        // All other requests require authentication
+                        .anyExchange().authenticated()
+                )
+                .oauth2ResourceServer(oauth2 -> oauth2
+                        .jwt(jwtSpec -> {})
+                ).build();
+    }
+}
@@ -0,0 +1,54 @@
+package com.trentonrush.inventoryservice.configs;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.config.CorsRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+import static com.trentonrush.inventoryservice.utils.InventoryConstants.*;
+
+/**
+ * Web Config for the reactive web stack, mirrors {@link WebConfig}
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Configuration
+public class ReactiveWebConfig implements WebFluxConfigurer {
+
+    @Value("${spring.data.origins}")
+    private String allowedOrigins;
+
+    @Override
+    public void addCorsMappings(CorsRegistry corsRegistry) {
+        corsRegistry.addMapping("/**")
+                .allowedOrigins(allowedOrigins)
+                .allowedHeaders(
+                        HttpHeaders.ACCEPT,
+                        HttpHeaders.ACCEPT_ENCODING,
+                        HttpHeaders.ACCEPT_LANGUAGE,
+                        HttpHeaders.AUTHORIZATION,
+                        HttpHeaders.CONTENT_TYPE,
+                        HttpHeaders.IF_MATCH,
+                        HttpHeaders.IF_MODIFIED_SINCE,
+                        HttpHeaders.IF_NONE_MATCH,
+                        HttpHeaders.ORIGIN,
+                        HttpHeaders.REFERER,
+                        HttpHeaders.USER_AGENT)
+                .allowedMethods(
+                        HttpMethod.POST.name(),
+                        HttpMethod.GET.name(),
+                        HttpMethod.PUT.name(),
+                        HttpMethod.DELETE.name(),
+                        HttpMethod.PATCH.name())
+                .exposedHeaders(
+                        HttpHeaders.AUTHORIZATION,
+                        HttpHeaders.ETAG,
+                        HttpHeaders.LAST_MODIFIED,
+                        NEXT_CURSOR_HEADER
+                )
+                .allowCredentials(true)
+                .maxAge(3600);
+    }
+}
@@ -0,0 +1,25 @@
+package com.trentonrush.inventoryservice.configs;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendition Config
+ * Renditions are decoded and scaled on a small pool of their own, so a burst of uploads can't take CPU or heap from
+ * requests. The queue of waiting jobs is kept in the database, a worker only claims a job when a thread is idle.
+ */
+@Configuration
+public class RenditionConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor renditionPool(@Value("${inventory.renditions.workers:2}") int workers) {
+        return new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                new CustomizableThreadFactory("rendition-"));
+    }
+}
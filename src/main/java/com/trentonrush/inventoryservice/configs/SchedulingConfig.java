@@ -0,0 +1,12 @@
+package com.trentonrush.inventoryservice.configs;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling Config
+ */
+@EnableScheduling
+@Configuration
+public class SchedulingConfig {
+}
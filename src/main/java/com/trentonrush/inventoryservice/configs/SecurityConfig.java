@@ -1,15 +1,20 @@
 package com.trentonrush.inventoryservice.configs;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authorization.AuthorizationManagers;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.web.SecurityFilterChain;
 
+import static org.springframework.security.authorization.AuthorityAuthorizationManager.hasAuthority;
+
 /**
  * Security Config
  */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @EnableWebSecurity
 @Configuration
 public class SecurityConfig {
@@ -20,12 +25,17 @@ public class SecurityConfig {
                 .authorizeHttpRequests(authorize -> authorize
                         // Authorization rules for slabs
                         .requestMatchers(HttpMethod.POST, "/v1/slabs").hasAuthority("SCOPE_add:slabs")
+                        .requestMatchers(HttpMethod.POST, "/v1/slabs/batch").access(AuthorizationManagers.allOf(
+                                hasAuthority("SCOPE_add:slabs"),
+                                hasAuthority("SCOPE_update:slabs"),
+                                hasAuthority("SCOPE_delete:slabs")))
                         .requestMatchers(HttpMethod.PUT, "/v1/slabs/**").hasAuthority("SCOPE_update:slabs")
                         .requestMatchers(HttpMethod.PATCH, "/v1/slabs/**").hasAuthority("SCOPE_update:slabs")
                         .requestMatchers(HttpMethod.DELETE, "/v1/slabs/**").hasAuthority("SCOPE_delete:slabs")
 
                         // Authorization rules for prices
                         .requestMatchers(HttpMethod.POST, "/v1/prices").hasAuthority("SCOPE_add:prices")
+                        .requestMatchers(HttpMethod.POST, "/v1/prices/reprice").hasAuthority("SCOPE_update:prices")
                         .requestMatchers(HttpMethod.PUT, "/v1/prices/**").hasAuthority("SCOPE_update:prices")
                         .requestMatchers(HttpMethod.PATCH, "/v1/prices/**").hasAuthority("SCOPE_update:prices")
                         .requestMatchers(HttpMethod.DELETE, "/v1/prices/**").hasAuthority("SCOPE_delete:prices")
@@ -36,6 +46,14 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.PATCH, "/v1/samples/**").hasAuthority("SCOPE_update:samples")
                         .requestMatchers(HttpMethod.DELETE, "/v1/samples/**").hasAuthority("SCOPE_delete:samples")
 
+                        // Authorization rules for images, uploaded by anyone who can set the image of a slab or sample
+                        .requestMatchers(HttpMethod.POST, "/v1/images").hasAnyAuthority(
+                                "SCOPE_add:slabs", "SCOPE_update:slabs", "SCOPE_add:samples", "SCOPE_update:samples")
+
+                        // Images are named by their content hash and can't be guessed, so they are public like the
+                        // Cache-Control they are served with, and can be shown with a plain <img> tag
+                        .requestMatchers(HttpMethod.GET, "/v1/images/**").permitAll()
+
                         // Authorized GET requests
                         .requestMatchers(HttpMethod.GET, "/v1/**").authenticated()
 
@@ -1,15 +1,19 @@
 package com.trentonrush.inventoryservice.configs;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import static com.trentonrush.inventoryservice.utils.InventoryConstants.*;
+
 /**
  * Web Config
  */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
@@ -26,6 +30,9 @@ public class WebConfig implements WebMvcConfigurer {
                         HttpHeaders.ACCEPT_LANGUAGE,
                         HttpHeaders.AUTHORIZATION,
                         HttpHeaders.CONTENT_TYPE,
+                        HttpHeaders.IF_MATCH,
+                        HttpHeaders.IF_MODIFIED_SINCE,
+                        HttpHeaders.IF_NONE_MATCH,
                         HttpHeaders.ORIGIN,
                         HttpHeaders.REFERER,
                         HttpHeaders.USER_AGENT)
@@ -36,7 +43,10 @@ public class WebConfig implements WebMvcConfigurer {
                         HttpMethod.DELETE.name(),
                         HttpMethod.PATCH.name())
                 .exposedHeaders(
-                        HttpHeaders.AUTHORIZATION
+                        HttpHeaders.AUTHORIZATION,
+                        HttpHeaders.ETAG,
+                        HttpHeaders.LAST_MODIFIED,
+                        NEXT_CURSOR_HEADER
                 )
                 .allowCredentials(true)
                 .maxAge(3600);
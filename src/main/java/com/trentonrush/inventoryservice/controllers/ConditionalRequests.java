@@ -0,0 +1,141 @@
+package com.trentonrush.inventoryservice.controllers;
+
+import com.trentonrush.inventoryservice.exceptions.InvalidInputException;
+import com.trentonrush.inventoryservice.exceptions.PreconditionFailedException;
+import com.trentonrush.inventoryservice.models.dtos.CollectionWatermark;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Conditional request support for the controllers.
+ * Validators are built from versions and modification dates that are read without the rest of the document, so a poll
+ * for an unchanged resource is answered with a 304 before the full documents are read or serialized. A request without
+ * validators skips that read, and a document that is returned sends its own. The same version sent back in If-Match
+ * makes a write conditional, it is checked by the write itself.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-30
+ */
+final class ConditionalRequests {
+
+    // Clients may keep a copy but must revalidate it on every use
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private ConditionalRequests() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Check If-None-Match and If-Modified-Since against one document, setting its ETag and Last-Modified headers
+     * @param request the current request
+     * @param version the version of the document
+     * @param modificationDate when the document was last modified (optional)
+     * @return true if the client's copy is current, the response is then a 304 and the handler should return null
+     */
+    static boolean notModified(ServletWebRequest request, Long version, Instant modificationDate) {
+        cacheControl(request);
+        if (Objects.isNull(modificationDate)) {
+            return request.checkNotModified(eTag(version));
+        }
+        return request.checkNotModified(eTag(version), modificationDate.toEpochMilli());
+    }
+
+    /**
+     * Whether the request carries a validator, otherwise checking for a 304 can't save reading the document
+     * @param request the current request
+     * @return true if If-None-Match or If-Modified-Since is present
+     */
+    static boolean isConditional(ServletWebRequest request) {
+        return Objects.nonNull(request.getHeader(HttpHeaders.IF_NONE_MATCH))
+                || Objects.nonNull(request.getHeader(HttpHeaders.IF_MODIFIED_SINCE));
+    }
+
+    /**
+     * Set the ETag and Last-Modified headers of the document being returned, replacing those of an earlier read of
+     * its version since the document may have changed in between
+     * @param request the current request
+     * @param version the version of the document
+     * @param modificationDate when the document was last modified (optional)
+     */
+    static void validators(ServletWebRequest request, Long version, Instant modificationDate) {
+        cacheControl(request);
+        HttpServletResponse response = request.getResponse();
+        if (Objects.isNull(response)) {
+            return;
+        }
+        response.setHeader(HttpHeaders.ETAG, eTag(version));
+        if (Objects.nonNull(modificationDate)) {
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, modificationDate.toEpochMilli());
+        }
+    }
+
+    /**
+     * Check If-None-Match against a collection watermark, setting the ETag header.
+     * No Last-Modified is sent since a delete changes the collection without moving its newest modification date.
+     * @param request the current request
+     * @param watermark the watermark of the collection being searched
+     * @return true if the client's copy is current, the response is then a 304 and the handler should return null
+     */
+    static boolean notModified(ServletWebRequest request, CollectionWatermark watermark) {
+        cacheControl(request);
+        long lastModified = Objects.isNull(watermark.getLastModified()) ? 0 : watermark.getLastModified().toEpochMilli();
+        return request.checkNotModified(weak(watermark.getCount() + "-" + Long.toString(lastModified, Character.MAX_RADIX)));
+    }
+
+    /**
+     * The ETag of a document, its version. Documents written before versions were stored are at version 0.
+     */
+    static String eTag(Long version) {
+        return weak(Long.toString(Objects.isNull(version) ? 0 : version));
+    }
+
+    /**
+     * Read the version a write is conditional on from If-Match.
+     * Weak ETags are accepted even though If-Match calls for a strong comparison, the version is the same whichever
+     * encoding the client was sent.
+     * @param ifMatch the If-Match header (optional)
+     * @return the version the document must still be at, or null if the write is unconditional
+     */
+    static Long ifMatch(String ifMatch) {
+        if (Objects.isNull(ifMatch) || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.contains(",")) {
+            throw new InvalidInputException("If-Match must contain a single ETag");
+        }
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new InvalidInputException("If-Match is not a valid ETag");
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            // A well formed tag that was never one of ours can't match the current version
+            throw new PreconditionFailedException("If-Match does not match the current version");
+        }
+    }
+
+    /**
+     * ETags are weak since the gzip and identity encodings of a body differ byte for byte,
+     * Tomcat also refuses to compress a response with a strong ETag
+     */
+    private static String weak(String tag) {
+        return "W/\"" + tag + "\"";
+    }
+
+    private static void cacheControl(ServletWebRequest request) {
+        HttpServletResponse response = request.getResponse();
+        if (Objects.nonNull(response)) {
+            // Set before Spring Security's headers, which would otherwise send no-store
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        }
+    }
+}
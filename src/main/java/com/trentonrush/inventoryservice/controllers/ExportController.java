@@ -0,0 +1,81 @@
+package com.trentonrush.inventoryservice.controllers;
+
+import com.trentonrush.inventoryservice.services.ExportService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Controller for exporting the full inventory.
+ * Provides endpoints that stream every slab, sample, and price as newline delimited JSON.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-12
+ * @see ExportService
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RestController
+@RequestMapping("/v1/export")
+public class ExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    /**
+     * Stream every slab in the database.
+     * @param gzip whether the response should be gzip compressed (optional)
+     * @return ResponseEntity streaming the slabs as NDJSON
+     */
+    @GetMapping("/slabs")
+    public ResponseEntity<StreamingResponseBody> exportSlabs(@RequestParam(defaultValue = "false") boolean gzip) {
+        return stream(gzip, exportService::exportSlabs);
+    }
+
+    /**
+     * Stream every sample in the database.
+     * @param gzip whether the response should be gzip compressed (optional)
+     * @return ResponseEntity streaming the samples as NDJSON
+     */
+    @GetMapping("/samples")
+    public ResponseEntity<StreamingResponseBody> exportSamples(@RequestParam(defaultValue = "false") boolean gzip) {
+        return stream(gzip, exportService::exportSamples);
+    }
+
+    /**
+     * Stream every price in the database.
+     * @param gzip whether the response should be gzip compressed (optional)
+     * @return ResponseEntity streaming the prices as NDJSON
+     */
+    @GetMapping("/prices")
+    public ResponseEntity<StreamingResponseBody> exportPrices(@RequestParam(defaultValue = "false") boolean gzip) {
+        return stream(gzip, exportService::exportPrices);
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(boolean gzip, StreamingResponseBody export) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(NDJSON);
+        if (!gzip) {
+            return response.body(export);
+        }
+        return response
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(out -> {
+                    GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192);
+                    export.writeTo(gzipOut);
+                    // finish the gzip trailer without closing the response stream
+                    gzipOut.finish();
+                });
+    }
+}
@@ -0,0 +1,175 @@
+package com.trentonrush.inventoryservice.controllers;
+
+import com.trentonrush.inventoryservice.models.dtos.ImageInfo;
+import com.trentonrush.inventoryservice.models.enums.ImageType;
+import com.trentonrush.inventoryservice.models.enums.Rendition;
+import com.trentonrush.inventoryservice.services.ImageService;
+import com.trentonrush.inventoryservice.services.RenditionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Controller for slab images.
+ * Provides endpoints to upload an image and to download it, whole or by byte range. An image never changes once
+ * stored, so downloads can be cached by clients and shared caches for as long as they like. Downloads don't need a
+ * token, see the security config.
+ *
+ * @author Trenton Rush
+ * @since 2024-09-01
+ * @see ImageService
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RestController
+@RequestMapping("/v1/images")
+public class ImageController {
+
+    private static final String CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable().getHeaderValue();
+
+    // Tomcat writes a file named in these request attributes with sendfile once the handler returns,
+    // so the image goes from the page cache to the socket without being copied through the heap
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ImageService imageService;
+    private final RenditionService renditionService;
+
+    public ImageController(ImageService imageService, RenditionService renditionService) {
+        this.imageService = imageService;
+        this.renditionService = renditionService;
+    }
+
+    /**
+     * Upload an image, the request body is the raw image and is streamed to the image store.
+     * Uploading an image that is already stored returns the existing reference.
+     * @param content the request body
+     * @return ResponseEntity containing the image reference to set on slabs and samples
+     */
+    @PostMapping
+    public ResponseEntity<ImageInfo> upload(InputStream content) {
+        ImageInfo image = imageService.storeImage(content);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{image}")
+                .buildAndExpand(image.getImage())
+                .toUri();
+        return ResponseEntity.created(location).body(image);
+    }
+
+    /**
+     * Download an image. A single byte range is answered with a 206, the image's hash is its ETag.
+     * @param image the image reference returned by the upload
+     * @return ResponseEntity containing the image, or null when the response was already written
+     */
+    @GetMapping("/{image}")
+    public ResponseEntity<Resource> download(@PathVariable String image, ServletWebRequest request,
+                                             HttpServletResponse response) throws IOException {
+        ImageType type = imageService.getImageType(image);
+        Resource resource = imageService.getImage(image);
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        if (request.checkNotModified(image.substring(0, image.indexOf('.')))) {
+            return null;
+        }
+        MediaType contentType = MediaType.parseMediaType(type.getContentType());
+        if (resource.isFile() && sendfile(request.getRequest(), response, resource.getFile().toPath(), contentType)) {
+            return null;
+        }
+        // Spring answers ranges itself by skipping into the image's stream
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .body(resource);
+    }
+
+    /**
+     * Download a rendition of an image. Until the rendition is ready the client is redirected to the full image, and
+     * the image is queued again in case its job was lost.
+     * @param image the image reference returned by the upload
+     * @param rendition the name of the rendition, thumbnail or preview
+     * @return ResponseEntity containing the rendition or a redirect, or null when the response was already written
+     */
+    @GetMapping("/{image}/{rendition}")
+    public ResponseEntity<Resource> downloadRendition(@PathVariable String image, @PathVariable String rendition,
+                                                      ServletWebRequest request, HttpServletResponse response) throws IOException {
+        imageService.getImageType(image);
+        Optional<String> rendered = renditionService.findRendition(image, Rendition.fromString(rendition));
+        if (rendered.isPresent()) {
+            return download(rendered.get(), request, response);
+        }
+
+        imageService.getImage(image);
+        renditionService.enqueue(image);
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/v1/images/{image}")
+                .buildAndExpand(image)
+                .toUri();
+        return ResponseEntity.status(HttpStatus.FOUND)
+                .location(location)
+                .cacheControl(CacheControl.noCache())
+                .build();
+    }
+
+    /**
+     * Hand a file to the container to write with sendfile
+     * @return true if the response is complete, false if the container can't use sendfile or the request has more than
+     * one range, which are left to Spring
+     */
+    private static boolean sendfile(HttpServletRequest request, HttpServletResponse response, Path file,
+                                    MediaType contentType) throws IOException {
+        if (!Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            return false;
+        }
+        long length = file.toFile().length();
+        long start = 0;
+        long end = length;
+
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (Objects.nonNull(range)) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(range);
+                if (ranges.size() != 1) {
+                    return false;
+                }
+                start = ranges.get(0).getRangeStart(length);
+                end = ranges.get(0).getRangeEnd(length) + 1;
+            } catch (IllegalArgumentException e) {
+                // Malformed, Spring answers with a 416
+                return false;
+            }
+            if (start >= end) {
+                // Starts past the end of the image, Spring answers with a 416
+                return false;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + length);
+        }
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentType(contentType.toString());
+        response.setContentLengthLong(end - start);
+        request.setAttribute(SENDFILE_FILENAME, file.toRealPath().toString());
+        request.setAttribute(SENDFILE_START, start);
+        request.setAttribute(SENDFILE_END, end);
+        return true;
+    }
+}
@@ -0,0 +1,42 @@
+package com.trentonrush.inventoryservice.controllers;
+
+import com.trentonrush.inventoryservice.models.dtos.CutLayout;
+import com.trentonrush.inventoryservice.models.dtos.LayoutRequest;
+import com.trentonrush.inventoryservice.services.LayoutService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller for planning cut layouts.
+ * Provides an endpoint that packs the pieces of a job onto available slabs.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-24
+ * @see LayoutService
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RestController
+@RequestMapping("/v1/slabs/layouts")
+public class LayoutController {
+
+    private final LayoutService layoutService;
+
+    public LayoutController(LayoutService layoutService) {
+        this.layoutService = layoutService;
+    }
+
+    /**
+     * Plan how to cut the pieces of a job from available slabs of one type and color.
+     * The slab ids in the layout can be passed straight to a multi slab reservation.
+     * @param layoutRequest the type and color of the slabs and the pieces to cut
+     * @return ResponseEntity containing the layout of each slab used
+     */
+    @PostMapping
+    public ResponseEntity<CutLayout> planLayout(@RequestBody LayoutRequest layoutRequest) {
+        return ResponseEntity.ok(layoutService.planLayout(layoutRequest));
+    }
+}
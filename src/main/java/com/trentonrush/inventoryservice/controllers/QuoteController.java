@@ -0,0 +1,41 @@
+package com.trentonrush.inventoryservice.controllers;
+
+import com.trentonrush.inventoryservice.models.dtos.Quote;
+import com.trentonrush.inventoryservice.models.dtos.QuoteRequest;
+import com.trentonrush.inventoryservice.services.QuoteService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller for quoting slabs.
+ * Provides an endpoint returning the area and total price of many slabs in one request.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-21
+ * @see QuoteService
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RestController
+@RequestMapping("/v1/quotes")
+public class QuoteController {
+
+    private final QuoteService quoteService;
+
+    public QuoteController(QuoteService quoteService) {
+        this.quoteService = quoteService;
+    }
+
+    /**
+     * Quote the area and total price of many slabs.
+     * @param quoteRequest the ids of the slabs to quote, or a filter matching them
+     * @return ResponseEntity containing the quote for each slab and the totals per currency
+     */
+    @PostMapping
+    public ResponseEntity<Quote> quote(@RequestBody QuoteRequest quoteRequest) {
+        return ResponseEntity.ok(quoteService.quote(quoteRequest));
+    }
+}
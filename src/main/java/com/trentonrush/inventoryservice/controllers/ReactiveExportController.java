@@ -0,0 +1,66 @@
+package com.trentonrush.inventoryservice.controllers;
+
+import com.trentonrush.inventoryservice.models.SampleSlab;
+import com.trentonrush.inventoryservice.models.Slab;
+import com.trentonrush.inventoryservice.models.SlabPrice;
+import com.trentonrush.inventoryservice.services.ReactiveSampleSlabService;
+import com.trentonrush.inventoryservice.services.ReactiveSlabPriceService;
+import com.trentonrush.inventoryservice.services.ReactiveSlabService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+/**
+ * Reactive controller for exporting the full inventory as newline delimited JSON.
+ * Documents are streamed straight from the database cursor, so reads only go as fast as the client consumes them.
+ * Compression is left to server.compression rather than a gzip parameter.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-25
+ * @see ExportController
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RestController
+@RequestMapping("/v1/export")
+public class ReactiveExportController {
+
+    private final ReactiveSlabService slabService;
+    private final ReactiveSampleSlabService sampleSlabService;
+    private final ReactiveSlabPriceService slabPriceService;
+
+    public ReactiveExportController(ReactiveSlabService slabService, ReactiveSampleSlabService sampleSlabService, ReactiveSlabPriceService slabPriceService) {
+        this.slabService = slabService;
+        this.sampleSlabService = sampleSlabService;
+        this.slabPriceService = slabPriceService;
+    }
+
+    /**
+     * Stream every slab in the database.
+     * @return the slabs as NDJSON
+     */
+    @GetMapping(value = "/slabs", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Slab> exportSlabs() {
+        return slabService.exportSlabs();
+    }
+
+    /**
+     * Stream every sample in the database.
+     * @return the samples as NDJSON
+     */
+    @GetMapping(value = "/samples", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<SampleSlab> exportSamples() {
+        return sampleSlabService.exportSamples();
+    }
+
+    /**
+     * Stream every price in the database.
+     * @return the prices as NDJSON
+     */
+    @GetMapping(value = "/prices", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<SlabPrice> exportPrices() {
+        return slabPriceService.exportPrices();
+    }
+}
@@ -0,0 +1,160 @@
+package com.trentonrush.inventoryservice.controllers;
+
+import com.trentonrush.inventoryservice.models.SampleSlab;
+import com.trentonrush.inventoryservice.models.dtos.SampleFilter;
+import com.trentonrush.inventoryservice.models.dtos.SlabDTO;
+import com.trentonrush.inventoryservice.services.ReactiveSampleSlabService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static com.trentonrush.inventoryservice.utils.InventoryConstants.*;
+
+/**
+ * Reactive controller for managing sample-related operations.
+ * Serves the same paths as {@link SampleSlabController} when the service runs on the reactive web stack.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-25
+ * @see ReactiveSampleSlabService
+ * @see SampleSlabController
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RestController
+@RequestMapping("/v1/samples")
+public class ReactiveSampleSlabController {
+
+    private final ReactiveSampleSlabService sampleSlabService;
+
+    public ReactiveSampleSlabController(ReactiveSampleSlabService sampleSlabService) {
+        this.sampleSlabService = sampleSlabService;
+    }
+
+    /**
+     * Add a new sample to the database.
+     * @param slabDTO the details of the sample to be added
+     * @return the added sample
+     */
+    @PostMapping
+    public Mono<SampleSlab> add(@RequestBody SlabDTO slabDTO) {
+        return sampleSlabService.addSample(slabDTO);
+    }
+
+    /**
+     * Update existing samples in the database.
+     * @param id the id of the samples to be updated
+     * @param slabDTO the new details of the samples
+     * @return the updated samples
+     */
+    @PutMapping("/{id}")
+    public Mono<SampleSlab> update(@PathVariable String id, @RequestBody SlabDTO slabDTO) {
+        return sampleSlabService.updateSample(id, slabDTO);
+    }
+
+    /**
+     * Delete a sample from the database.
+     * @param id the id of the sample to be deleted
+     * @return ResponseEntity with no content
+     */
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable String id) {
+        return sampleSlabService.deleteSample(id).then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    /**
+     * Retrieve a sample by its id.
+     * @param id the id of the sample to be retrieved
+     * @return the sample
+     */
+    @GetMapping("/{id}")
+    public Mono<SampleSlab> get(@PathVariable String id) {
+        return sampleSlabService.getSample(id);
+    }
+
+    /**
+     * Search for samples, see {@link SampleSlabController#searchSlab(String, String, String, Boolean, String, Integer, String, org.springframework.web.context.request.ServletWebRequest)}.
+     * A page is collected before responding since the X-Next-Cursor header has to be sent ahead of the body.
+     * @param type the type of the samples (optional)
+     * @param color the color of the samples (optional)
+     * @param supplier the supplier of the samples (optional)
+     * @param onlyAvailable the boolean value to check for available samples only (optional)
+     * @param cursor the cursor returned with the previous page (optional)
+     * @param limit the maximum number of samples to return (optional)
+     * @return ResponseEntity containing the list of samples
+     */
+    @GetMapping("/search")
+    public Mono<ResponseEntity<List<SampleSlab>>> searchSlab(@RequestParam(required = false) String type,
+                                                            @RequestParam(required = false) String color,
+                                                            @RequestParam(required = false) String supplier,
+                                                            @RequestParam(name = "only_available", defaultValue = "false") Boolean onlyAvailable,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer limit) {
+        SampleFilter filter = new SampleFilter(type, color, onlyAvailable);
+        filter.setSupplier(supplier);
+
+        return sampleSlabService.listSamples(filter, cursor, limit).map(page -> {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.hasNext()) {
+                response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        });
+    }
+
+    /**
+     * Increment the quantity of a sample by one.
+     * @param id the id of the sample
+     * @return ResponseEntity with no content
+     */
+    @PatchMapping("/{id}/increment-quantity")
+    public Mono<ResponseEntity<Void>> incrementQuantity(@PathVariable String id) {
+        return sampleSlabService.adjustQuantity(id, 1).then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    /**
+     * Decrement the quantity of a sample by one.
+     * @param id the id of the sample
+     * @return ResponseEntity with no content
+     */
+    @PatchMapping("/{id}/decrement-quantity")
+    public Mono<ResponseEntity<Void>> decrementQuantity(@PathVariable String id) {
+        return sampleSlabService.adjustQuantity(id, -1).then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    /**
+     * Adjust the quantity of a sample by any amount in a single write.
+     * @param id the id of the sample
+     * @param delta the amount to add to the quantity (negative to remove)
+     * @return the sample with its new quantity
+     */
+    @PatchMapping("/{id}/quantity")
+    public Mono<SampleSlab> adjustQuantity(@PathVariable String id, @RequestParam int delta) {
+        return sampleSlabService.adjustQuantity(id, delta);
+    }
+
+    /**
+     * Check availability of samples based on type and color.
+     * @param type the type of sample
+     * @param color the color of sample
+     * @return a boolean indicating availability
+     */
+    @GetMapping("/check")
+    public Mono<Boolean> checkAvailability(@RequestParam(required = false) String type, @RequestParam(required = false) String color) {
+        return sampleSlabService.checkAvailability(type, color);
+    }
+
+    /**
+     * Count the total quantity of available samples, optionally narrowed by type and color.
+     * @param type the type of samples (optional)
+     * @param color the color of samples (optional)
+     * @return the count
+     */
+    @GetMapping("/count")
+    public Mono<Long> count(@RequestParam(required = false) String type,
+                            @RequestParam(required = false) String color) {
+        return sampleSlabService.countSamples(type, color);
+    }
+}
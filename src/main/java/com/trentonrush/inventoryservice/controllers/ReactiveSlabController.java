@@ -0,0 +1,142 @@
+package com.trentonrush.inventoryservice.controllers;
+
+import com.trentonrush.inventoryservice.models.Slab;
+import com.trentonrush.inventoryservice.models.dtos.SlabDTO;
+import com.trentonrush.inventoryservice.models.dtos.SlabFilter;
+import com.trentonrush.inventoryservice.services.ReactiveSlabService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static com.trentonrush.inventoryservice.utils.InventoryConstants.*;
+
+/**
+ * Reactive controller for managing slab-related operations.
+ * Serves the same paths as {@link SlabController} when the service runs on the reactive web stack.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-25
+ * @see ReactiveSlabService
+ * @see SlabController
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RestController
+@RequestMapping("/v1/slabs")
+public class ReactiveSlabController {
+
+    private final ReactiveSlabService slabService;
+
+    public ReactiveSlabController(ReactiveSlabService slabService) {
+        this.slabService = slabService;
+    }
+
+    /**
+     * Add a new slab to the database.
+     * @param slabDTO the details of the slab to be added
+     * @return the added slab
+     */
+    @PostMapping
+    public Mono<Slab> add(@RequestBody SlabDTO slabDTO) {
+        return slabService.addSlab(slabDTO);
+    }
+
+    /**
+     * Update an existing slab in the database.
+     * @param id the id of the slab to be updated
+     * @param slabDTO the new details of the slab
+     * @return the updated slab
+     */
+    @PutMapping("/{id}")
+    public Mono<Slab> update(@PathVariable String id, @RequestBody SlabDTO slabDTO) {
+        return slabService.updateSlab(id, slabDTO);
+    }
+
+    /**
+     * Delete a slab from the database.
+     * @param id the id of the slab to be deleted
+     * @return ResponseEntity with no content
+     */
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable String id) {
+        return slabService.deleteSlab(id).then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    /**
+     * Retrieve a slab by its id.
+     * @param id the id of the slab to be retrieved
+     * @return the slab
+     */
+    @GetMapping("/{id}")
+    public Mono<Slab> get(@PathVariable String id) {
+        return slabService.getSlab(id);
+    }
+
+    /**
+     * Search for slabs, see {@link SlabController#searchSlab(SlabFilter, String, Integer, String, org.springframework.web.context.request.ServletWebRequest)}.
+     * A page is collected before responding since the X-Next-Cursor header has to be sent ahead of the body.
+     * @param filter the filters to search by, each one is optional
+     * @param cursor the cursor returned with the previous page (optional)
+     * @param limit the maximum number of slabs to return (optional)
+     * @return ResponseEntity containing the list of slabs
+     */
+    @GetMapping("/search")
+    public Mono<ResponseEntity<List<Slab>>> searchSlab(SlabFilter filter,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) Integer limit) {
+        return slabService.listSlabs(filter, cursor, limit).map(page -> {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.hasNext()) {
+                response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        });
+    }
+
+    /**
+     * Reserve a slab by updating its status.
+     * @param id the id of the slab to be reserved
+     * @return ResponseEntity with no content
+     */
+    @PatchMapping("/{id}/reserve")
+    public Mono<ResponseEntity<Void>> reserveSlab(@PathVariable String id) {
+        return slabService.reserveSlab(id).then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    /**
+     * Release a reserved slab by updating its status.
+     * @param id the id of the slab to be released
+     * @return ResponseEntity with no content
+     */
+    @PatchMapping("/{id}/release")
+    public Mono<ResponseEntity<Void>> releaseSlab(@PathVariable String id) {
+        return slabService.releaseSlab(id).then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    /**
+     * Check availability of slabs based on type and color.
+     * @param type the type of slabs
+     * @param color the color of slabs
+     * @return a boolean indicating availability
+     */
+    @GetMapping("/check")
+    public Mono<Boolean> checkAvailability(@RequestParam(required = false) String type, @RequestParam(required = false) String color) {
+        return slabService.checkAvailability(type, color);
+    }
+
+    /**
+     * Count the slabs with a status (available by default), optionally narrowed by type and color.
+     * @param type the type of slabs (optional)
+     * @param color the color of slabs (optional)
+     * @param status the status of slabs, defaults to available (optional)
+     * @return the count
+     */
+    @GetMapping("/count")
+    public Mono<Long> count(@RequestParam(required = false) String type,
+                            @RequestParam(required = false) String color,
+                            @RequestParam(required = false) String status) {
+        return slabService.countSlabs(type, color, status);
+    }
+}
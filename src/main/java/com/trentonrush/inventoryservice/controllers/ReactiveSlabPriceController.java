@@ -0,0 +1,82 @@
+package com.trentonrush.inventoryservice.controllers;
+
+import com.trentonrush.inventoryservice.models.SlabPrice;
+import com.trentonrush.inventoryservice.models.dtos.SlabDTO;
+import com.trentonrush.inventoryservice.services.ReactiveSlabPriceService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive controller for managing slab prices.
+ * Serves the same paths as {@link SlabPriceController} when the service runs on the reactive web stack.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-25
+ * @see ReactiveSlabPriceService
+ * @see SlabPriceController
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RestController
+@RequestMapping("/v1/prices")
+public class ReactiveSlabPriceController {
+
+    private final ReactiveSlabPriceService slabPriceService;
+
+    public ReactiveSlabPriceController(ReactiveSlabPriceService slabPriceService) {
+        this.slabPriceService = slabPriceService;
+    }
+
+    /**
+     * Add a new price to the database.
+     * @param slabDTO the details of the price to be added
+     * @return the added price
+     */
+    @PostMapping
+    public Mono<SlabPrice> add(@RequestBody SlabDTO slabDTO) {
+        return slabPriceService.addPrice(slabDTO);
+    }
+
+    /**
+     * Update an existing price in the database.
+     * @param id the id of the price to be updated
+     * @param slabDTO the new details of the price
+     * @return the updated price
+     */
+    @PutMapping("/{id}")
+    public Mono<SlabPrice> update(@PathVariable String id, @RequestBody SlabDTO slabDTO) {
+        return slabPriceService.updatePrice(id, slabDTO);
+    }
+
+    /**
+     * Delete a price from the database.
+     * @param id the id of the price to be deleted
+     * @return ResponseEntity with no content
+     */
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable String id) {
+        return slabPriceService.deletePrice(id).then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    /**
+     * Retrieve a price by its id.
+     * @param id the id of the price to be retrieved
+     * @return the price
+     */
+    @GetMapping("/{id}")
+    public Mono<SlabPrice> get(@PathVariable String id) {
+        return slabPriceService.getPrice(id);
+    }
+
+    /**
+     * Search for price based on slab type, color.
+     * @param type the type of the slabPrice
+     * @param color the color of the slabPrice
+     * @return the slab price
+     */
+    @GetMapping("/search")
+    public Mono<SlabPrice> searchPrice(@RequestParam(required = false) String type, @RequestParam(required = false) String color) {
+        return slabPriceService.searchPrice(type, color);
+    }
+}
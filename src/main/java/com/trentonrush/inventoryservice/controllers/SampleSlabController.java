@@ -1,12 +1,21 @@
 package com.trentonrush.inventoryservice.controllers;
 
 import com.trentonrush.inventoryservice.models.SampleSlab;
+import com.trentonrush.inventoryservice.models.dtos.CursorPage;
+import com.trentonrush.inventoryservice.models.dtos.SampleFilter;
 import com.trentonrush.inventoryservice.models.dtos.SlabDTO;
+import com.trentonrush.inventoryservice.models.dtos.SparseFields;
 import com.trentonrush.inventoryservice.services.SampleSlabService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
-import java.util.List;
+import java.util.Optional;
+
+import static com.trentonrush.inventoryservice.utils.InventoryConstants.*;
 
 /**
  * Controller for managing sample-slab-related operations.
@@ -18,6 +27,7 @@ import java.util.List;
  * @see SampleSlab
  * @see SlabDTO
  */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RestController
 @RequestMapping("/v1/samples")
 public class SampleSlabController {
@@ -40,49 +50,93 @@ public class SampleSlabController {
 
     /**
      * Update existing samples in the database.
+     * With If-Match the sample is only updated if it is still at that version, otherwise the response is a 412.
      * @param id the id of the samples to be updated
      * @param slabDTO the new details of the samples
-     * @return ResponseEntity containing the updated samples
+     * @param ifMatch the ETag of the sample the update is based on (optional)
+     * @return ResponseEntity containing the updated sample and its new ETag
      */
     @PutMapping("/{id}")
-    public ResponseEntity<SampleSlab> update(@PathVariable String id, @RequestBody SlabDTO slabDTO) {
-        return ResponseEntity.ok(sampleSlabService.updateSample(id, slabDTO));
+    public ResponseEntity<SampleSlab> update(@PathVariable String id, @RequestBody SlabDTO slabDTO,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        SampleSlab sampleSlab = sampleSlabService.updateSample(id, slabDTO, ConditionalRequests.ifMatch(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(ConditionalRequests.eTag(sampleSlab.getVersion()))
+                .body(sampleSlab);
     }
 
     /**
      * Delete a sample from the database.
+     * With If-Match the sample is only deleted if it is still at that version, otherwise the response is a 412.
      * @param id the id of the sample to be deleted
+     * @param ifMatch the ETag of the sample the delete is based on (optional)
      * @return ResponseEntity with no content
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable String id) {
-        sampleSlabService.deleteSample(id);
+    public ResponseEntity<Void> delete(@PathVariable String id,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        sampleSlabService.deleteSample(id, ConditionalRequests.ifMatch(ifMatch));
         return ResponseEntity.noContent().build();
     }
 
     /**
      * Retrieve a sample by its id.
+     * Responds 304 Not Modified without reading the sample when If-None-Match or If-Modified-Since is still current,
+     * otherwise it is sent with the ETag and Last-Modified of the sample read, a request without either header reads it once.
      * @param id the id of the sample to be retrieved
-     * @return ResponseEntity containing the sample
+     * @param request the current request, used for its conditional headers
+     * @return ResponseEntity containing the sample, or null when not modified
      */
     @GetMapping("/{id}")
-    public ResponseEntity<SampleSlab> get(@PathVariable String id) {
-        return ResponseEntity.ok(sampleSlabService.getSample(id));
+    public ResponseEntity<SampleSlab> get(@PathVariable String id, ServletWebRequest request) {
+        if (ConditionalRequests.isConditional(request)) {
+            Optional<SampleSlab> version = sampleSlabService.findSampleVersion(id);
+            if (version.isPresent() && ConditionalRequests.notModified(request, version.get().getVersion(), version.get().getModificationDate())) {
+                return null;
+            }
+        }
+        SampleSlab sampleSlab = sampleSlabService.getSample(id);
+        ConditionalRequests.validators(request, sampleSlab.getVersion(), sampleSlab.getModificationDate());
+        return ResponseEntity.ok(sampleSlab);
     }
 
     /**
-     * Search for samples based on type, color, and status.
+     * Search for samples based on type, color, supplier, and availability.
+     * Results are returned one page at a time, the cursor for the next page is sent in the X-Next-Cursor header.
+     * Responds 304 Not Modified without searching when If-None-Match matches the watermark of the sample collection.
      * @param type the type of the samples (optional)
      * @param color the color of the samples (optional)
+     * @param supplier the supplier of the samples (optional)
      * @param onlyAvailable the boolean value to check for available samples only (optional)
-     * @return ResponseEntity containing the list of samples
+     * @param cursor the cursor returned with the previous page (optional)
+     * @param limit the maximum number of samples to return (optional)
+     * @param fields comma separated fields to return, e.g. type,color,quantity,image, the id is always returned (optional)
+     * @param request the current request, used for its conditional headers
+     * @return ResponseEntity containing the list of samples, or null when not modified
      * TODO: Add support for more generic searching by color
      */
     @GetMapping("/search")
-    public ResponseEntity<List<SampleSlab>> searchSlab(@RequestParam(required = false) String type,
-                                                 @RequestParam(required = false) String color,
-                                                 @RequestParam(name = "only_available", defaultValue = "false") Boolean onlyAvailable) {
-        return ResponseEntity.ok(sampleSlabService.listSamples(type, color, onlyAvailable));
+    public ResponseEntity<MappingJacksonValue> searchSlab(@RequestParam(required = false) String type,
+                                                          @RequestParam(required = false) String color,
+                                                          @RequestParam(required = false) String supplier,
+                                                          @RequestParam(name = "only_available", defaultValue = "false") Boolean onlyAvailable,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(required = false) Integer limit,
+                                                          @RequestParam(required = false) String fields,
+                                                          ServletWebRequest request) {
+        SparseFields sparseFields = SparseFields.forSamples(fields);
+        if (ConditionalRequests.notModified(request, sampleSlabService.getSamplesWatermark())) {
+            return null;
+        }
+        SampleFilter filter = new SampleFilter(type, color, onlyAvailable);
+        filter.setSupplier(supplier);
+
+        CursorPage<SampleSlab> page = sampleSlabService.listSamples(filter, cursor, limit, sparseFields);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(SparseResponses.body(page.getItems(), sparseFields));
     }
 
     /**
@@ -97,7 +151,7 @@ public class SampleSlabController {
     }
 
     /**
-     * Increment the quantity of a sample by one.
+     * Decrement the quantity of a sample by one.
      * @param id the id of the sample
      * @return ResponseEntity with no content
      */
@@ -107,6 +161,17 @@ public class SampleSlabController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Adjust the quantity of a sample by any amount in a single write.
+     * @param id the id of the sample
+     * @param delta the amount to add to the quantity (negative to remove)
+     * @return ResponseEntity containing the sample with its new quantity
+     */
+    @PatchMapping("/{id}/quantity")
+    public ResponseEntity<SampleSlab> adjustQuantity(@PathVariable String id, @RequestParam int delta) {
+        return ResponseEntity.ok(sampleSlabService.adjustQuantity(id, delta));
+    }
+
     /**
      * Check availability of samples based on type and color.
      * @param type the type of sample
@@ -117,4 +182,16 @@ public class SampleSlabController {
     public ResponseEntity<Boolean> checkAvailability(@RequestParam(required = false) String type, @RequestParam(required = false) String color) {
         return ResponseEntity.ok(sampleSlabService.checkAvailability(type, color));
     }
+
+    /**
+     * Count the total quantity of available samples, optionally narrowed by type and color.
+     * @param type the type of samples (optional)
+     * @param color the color of samples (optional)
+     * @return ResponseEntity with the count
+     */
+    @GetMapping("/count")
+    public ResponseEntity<Long> count(@RequestParam(required = false) String type,
+                                      @RequestParam(required = false) String color) {
+        return ResponseEntity.ok(sampleSlabService.countSamples(type, color));
+    }
 }
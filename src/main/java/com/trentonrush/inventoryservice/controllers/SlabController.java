@@ -1,16 +1,30 @@
 package com.trentonrush.inventoryservice.controllers;
 
 import com.trentonrush.inventoryservice.models.Slab;
+import com.trentonrush.inventoryservice.models.dtos.CursorPage;
+import com.trentonrush.inventoryservice.models.dtos.RemnantFit;
+import com.trentonrush.inventoryservice.models.dtos.SlabBatchOperation;
+import com.trentonrush.inventoryservice.models.dtos.SlabBatchResult;
 import com.trentonrush.inventoryservice.models.dtos.SlabDTO;
+import com.trentonrush.inventoryservice.models.dtos.SlabFilter;
+import com.trentonrush.inventoryservice.models.dtos.SparseFields;
 import com.trentonrush.inventoryservice.services.SlabService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
+import java.util.Optional;
+
+import static com.trentonrush.inventoryservice.utils.InventoryConstants.*;
 
 /**
  * Controller for managing slab-related operations.
- * Provides endpoints to add, update, delete, retrieve, search, reserve, and check the availability of slabs.
+ * Provides endpoints to add, update, delete, retrieve, search, reserve, release, and check the availability of slabs,
+ * and to find remnants that fit a piece.
  *
  * @author Trenton Rush
  * @since 2024-07-27
@@ -18,6 +32,7 @@ import java.util.List;
  * @see Slab
  * @see SlabDTO
  */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RestController
 @RequestMapping("/v1/slabs")
 public class SlabController {
@@ -40,49 +55,114 @@ public class SlabController {
 
     /**
      * Update an existing slab in the database.
+     * With If-Match the slab is only updated if it is still at that version, otherwise the response is a 412.
      * @param id the id of the slab to be updated
      * @param slabDTO the new details of the slab
-     * @return ResponseEntity containing the updated slab
+     * @param ifMatch the ETag of the slab the update is based on (optional)
+     * @return ResponseEntity containing the updated slab and its new ETag
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Slab> update(@PathVariable String id, @RequestBody SlabDTO slabDTO) {
-        return ResponseEntity.ok(slabService.updateSlab(id, slabDTO));
+    public ResponseEntity<Slab> update(@PathVariable String id, @RequestBody SlabDTO slabDTO,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Slab slab = slabService.updateSlab(id, slabDTO, ConditionalRequests.ifMatch(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(ConditionalRequests.eTag(slab.getVersion()))
+                .body(slab);
+    }
+
+    /**
+     * Create, update, and delete many slabs in a single request.
+     * @param operations the operations to execute
+     * @return ResponseEntity containing one result per operation, in the same order
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<SlabBatchResult>> batch(@RequestBody List<SlabBatchOperation> operations) {
+        return ResponseEntity.ok(slabService.batchSlabs(operations));
     }
 
     /**
      * Delete a slab from the database.
+     * With If-Match the slab is only deleted if it is still at that version, otherwise the response is a 412.
      * @param id the id of the slab to be deleted
+     * @param ifMatch the ETag of the slab the delete is based on (optional)
      * @return ResponseEntity with no content
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable String id) {
-        slabService.deleteSlab(id);
+    public ResponseEntity<Void> delete(@PathVariable String id,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        slabService.deleteSlab(id, ConditionalRequests.ifMatch(ifMatch));
         return ResponseEntity.noContent().build();
     }
 
     /**
      * Retrieve a slab by its id.
+     * Responds 304 Not Modified without reading the slab when If-None-Match or If-Modified-Since is still current,
+     * otherwise it is sent with the ETag and Last-Modified of the slab read, a request without either header reads it once.
      * @param id the id of the slab to be retrieved
-     * @return ResponseEntity containing the slab
+     * @param request the current request, used for its conditional headers
+     * @return ResponseEntity containing the slab, or null when not modified
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Slab> get(@PathVariable String id) {
-        return ResponseEntity.ok(slabService.getSlab(id));
+    public ResponseEntity<Slab> get(@PathVariable String id, ServletWebRequest request) {
+        if (ConditionalRequests.isConditional(request)) {
+            Optional<Slab> version = slabService.findSlabVersion(id);
+            if (version.isPresent() && ConditionalRequests.notModified(request, version.get().getVersion(), version.get().getModificationDate())) {
+                return null;
+            }
+        }
+        Slab slab = slabService.getSlab(id);
+        ConditionalRequests.validators(request, slab.getVersion(), slab.getModificationDate());
+        return ResponseEntity.ok(slab);
     }
 
     /**
-     * Search for slabs based on type, color, and status.
-     * @param type the type of the slabs (optional)
-     * @param color the color of the slabs (optional)
-     * @param status the status of the slabs (optional)
-     * @return ResponseEntity containing the list of slabs
+     * Find the available remnants a piece can be cut from, least waste first.
+     * The piece may be rotated, so length and width can be given in either order.
+     * @param lengthInches the length of the piece
+     * @param widthInches the width of the piece
+     * @param type the type of the remnant (optional)
+     * @param color the color of the remnant (optional)
+     * @param limit the maximum number of remnants to return (optional)
+     * @return ResponseEntity containing the remnants that fit, ordered by waste
+     */
+    @GetMapping("/remnants/fit")
+    public ResponseEntity<List<RemnantFit>> findRemnantFits(@RequestParam Double lengthInches,
+                                                            @RequestParam Double widthInches,
+                                                            @RequestParam(required = false) String type,
+                                                            @RequestParam(required = false) String color,
+                                                            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(slabService.findRemnantFits(lengthInches, widthInches, type, color, limit));
+    }
+
+    /**
+     * Search for slabs based on type, color, status, supplier, location, remnant, damaged, and size ranges in inches.
+     * Size ranges compare length to the longer side of a slab and width to the shorter side.
+     * Results are returned one page at a time, the cursor for the next page is sent in the X-Next-Cursor header.
+     * Responds 304 Not Modified without searching when If-None-Match matches the watermark of the slab collection.
+     * @param filter the filters to search by, each one is optional
+     * @param cursor the cursor returned with the previous page (optional)
+     * @param limit the maximum number of slabs to return (optional)
+     * @param fields comma separated fields to return, e.g. type,color,status,image, the id is always returned (optional)
+     * @param request the current request, used for its conditional headers
+     * @return ResponseEntity containing the list of slabs, or null when not modified
      * TODO: Add support for more generic searching by color
      */
     @GetMapping("/search")
-    public ResponseEntity<List<Slab>> searchSlab(@RequestParam(required = false) String type,
-                                                @RequestParam(required = false) String color,
-                                                @RequestParam(required = false) String status) {
-        return ResponseEntity.ok(slabService.listSlabs(type, color, status));
+    public ResponseEntity<MappingJacksonValue> searchSlab(SlabFilter filter,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(required = false) Integer limit,
+                                                          @RequestParam(required = false) String fields,
+                                                          ServletWebRequest request) {
+        SparseFields sparseFields = SparseFields.forSlabs(fields);
+        if (ConditionalRequests.notModified(request, slabService.getSlabsWatermark())) {
+            return null;
+        }
+        CursorPage<Slab> page = slabService.listSlabs(filter, cursor, limit, sparseFields);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(SparseResponses.body(page.getItems(), sparseFields));
     }
 
     /**
@@ -96,6 +176,28 @@ public class SlabController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Reserve several slabs together, either every slab is reserved or none are.
+     * @param ids the ids of the slabs to be reserved, e.g. the slab ids of a cut layout
+     * @return ResponseEntity with no content
+     */
+    @PatchMapping("/reserve")
+    public ResponseEntity<Void> reserveSlabs(@RequestBody List<String> ids) {
+        slabService.reserveSlabs(ids);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Release a reserved slab by updating its status.
+     * @param id the id of the slab to be released
+     * @return ResponseEntity with no content
+     */
+    @PatchMapping("/{id}/release")
+    public ResponseEntity<Void> releaseSlab(@PathVariable String id) {
+        slabService.releaseSlab(id);
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Check availability of slabs based on type and color.
      * @param type the type of slabs
@@ -106,4 +208,18 @@ public class SlabController {
     public ResponseEntity<Boolean> checkAvailability(@RequestParam(required = false) String type, @RequestParam(required = false) String color) {
         return ResponseEntity.ok(slabService.checkAvailability(type, color));
     }
+
+    /**
+     * Count the slabs with a status (available by default), optionally narrowed by type and color.
+     * @param type the type of slabs (optional)
+     * @param color the color of slabs (optional)
+     * @param status the status of slabs, defaults to available (optional)
+     * @return ResponseEntity with the count
+     */
+    @GetMapping("/count")
+    public ResponseEntity<Long> count(@RequestParam(required = false) String type,
+                                      @RequestParam(required = false) String color,
+                                      @RequestParam(required = false) String status) {
+        return ResponseEntity.ok(slabService.countSlabs(type, color, status));
+    }
 }
@@ -1,15 +1,21 @@
 package com.trentonrush.inventoryservice.controllers;
 
 import com.trentonrush.inventoryservice.models.SlabPrice;
+import com.trentonrush.inventoryservice.models.dtos.RepriceRequest;
+import com.trentonrush.inventoryservice.models.dtos.RepriceResult;
 import com.trentonrush.inventoryservice.models.dtos.SlabDTO;
 import com.trentonrush.inventoryservice.services.SlabPriceService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.util.Optional;
 
 /**
  * Controller for managing price-related operations.
- * Provides endpoints to add, update, delete, retrieve slab prices.
+ * Provides endpoints to add, update, delete, retrieve, and bulk reprice slab prices.
  *
  * @author Trenton Rush
  * @since 2024-08-02
@@ -17,6 +23,7 @@ import org.springframework.web.bind.annotation.*;
  * @see SlabPrice
  * @see SlabDTO
  */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RestController
 @RequestMapping("/v1/prices")
 public class SlabPriceController {
@@ -39,45 +46,82 @@ public class SlabPriceController {
 
     /**
      * Update an existing price in the database.
+     * With If-Match the price is only updated if it is still at that version, otherwise the response is a 412.
      * @param id the id of the price to be updated
      * @param slabDTO the new details of the price
-     * @return ResponseEntity containing the updated price
+     * @param ifMatch the ETag of the price the update is based on (optional)
+     * @return ResponseEntity containing the updated price and its new ETag
      */
     @PutMapping("/{id}")
-    public ResponseEntity<SlabPrice> update(@PathVariable String id, @RequestBody SlabDTO slabDTO) {
-        return ResponseEntity.ok(slabPriceService.updatePrice(id, slabDTO));
+    public ResponseEntity<SlabPrice> update(@PathVariable String id, @RequestBody SlabDTO slabDTO,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        SlabPrice slabPrice = slabPriceService.updatePrice(id, slabDTO, ConditionalRequests.ifMatch(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(ConditionalRequests.eTag(slabPrice.getVersion()))
+                .body(slabPrice);
     }
 
     /**
      * Delete a price from the database.
+     * With If-Match the price is only deleted if it is still at that version, otherwise the response is a 412.
      * @param id the id of the price to be deleted
+     * @param ifMatch the ETag of the price the delete is based on (optional)
      * @return ResponseEntity with no content
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable String id) {
-        slabPriceService.deletePrice(id);
+    public ResponseEntity<Void> delete(@PathVariable String id,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        slabPriceService.deletePrice(id, ConditionalRequests.ifMatch(ifMatch));
         return ResponseEntity.noContent().build();
     }
 
     /**
      * Retrieve a price by its id.
+     * Responds 304 Not Modified without reading the price when If-None-Match or If-Modified-Since is still current,
+     * otherwise it is sent with the ETag and Last-Modified of the price read, a request without either header reads it once.
      * @param id the id of the price to be retrieved
-     * @return ResponseEntity containing the price
+     * @param request the current request, used for its conditional headers
+     * @return ResponseEntity containing the price, or null when not modified
      */
     @GetMapping("/{id}")
-    public ResponseEntity<SlabPrice> get(@PathVariable String id) {
-        return ResponseEntity.ok(slabPriceService.getPrice(id));
+    public ResponseEntity<SlabPrice> get(@PathVariable String id, ServletWebRequest request) {
+        if (ConditionalRequests.isConditional(request)) {
+            Optional<SlabPrice> version = slabPriceService.findPriceVersion(id);
+            if (version.isPresent() && ConditionalRequests.notModified(request, version.get().getVersion(), version.get().getModificationDate())) {
+                return null;
+            }
+        }
+        SlabPrice slabPrice = slabPriceService.getPrice(id);
+        ConditionalRequests.validators(request, slabPrice.getVersion(), slabPrice.getModificationDate());
+        return ResponseEntity.ok(slabPrice);
     }
 
     /**
      * Search for price based on slab type, color.
+     * Prices are served from the cache, so a price that is still current is answered with a 304 Not Modified.
      * @param type the type of the slabPrice
      * @param color the color of the slabPrice
-     * @return ResponseEntity containing the slab price
+     * @param request the current request, used for its conditional headers
+     * @return ResponseEntity containing the slab price, or null when not modified
      */
     @GetMapping("/search")
-    public ResponseEntity<SlabPrice> searchPrice(@RequestParam(required = false) String type, @RequestParam(required = false) String color) {
-        return ResponseEntity.ok(slabPriceService.searchPrice(type, color));
+    public ResponseEntity<SlabPrice> searchPrice(@RequestParam(required = false) String type, @RequestParam(required = false) String color,
+                                                 ServletWebRequest request) {
+        SlabPrice slabPrice = slabPriceService.searchPrice(type, color);
+        if (ConditionalRequests.notModified(request, slabPrice.getVersion(), slabPrice.getModificationDate())) {
+            return null;
+        }
+        return ResponseEntity.ok(slabPrice);
     }
 
+    /**
+     * Change the price of every slab matching a type and/or color in one request.
+     * @param repriceRequest the prices to match and the absolute or percentage change to apply
+     * @return ResponseEntity containing every updated price with its old and new amount, and the prices skipped as
+     * they changed concurrently
+     */
+    @PostMapping("/reprice")
+    public ResponseEntity<RepriceResult> reprice(@RequestBody RepriceRequest repriceRequest) {
+        return ResponseEntity.ok(slabPriceService.repricePrices(repriceRequest));
+    }
 }
@@ -0,0 +1,36 @@
+package com.trentonrush.inventoryservice.controllers;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.trentonrush.inventoryservice.models.dtos.SparseFields;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import static com.trentonrush.inventoryservice.utils.InventoryConstants.SPARSE_FIELDS_FILTER;
+
+/**
+ * Sparse fieldset support for the controllers, writes only the requested fields of a response body
+ *
+ * @author Trenton Rush
+ * @since 2024-08-31
+ * @see SparseFields
+ */
+final class SparseResponses {
+
+    private SparseResponses() {
+        throw new AssertionError();
+    }
+
+    /**
+     * @param body the slabs or samples being returned
+     * @param fields the fields the client asked for
+     * @return the body, filtered to the requested fields
+     */
+    static MappingJacksonValue body(Object body, SparseFields fields) {
+        SimpleBeanPropertyFilter filter = fields.isAll()
+                ? SimpleBeanPropertyFilter.serializeAll()
+                : SimpleBeanPropertyFilter.filterOutAllExcept(fields.getProperties());
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(new SimpleFilterProvider().addFilter(SPARSE_FIELDS_FILTER, filter));
+        return value;
+    }
+}
@@ -40,24 +40,29 @@ public class Measurement {
     }
 
     public double getTotalInFeet() {
-        if (feet != 0.0 && centimeters != 0.0) {
+        if (isImperial()) {
             return this.feet + this.inches / 12;
         }
         return this.centimeters / 30.48;
     }
 
     public double getTotalInInches() {
-        if (feet != 0.0 && centimeters != 0.0) {
+        if (isImperial()) {
             return this.inches + this.feet * 12;
         }
         return this.centimeters / 2.54;
     }
 
     public double getTotalInCentimeters() {
-        if (this.centimeters != 0.0) {
-            return this.centimeters;
+        if (isImperial()) {
+            return (this.inches + this.feet * 12) * 2.54;
         }
-        return (this.inches + this.feet * 12) * 2.54;
+        return this.centimeters;
+    }
+
+    // Favors feet/inches over cm whenever either is given
+    private boolean isImperial() {
+        return this.feet != 0.0 || this.inches != 0.0;
     }
 
     @Override
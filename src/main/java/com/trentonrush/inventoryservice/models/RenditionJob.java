@@ -0,0 +1,119 @@
+package com.trentonrush.inventoryservice.models;
+
+import com.trentonrush.inventoryservice.models.enums.RenditionStatus;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.Map;
+
+@CompoundIndexes({
+        @CompoundIndex(name = "status_available_date", def = "{'status': 1, 'availableDate': 1}")
+})
+@Document(collection = "rendition_jobs")
+public class RenditionJob {
+
+    @Id
+    private String id; // content hash of the source image, so an image is only ever rendered once
+    private String image; // the source image reference
+    private RenditionStatus status;
+    private int attempts;
+    private Instant availableDate; // when a pending job may be claimed, or when a running job's lease runs out
+    private Map<String, String> renditions; // rendition name to stored image reference, once done
+    private String error;
+    private Instant creationDate;
+    private Instant modificationDate;
+
+    public RenditionJob() {
+        // empty constructor
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getImage() {
+        return image;
+    }
+
+    public void setImage(String image) {
+        this.image = image;
+    }
+
+    public RenditionStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(RenditionStatus status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getAvailableDate() {
+        return availableDate;
+    }
+
+    public void setAvailableDate(Instant availableDate) {
+        this.availableDate = availableDate;
+    }
+
+    public Map<String, String> getRenditions() {
+        return renditions;
+    }
+
+    public void setRenditions(Map<String, String> renditions) {
+        this.renditions = renditions;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Instant getCreationDate() {
+        return creationDate;
+    }
+
+    public void setCreationDate(Instant creationDate) {
+        this.creationDate = creationDate;
+    }
+
+    public Instant getModificationDate() {
+        return modificationDate;
+    }
+
+    public void setModificationDate(Instant modificationDate) {
+        this.modificationDate = modificationDate;
+    }
+
+    @Override
+    public String toString() {
+        return "RenditionJob{" +
+                "id='" + id + '\'' +
+                ", image='" + image + '\'' +
+                ", status=" + status +
+                ", attempts=" + attempts +
+                ", availableDate=" + availableDate +
+                ", renditions=" + renditions +
+                ", error='" + error + '\'' +
+                ", creationDate=" + creationDate +
+                ", modificationDate=" + modificationDate +
+                '}';
+    }
+}
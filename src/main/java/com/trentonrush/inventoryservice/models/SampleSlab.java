@@ -1,11 +1,26 @@
 package com.trentonrush.inventoryservice.models;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.trentonrush.inventoryservice.models.dtos.SlabDTO;
+import com.trentonrush.inventoryservice.models.enums.Rendition;
+import com.trentonrush.inventoryservice.utils.ValidationUtil;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
-
+import java.util.Map;
+
+@CompoundIndexes({
+        @CompoundIndex(name = "type_color_quantity", def = "{'type': 1, 'color': 1, 'quantity': 1}"),
+        @CompoundIndex(name = "color_quantity", def = "{'color': 1, 'quantity': 1}"),
+        @CompoundIndex(name = "quantity", def = "{'quantity': 1}"),
+        @CompoundIndex(name = "supplier_quantity", def = "{'supplier': 1, 'quantity': 1}"),
+        @CompoundIndex(name = "modification_date", def = "{'modificationDate': -1}")
+})
 @Document(collection = "sample_slabs")
 public class SampleSlab {
 
@@ -18,6 +33,8 @@ public class SampleSlab {
     private String supplier;
     private Instant creationDate;
     private Instant modificationDate;
+    @Version
+    private Long version; // bumped by every write, the ETag of the document
 
     public SampleSlab() {
         // empty constructor
@@ -39,6 +56,16 @@ public class SampleSlab {
         this.image = image;
     }
 
+    /**
+     * URLs of the thumbnail and preview of the image, derived from the image so they're never stored
+     * @return the URL of each rendition by name, or null if the image isn't a stored image
+     */
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public Map<String, String> getRenditions() {
+        return Rendition.urls(image);
+    }
+
     public String getColor() {
         return color;
     }
@@ -55,6 +82,14 @@ public class SampleSlab {
         this.modificationDate = modificationDate;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Instant getCreationDate() {
         return creationDate;
     }
@@ -102,6 +137,32 @@ public class SampleSlab {
         return sampleSlab;
     }
 
+    /**
+     * Apply an update from DTO, only the fields that are provided and not empty are changed
+     * @param slabDTO object containing the fields being updated
+     * @param modificationDate when the update was made
+     */
+    public void applyUpdate(SlabDTO slabDTO, Instant modificationDate) {
+        if (!ValidationUtil.isNullOrEmpty(slabDTO.getImage())) {
+            image = slabDTO.getImage();
+        }
+        if (!ValidationUtil.isNullOrEmpty(slabDTO.getColor())) {
+            color = slabDTO.getColor();
+        }
+        if (!ValidationUtil.isNullOrEmpty(slabDTO.getType())) {
+            type = slabDTO.getType();
+        }
+        if (!ValidationUtil.isNullOrEmpty(slabDTO.getSupplier())) {
+            supplier = slabDTO.getSupplier();
+        }
+        if (slabDTO.getQuantity() >= 0) {
+            quantity = slabDTO.getQuantity();
+        }
+
+        // Update modification date
+        this.modificationDate = modificationDate;
+    }
+
     @Override
     public String toString() {
         return "SampleSlab{" +
@@ -113,6 +174,7 @@ public class SampleSlab {
                 ", supplier='" + supplier + '\'' +
                 ", creationDate=" + creationDate +
                 ", modificationDate=" + modificationDate +
+                ", version=" + version +
                 '}';
     }
 }
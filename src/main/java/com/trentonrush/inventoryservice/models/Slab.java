@@ -1,12 +1,33 @@
 package com.trentonrush.inventoryservice.models;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.trentonrush.inventoryservice.exceptions.InvalidInputException;
 import com.trentonrush.inventoryservice.models.dtos.SlabDTO;
+import com.trentonrush.inventoryservice.models.enums.Rendition;
 import com.trentonrush.inventoryservice.models.enums.Status;
+import com.trentonrush.inventoryservice.utils.ValidationUtil;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
-
+import java.util.Map;
+
+@CompoundIndexes({
+        @CompoundIndex(name = "type_color_status", def = "{'type': 1, 'color': 1, 'status': 1}"),
+        @CompoundIndex(name = "color_status", def = "{'color': 1, 'status': 1}"),
+        @CompoundIndex(name = "status", def = "{'status': 1}"),
+        @CompoundIndex(name = "supplier_status", def = "{'supplier': 1, 'status': 1}"),
+        @CompoundIndex(name = "location_status", def = "{'location': 1, 'status': 1}"),
+        @CompoundIndex(name = "remnant_status", def = "{'isRemnant': 1, 'status': 1}"),
+        @CompoundIndex(name = "size_length_width", def = "{'size.lengthInches': 1, 'size.widthInches': 1}"),
+        @CompoundIndex(name = "size_area", def = "{'size.areaSqInches': 1}"),
+        @CompoundIndex(name = "size_thickness", def = "{'size.thicknessInches': 1}"),
+        @CompoundIndex(name = "modification_date", def = "{'modificationDate': -1}")
+})
 @Document(collection = "slabs")
 public class Slab {
 
@@ -15,6 +36,7 @@ public class Slab {
     private String image;
     private String description;
     private Dimensions dimensions;
+    private SlabSize size; // derived from dimensions
     private boolean isRemnant;
     private boolean isDamaged;
     private String color;
@@ -23,6 +45,8 @@ public class Slab {
     private String supplier;
     private Instant creationDate;
     private Instant modificationDate;
+    @Version
+    private Long version; // bumped by every write, the ETag of the document
     private Status status;
 
     public Slab() {
@@ -45,6 +69,16 @@ public class Slab {
         this.image = image;
     }
 
+    /**
+     * URLs of the thumbnail and preview of the image, derived from the image so they're never stored
+     * @return the URL of each rendition by name, or null if the image isn't a stored image
+     */
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public Map<String, String> getRenditions() {
+        return Rendition.urls(image);
+    }
+
     public Status getStatus() {
         return status;
     }
@@ -61,6 +95,14 @@ public class Slab {
         this.modificationDate = modificationDate;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Instant getCreationDate() {
         return creationDate;
     }
@@ -123,6 +165,11 @@ public class Slab {
 
     public void setDimensions(Dimensions dimensions) {
         this.dimensions = dimensions;
+        this.size = SlabSize.of(dimensions);
+    }
+
+    public SlabSize getSize() {
+        return size;
     }
 
     public String getDescription() {
@@ -143,6 +190,7 @@ public class Slab {
         slab.image = slabDTO.getImage();
         slab.description = slabDTO.getDescription();
         slab.dimensions = slabDTO.getDimensions();
+        slab.size = SlabSize.of(slabDTO.getDimensions());
         slab.isRemnant = slabDTO.isRemnant();
         slab.isDamaged = slabDTO.isDamaged();
         slab.color = slabDTO.getColor();
@@ -155,6 +203,51 @@ public class Slab {
         return slab;
     }
 
+    /**
+     * Apply an update from DTO, only the fields that are provided and not empty are changed
+     * @param slabDTO object containing the fields being updated
+     * @param modificationDate when the update was made
+     */
+    public void applyUpdate(SlabDTO slabDTO, Instant modificationDate) {
+        if (!ValidationUtil.isNullOrEmpty(slabDTO.getImage())) {
+            image = slabDTO.getImage();
+        }
+        if (!ValidationUtil.isNullOrEmpty(slabDTO.getDescription())) {
+            description = slabDTO.getDescription();
+        }
+        if (!ValidationUtil.isNullOrEmpty(slabDTO.getColor())) {
+            color = slabDTO.getColor();
+        }
+        if (!ValidationUtil.isNullOrEmpty(slabDTO.getType())) {
+            type = slabDTO.getType();
+        }
+        if (!ValidationUtil.isNullOrEmpty(slabDTO.getLocation())) {
+            location = slabDTO.getLocation();
+        }
+        if (!ValidationUtil.isNullOrEmpty(slabDTO.getSupplier())) {
+            supplier = slabDTO.getSupplier();
+        }
+        // catch if the dimensions contain any invalid values
+        try {
+            ValidationUtil.validateDimensions(slabDTO.getDimensions());
+            setDimensions(slabDTO.getDimensions());
+        } catch (InvalidInputException ignored) {
+            // do nothing if dimensions are empty
+        }
+
+        // Handle booleans directly since they can't be null
+        isRemnant = slabDTO.isRemnant();
+        isDamaged = slabDTO.isDamaged();
+
+        // Update status accordingly
+        if (!ValidationUtil.isNullOrEmpty(slabDTO.getStatus())) {
+            status = Status.fromString(slabDTO.getStatus());
+        }
+
+        // Update modification date
+        this.modificationDate = modificationDate;
+    }
+
     @Override
     public String toString() {
         return "Slab{" +
@@ -162,6 +255,7 @@ public class Slab {
                 ", image='" + image + '\'' +
                 ", description='" + description + '\'' +
                 ", dimensions=" + dimensions +
+                ", size=" + size +
                 ", isRemnant=" + isRemnant +
                 ", isDamaged=" + isDamaged +
                 ", color='" + color + '\'' +
@@ -170,6 +264,7 @@ public class Slab {
                 ", supplier='" + supplier + '\'' +
                 ", creationDate=" + creationDate +
                 ", modificationDate=" + modificationDate +
+                ", version=" + version +
                 ", status=" + status +
                 '}';
     }
@@ -2,7 +2,11 @@ package com.trentonrush.inventoryservice.models;
 
 import com.trentonrush.inventoryservice.exceptions.InvalidInputException;
 import com.trentonrush.inventoryservice.models.dtos.SlabDTO;
+import com.trentonrush.inventoryservice.utils.ValidationUtil;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.math.BigDecimal;
@@ -12,6 +16,11 @@ import java.util.Objects;
 
 import static com.trentonrush.inventoryservice.utils.InventoryConstants.*;
 
+@CompoundIndexes({
+        @CompoundIndex(name = "type_color", def = "{'type': 1, 'color': 1}", unique = true),
+        @CompoundIndex(name = "color", def = "{'color': 1}"),
+        @CompoundIndex(name = "modification_date", def = "{'modificationDate': -1}")
+})
 @Document(collection = "slab_prices")
 public class SlabPrice {
 
@@ -23,6 +32,8 @@ public class SlabPrice {
     private Currency currency;
     private Instant creationDate;
     private Instant modificationDate;
+    @Version
+    private Long version; // bumped by every write, the ETag of the document
 
     public SlabPrice() {
     }
@@ -91,6 +102,14 @@ public class SlabPrice {
         this.modificationDate = modificationDate;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     /**
      * Build SlabPrice from DTO
      * @param slabDTO object containing price details
@@ -108,6 +127,26 @@ public class SlabPrice {
         return slabPrice;
     }
 
+    /**
+     * Apply an update from DTO, only the fields that are provided and not empty are changed
+     * @param slabDTO object containing the fields being updated
+     * @param modificationDate when the update was made
+     */
+    public void applyUpdate(SlabDTO slabDTO, Instant modificationDate) {
+        if (!ValidationUtil.isNullOrEmpty(slabDTO.getColor())) {
+            color = slabDTO.getColor();
+        }
+        if (!ValidationUtil.isNullOrEmpty(slabDTO.getType())) {
+            type = slabDTO.getType();
+        }
+        if (!ValidationUtil.isNullOrEmpty(slabDTO.getSqftPrice())) {
+            setAmountPerSqFtAndCurrency(new BigDecimal(slabDTO.getSqftPrice()), Currency.getInstance(USD_CURRENCY_CODE));
+        }
+
+        // Update modification date
+        this.modificationDate = modificationDate;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -131,6 +170,7 @@ public class SlabPrice {
                 " " + currency.getSymbol() +
                 ", creationDate=" + creationDate +
                 ", modificationDate=" + modificationDate +
+                ", version=" + version +
                 '}';
     }
 }
@@ -0,0 +1,79 @@
+package com.trentonrush.inventoryservice.models;
+
+import java.util.Objects;
+
+/**
+ * Canonical size of a slab in inches, derived from its {@link Dimensions} whenever they're written.
+ * Length is always the longer side and width the shorter one, so a size range matches a slab in either orientation.
+ * Stored alongside the dimensions so slabs can be filtered and indexed by size.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-22
+ */
+public class SlabSize {
+
+    private double lengthInches;
+    private double widthInches;
+    private double thicknessInches;
+    private double areaSqInches;
+
+    public SlabSize() {
+        // empty constructor
+    }
+
+    private SlabSize(double lengthInches, double widthInches, double thicknessInches) {
+        this.lengthInches = round(Math.max(lengthInches, widthInches));
+        this.widthInches = round(Math.min(lengthInches, widthInches));
+        this.thicknessInches = round(thicknessInches);
+        this.areaSqInches = round(lengthInches * widthInches);
+    }
+
+    /**
+     * Derive the canonical size of a slab
+     * @param dimensions the dimensions of the slab
+     * @return the size, or null if the length or width is missing
+     */
+    public static SlabSize of(Dimensions dimensions) {
+        if (Objects.isNull(dimensions) || Objects.isNull(dimensions.getLength()) || Objects.isNull(dimensions.getWidth())) {
+            return null;
+        }
+        double length = dimensions.getLength().getTotalInInches();
+        double width = dimensions.getWidth().getTotalInInches();
+        if (length <= 0.0 || width <= 0.0) {
+            return null;
+        }
+        double thickness = Objects.isNull(dimensions.getThickness()) ? 0.0 : dimensions.getThickness().getTotalInInches();
+        return new SlabSize(length, width, thickness);
+    }
+
+    public double getLengthInches() {
+        return lengthInches;
+    }
+
+    public double getWidthInches() {
+        return widthInches;
+    }
+
+    public double getThicknessInches() {
+        return thicknessInches;
+    }
+
+    public double getAreaSqInches() {
+        return areaSqInches;
+    }
+
+    // Keep values comparable across units, e.g. 279.4cm and 110in
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    @Override
+    public String toString() {
+        return "SlabSize{" +
+                "lengthInches=" + lengthInches +
+                ", widthInches=" + widthInches +
+                ", thicknessInches=" + thicknessInches +
+                ", areaSqInches=" + areaSqInches +
+                '}';
+    }
+}
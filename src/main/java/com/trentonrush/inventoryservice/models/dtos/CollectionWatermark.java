@@ -0,0 +1,25 @@
+package com.trentonrush.inventoryservice.models.dtos;
+
+import java.time.Instant;
+
+/**
+ * Cheap version of a whole collection, any insert, update, or delete changes either the count or the last modification
+ */
+public class CollectionWatermark {
+
+    private final long count;
+    private final Instant lastModified; // null when the collection is empty
+
+    public CollectionWatermark(long count, Instant lastModified) {
+        this.count = count;
+        this.lastModified = lastModified;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+}
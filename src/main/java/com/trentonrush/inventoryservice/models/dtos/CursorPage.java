@@ -0,0 +1,26 @@
+package com.trentonrush.inventoryservice.models.dtos;
+
+import java.util.List;
+
+public class CursorPage<T> {
+
+    private final List<T> items;
+    private final String nextCursor; // null on the last page
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,47 @@
+package com.trentonrush.inventoryservice.models.dtos;
+
+import java.util.List;
+
+public class CutLayout {
+
+    private final List<SlabLayout> slabs;
+    private final List<Integer> unplaced; // indexes of pieces that don't fit on any available slab
+    private final double wasteSqInches;
+    private final String heuristic; // the heuristic that produced this layout
+    private final int heuristicsEvaluated;
+
+    public CutLayout(List<SlabLayout> slabs, List<Integer> unplaced, double wasteSqInches, String heuristic, int heuristicsEvaluated) {
+        this.slabs = slabs;
+        this.unplaced = unplaced;
+        this.wasteSqInches = wasteSqInches;
+        this.heuristic = heuristic;
+        this.heuristicsEvaluated = heuristicsEvaluated;
+    }
+
+    /**
+     * @return the ids of the slabs used, in the form expected by a multi slab reservation
+     */
+    public List<String> getSlabIds() {
+        return slabs.stream().map(SlabLayout::getSlabId).toList();
+    }
+
+    public List<SlabLayout> getSlabs() {
+        return slabs;
+    }
+
+    public List<Integer> getUnplaced() {
+        return unplaced;
+    }
+
+    public double getWasteSqInches() {
+        return wasteSqInches;
+    }
+
+    public String getHeuristic() {
+        return heuristic;
+    }
+
+    public int getHeuristicsEvaluated() {
+        return heuristicsEvaluated;
+    }
+}
@@ -0,0 +1,26 @@
+package com.trentonrush.inventoryservice.models.dtos;
+
+public class ImageInfo {
+
+    private final String image; // content hash and extension, stored on slabs and samples in place of the image
+    private final String contentType;
+    private final long size;
+
+    public ImageInfo(String image, String contentType, long size) {
+        this.image = image;
+        this.contentType = contentType;
+        this.size = size;
+    }
+
+    public String getImage() {
+        return image;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+}
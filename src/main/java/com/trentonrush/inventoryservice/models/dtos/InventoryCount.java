@@ -0,0 +1,47 @@
+package com.trentonrush.inventoryservice.models.dtos;
+
+import com.trentonrush.inventoryservice.models.enums.Status;
+
+public class InventoryCount {
+
+    private String type;
+    private String color;
+    private Status status; // null for samples
+    private long count;
+
+    public InventoryCount() {
+        // empty constructor
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getColor() {
+        return color;
+    }
+
+    public void setColor(String color) {
+        this.color = color;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
@@ -0,0 +1,39 @@
+package com.trentonrush.inventoryservice.models.dtos;
+
+public class LayoutPiece {
+
+    private String label; // e.g. "island", optional
+    private double lengthInches;
+    private double widthInches;
+
+    public LayoutPiece() {
+        // empty constructor
+    }
+
+    public LayoutPiece(String label, double lengthInches, double widthInches) {
+        this.label = label;
+        this.lengthInches = lengthInches;
+        this.widthInches = widthInches;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public double getLengthInches() {
+        return lengthInches;
+    }
+
+    public double getWidthInches() {
+        return widthInches;
+    }
+
+    @Override
+    public String toString() {
+        return "LayoutPiece{" +
+                "label='" + label + '\'' +
+                ", lengthInches=" + lengthInches +
+                ", widthInches=" + widthInches +
+                '}';
+    }
+}
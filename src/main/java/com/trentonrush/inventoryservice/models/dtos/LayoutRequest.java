@@ -0,0 +1,35 @@
+package com.trentonrush.inventoryservice.models.dtos;
+
+import java.util.List;
+
+public class LayoutRequest {
+
+    private String type;
+    private String color;
+    private List<LayoutPiece> pieces;
+
+    public LayoutRequest() {
+        // empty constructor
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getColor() {
+        return color;
+    }
+
+    public List<LayoutPiece> getPieces() {
+        return pieces;
+    }
+
+    @Override
+    public String toString() {
+        return "LayoutRequest{" +
+                "type='" + type + '\'' +
+                ", color='" + color + '\'' +
+                ", pieces=" + pieces +
+                '}';
+    }
+}
@@ -0,0 +1,50 @@
+package com.trentonrush.inventoryservice.models.dtos;
+
+public class PiecePlacement {
+
+    private final int pieceIndex; // index of the piece in the request
+    private final String label;
+    private final double x; // offset along the slab length
+    private final double y; // offset along the slab width
+    private final double lengthInches; // as placed, along the slab length
+    private final double widthInches; // as placed, along the slab width
+    private final boolean rotated;
+
+    public PiecePlacement(int pieceIndex, String label, double x, double y, double lengthInches, double widthInches, boolean rotated) {
+        this.pieceIndex = pieceIndex;
+        this.label = label;
+        this.x = x;
+        this.y = y;
+        this.lengthInches = lengthInches;
+        this.widthInches = widthInches;
+        this.rotated = rotated;
+    }
+
+    public int getPieceIndex() {
+        return pieceIndex;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getLengthInches() {
+        return lengthInches;
+    }
+
+    public double getWidthInches() {
+        return widthInches;
+    }
+
+    public boolean isRotated() {
+        return rotated;
+    }
+}
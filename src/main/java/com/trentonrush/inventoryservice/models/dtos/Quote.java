@@ -0,0 +1,30 @@
+package com.trentonrush.inventoryservice.models.dtos;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+public class Quote {
+
+    private final List<SlabQuote> slabs;
+    private final Map<String, BigDecimal> totals; // keyed by currency code
+    private final List<String> notFound; // requested slab ids that don't exist
+
+    public Quote(List<SlabQuote> slabs, Map<String, BigDecimal> totals, List<String> notFound) {
+        this.slabs = slabs;
+        this.totals = totals;
+        this.notFound = notFound;
+    }
+
+    public List<SlabQuote> getSlabs() {
+        return slabs;
+    }
+
+    public Map<String, BigDecimal> getTotals() {
+        return totals;
+    }
+
+    public List<String> getNotFound() {
+        return notFound;
+    }
+}
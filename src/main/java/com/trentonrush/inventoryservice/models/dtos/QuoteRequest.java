@@ -0,0 +1,37 @@
+package com.trentonrush.inventoryservice.models.dtos;
+
+import java.util.List;
+
+public class QuoteRequest {
+
+    private List<String> slabIds;
+    private SlabFilter filter; // used when no slab ids are provided
+
+    public QuoteRequest() {
+        // empty constructor
+    }
+
+    public List<String> getSlabIds() {
+        return slabIds;
+    }
+
+    public void setSlabIds(List<String> slabIds) {
+        this.slabIds = slabIds;
+    }
+
+    public SlabFilter getFilter() {
+        return filter;
+    }
+
+    public void setFilter(SlabFilter filter) {
+        this.filter = filter;
+    }
+
+    @Override
+    public String toString() {
+        return "QuoteRequest{" +
+                "slabIds=" + (slabIds == null ? null : slabIds.size()) +
+                ", filter=" + filter +
+                '}';
+    }
+}
@@ -0,0 +1,50 @@
+package com.trentonrush.inventoryservice.models.dtos;
+
+public class RemnantFit {
+
+    private final String slabId;
+    private final String type;
+    private final String color;
+    private final double lengthInches;
+    private final double widthInches;
+    private final double areaSqInches;
+    private final double wasteSqInches; // remnant area left over after the piece is cut
+
+    public RemnantFit(String slabId, String type, String color, double lengthInches, double widthInches, double areaSqInches, double wasteSqInches) {
+        this.slabId = slabId;
+        this.type = type;
+        this.color = color;
+        this.lengthInches = lengthInches;
+        this.widthInches = widthInches;
+        this.areaSqInches = areaSqInches;
+        this.wasteSqInches = wasteSqInches;
+    }
+
+    public String getSlabId() {
+        return slabId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getColor() {
+        return color;
+    }
+
+    public double getLengthInches() {
+        return lengthInches;
+    }
+
+    public double getWidthInches() {
+        return widthInches;
+    }
+
+    public double getAreaSqInches() {
+        return areaSqInches;
+    }
+
+    public double getWasteSqInches() {
+        return wasteSqInches;
+    }
+}
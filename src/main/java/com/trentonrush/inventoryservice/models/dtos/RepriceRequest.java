@@ -0,0 +1,45 @@
+package com.trentonrush.inventoryservice.models.dtos;
+
+public class RepriceRequest {
+
+    private String type;
+    private String color;
+    private String mode; // absolute or percent
+    private String amount; // e.g. "1.50" or "-2" for absolute, "6" for +6%
+    private boolean dryRun;
+
+    public RepriceRequest() {
+        // empty constructor
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getColor() {
+        return color;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public String getAmount() {
+        return amount;
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    @Override
+    public String toString() {
+        return "RepriceRequest{" +
+                "type='" + type + '\'' +
+                ", color='" + color + '\'' +
+                ", mode='" + mode + '\'' +
+                ", amount='" + amount + '\'' +
+                ", dryRun=" + dryRun +
+                '}';
+    }
+}
@@ -0,0 +1,40 @@
+package com.trentonrush.inventoryservice.models.dtos;
+
+import java.util.List;
+
+public class RepriceResult {
+
+    private final boolean dryRun;
+    private final int matched;
+    private final long updated;
+    private final List<RepricedPrice> prices;
+    private final List<RepricedPrice> conflicts; // prices changed concurrently, skipped and not in prices
+
+    public RepriceResult(boolean dryRun, List<RepricedPrice> prices, List<RepricedPrice> conflicts) {
+        this.dryRun = dryRun;
+        this.matched = prices.size() + conflicts.size();
+        this.updated = dryRun ? 0 : prices.size();
+        this.prices = prices;
+        this.conflicts = conflicts;
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    public int getMatched() {
+        return matched;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public List<RepricedPrice> getPrices() {
+        return prices;
+    }
+
+    public List<RepricedPrice> getConflicts() {
+        return conflicts;
+    }
+}
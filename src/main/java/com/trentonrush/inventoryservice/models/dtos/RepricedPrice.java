@@ -0,0 +1,47 @@
+package com.trentonrush.inventoryservice.models.dtos;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+public class RepricedPrice {
+
+    private final String id;
+    private final String type;
+    private final String color;
+    private final BigDecimal oldAmountPerSqFt;
+    private final BigDecimal newAmountPerSqFt;
+    private final Currency currency;
+
+    public RepricedPrice(String id, String type, String color, BigDecimal oldAmountPerSqFt, BigDecimal newAmountPerSqFt, Currency currency) {
+        this.id = id;
+        this.type = type;
+        this.color = color;
+        this.oldAmountPerSqFt = oldAmountPerSqFt;
+        this.newAmountPerSqFt = newAmountPerSqFt;
+        this.currency = currency;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getColor() {
+        return color;
+    }
+
+    public BigDecimal getOldAmountPerSqFt() {
+        return oldAmountPerSqFt;
+    }
+
+    public BigDecimal getNewAmountPerSqFt() {
+        return newAmountPerSqFt;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+}
@@ -0,0 +1,61 @@
+package com.trentonrush.inventoryservice.models.dtos;
+
+public class SampleFilter {
+
+    private String type;
+    private String color;
+    private String supplier;
+    private boolean onlyAvailable;
+
+    public SampleFilter() {
+        // empty constructor
+    }
+
+    public SampleFilter(String type, String color, boolean onlyAvailable) {
+        this.type = type;
+        this.color = color;
+        this.onlyAvailable = onlyAvailable;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getColor() {
+        return color;
+    }
+
+    public void setColor(String color) {
+        this.color = color;
+    }
+
+    public String getSupplier() {
+        return supplier;
+    }
+
+    public void setSupplier(String supplier) {
+        this.supplier = supplier;
+    }
+
+    public boolean isOnlyAvailable() {
+        return onlyAvailable;
+    }
+
+    public void setOnlyAvailable(boolean onlyAvailable) {
+        this.onlyAvailable = onlyAvailable;
+    }
+
+    @Override
+    public String toString() {
+        return "SampleFilter{" +
+                "type='" + type + '\'' +
+                ", color='" + color + '\'' +
+                ", supplier='" + supplier + '\'' +
+                ", onlyAvailable=" + onlyAvailable +
+                '}';
+    }
+}
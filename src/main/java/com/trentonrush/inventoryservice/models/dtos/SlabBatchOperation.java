@@ -0,0 +1,33 @@
+package com.trentonrush.inventoryservice.models.dtos;
+
+public class SlabBatchOperation {
+
+    private String action; // create, update, or delete
+    private String id; // required for update and delete
+    private SlabDTO slab; // required for create and update
+
+    public SlabBatchOperation() {
+        // empty constructor
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public SlabDTO getSlab() {
+        return slab;
+    }
+
+    @Override
+    public String toString() {
+        return "SlabBatchOperation{" +
+                "action='" + action + '\'' +
+                ", id='" + id + '\'' +
+                ", slab=" + slab +
+                '}';
+    }
+}
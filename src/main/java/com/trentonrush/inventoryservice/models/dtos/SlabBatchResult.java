@@ -0,0 +1,40 @@
+package com.trentonrush.inventoryservice.models.dtos;
+
+public class SlabBatchResult {
+
+    private final int index;
+    private final String id;
+    private final boolean success;
+    private final String error;
+
+    private SlabBatchResult(int index, String id, boolean success, String error) {
+        this.index = index;
+        this.id = id;
+        this.success = success;
+        this.error = error;
+    }
+
+    public static SlabBatchResult success(int index, String id) {
+        return new SlabBatchResult(index, id, true, null);
+    }
+
+    public static SlabBatchResult failure(int index, String id, String error) {
+        return new SlabBatchResult(index, id, false, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -25,6 +25,10 @@ public class SlabDTO {
         return image;
     }
 
+    public void setImage(String image) {
+        this.image = image;
+    }
+
     public String getStatus() {
         return status;
     }
@@ -0,0 +1,173 @@
+package com.trentonrush.inventoryservice.models.dtos;
+
+public class SlabFilter {
+
+    private String type;
+    private String color;
+    private String status;
+    private String supplier;
+    private String location;
+    private Boolean isRemnant;
+    private Boolean isDamaged;
+
+    // Size ranges in inches, length is the longer side of a slab and width the shorter one
+    private Double minLengthInches;
+    private Double maxLengthInches;
+    private Double minWidthInches;
+    private Double maxWidthInches;
+    private Double minThicknessInches;
+    private Double maxThicknessInches;
+    private Double minAreaSqInches;
+    private Double maxAreaSqInches;
+
+    public SlabFilter() {
+        // empty constructor
+    }
+
+    public SlabFilter(String type, String color, String status) {
+        this.type = type;
+        this.color = color;
+        this.status = status;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getColor() {
+        return color;
+    }
+
+    public void setColor(String color) {
+        this.color = color;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getSupplier() {
+        return supplier;
+    }
+
+    public void setSupplier(String supplier) {
+        this.supplier = supplier;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public Boolean getRemnant() {
+        return isRemnant;
+    }
+
+    public void setRemnant(Boolean remnant) {
+        isRemnant = remnant;
+    }
+
+    public Boolean getDamaged() {
+        return isDamaged;
+    }
+
+    public void setDamaged(Boolean damaged) {
+        isDamaged = damaged;
+    }
+
+    public Double getMinLengthInches() {
+        return minLengthInches;
+    }
+
+    public void setMinLengthInches(Double minLengthInches) {
+        this.minLengthInches = minLengthInches;
+    }
+
+    public Double getMaxLengthInches() {
+        return maxLengthInches;
+    }
+
+    public void setMaxLengthInches(Double maxLengthInches) {
+        this.maxLengthInches = maxLengthInches;
+    }
+
+    public Double getMinWidthInches() {
+        return minWidthInches;
+    }
+
+    public void setMinWidthInches(Double minWidthInches) {
+        this.minWidthInches = minWidthInches;
+    }
+
+    public Double getMaxWidthInches() {
+        return maxWidthInches;
+    }
+
+    public void setMaxWidthInches(Double maxWidthInches) {
+        this.maxWidthInches = maxWidthInches;
+    }
+
+    public Double getMinThicknessInches() {
+        return minThicknessInches;
+    }
+
+    public void setMinThicknessInches(Double minThicknessInches) {
+        this.minThicknessInches = minThicknessInches;
+    }
+
+    public Double getMaxThicknessInches() {
+        return maxThicknessInches;
+    }
+
+    public void setMaxThicknessInches(Double maxThicknessInches) {
+        this.maxThicknessInches = maxThicknessInches;
+    }
+
+    public Double getMinAreaSqInches() {
+        return minAreaSqInches;
+    }
+
+    public void setMinAreaSqInches(Double minAreaSqInches) {
+        this.minAreaSqInches = minAreaSqInches;
+    }
+
+    public Double getMaxAreaSqInches() {
+        return maxAreaSqInches;
+    }
+
+    public void setMaxAreaSqInches(Double maxAreaSqInches) {
+        this.maxAreaSqInches = maxAreaSqInches;
+    }
+
+    @Override
+    public String toString() {
+        return "SlabFilter{" +
+                "type='" + type + '\'' +
+                ", color='" + color + '\'' +
+                ", status='" + status + '\'' +
+                ", supplier='" + supplier + '\'' +
+                ", location='" + location + '\'' +
+                ", isRemnant=" + isRemnant +
+                ", isDamaged=" + isDamaged +
+                ", minLengthInches=" + minLengthInches +
+                ", maxLengthInches=" + maxLengthInches +
+                ", minWidthInches=" + minWidthInches +
+                ", maxWidthInches=" + maxWidthInches +
+                ", minThicknessInches=" + minThicknessInches +
+                ", maxThicknessInches=" + maxThicknessInches +
+                ", minAreaSqInches=" + minAreaSqInches +
+                ", maxAreaSqInches=" + maxAreaSqInches +
+                '}';
+    }
+}
@@ -0,0 +1,40 @@
+package com.trentonrush.inventoryservice.models.dtos;
+
+import java.util.List;
+
+public class SlabLayout {
+
+    private final String slabId;
+    private final double lengthInches;
+    private final double widthInches;
+    private final List<PiecePlacement> placements;
+    private final double wasteSqInches;
+
+    public SlabLayout(String slabId, double lengthInches, double widthInches, List<PiecePlacement> placements, double wasteSqInches) {
+        this.slabId = slabId;
+        this.lengthInches = lengthInches;
+        this.widthInches = widthInches;
+        this.placements = placements;
+        this.wasteSqInches = wasteSqInches;
+    }
+
+    public String getSlabId() {
+        return slabId;
+    }
+
+    public double getLengthInches() {
+        return lengthInches;
+    }
+
+    public double getWidthInches() {
+        return widthInches;
+    }
+
+    public List<PiecePlacement> getPlacements() {
+        return placements;
+    }
+
+    public double getWasteSqInches() {
+        return wasteSqInches;
+    }
+}
@@ -0,0 +1,53 @@
+package com.trentonrush.inventoryservice.models.dtos;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+public class SlabQuote {
+
+    private final String slabId;
+    private final String type;
+    private final String color;
+    private final BigDecimal areaSqFt; // null when the slab has no dimensions
+    private final BigDecimal amountPerSqFt; // null when no price exists for the type & color
+    private final Currency currency;
+    private final BigDecimal total; // null when area or price is missing
+
+    public SlabQuote(String slabId, String type, String color, BigDecimal areaSqFt, BigDecimal amountPerSqFt, Currency currency, BigDecimal total) {
+        this.slabId = slabId;
+        this.type = type;
+        this.color = color;
+        this.areaSqFt = areaSqFt;
+        this.amountPerSqFt = amountPerSqFt;
+        this.currency = currency;
+        this.total = total;
+    }
+
+    public String getSlabId() {
+        return slabId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getColor() {
+        return color;
+    }
+
+    public BigDecimal getAreaSqFt() {
+        return areaSqFt;
+    }
+
+    public BigDecimal getAmountPerSqFt() {
+        return amountPerSqFt;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,90 @@
+package com.trentonrush.inventoryservice.models.dtos;
+
+import com.trentonrush.inventoryservice.exceptions.InvalidInputException;
+import com.trentonrush.inventoryservice.utils.ValidationUtil;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The top level fields a client asked for with the fields parameter, e.g. fields=type,color,status,image.
+ * Each JSON property is mapped to the document field it is read from, so unused fields are never read or written.
+ * The id is always included since the next cursor is built from it.
+ */
+public class SparseFields {
+
+    public static final SparseFields ALL = new SparseFields(Set.of(), Set.of());
+
+    private static final Map<String, String> SLAB_FIELDS = withIdentity(Map.of("remnant", "isRemnant", "damaged", "isDamaged", "renditions", "image"),
+            "image", "description", "dimensions", "size", "color", "type", "location", "supplier", "status",
+            "creationDate", "modificationDate", "version");
+    private static final Map<String, String> SAMPLE_FIELDS = withIdentity(Map.of("renditions", "image"),
+            "image", "color", "type", "quantity", "supplier", "creationDate", "modificationDate", "version");
+
+    private final Set<String> properties; // empty for every field
+    private final Set<String> documentFields;
+
+    private SparseFields(Set<String> properties, Set<String> documentFields) {
+        this.properties = properties;
+        this.documentFields = documentFields;
+    }
+
+    /**
+     * @param fields comma separated slab properties (optional)
+     * @return the fields to read and write, or ALL if none were given
+     */
+    public static SparseFields forSlabs(String fields) {
+        return parse(fields, SLAB_FIELDS);
+    }
+
+    /**
+     * @param fields comma separated sample properties (optional)
+     * @return the fields to read and write, or ALL if none were given
+     */
+    public static SparseFields forSamples(String fields) {
+        return parse(fields, SAMPLE_FIELDS);
+    }
+
+    public boolean isAll() {
+        return properties.isEmpty();
+    }
+
+    public Set<String> getProperties() {
+        return properties;
+    }
+
+    public String[] getDocumentFields() {
+        return documentFields.toArray(String[]::new);
+    }
+
+    private static SparseFields parse(String fields, Map<String, String> allowed) {
+        if (ValidationUtil.isNullOrEmpty(fields)) {
+            return ALL;
+        }
+        Set<String> properties = new LinkedHashSet<>();
+        properties.add("id");
+        for (String field : fields.split(",")) {
+            String property = field.trim();
+            if (property.isEmpty() || property.equals("id")) {
+                continue;
+            }
+            if (!allowed.containsKey(property)) {
+                throw new InvalidInputException("Unknown field: " + property);
+            }
+            properties.add(property);
+        }
+        Set<String> documentFields = properties.stream()
+                .filter(allowed::containsKey)
+                .map(allowed::get)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        return new SparseFields(properties, documentFields);
+    }
+
+    private static Map<String, String> withIdentity(Map<String, String> renamed, String... fields) {
+        return Stream.concat(renamed.entrySet().stream(), Stream.of(fields).map(field -> Map.entry(field, field)))
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+}
@@ -0,0 +1,22 @@
+package com.trentonrush.inventoryservice.models.enums;
+
+import com.trentonrush.inventoryservice.exceptions.InvalidInputException;
+
+import java.util.Objects;
+
+public enum BatchAction {
+    CREATE,
+    UPDATE,
+    DELETE;
+
+    public static BatchAction fromString(String action) {
+        if (Objects.isNull(action)) {
+            throw new InvalidInputException("Action is empty");
+        }
+        try {
+            return BatchAction.valueOf(action.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException("Unknown action: " + action);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.trentonrush.inventoryservice.models.enums;
+
+import com.trentonrush.inventoryservice.exceptions.InvalidInputException;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+public enum ImageType {
+    JPEG("image/jpeg", "jpg"),
+    PNG("image/png", "png"),
+    GIF("image/gif", "gif"),
+    WEBP("image/webp", "webp");
+
+    // Enough leading bytes to tell every type apart
+    public static final int MAGIC_LENGTH = 12;
+    // How a stored image is referenced, its content hash and extension
+    public static final Pattern REFERENCE = Pattern.compile("([0-9a-f]{64})\\.([a-z]+)");
+
+    private final String contentType;
+    private final String extension;
+
+    ImageType(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Detect the type from the leading bytes of the image, the declared content type isn't trusted
+     */
+    public static ImageType sniff(byte[] magic, int length) {
+        if (startsWith(magic, length, 0xFF, 0xD8, 0xFF)) {
+            return JPEG;
+        }
+        if (startsWith(magic, length, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return PNG;
+        }
+        if (startsWith(magic, length, 'G', 'I', 'F', '8')) {
+            return GIF;
+        }
+        if (length >= MAGIC_LENGTH && startsWith(magic, length, 'R', 'I', 'F', 'F')
+                && magic[8] == 'W' && magic[9] == 'E' && magic[10] == 'B' && magic[11] == 'P') {
+            return WEBP;
+        }
+        throw new InvalidInputException("Image must be a JPEG, PNG, GIF, or WEBP");
+    }
+
+    /**
+     * Check if an image is a reference to a stored image rather than a URL or an inline image
+     */
+    public static boolean isReference(String image) {
+        return Objects.nonNull(image) && REFERENCE.matcher(image).matches();
+    }
+
+    public static ImageType fromExtension(String extension) {
+        return Arrays.stream(values())
+                .filter(type -> type.extension.equals(extension))
+                .findFirst()
+                .orElseThrow(() -> new InvalidInputException("Unknown image extension: " + extension));
+    }
+
+    private static boolean startsWith(byte[] magic, int length, int... prefix) {
+        if (Objects.isNull(magic) || length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if ((magic[i] & 0xFF) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,53 @@
+package com.trentonrush.inventoryservice.models.enums;
+
+import com.trentonrush.inventoryservice.exceptions.InvalidInputException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+public enum Rendition {
+    THUMBNAIL(200), // grid tiles
+    PREVIEW(800); // detail views
+
+    private final int size; // the longest side in pixels, images smaller than this are never enlarged
+
+    Rendition(int size) {
+        this.size = size;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public String getName() {
+        return name().toLowerCase();
+    }
+
+    /**
+     * The URL of every rendition of an image, relative to the service's base URL
+     * @param image the image of a slab or sample
+     * @return the URL of each rendition by name, or null if the image isn't a stored image
+     */
+    public static Map<String, String> urls(String image) {
+        if (!ImageType.isReference(image)) {
+            return null;
+        }
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (Rendition rendition : values()) {
+            urls.put(rendition.getName(), "/v1/images/" + image + "/" + rendition.getName());
+        }
+        return urls;
+    }
+
+    public static Rendition fromString(String rendition) {
+        if (Objects.isNull(rendition)) {
+            throw new InvalidInputException("Rendition is empty");
+        }
+        try {
+            return Rendition.valueOf(rendition.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException("Unknown rendition: " + rendition);
+        }
+    }
+}
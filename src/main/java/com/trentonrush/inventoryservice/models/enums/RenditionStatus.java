@@ -0,0 +1,8 @@
+package com.trentonrush.inventoryservice.models.enums;
+
+public enum RenditionStatus {
+    PENDING, // waiting for a worker, or for its next attempt
+    RUNNING, // claimed by a worker until its lease runs out
+    DONE,
+    FAILED // out of attempts, or the image can't be decoded
+}
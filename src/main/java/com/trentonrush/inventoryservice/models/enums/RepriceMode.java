@@ -0,0 +1,21 @@
+package com.trentonrush.inventoryservice.models.enums;
+
+import com.trentonrush.inventoryservice.exceptions.InvalidInputException;
+
+import java.util.Objects;
+
+public enum RepriceMode {
+    ABSOLUTE, // add a fixed amount per sqft
+    PERCENT; // change by a percentage of the current amount
+
+    public static RepriceMode fromString(String mode) {
+        if (Objects.isNull(mode)) {
+            throw new InvalidInputException("Mode is empty");
+        }
+        try {
+            return RepriceMode.valueOf(mode.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException("Unknown mode: " + mode);
+        }
+    }
+}
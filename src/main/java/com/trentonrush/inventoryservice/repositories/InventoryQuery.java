@@ -0,0 +1,145 @@
+package com.trentonrush.inventoryservice.repositories;
+
+import com.trentonrush.inventoryservice.utils.ValidationUtil;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Composable builder for inventory queries.
+ * Filters that are null or empty are skipped, so any subset of filters builds one query with a single round trip.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-14
+ */
+public class InventoryQuery {
+
+    private Criteria criteria = new Criteria();
+    private final List<String> fields = new ArrayList<>();
+    private Sort sort = Sort.unsorted();
+    private int limit;
+
+    private InventoryQuery() {
+    }
+
+    public static InventoryQuery where() {
+        return new InventoryQuery();
+    }
+
+    /**
+     * Read only the version and modification date of one document, answered by the id index
+     */
+    public static Query version(String id) {
+        return where().is("id", id).include("version", "modificationDate").limit(1).build();
+    }
+
+    /**
+     * Match one document, only while it still has the given version (optional), answered by the id index
+     */
+    public static Query atVersion(String id, Long version) {
+        return where().is("id", id).is("version", version).build();
+    }
+
+    /**
+     * Match the documents written before versions were stored.
+     * The version isn't indexed, so this scans the collection and is only used by the one-off version backfill.
+     */
+    public static Query missingVersion() {
+        return Query.query(Criteria.where("version").exists(false));
+    }
+
+    /**
+     * Read only the newest modification date of a collection, answered by the first entry of the modificationDate index
+     */
+    public static Query newestModification() {
+        Query query = new Query().with(Sort.by(Sort.Direction.DESC, "modificationDate")).limit(1);
+        query.fields().include("modificationDate").exclude("id");
+        return query;
+    }
+
+    /**
+     * Read only the images still stored inline as data URIs, resuming after the given id (optional).
+     * The image isn't indexed, so this walks the id index and is only used by the one-off image backfill.
+     */
+    public static Query inlineImages(String afterId, int limit) {
+        return where().after(afterId).include("image").limit(limit).build()
+                .addCriteria(Criteria.where("image").regex("^data:"));
+    }
+
+    /**
+     * Match documents where the field equals the value, skipped if the value is null or an empty string
+     */
+    public InventoryQuery is(String field, Object value) {
+        if (isPresent(value)) {
+            criteria = criteria.and(field).is(value);
+        }
+        return this;
+    }
+
+    /**
+     * Match documents where the field is greater than the value, skipped if the value is null or an empty string
+     */
+    public InventoryQuery greaterThan(String field, Object value) {
+        if (isPresent(value)) {
+            criteria = criteria.and(field).gt(value);
+        }
+        return this;
+    }
+
+    /**
+     * Match documents where the field is between min and max (inclusive), either bound is skipped if it's null
+     */
+    public InventoryQuery range(String field, Object min, Object max) {
+        if (Objects.isNull(min) && Objects.isNull(max)) {
+            return this;
+        }
+        // Both bounds must go on the same criteria, a field can only be added once
+        Criteria bounds = criteria.and(field);
+        if (Objects.nonNull(min)) {
+            bounds.gte(min);
+        }
+        if (Objects.nonNull(max)) {
+            bounds.lte(max);
+        }
+        return this;
+    }
+
+    /**
+     * Order results by id and resume after the given id (optional), used for cursor pagination
+     */
+    public InventoryQuery after(String id) {
+        greaterThan("id", id);
+        sort = Sort.by(Sort.Direction.ASC, "id");
+        return this;
+    }
+
+    /**
+     * Only read the given fields from the database
+     */
+    public InventoryQuery include(String... fields) {
+        this.fields.addAll(List.of(fields));
+        return this;
+    }
+
+    public InventoryQuery limit(int limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    public Query build() {
+        Query query = Query.query(criteria).with(sort).limit(limit);
+        fields.forEach(field -> query.fields().include(field));
+        return query;
+    }
+
+    private static boolean isPresent(Object value) {
+        if (value instanceof String str) {
+            return !ValidationUtil.isNullOrEmpty(str);
+        }
+        return Objects.nonNull(value);
+    }
+}
@@ -0,0 +1,16 @@
+package com.trentonrush.inventoryservice.repositories;
+
+import com.trentonrush.inventoryservice.models.SampleSlab;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Reactive Sample Slab Repository, used by the reactive web stack
+ *
+ * @author Trenton Rush
+ * @since 2024-08-25
+ * @see SampleSlabRepository
+ */
+@Repository
+public interface ReactiveSampleSlabRepository extends ReactiveMongoRepository<SampleSlab, String>, ReactiveSampleSlabRepositoryCustom {
+}
@@ -0,0 +1,31 @@
+package com.trentonrush.inventoryservice.repositories;
+
+import com.trentonrush.inventoryservice.models.SampleSlab;
+import com.trentonrush.inventoryservice.models.dtos.SampleFilter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Custom Reactive Sample Slab Repository operations, mirroring {@link SampleSlabRepositoryCustom}
+ *
+ * @author Trenton Rush
+ * @since 2024-08-25
+ * @see ReactiveSampleSlabRepository
+ */
+public interface ReactiveSampleSlabRepositoryCustom {
+
+    /**
+     * @see SampleSlabRepositoryCustom#adjustQuantity(String, int)
+     */
+    Mono<SampleSlab> adjustQuantity(String id, int delta);
+
+    /**
+     * @see SampleSlabRepositoryCustom#findPage(SampleFilter, String, int, String...)
+     */
+    Flux<SampleSlab> findPage(SampleFilter filter, String afterId, int limit);
+
+    /**
+     * @see SampleSlabRepositoryCustom#exists(SampleFilter)
+     */
+    Mono<Boolean> exists(SampleFilter filter);
+}
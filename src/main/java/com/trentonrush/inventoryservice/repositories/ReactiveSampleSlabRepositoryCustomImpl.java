@@ -0,0 +1,48 @@
+package com.trentonrush.inventoryservice.repositories;
+
+import com.trentonrush.inventoryservice.models.SampleSlab;
+import com.trentonrush.inventoryservice.models.dtos.SampleFilter;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * ReactiveMongoTemplate backed implementation of {@link ReactiveSampleSlabRepositoryCustom}.
+ * Queries are built by {@link SampleSlabRepositoryCustomImpl}, so both stacks use the same indexes.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-25
+ */
+public class ReactiveSampleSlabRepositoryCustomImpl implements ReactiveSampleSlabRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    public ReactiveSampleSlabRepositoryCustomImpl(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+    }
+
+    @Override
+    public Mono<SampleSlab> adjustQuantity(String id, int delta) {
+        Update update = new Update()
+                .inc("quantity", delta)
+                .set("modificationDate", Instant.now())
+                .inc("version", 1);
+
+        return reactiveMongoTemplate.findAndModify(SampleSlabRepositoryCustomImpl.quantityQuery(id, delta), update,
+                FindAndModifyOptions.options().returnNew(true), SampleSlab.class);
+    }
+
+    @Override
+    public Flux<SampleSlab> findPage(SampleFilter filter, String afterId, int limit) {
+        return reactiveMongoTemplate.find(SampleSlabRepositoryCustomImpl.pageQuery(filter, afterId, limit), SampleSlab.class);
+    }
+
+    @Override
+    public Mono<Boolean> exists(SampleFilter filter) {
+        return reactiveMongoTemplate.exists(SampleSlabRepositoryCustomImpl.existsQuery(filter), SampleSlab.class);
+    }
+}
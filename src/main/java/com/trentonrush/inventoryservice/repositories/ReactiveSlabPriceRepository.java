@@ -0,0 +1,18 @@
+package com.trentonrush.inventoryservice.repositories;
+
+import com.trentonrush.inventoryservice.models.SlabPrice;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive Slab Price Repository, used by the reactive web stack
+ *
+ * @author Trenton Rush
+ * @since 2024-08-25
+ * @see SlabPriceRepository
+ */
+@Repository
+public interface ReactiveSlabPriceRepository extends ReactiveMongoRepository<SlabPrice, String> {
+    Mono<SlabPrice> findByTypeAndColor(String type, String color);
+}
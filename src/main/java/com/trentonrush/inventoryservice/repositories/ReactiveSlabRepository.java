@@ -0,0 +1,16 @@
+package com.trentonrush.inventoryservice.repositories;
+
+import com.trentonrush.inventoryservice.models.Slab;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Reactive Slab Repository, used by the reactive web stack
+ *
+ * @author Trenton Rush
+ * @since 2024-08-25
+ * @see SlabRepository
+ */
+@Repository
+public interface ReactiveSlabRepository extends ReactiveMongoRepository<Slab, String>, ReactiveSlabRepositoryCustom {
+}
@@ -0,0 +1,32 @@
+package com.trentonrush.inventoryservice.repositories;
+
+import com.trentonrush.inventoryservice.models.Slab;
+import com.trentonrush.inventoryservice.models.dtos.SlabFilter;
+import com.trentonrush.inventoryservice.models.enums.Status;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Custom Reactive Slab Repository operations, mirroring {@link SlabRepositoryCustom}
+ *
+ * @author Trenton Rush
+ * @since 2024-08-25
+ * @see ReactiveSlabRepository
+ */
+public interface ReactiveSlabRepositoryCustom {
+
+    /**
+     * @see SlabRepositoryCustom#compareAndSetStatus(String, Status, Status)
+     */
+    Mono<Slab> compareAndSetStatus(String id, Status expected, Status next);
+
+    /**
+     * @see SlabRepositoryCustom#findPage(SlabFilter, String, int, String...)
+     */
+    Flux<Slab> findPage(SlabFilter filter, String afterId, int limit);
+
+    /**
+     * @see SlabRepositoryCustom#exists(SlabFilter)
+     */
+    Mono<Boolean> exists(SlabFilter filter);
+}
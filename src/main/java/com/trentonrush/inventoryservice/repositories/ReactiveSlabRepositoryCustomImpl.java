@@ -0,0 +1,51 @@
+package com.trentonrush.inventoryservice.repositories;
+
+import com.trentonrush.inventoryservice.models.Slab;
+import com.trentonrush.inventoryservice.models.dtos.SlabFilter;
+import com.trentonrush.inventoryservice.models.enums.Status;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * ReactiveMongoTemplate backed implementation of {@link ReactiveSlabRepositoryCustom}.
+ * Queries are built by {@link SlabRepositoryCustomImpl}, so both stacks use the same indexes.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-25
+ */
+public class ReactiveSlabRepositoryCustomImpl implements ReactiveSlabRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    public ReactiveSlabRepositoryCustomImpl(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+    }
+
+    @Override
+    public Mono<Slab> compareAndSetStatus(String id, Status expected, Status next) {
+        Query query = SlabRepositoryCustomImpl.statusQuery(id, expected);
+        query.fields().include("type", "color", "status", "isRemnant", "dimensions");
+        Update update = new Update()
+                .set("status", next)
+                .set("modificationDate", Instant.now())
+                .inc("version", 1);
+
+        return reactiveMongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Slab.class);
+    }
+
+    @Override
+    public Flux<Slab> findPage(SlabFilter filter, String afterId, int limit) {
+        return reactiveMongoTemplate.find(SlabRepositoryCustomImpl.pageQuery(filter, afterId, limit), Slab.class);
+    }
+
+    @Override
+    public Mono<Boolean> exists(SlabFilter filter) {
+        return reactiveMongoTemplate.exists(SlabRepositoryCustomImpl.existsQuery(filter), Slab.class);
+    }
+}
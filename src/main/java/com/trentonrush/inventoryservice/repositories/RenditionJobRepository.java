@@ -0,0 +1,15 @@
+package com.trentonrush.inventoryservice.repositories;
+
+import com.trentonrush.inventoryservice.models.RenditionJob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Rendition Job Repository, the persistent queue of images waiting for their renditions
+ *
+ * @author Trenton Rush
+ * @since 2024-09-02
+ */
+@Repository
+public interface RenditionJobRepository extends MongoRepository<RenditionJob, String>, RenditionJobRepositoryCustom {
+}
@@ -0,0 +1,51 @@
+package com.trentonrush.inventoryservice.repositories;
+
+import com.trentonrush.inventoryservice.models.RenditionJob;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Custom Rendition Job Repository operations, every change of a job is a single atomic write so any number of
+ * instances can work the same queue
+ *
+ * @author Trenton Rush
+ * @since 2024-09-02
+ * @see RenditionJobRepository
+ */
+public interface RenditionJobRepositoryCustom {
+
+    /**
+     * Queue an image for rendering unless a job for the same content already exists.
+     * @param id the content hash of the image
+     * @param image the image reference
+     * @return true if a new job was queued
+     */
+    boolean enqueue(String id, String image);
+
+    /**
+     * Claim the job that has been available the longest, either pending or running with an expired lease.
+     * The job is moved to running and its attempts are counted in the same write, so no two workers claim it.
+     * Running jobs whose lease expired on their last attempt are failed instead of being claimed again.
+     * @param lease how long the worker has to finish before the job can be claimed again
+     * @return the claimed job, or empty if no job is available
+     */
+    Optional<RenditionJob> claimNext(Duration lease);
+
+    /**
+     * Mark a job done with the references of its renditions.
+     * @param id the id of the job
+     * @param renditions the stored image reference of each rendition by name
+     */
+    void complete(String id, Map<String, String> renditions);
+
+    /**
+     * Record a failed attempt, the job is retried at the given date or failed for good.
+     * @param id the id of the job
+     * @param error why the attempt failed
+     * @param retryDate when the job may be claimed again, or null if it must not be retried
+     */
+    void fail(String id, String error, Instant retryDate);
+}
@@ -0,0 +1,99 @@
+package com.trentonrush.inventoryservice.repositories;
+
+import com.trentonrush.inventoryservice.models.RenditionJob;
+import com.trentonrush.inventoryservice.models.enums.RenditionStatus;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.trentonrush.inventoryservice.utils.InventoryConstants.MAX_RENDITION_ATTEMPTS;
+
+/**
+ * MongoTemplate backed implementation of {@link RenditionJobRepositoryCustom}
+ *
+ * @author Trenton Rush
+ * @since 2024-09-02
+ */
+public class RenditionJobRepositoryCustomImpl implements RenditionJobRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public RenditionJobRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public boolean enqueue(String id, String image) {
+        Instant now = Instant.now();
+        // Only fields set on insert, queueing an image that already has a job changes nothing
+        Update update = new Update()
+                .setOnInsert("image", image)
+                .setOnInsert("status", RenditionStatus.PENDING)
+                .setOnInsert("attempts", 0)
+                .setOnInsert("availableDate", now)
+                .setOnInsert("creationDate", now)
+                .setOnInsert("modificationDate", now);
+        return Objects.nonNull(mongoTemplate.upsert(idQuery(id), update, RenditionJob.class).getUpsertedId());
+    }
+
+    @Override
+    public Optional<RenditionJob> claimNext(Duration lease) {
+        Instant now = Instant.now();
+        // A worker that died on its last attempt never failed the job, it's failed here instead of being retried
+        mongoTemplate.updateMulti(exhaustedQuery(now), Update.update("status", RenditionStatus.FAILED)
+                .set("error", "Lease expired after " + MAX_RENDITION_ATTEMPTS + " attempts")
+                .set("modificationDate", now), RenditionJob.class);
+        Update update = Update.update("status", RenditionStatus.RUNNING)
+                .set("availableDate", now.plus(lease))
+                .set("modificationDate", now)
+                .inc("attempts", 1);
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                claimQuery(now), update, FindAndModifyOptions.options().returnNew(true), RenditionJob.class));
+    }
+
+    @Override
+    public void complete(String id, Map<String, String> renditions) {
+        mongoTemplate.updateFirst(idQuery(id), Update.update("status", RenditionStatus.DONE)
+                .set("renditions", renditions)
+                .unset("error")
+                .set("modificationDate", Instant.now()), RenditionJob.class);
+    }
+
+    @Override
+    public void fail(String id, String error, Instant retryDate) {
+        Update update = Update.update("error", error).set("modificationDate", Instant.now());
+        if (Objects.isNull(retryDate)) {
+            update.set("status", RenditionStatus.FAILED);
+        } else {
+            update.set("status", RenditionStatus.PENDING).set("availableDate", retryDate);
+        }
+        mongoTemplate.updateFirst(idQuery(id), update, RenditionJob.class);
+    }
+
+    static Query idQuery(String id) {
+        return Query.query(Criteria.where("id").is(id));
+    }
+
+    static Query claimQuery(Instant now) {
+        // One range per status on the status_available_date index, merged in availableDate order
+        return Query.query(Criteria.where("status").in(RenditionStatus.PENDING, RenditionStatus.RUNNING)
+                        .and("availableDate").lte(now)
+                        .and("attempts").lt(MAX_RENDITION_ATTEMPTS))
+                .with(Sort.by(Sort.Direction.ASC, "availableDate"));
+    }
+
+    static Query exhaustedQuery(Instant now) {
+        return Query.query(Criteria.where("status").is(RenditionStatus.RUNNING)
+                .and("availableDate").lte(now)
+                .and("attempts").gte(MAX_RENDITION_ATTEMPTS));
+    }
+}
@@ -0,0 +1,101 @@
+package com.trentonrush.inventoryservice.repositories;
+
+import com.trentonrush.inventoryservice.models.SampleSlab;
+import com.trentonrush.inventoryservice.models.dtos.CollectionWatermark;
+import com.trentonrush.inventoryservice.models.dtos.InventoryCount;
+import com.trentonrush.inventoryservice.models.dtos.SampleFilter;
+import com.trentonrush.inventoryservice.models.dtos.SlabDTO;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * Custom Sample Slab Repository operations that can't be expressed as derived queries
+ *
+ * @author Trenton Rush
+ * @since 2024-08-10
+ * @see SampleSlabRepository
+ */
+public interface SampleSlabRepositoryCustom {
+
+    /**
+     * Atomically add a delta to the quantity of a sample in a single round trip.
+     * The update only matches when the resulting quantity would not drop below zero.
+     * @param id the id of the sample being adjusted
+     * @param delta the amount to add (negative to remove)
+     * @return the updated sample, or empty if no sample matched the id and floor guard
+     */
+    Optional<SampleSlab> adjustQuantity(String id, int delta);
+
+    /**
+     * Find one page of samples matching the given filters, ordered by id.
+     * @param filter the filters to match, any unset filter is ignored
+     * @param afterId only return samples with an id greater than this one (optional)
+     * @param limit the maximum number of samples to return
+     * @param fields the only fields to read, the id is always read (optional, every field when empty)
+     * @return the samples found, in ascending id order
+     */
+    List<SampleSlab> findPage(SampleFilter filter, String afterId, int limit, String... fields);
+
+    /**
+     * Check if any sample matches the given filters without reading the matching documents.
+     * @param filter the filters to match, any unset filter is ignored
+     * @return true if at least one sample matches
+     */
+    boolean exists(SampleFilter filter);
+
+    /**
+     * Sum the quantity of every sample grouped by type and color in a single aggregation.
+     * @return one total quantity per type and color combination
+     */
+    List<InventoryCount> sumQuantityByTypeAndColor();
+
+    /**
+     * Find the version and modification date of a sample without reading the rest of the document.
+     * @param id the id of the sample
+     * @return the sample with only its version and modification date read, or empty if no sample has the id
+     */
+    Optional<SampleSlab> findVersion(String id);
+
+    /**
+     * Set only the fields provided on a sample and bump its version in a single round trip, the same way a single sample
+     * update applies them.
+     * @param id the id of the sample being updated
+     * @param version the version the sample must currently have, or null to update any version
+     * @param changes the new fields being updated
+     * @param modificationDate the modification date to set
+     * @return the sample as it was before the update, or empty if no sample matched the id and version
+     */
+    Optional<SampleSlab> findAndUpdate(String id, Long version, SlabDTO changes, Instant modificationDate);
+
+    /**
+     * Delete a sample in a single round trip, returning what was deleted.
+     * @param id the id of the sample being deleted
+     * @param version the version the sample must currently have, or null to delete any version
+     * @return the deleted sample with only its type, color, and quantity read, or empty if no sample matched the id and version
+     */
+    Optional<SampleSlab> findAndRemove(String id, Long version);
+
+    /**
+     * Store version 0 on every sample written before versions were stored, so they can be updated with a version.
+     * @return the number of samples updated
+     */
+    long backfillVersions();
+
+    /**
+     * Find the watermark of the whole sample collection from its estimated count and newest modification date.
+     * @return the current watermark
+     */
+    CollectionWatermark findWatermark();
+
+    /**
+     * Move every image still stored inline on a sample to the image store, keeping only the reference on the document.
+     * Samples are read and updated in batches, each batch with one read and one bulk write.
+     * @param batchSize the number of samples read per batch
+     * @param externalize stores an inline image and returns its reference, or returns the image unchanged to skip the sample
+     * @return the number of samples updated
+     */
+    long backfillImages(int batchSize, UnaryOperator<String> externalize);
+}
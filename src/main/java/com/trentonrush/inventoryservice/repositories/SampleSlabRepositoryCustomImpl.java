@@ -0,0 +1,185 @@
+package com.trentonrush.inventoryservice.repositories;
+
+import com.trentonrush.inventoryservice.models.SampleSlab;
+import com.trentonrush.inventoryservice.models.dtos.CollectionWatermark;
+import com.trentonrush.inventoryservice.models.dtos.InventoryCount;
+import com.trentonrush.inventoryservice.models.dtos.SampleFilter;
+import com.trentonrush.inventoryservice.models.dtos.SlabDTO;
+import com.trentonrush.inventoryservice.utils.ValidationUtil;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * MongoTemplate backed implementation of {@link SampleSlabRepositoryCustom}
+ *
+ * @author Trenton Rush
+ * @since 2024-08-10
+ */
+public class SampleSlabRepositoryCustomImpl implements SampleSlabRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public SampleSlabRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<SampleSlab> adjustQuantity(String id, int delta) {
+        Update update = new Update()
+                .inc("quantity", delta)
+                .set("modificationDate", Instant.now())
+                .inc("version", 1);
+
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                quantityQuery(id, delta), update, FindAndModifyOptions.options().returnNew(true), SampleSlab.class));
+    }
+
+    @Override
+    public List<SampleSlab> findPage(SampleFilter filter, String afterId, int limit, String... fields) {
+        return mongoTemplate.find(pageQuery(filter, afterId, limit, fields), SampleSlab.class);
+    }
+
+    @Override
+    public boolean exists(SampleFilter filter) {
+        return mongoTemplate.exists(existsQuery(filter), SampleSlab.class);
+    }
+
+    @Override
+    public List<InventoryCount> sumQuantityByTypeAndColor() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.group("type", "color").sum("quantity").as("count"),
+                Aggregation.project("type", "color", "count").andExclude("_id"));
+        return mongoTemplate.aggregate(aggregation, SampleSlab.class, InventoryCount.class).getMappedResults();
+    }
+
+    @Override
+    public Optional<SampleSlab> findVersion(String id) {
+        return Optional.ofNullable(mongoTemplate.findOne(InventoryQuery.version(id), SampleSlab.class));
+    }
+
+    @Override
+    public Optional<SampleSlab> findAndUpdate(String id, Long version, SlabDTO changes, Instant modificationDate) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(InventoryQuery.atVersion(id, version),
+                updateFrom(changes, modificationDate), FindAndModifyOptions.options().returnNew(false), SampleSlab.class));
+    }
+
+    @Override
+    public Optional<SampleSlab> findAndRemove(String id, Long version) {
+        Query query = InventoryQuery.atVersion(id, version);
+        query.fields().include("type", "color", "quantity");
+        return Optional.ofNullable(mongoTemplate.findAndRemove(query, SampleSlab.class));
+    }
+
+    @Override
+    public long backfillVersions() {
+        return mongoTemplate.updateMulti(InventoryQuery.missingVersion(), Update.update("version", 0L), SampleSlab.class)
+                .getModifiedCount();
+    }
+
+    @Override
+    public CollectionWatermark findWatermark() {
+        SampleSlab newest = mongoTemplate.findOne(InventoryQuery.newestModification(), SampleSlab.class);
+        return new CollectionWatermark(mongoTemplate.estimatedCount(SampleSlab.class),
+                Objects.isNull(newest) ? null : newest.getModificationDate());
+    }
+
+    @Override
+    public long backfillImages(int batchSize, UnaryOperator<String> externalize) {
+        long updated = 0;
+        String afterId = null;
+        List<SampleSlab> sampleSlabs;
+        do {
+            sampleSlabs = mongoTemplate.find(InventoryQuery.inlineImages(afterId, batchSize), SampleSlab.class);
+            if (sampleSlabs.isEmpty()) {
+                break;
+            }
+
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SampleSlab.class);
+            int writes = 0;
+            for (SampleSlab sampleSlab : sampleSlabs) {
+                String image = externalize.apply(sampleSlab.getImage());
+                // Images that weren't stored are left inline, they're skipped by moving past their id
+                if (!Objects.equals(image, sampleSlab.getImage())) {
+                    bulkOps.updateOne(Query.query(Criteria.where("id").is(sampleSlab.getId())),
+                            // Bulk writes leave the version alone unless told to bump it
+                            Update.update("image", image).set("modificationDate", Instant.now()).inc("version", 1));
+                    writes++;
+                }
+            }
+            if (writes > 0) {
+                updated += bulkOps.execute().getModifiedCount();
+            }
+            afterId = sampleSlabs.get(sampleSlabs.size() - 1).getId();
+        } while (sampleSlabs.size() == batchSize);
+        return updated;
+    }
+
+    /**
+     * Build an update that only sets the fields provided in the DTO and bumps the version
+     * @param slabDTO the new fields being updated
+     * @param modificationDate the modification date to set
+     * @return the update to apply
+     */
+    static Update updateFrom(SlabDTO slabDTO, Instant modificationDate) {
+        Update update = new Update();
+        if (!ValidationUtil.isNullOrEmpty(slabDTO.getImage())) {
+            update.set("image", slabDTO.getImage());
+        }
+        if (!ValidationUtil.isNullOrEmpty(slabDTO.getColor())) {
+            update.set("color", slabDTO.getColor());
+        }
+        if (!ValidationUtil.isNullOrEmpty(slabDTO.getType())) {
+            update.set("type", slabDTO.getType());
+        }
+        if (!ValidationUtil.isNullOrEmpty(slabDTO.getSupplier())) {
+            update.set("supplier", slabDTO.getSupplier());
+        }
+        if (slabDTO.getQuantity() >= 0) {
+            update.set("quantity", slabDTO.getQuantity());
+        }
+        return update.set("modificationDate", modificationDate).inc("version", 1);
+    }
+
+    static Query quantityQuery(String id, int delta) {
+        Criteria criteria = Criteria.where("id").is(id);
+        if (delta < 0) {
+            // Floor guard: only match when there is enough quantity to remove
+            criteria = criteria.and("quantity").gte(-delta);
+        }
+        return Query.query(criteria);
+    }
+
+    static Query pageQuery(SampleFilter filter, String afterId, int limit, String... fields) {
+        return filter(filter)
+                .after(afterId)
+                .include(fields)
+                .limit(limit)
+                .build();
+    }
+
+    static Query existsQuery(SampleFilter filter) {
+        return filter(filter)
+                .include("id")
+                .limit(1)
+                .build();
+    }
+
+    private static InventoryQuery filter(SampleFilter filter) {
+        return InventoryQuery.where()
+                .is("type", filter.getType())
+                .is("color", filter.getColor())
+                .is("supplier", filter.getSupplier())
+                .greaterThan("quantity", filter.isOnlyAvailable() ? 0 : null);
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Slab Price Repository
@@ -13,6 +14,7 @@ import java.util.Optional;
  * @since 2024-07-28
  */
 @Repository
-public interface SlabPriceRepository extends MongoRepository<SlabPrice, String> {
+public interface SlabPriceRepository extends MongoRepository<SlabPrice, String>, SlabPriceRepositoryCustom {
     Optional<SlabPrice> findByTypeAndColor(String type, String color);
+    Stream<SlabPrice> streamAllBy();
 }
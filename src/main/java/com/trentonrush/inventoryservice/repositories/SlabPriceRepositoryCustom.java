@@ -0,0 +1,76 @@
+package com.trentonrush.inventoryservice.repositories;
+
+import com.trentonrush.inventoryservice.models.Slab;
+import com.trentonrush.inventoryservice.models.SlabPrice;
+import com.trentonrush.inventoryservice.models.dtos.RepricedPrice;
+import com.trentonrush.inventoryservice.models.dtos.SlabDTO;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Custom Slab Price Repository operations that can't be expressed as derived queries
+ *
+ * @author Trenton Rush
+ * @since 2024-08-20
+ * @see SlabPriceRepository
+ */
+public interface SlabPriceRepositoryCustom {
+
+    /**
+     * Find every price matching a type and/or color.
+     * @param type the type of the prices (optional)
+     * @param color the color of the prices (optional)
+     * @return the prices found
+     */
+    List<SlabPrice> findAllByFilter(String type, String color);
+
+    /**
+     * Find the price of every type and color pair used by the given slabs in a single round trip.
+     * @param slabs the slabs being priced, only their type and color are read
+     * @return the prices found, at most one per type and color pair
+     */
+    List<SlabPrice> findAllForSlabs(Collection<Slab> slabs);
+
+    /**
+     * Write many new amounts in one unordered bulk write.
+     * Each price is only updated if its amount hasn't changed since it was read.
+     * @param prices the prices being changed
+     * @return the number of prices updated
+     */
+    long bulkUpdateAmounts(List<RepricedPrice> prices);
+
+    /**
+     * Find the version and modification date of a price without reading the rest of the document.
+     * @param id the id of the price
+     * @return the price with only its version and modification date read, or empty if no price has the id
+     */
+    Optional<SlabPrice> findVersion(String id);
+
+    /**
+     * Set only the fields provided on a price and bump its version in a single round trip, the same way a single price
+     * update applies them.
+     * @param id the id of the price being updated
+     * @param version the version the price must currently have, or null to update any version
+     * @param changes the new fields being updated
+     * @param modificationDate the modification date to set
+     * @return the price as it was before the update, or empty if no price matched the id and version
+     */
+    Optional<SlabPrice> findAndUpdate(String id, Long version, SlabDTO changes, Instant modificationDate);
+
+    /**
+     * Delete a price in a single round trip, returning what was deleted.
+     * @param id the id of the price being deleted
+     * @param version the version the price must currently have, or null to delete any version
+     * @return the deleted price with only its type and color read, or empty if no price matched the id and version
+     */
+    Optional<SlabPrice> findAndRemove(String id, Long version);
+
+    /**
+     * Store version 0 on every price written before versions were stored, so they can be updated with a version.
+     * @return the number of prices updated
+     */
+    long backfillVersions();
+}
@@ -0,0 +1,149 @@
+package com.trentonrush.inventoryservice.repositories;
+
+import com.trentonrush.inventoryservice.models.Slab;
+import com.trentonrush.inventoryservice.models.SlabPrice;
+import com.trentonrush.inventoryservice.models.dtos.RepricedPrice;
+import com.trentonrush.inventoryservice.models.dtos.SlabDTO;
+import com.trentonrush.inventoryservice.utils.ValidationUtil;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Currency;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.trentonrush.inventoryservice.utils.InventoryConstants.*;
+
+/**
+ * MongoTemplate backed implementation of {@link SlabPriceRepositoryCustom}
+ *
+ * @author Trenton Rush
+ * @since 2024-08-20
+ */
+public class SlabPriceRepositoryCustomImpl implements SlabPriceRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public SlabPriceRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<SlabPrice> findAllByFilter(String type, String color) {
+        return mongoTemplate.find(filterQuery(type, color), SlabPrice.class);
+    }
+
+    @Override
+    public List<SlabPrice> findAllForSlabs(Collection<Slab> slabs) {
+        Query query = slabsQuery(slabs);
+        if (Objects.isNull(query)) {
+            return List.of();
+        }
+        return mongoTemplate.find(query, SlabPrice.class);
+    }
+
+    @Override
+    public long bulkUpdateAmounts(List<RepricedPrice> prices) {
+        if (prices.isEmpty()) {
+            return 0;
+        }
+
+        Instant now = Instant.now();
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SlabPrice.class);
+        for (RepricedPrice price : prices) {
+            Query query = amountQuery(price);
+            Update update = new Update()
+                    .set("amountPerSqFt", price.getNewAmountPerSqFt())
+                    .set("currency", price.getCurrency())
+                    .set("modificationDate", now)
+                    .inc("version", 1); // not bumped for us in a bulk write
+            bulkOps.updateOne(query, update);
+        }
+        return bulkOps.execute().getModifiedCount();
+    }
+
+    @Override
+    public Optional<SlabPrice> findVersion(String id) {
+        return Optional.ofNullable(mongoTemplate.findOne(InventoryQuery.version(id), SlabPrice.class));
+    }
+
+    @Override
+    public Optional<SlabPrice> findAndUpdate(String id, Long version, SlabDTO changes, Instant modificationDate) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(InventoryQuery.atVersion(id, version),
+                updateFrom(changes, modificationDate), FindAndModifyOptions.options().returnNew(false), SlabPrice.class));
+    }
+
+    @Override
+    public Optional<SlabPrice> findAndRemove(String id, Long version) {
+        Query query = InventoryQuery.atVersion(id, version);
+        query.fields().include("type", "color");
+        return Optional.ofNullable(mongoTemplate.findAndRemove(query, SlabPrice.class));
+    }
+
+    @Override
+    public long backfillVersions() {
+        return mongoTemplate.updateMulti(InventoryQuery.missingVersion(), Update.update("version", 0L), SlabPrice.class)
+                .getModifiedCount();
+    }
+
+    /**
+     * Build an update that only sets the fields provided in the DTO and bumps the version
+     * @param slabDTO the new fields being updated
+     * @param modificationDate the modification date to set
+     * @return the update to apply
+     */
+    static Update updateFrom(SlabDTO slabDTO, Instant modificationDate) {
+        Update update = new Update();
+        if (!ValidationUtil.isNullOrEmpty(slabDTO.getColor())) {
+            update.set("color", slabDTO.getColor());
+        }
+        if (!ValidationUtil.isNullOrEmpty(slabDTO.getType())) {
+            update.set("type", slabDTO.getType());
+        }
+        if (!ValidationUtil.isNullOrEmpty(slabDTO.getSqftPrice())) {
+            // Checked against the currency's scale the same way a new price is
+            SlabPrice price = new SlabPrice(new BigDecimal(slabDTO.getSqftPrice()), Currency.getInstance(USD_CURRENCY_CODE));
+            update.set("amountPerSqFt", price.getAmountPerSqFt());
+            update.set("currency", price.getCurrency());
+        }
+        return update.set("modificationDate", modificationDate).inc("version", 1);
+    }
+
+    static Query filterQuery(String type, String color) {
+        return InventoryQuery.where()
+                .is("type", type)
+                .is("color", color)
+                .build();
+    }
+
+    static Query slabsQuery(Collection<Slab> slabs) {
+        // One $or branch per distinct type & color pair, each answered by the unique type_color index
+        Map<String, Criteria> pairs = new LinkedHashMap<>();
+        for (Slab slab : slabs) {
+            if (ValidationUtil.isNullOrEmpty(slab.getType()) || ValidationUtil.isNullOrEmpty(slab.getColor())) {
+                continue;
+            }
+            pairs.computeIfAbsent(slab.getType() + "|" + slab.getColor(),
+                    k -> Criteria.where("type").is(slab.getType()).and("color").is(slab.getColor()));
+        }
+        if (pairs.isEmpty()) {
+            return null;
+        }
+        return Query.query(new Criteria().orOperator(pairs.values()));
+    }
+
+    static Query amountQuery(RepricedPrice price) {
+        // Guard on the amount that was read so a concurrent edit isn't overwritten
+        return Query.query(Criteria.where("id").is(price.getId()).and("amountPerSqFt").is(price.getOldAmountPerSqFt()));
+    }
+}
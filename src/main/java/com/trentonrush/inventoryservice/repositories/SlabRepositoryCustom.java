@@ -0,0 +1,149 @@
+package com.trentonrush.inventoryservice.repositories;
+
+import com.trentonrush.inventoryservice.models.Slab;
+import com.trentonrush.inventoryservice.models.dtos.CollectionWatermark;
+import com.trentonrush.inventoryservice.models.dtos.InventoryCount;
+import com.trentonrush.inventoryservice.models.dtos.SlabDTO;
+import com.trentonrush.inventoryservice.models.dtos.SlabFilter;
+import com.trentonrush.inventoryservice.models.enums.Status;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * Custom Slab Repository operations that can't be expressed as derived queries
+ *
+ * @author Trenton Rush
+ * @since 2024-08-10
+ * @see SlabRepository
+ */
+public interface SlabRepositoryCustom {
+
+    /**
+     * Atomically move a slab from one status to another in a single round trip.
+     * The update only matches when the slab is currently in the expected status.
+     * @param id the id of the slab being updated
+     * @param expected the status the slab must currently have
+     * @param next the status the slab is moved to
+     * @return the updated slab with only its type, color, status, remnant flag, and dimensions read, or empty if no slab matched the id and expected status
+     */
+    Optional<Slab> compareAndSetStatus(String id, Status expected, Status next);
+
+    /**
+     * Find one page of slabs matching the given filters, ordered by id.
+     * @param filter the filters to match, any unset filter is ignored
+     * @param afterId only return slabs with an id greater than this one (optional)
+     * @param limit the maximum number of slabs to return
+     * @param fields the only fields to read, the id is always read (optional, every field when empty)
+     * @return the slabs found, in ascending id order
+     */
+    List<Slab> findPage(SlabFilter filter, String afterId, int limit, String... fields);
+
+    /**
+     * Check if any slab matches the given filters without reading the matching documents.
+     * @param filter the filters to match, any unset filter is ignored
+     * @return true if at least one slab matches
+     */
+    boolean exists(SlabFilter filter);
+
+    /**
+     * Count every slab grouped by type, color, and status in a single aggregation.
+     * @return one count per type, color, and status combination
+     */
+    List<InventoryCount> countByTypeAndColorAndStatus();
+
+    /**
+     * Find the type, color, status, remnant flag, and dimensions of many slabs in a single round trip.
+     * @param ids the ids of the slabs to find
+     * @return the slabs found with only their id, type, color, status, remnant flag, and dimensions read
+     */
+    List<Slab> findSummariesByIds(Collection<String> ids);
+
+    /**
+     * Find the type, color, and dimensions of many slabs in a single round trip.
+     * @param ids the ids of the slabs to find
+     * @return the slabs found with only their id, type, color, and dimensions read
+     */
+    List<Slab> findDimensionsByIds(Collection<String> ids);
+
+    /**
+     * Find the type, color, and dimensions of the slabs matching the given filters, ordered by id.
+     * @param filter the filters to match, any unset filter is ignored
+     * @param limit the maximum number of slabs to return
+     * @return the slabs found with only their id, type, color, and dimensions read
+     */
+    List<Slab> findDimensions(SlabFilter filter, int limit);
+
+    /**
+     * Execute many inserts, updates, and deletes as one unordered bulk write.
+     * Updates only set the fields provided, the same way a single slab update does.
+     * @param writes the writes to execute
+     * @return an error message for each write that failed, keyed by its index in writes
+     */
+    Map<Integer, String> bulkWrite(List<SlabWrite> writes);
+
+    /**
+     * Derive and store the canonical size of every slab written before sizes were stored.
+     * Slabs are read and updated in batches, each batch with one read and one bulk write.
+     * @param batchSize the number of slabs read per batch
+     * @return the number of slabs updated
+     */
+    long backfillSizes(int batchSize);
+
+    /**
+     * Move every image still stored inline on a slab to the image store, keeping only the reference on the document.
+     * Slabs are read and updated in batches, each batch with one read and one bulk write.
+     * @param batchSize the number of slabs read per batch
+     * @param externalize stores an inline image and returns its reference, or returns the image unchanged to skip the slab
+     * @return the number of slabs updated
+     */
+    long backfillImages(int batchSize, UnaryOperator<String> externalize);
+
+    /**
+     * Find every available remnant in a single query.
+     * @return the remnants found with only their id, type, color, status, remnant flag, dimensions, and size read
+     */
+    List<Slab> findAvailableRemnants();
+
+    /**
+     * Find the version and modification date of a slab without reading the rest of the document.
+     * @param id the id of the slab
+     * @return the slab with only its version and modification date read, or empty if no slab has the id
+     */
+    Optional<Slab> findVersion(String id);
+
+    /**
+     * Set only the fields provided on a slab and bump its version in a single round trip, the same way a single slab
+     * update applies them.
+     * @param id the id of the slab being updated
+     * @param version the version the slab must currently have, or null to update any version
+     * @param changes the new fields being updated
+     * @param modificationDate the modification date to set
+     * @return the slab as it was before the update, or empty if no slab matched the id and version
+     */
+    Optional<Slab> findAndUpdate(String id, Long version, SlabDTO changes, Instant modificationDate);
+
+    /**
+     * Delete a slab in a single round trip, returning what was deleted.
+     * @param id the id of the slab being deleted
+     * @param version the version the slab must currently have, or null to delete any version
+     * @return the deleted slab with only its type, color, and status read, or empty if no slab matched the id and version
+     */
+    Optional<Slab> findAndRemove(String id, Long version);
+
+    /**
+     * Store version 0 on every slab written before versions were stored, so they can be updated with a version.
+     * @return the number of slabs updated
+     */
+    long backfillVersions();
+
+    /**
+     * Find the watermark of the whole slab collection from its estimated count and newest modification date.
+     * @return the current watermark
+     */
+    CollectionWatermark findWatermark();
+}
@@ -0,0 +1,326 @@
+package com.trentonrush.inventoryservice.repositories;
+
+import com.trentonrush.inventoryservice.exceptions.InvalidInputException;
+import com.trentonrush.inventoryservice.models.Slab;
+import com.trentonrush.inventoryservice.models.SlabSize;
+import com.trentonrush.inventoryservice.models.dtos.CollectionWatermark;
+import com.trentonrush.inventoryservice.models.dtos.InventoryCount;
+import com.trentonrush.inventoryservice.models.dtos.SlabDTO;
+import com.trentonrush.inventoryservice.models.dtos.SlabFilter;
+import com.trentonrush.inventoryservice.models.enums.Status;
+import com.trentonrush.inventoryservice.utils.ValidationUtil;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * MongoTemplate backed implementation of {@link SlabRepositoryCustom}
+ *
+ * @author Trenton Rush
+ * @since 2024-08-10
+ */
+public class SlabRepositoryCustomImpl implements SlabRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public SlabRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<Slab> compareAndSetStatus(String id, Status expected, Status next) {
+        Query query = statusQuery(id, expected);
+        query.fields().include("type", "color", "status", "isRemnant", "dimensions");
+        Update update = new Update()
+                .set("status", next)
+                .set("modificationDate", Instant.now())
+                .inc("version", 1);
+
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                query, update, FindAndModifyOptions.options().returnNew(true), Slab.class));
+    }
+
+    @Override
+    public List<Slab> findPage(SlabFilter filter, String afterId, int limit, String... fields) {
+        return mongoTemplate.find(pageQuery(filter, afterId, limit, fields), Slab.class);
+    }
+
+    @Override
+    public boolean exists(SlabFilter filter) {
+        return mongoTemplate.exists(existsQuery(filter), Slab.class);
+    }
+
+    @Override
+    public List<InventoryCount> countByTypeAndColorAndStatus() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.group("type", "color", "status").count().as("count"),
+                Aggregation.project("type", "color", "status", "count").andExclude("_id"));
+        return mongoTemplate.aggregate(aggregation, Slab.class, InventoryCount.class).getMappedResults();
+    }
+
+    @Override
+    public List<Slab> findSummariesByIds(Collection<String> ids) {
+        Query query = Query.query(Criteria.where("id").in(ids));
+        query.fields().include("type", "color", "status", "isRemnant", "dimensions");
+        return mongoTemplate.find(query, Slab.class);
+    }
+
+    @Override
+    public List<Slab> findDimensionsByIds(Collection<String> ids) {
+        Query query = Query.query(Criteria.where("id").in(ids));
+        query.fields().include("type", "color", "dimensions");
+        return mongoTemplate.find(query, Slab.class);
+    }
+
+    @Override
+    public List<Slab> findDimensions(SlabFilter filter, int limit) {
+        return mongoTemplate.find(dimensionsQuery(filter, limit), Slab.class);
+    }
+
+    @Override
+    public Map<Integer, String> bulkWrite(List<SlabWrite> writes) {
+        Map<Integer, String> errors = new HashMap<>();
+        if (writes.isEmpty()) {
+            return errors;
+        }
+
+        Instant now = Instant.now();
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Slab.class);
+        for (SlabWrite write : writes) {
+            switch (write.getAction()) {
+                case CREATE -> bulkOps.insert(write.getSlab());
+                case UPDATE -> bulkOps.updateOne(Query.query(Criteria.where("id").is(write.getId())), updateFrom(write.getChanges(), now));
+                case DELETE -> bulkOps.remove(Query.query(Criteria.where("id").is(write.getId())));
+            }
+        }
+
+        try {
+            bulkOps.execute();
+        } catch (BulkOperationException e) {
+            // Unordered writes keep going after a failure, so only the failed indexes are reported
+            e.getErrors().forEach(error -> errors.put(error.getIndex(), error.getMessage()));
+        }
+        return errors;
+    }
+
+    /**
+     * Build an update that only sets the fields provided in the DTO and bumps the version.
+     * The version is bumped here rather than left to the template, which doesn't bump it in bulk writes.
+     * @param slabDTO the new fields being updated
+     * @param modificationDate the modification date to set
+     * @return the update to apply
+     */
+    static Update updateFrom(SlabDTO slabDTO, Instant modificationDate) {
+        Update update = new Update();
+        if (!ValidationUtil.isNullOrEmpty(slabDTO.getImage())) {
+            update.set("image", slabDTO.getImage());
+        }
+        if (!ValidationUtil.isNullOrEmpty(slabDTO.getDescription())) {
+            update.set("description", slabDTO.getDescription());
+        }
+        if (!ValidationUtil.isNullOrEmpty(slabDTO.getColor())) {
+            update.set("color", slabDTO.getColor());
+        }
+        if (!ValidationUtil.isNullOrEmpty(slabDTO.getType())) {
+            update.set("type", slabDTO.getType());
+        }
+        if (!ValidationUtil.isNullOrEmpty(slabDTO.getLocation())) {
+            update.set("location", slabDTO.getLocation());
+        }
+        if (!ValidationUtil.isNullOrEmpty(slabDTO.getSupplier())) {
+            update.set("supplier", slabDTO.getSupplier());
+        }
+        // catch if the dimensions contain any invalid values
+        try {
+            ValidationUtil.validateDimensions(slabDTO.getDimensions());
+            update.set("dimensions", slabDTO.getDimensions());
+            update.set("size", SlabSize.of(slabDTO.getDimensions()));
+        } catch (InvalidInputException ignored) {
+            // do nothing if dimensions are empty
+        }
+
+        // Handle booleans directly since they can't be null
+        update.set("isRemnant", slabDTO.isRemnant());
+        update.set("isDamaged", slabDTO.isDamaged());
+
+        if (!ValidationUtil.isNullOrEmpty(slabDTO.getStatus())) {
+            update.set("status", Status.fromString(slabDTO.getStatus()));
+        }
+        return update.set("modificationDate", modificationDate).inc("version", 1);
+    }
+
+    @Override
+    public long backfillSizes(int batchSize) {
+        long updated = 0;
+        String afterId = null;
+        List<Slab> slabs;
+        do {
+            slabs = mongoTemplate.find(missingSizeQuery(afterId, batchSize), Slab.class);
+            if (slabs.isEmpty()) {
+                break;
+            }
+
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Slab.class);
+            int writes = 0;
+            for (Slab slab : slabs) {
+                SlabSize size = SlabSize.of(slab.getDimensions());
+                // Slabs without a length and width can't be sized, they're skipped by moving past their id
+                // The size is part of the response body, so the modification date moves with it for conditional GETs
+                if (Objects.nonNull(size)) {
+                    bulkOps.updateOne(Query.query(Criteria.where("id").is(slab.getId())),
+                            Update.update("size", size).set("modificationDate", Instant.now()).inc("version", 1));
+                    writes++;
+                }
+            }
+            if (writes > 0) {
+                updated += bulkOps.execute().getModifiedCount();
+            }
+            afterId = slabs.get(slabs.size() - 1).getId();
+        } while (slabs.size() == batchSize);
+        return updated;
+    }
+
+    @Override
+    public List<Slab> findAvailableRemnants() {
+        return mongoTemplate.find(remnantsQuery(), Slab.class);
+    }
+
+    @Override
+    public Optional<Slab> findVersion(String id) {
+        return Optional.ofNullable(mongoTemplate.findOne(InventoryQuery.version(id), Slab.class));
+    }
+
+    @Override
+    public Optional<Slab> findAndUpdate(String id, Long version, SlabDTO changes, Instant modificationDate) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(InventoryQuery.atVersion(id, version),
+                updateFrom(changes, modificationDate), FindAndModifyOptions.options().returnNew(false), Slab.class));
+    }
+
+    @Override
+    public Optional<Slab> findAndRemove(String id, Long version) {
+        Query query = InventoryQuery.atVersion(id, version);
+        query.fields().include("type", "color", "status");
+        return Optional.ofNullable(mongoTemplate.findAndRemove(query, Slab.class));
+    }
+
+    @Override
+    public long backfillVersions() {
+        return mongoTemplate.updateMulti(InventoryQuery.missingVersion(), Update.update("version", 0L), Slab.class)
+                .getModifiedCount();
+    }
+
+    @Override
+    public CollectionWatermark findWatermark() {
+        Slab newest = mongoTemplate.findOne(InventoryQuery.newestModification(), Slab.class);
+        return new CollectionWatermark(mongoTemplate.estimatedCount(Slab.class),
+                Objects.isNull(newest) ? null : newest.getModificationDate());
+    }
+
+    @Override
+    public long backfillImages(int batchSize, UnaryOperator<String> externalize) {
+        long updated = 0;
+        String afterId = null;
+        List<Slab> slabs;
+        do {
+            slabs = mongoTemplate.find(InventoryQuery.inlineImages(afterId, batchSize), Slab.class);
+            if (slabs.isEmpty()) {
+                break;
+            }
+
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Slab.class);
+            int writes = 0;
+            for (Slab slab : slabs) {
+                String image = externalize.apply(slab.getImage());
+                // Images that weren't stored are left inline, they're skipped by moving past their id
+                if (!Objects.equals(image, slab.getImage())) {
+                    bulkOps.updateOne(Query.query(Criteria.where("id").is(slab.getId())),
+                            Update.update("image", image).set("modificationDate", Instant.now()).inc("version", 1));
+                    writes++;
+                }
+            }
+            if (writes > 0) {
+                updated += bulkOps.execute().getModifiedCount();
+            }
+            afterId = slabs.get(slabs.size() - 1).getId();
+        } while (slabs.size() == batchSize);
+        return updated;
+    }
+
+    static Query statusQuery(String id, Status expected) {
+        return Query.query(Criteria.where("id").is(id).and("status").is(expected));
+    }
+
+    static Query pageQuery(SlabFilter filter, String afterId, int limit, String... fields) {
+        return filter(filter)
+                .after(afterId)
+                .include(fields)
+                .limit(limit)
+                .build();
+    }
+
+    static Query dimensionsQuery(SlabFilter filter, int limit) {
+        return filter(filter)
+                .after(null)
+                .include("type", "color", "dimensions")
+                .limit(limit)
+                .build();
+    }
+
+    static Query missingSizeQuery(String afterId, int limit) {
+        // A null match also matches missing fields and is answered by the size_length_width index
+        Criteria criteria = Criteria.where("size.lengthInches").is(null);
+        if (Objects.nonNull(afterId)) {
+            criteria = criteria.and("id").gt(afterId);
+        }
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "id"))
+                .limit(limit);
+        query.fields().include("dimensions");
+        return query;
+    }
+
+    static Query remnantsQuery() {
+        return InventoryQuery.where()
+                .is("isRemnant", true)
+                .is("status", Status.AVAILABLE)
+                .include("type", "color", "status", "isRemnant", "dimensions", "size")
+                .build();
+    }
+
+    static Query existsQuery(SlabFilter filter) {
+        return filter(filter)
+                .include("id")
+                .limit(1)
+                .build();
+    }
+
+    private static InventoryQuery filter(SlabFilter filter) {
+        return InventoryQuery.where()
+                .is("type", filter.getType())
+                .is("color", filter.getColor())
+                .is("status", ValidationUtil.isNullOrEmpty(filter.getStatus()) ? null : Status.fromString(filter.getStatus()))
+                .is("supplier", filter.getSupplier())
+                .is("location", filter.getLocation())
+                .is("isRemnant", filter.getRemnant())
+                .is("isDamaged", filter.getDamaged())
+                .range("size.lengthInches", filter.getMinLengthInches(), filter.getMaxLengthInches())
+                .range("size.widthInches", filter.getMinWidthInches(), filter.getMaxWidthInches())
+                .range("size.thicknessInches", filter.getMinThicknessInches(), filter.getMaxThicknessInches())
+                .range("size.areaSqInches", filter.getMinAreaSqInches(), filter.getMaxAreaSqInches());
+    }
+}
@@ -0,0 +1,55 @@
+package com.trentonrush.inventoryservice.repositories;
+
+import com.trentonrush.inventoryservice.models.Slab;
+import com.trentonrush.inventoryservice.models.dtos.SlabDTO;
+import com.trentonrush.inventoryservice.models.enums.BatchAction;
+
+/**
+ * A single write in a slab bulk write
+ *
+ * @author Trenton Rush
+ * @since 2024-08-18
+ * @see SlabRepositoryCustom#bulkWrite
+ */
+public class SlabWrite {
+
+    private final BatchAction action;
+    private final String id;
+    private final Slab slab;
+    private final SlabDTO changes;
+
+    private SlabWrite(BatchAction action, String id, Slab slab, SlabDTO changes) {
+        this.action = action;
+        this.id = id;
+        this.slab = slab;
+        this.changes = changes;
+    }
+
+    public static SlabWrite insert(Slab slab) {
+        return new SlabWrite(BatchAction.CREATE, slab.getId(), slab, null);
+    }
+
+    public static SlabWrite update(String id, SlabDTO changes) {
+        return new SlabWrite(BatchAction.UPDATE, id, null, changes);
+    }
+
+    public static SlabWrite delete(String id) {
+        return new SlabWrite(BatchAction.DELETE, id, null, null);
+    }
+
+    public BatchAction getAction() {
+        return action;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Slab getSlab() {
+        return slab;
+    }
+
+    public SlabDTO getChanges() {
+        return changes;
+    }
+}
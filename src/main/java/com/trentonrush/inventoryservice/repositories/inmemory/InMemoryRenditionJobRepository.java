@@ -0,0 +1,133 @@
+package com.trentonrush.inventoryservice.repositories.inmemory;
+
+import com.trentonrush.inventoryservice.models.RenditionJob;
+import com.trentonrush.inventoryservice.models.enums.RenditionStatus;
+import com.trentonrush.inventoryservice.repositories.RenditionJobRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static com.trentonrush.inventoryservice.utils.InventoryConstants.MAX_RENDITION_ATTEMPTS;
+
+/**
+ * In-memory {@link RenditionJobRepository} for the inmemory profile, indexed by status.
+ *
+ * @author Trenton Rush
+ * @since 2024-09-02
+ * @see InMemoryRepository
+ */
+@Profile("inmemory")
+@Repository
+public class InMemoryRenditionJobRepository extends InMemoryRepository<RenditionJob> implements RenditionJobRepository {
+
+    public InMemoryRenditionJobRepository() {
+        super(RenditionJob.class);
+        index("status", RenditionJob::getStatus);
+    }
+
+    @Override
+    public boolean enqueue(String id, String image) {
+        Instant now = Instant.now();
+        RenditionJob job = new RenditionJob();
+        job.setId(id);
+        job.setImage(image);
+        job.setStatus(RenditionStatus.PENDING);
+        job.setAvailableDate(now);
+        job.setCreationDate(now);
+        job.setModificationDate(now);
+        try {
+            insert(job);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public Optional<RenditionJob> claimNext(Duration lease) {
+        Instant start = Instant.now();
+        scan(null, "status", RenditionStatus.RUNNING)
+                .filter(job -> isExhausted(job, start))
+                .map(RenditionJob::getId)
+                .toList()
+                .forEach(id -> update(id, exhausted -> {
+                    if (!isExhausted(exhausted, start)) {
+                        return null;
+                    }
+                    exhausted.setStatus(RenditionStatus.FAILED);
+                    exhausted.setError("Lease expired after " + MAX_RENDITION_ATTEMPTS + " attempts");
+                    exhausted.setModificationDate(start);
+                    return exhausted;
+                }));
+        while (true) {
+            Instant now = Instant.now();
+            Optional<String> next = Stream.concat(scan(null, "status", RenditionStatus.PENDING), scan(null, "status", RenditionStatus.RUNNING))
+                    .filter(job -> isAvailable(job, now))
+                    .min(Comparator.comparing(RenditionJob::getAvailableDate))
+                    .map(RenditionJob::getId);
+            if (next.isEmpty()) {
+                return Optional.empty();
+            }
+            Optional<RenditionJob> claimed = update(next.get(), job -> {
+                // Another worker may have claimed it since it was read
+                if (!isAvailable(job, now)) {
+                    return null;
+                }
+                job.setStatus(RenditionStatus.RUNNING);
+                job.setAvailableDate(now.plus(lease));
+                job.setModificationDate(now);
+                job.setAttempts(job.getAttempts() + 1);
+                return job;
+            });
+            if (claimed.isPresent()) {
+                return claimed;
+            }
+        }
+    }
+
+    @Override
+    public void complete(String id, Map<String, String> renditions) {
+        update(id, job -> {
+            job.setStatus(RenditionStatus.DONE);
+            job.setRenditions(renditions);
+            job.setError(null);
+            job.setModificationDate(Instant.now());
+            return job;
+        });
+    }
+
+    @Override
+    public void fail(String id, String error, Instant retryDate) {
+        update(id, job -> {
+            job.setError(error);
+            job.setModificationDate(Instant.now());
+            if (Objects.isNull(retryDate)) {
+                job.setStatus(RenditionStatus.FAILED);
+            } else {
+                job.setStatus(RenditionStatus.PENDING);
+                job.setAvailableDate(retryDate);
+            }
+            return job;
+        });
+    }
+
+    private static boolean isAvailable(RenditionJob job, Instant now) {
+        return (job.getStatus() == RenditionStatus.PENDING || job.getStatus() == RenditionStatus.RUNNING)
+                && !job.getAvailableDate().isAfter(now)
+                && job.getAttempts() < MAX_RENDITION_ATTEMPTS;
+    }
+
+    private static boolean isExhausted(RenditionJob job, Instant now) {
+        return job.getStatus() == RenditionStatus.RUNNING
+                && !job.getAvailableDate().isAfter(now)
+                && job.getAttempts() >= MAX_RENDITION_ATTEMPTS;
+    }
+}
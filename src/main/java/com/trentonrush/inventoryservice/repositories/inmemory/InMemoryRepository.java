@@ -0,0 +1,561 @@
+package com.trentonrush.inventoryservice.repositories.inmemory;
+
+import com.trentonrush.inventoryservice.models.dtos.CollectionWatermark;
+import io.micrometer.core.annotation.Timed;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.repository.query.FluentQuery;
+
+import java.time.Instant;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.trentonrush.inventoryservice.utils.InventoryConstants.*;
+
+/**
+ * Concurrent map backed {@link MongoRepository} used by the inmemory profile, so the service can run without a database.
+ * Documents are kept in id order, the same order cursor pages are read in, and every document read or written is a copy
+ * made through the Mongo mapping converter so callers can't change stored documents without saving them.
+ * Secondary indexes map a field value to the ids having it, writes to the same id are serialized so a document and its
+ * index entries always change together. Versioned documents are versioned the way Spring Data versions them, saves
+ * check the version and every write bumps it. Query by example isn't used by the service and isn't supported.
+ * Calls are timed under inventory.repository since only Spring Data's own repositories are timed by actuator.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-27
+ * @param <T> the document type
+ */
+@Timed(REPOSITORY_TIMER)
+public abstract class InMemoryRepository<T> implements MongoRepository<T, String> {
+
+    private static final MappingMongoConverter CONVERTER = converter();
+    private static final int LOCK_STRIPES = 64;
+
+    private final Class<T> type;
+    private final MongoPersistentEntity<?> persistentEntity;
+    private final MongoPersistentProperty versionProperty; // null if the document isn't versioned
+    private final ConcurrentSkipListMap<String, T> documents = new ConcurrentSkipListMap<>();
+    private final Map<String, Index<T>> indexes = new ConcurrentHashMap<>();
+    private final Map<Object, String> uniqueKeys = new ConcurrentHashMap<>();
+    // ReentrantLock rather than synchronized so virtual threads are never pinned while holding a lock
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    protected InMemoryRepository(Class<T> type) {
+        this.type = type;
+        this.persistentEntity = CONVERTER.getMappingContext().getRequiredPersistentEntity(type);
+        this.versionProperty = persistentEntity.getVersionProperty();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Add a secondary index, must be called before any document is written.
+     * @param field the name of the indexed field, used by {@link #scan(String, String, Object)}
+     * @param key reads the indexed value of a document
+     */
+    protected void index(String field, Function<T, Object> key) {
+        indexes.put(field, new Index<>(key));
+    }
+
+    /**
+     * The key no two documents may share, the in-memory counterpart of a unique index
+     * @return the key of the document, or null if the document has no unique key
+     */
+    protected Object uniqueKey(T document) {
+        return null;
+    }
+
+    /**
+     * @return a copy of the document with the given unique key
+     */
+    protected Optional<T> findByUniqueKey(Object key) {
+        String id = Objects.isNull(key) ? null : uniqueKeys.get(key);
+        return Objects.isNull(id) ? Optional.empty() : findById(id);
+    }
+
+    /**
+     * Stream the stored documents in id order without copying them, callers must only copy what they return.
+     * @param afterId only stream documents with an id greater than this one (optional)
+     * @param field an indexed field to narrow the documents read, the most selective one the caller filters by (optional)
+     * @param value the value the indexed field must have, the field is ignored if this is null
+     * @return the candidate documents, the caller still has to filter them
+     */
+    protected Stream<T> scan(String afterId, String field, Object value) {
+        if (Objects.isNull(field) || Objects.isNull(value)) {
+            Collection<T> all = Objects.isNull(afterId) ? documents.values() : documents.tailMap(afterId, false).values();
+            return all.stream();
+        }
+
+        NavigableSet<String> ids = indexes.get(field).ids(value);
+        NavigableSet<String> page = Objects.isNull(afterId) ? ids : ids.tailSet(afterId, false);
+        return page.stream()
+                .map(documents::get)
+                .filter(Objects::nonNull);
+    }
+
+    /**
+     * Read one field of a stored document without copying the document
+     * @param id the id of the document
+     * @param field gets the field, it must not expose mutable state
+     * @return the field, or empty if no document has the id
+     */
+    protected <R> Optional<R> read(String id, Function<T, R> field) {
+        return Optional.ofNullable(documents.get(id)).map(field);
+    }
+
+    /**
+     * Build the watermark of the collection, scanning every document for the newest modification date
+     * @param modificationDate gets the modification date of a document
+     * @return the current watermark
+     */
+    protected CollectionWatermark watermark(Function<T, Instant> modificationDate) {
+        Instant lastModified = documents.values().stream()
+                .map(modificationDate)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        return new CollectionWatermark(documents.size(), lastModified);
+    }
+
+    /**
+     * Atomically change one document. The change is applied to a copy which replaces the stored document, and the
+     * version of a versioned document is bumped the same way every Mongo update bumps it.
+     * @param id the id of the document being changed
+     * @param change changes the copy and returns it, or returns null to leave the document as it is
+     * @return a copy of the changed document, or empty if no document has the id or the change returned null
+     */
+    protected Optional<T> update(String id, UnaryOperator<T> change) {
+        return modify(id, change, false);
+    }
+
+    /**
+     * Atomically change one document like {@link #update(String, UnaryOperator)}
+     * @return a copy of the document as it was before the change, or empty if no document has the id or the change
+     * returned null
+     */
+    protected Optional<T> getAndUpdate(String id, UnaryOperator<T> change) {
+        return modify(id, change, true);
+    }
+
+    /**
+     * Atomically remove one document if it matches
+     * @param id the id of the document being removed
+     * @param match whether the stored document may be removed
+     * @return a copy of the removed document, or empty if no document has the id or it didn't match
+     */
+    protected Optional<T> removeIf(String id, Predicate<T> match) {
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            T current = documents.get(id);
+            if (Objects.isNull(current) || !match.test(current)) {
+                return Optional.empty();
+            }
+            documents.remove(id);
+            indexes.values().forEach(index -> index.remove(id, current, null));
+            Object uniqueKey = uniqueKey(current);
+            if (Objects.nonNull(uniqueKey)) {
+                uniqueKeys.remove(uniqueKey, id);
+            }
+            return Optional.of(copy(current));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Check the version of a versioned document
+     * @param version the version the document must have, or null to match any version
+     * @return true if the document has the version
+     */
+    protected boolean hasVersion(T document, Long version) {
+        return Objects.isNull(version) || version.equals(versionOf(document));
+    }
+
+    private Optional<T> modify(String id, UnaryOperator<T> change, boolean returnPrevious) {
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            T current = documents.get(id);
+            if (Objects.isNull(current)) {
+                return Optional.empty();
+            }
+            T changed = change.apply(copy(current));
+            if (Objects.isNull(changed)) {
+                return Optional.empty();
+            }
+            if (Objects.nonNull(versionProperty)) {
+                Long version = versionOf(current);
+                // A missing version counts as 0, the same as $inc
+                setVersion(changed, Objects.isNull(version) ? 1 : version + 1);
+            }
+            replace(id, current, changed);
+            return Optional.of(copy(returnPrevious ? current : changed));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Insert a document the way a bulk write inserts it, the version is stored as given instead of starting at 0
+     */
+    protected <S extends T> S bulkInsert(S entity) {
+        return store(entity, true, false);
+    }
+
+    private <S extends T> S store(S entity, boolean insert) {
+        return store(entity, insert, true);
+    }
+
+    /**
+     * Store a document, replacing any document with the same id
+     * @param insert whether an existing document with the same id is a duplicate key error rather than replaced
+     * @param versioned whether the version is checked and bumped the way a repository save does
+     */
+    private <S extends T> S store(S entity, boolean insert, boolean versioned) {
+        String id = idOf(entity);
+        if (Objects.isNull(id)) {
+            id = new ObjectId().toHexString();
+            assignId(entity, id);
+        }
+
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            T current = documents.get(id);
+            if (insert && Objects.nonNull(current)) {
+                throw new DuplicateKeyException("Duplicate id " + id + " in " + type.getSimpleName());
+            }
+            if (versioned && Objects.nonNull(versionProperty)) {
+                checkVersion(id, entity, current);
+            }
+            replace(id, current, copy(entity));
+        } finally {
+            lock.unlock();
+        }
+        return entity;
+    }
+
+    private void replace(String id, T current, T next) {
+        Object uniqueKey = uniqueKey(next);
+        Object currentUniqueKey = Objects.isNull(current) ? null : uniqueKey(current);
+        if (Objects.nonNull(uniqueKey)) {
+            String owner = uniqueKeys.putIfAbsent(uniqueKey, id);
+            if (Objects.nonNull(owner) && !owner.equals(id)) {
+                throw new DuplicateKeyException("Duplicate key " + uniqueKey + " in " + type.getSimpleName());
+            }
+        }
+
+        documents.put(id, next);
+        // Index the new values before removing the old ones so a concurrent read never misses the document
+        indexes.values().forEach(index -> index.add(id, next));
+        if (Objects.nonNull(current)) {
+            indexes.values().forEach(index -> index.remove(id, current, next));
+            if (Objects.nonNull(currentUniqueKey) && !currentUniqueKey.equals(uniqueKey)) {
+                uniqueKeys.remove(currentUniqueKey, id);
+            }
+        }
+    }
+
+    /**
+     * Version a saved document the way Spring Data does, a document without a version is new and stored at version 0,
+     * any other document must still have the version it was read with and is stored at the next one
+     */
+    private void checkVersion(String id, T entity, T current) {
+        Long version = versionOf(entity);
+        if (Objects.isNull(version)) {
+            if (Objects.nonNull(current)) {
+                throw new DuplicateKeyException("Duplicate id " + id + " in " + type.getSimpleName());
+            }
+            setVersion(entity, 0);
+            return;
+        }
+        if (Objects.isNull(current) || !version.equals(versionOf(current))) {
+            throw new OptimisticLockingFailureException(type.getSimpleName() + " " + id + " is not at version " + version);
+        }
+        setVersion(entity, version + 1);
+    }
+
+    private Long versionOf(T entity) {
+        return (Long) accessor(entity).getProperty(versionProperty);
+    }
+
+    private void setVersion(T entity, long version) {
+        accessor(entity).setProperty(versionProperty, version);
+    }
+
+    private ReentrantLock lockFor(String id) {
+        return locks[Math.floorMod(id.hashCode(), LOCK_STRIPES)];
+    }
+
+    private String idOf(T entity) {
+        return (String) accessor(entity).getProperty(persistentEntity.getRequiredIdProperty());
+    }
+
+    private void assignId(T entity, String id) {
+        accessor(entity).setProperty(persistentEntity.getRequiredIdProperty(), id);
+    }
+
+    private PersistentPropertyAccessor<T> accessor(T entity) {
+        return persistentEntity.getPropertyAccessor(entity);
+    }
+
+    /**
+     * Copy a document the way a write and a read through the database would
+     */
+    protected T copy(T entity) {
+        Document document = new Document();
+        CONVERTER.write(entity, document);
+        return CONVERTER.read(type, document);
+    }
+
+    private Comparator<T> comparator(Sort sort) {
+        Comparator<T> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            MongoPersistentProperty property = persistentEntity.getRequiredPersistentProperty(order.getProperty());
+            // Nulls sort first ascending, the same as Mongo
+            Comparator<T> byProperty = Comparator.comparing(
+                    document -> comparable(accessor(document).getProperty(property)),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> comparable(Object value) {
+        if (Objects.isNull(value) || value instanceof Comparable<?>) {
+            return (Comparable<Object>) value;
+        }
+        return (Comparable<Object>) (Object) value.toString();
+    }
+
+    private static MappingMongoConverter converter() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    /**
+     * Documents stored here always have a version, so there's never one to backfill
+     * @return 0
+     */
+    public long backfillVersions() {
+        return 0;
+    }
+
+    public Stream<T> streamAllBy() {
+        return documents.values().stream().map(this::copy);
+    }
+
+    @Override
+    public <S extends T> S save(S entity) {
+        return store(entity, false);
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entities) {
+        return StreamSupport.stream(entities.spliterator(), false).map(this::save).toList();
+    }
+
+    @Override
+    public <S extends T> S insert(S entity) {
+        return store(entity, true);
+    }
+
+    @Override
+    public <S extends T> List<S> insert(Iterable<S> entities) {
+        return StreamSupport.stream(entities.spliterator(), false).map(this::insert).toList();
+    }
+
+    @Override
+    public Optional<T> findById(String id) {
+        return Optional.ofNullable(documents.get(id)).map(this::copy);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return documents.containsKey(id);
+    }
+
+    @Override
+    public List<T> findAll() {
+        return documents.values().stream().map(this::copy).toList();
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<String> ids) {
+        List<T> found = new ArrayList<>();
+        StreamSupport.stream(ids.spliterator(), false)
+                .distinct()
+                .forEach(id -> findById(id).ifPresent(found::add));
+        return found;
+    }
+
+    @Override
+    public List<T> findAll(Sort sort) {
+        return documents.values().stream().sorted(comparator(sort)).map(this::copy).toList();
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        List<T> sorted = documents.values().stream().sorted(comparator(pageable.getSort())).toList();
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(sorted.stream().map(this::copy).toList(), pageable, sorted.size());
+        }
+        List<T> page = sorted.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(this::copy)
+                .toList();
+        return new PageImpl<>(page, pageable, sorted.size());
+    }
+
+    @Override
+    public long count() {
+        return documents.size();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        removeIf(id, document -> true);
+    }
+
+    @Override
+    public void delete(T entity) {
+        deleteById(idOf(entity));
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends String> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        documents.keySet().forEach(this::deleteById);
+    }
+
+    @Override
+    public <S extends T> Optional<S> findOne(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example, Sort sort) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends T> Page<S> findAll(Example<S> example, Pageable pageable) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends T> long count(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends T> boolean exists(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends T, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        throw unsupported();
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("Query by example is not supported by the in-memory repositories");
+    }
+
+    /**
+     * Ids of the documents having each value of a field, kept in id order for cursor pages
+     */
+    private static final class Index<T> {
+
+        private static final NavigableSet<String> EMPTY = new ConcurrentSkipListSet<>();
+
+        private final Function<T, Object> key;
+        private final Map<Object, NavigableSet<String>> ids = new ConcurrentHashMap<>();
+
+        private Index(Function<T, Object> key) {
+            this.key = key;
+        }
+
+        private NavigableSet<String> ids(Object value) {
+            return ids.getOrDefault(value, EMPTY);
+        }
+
+        private void add(String id, T document) {
+            Object value = key.apply(document);
+            if (Objects.nonNull(value)) {
+                ids.computeIfAbsent(value, k -> new ConcurrentSkipListSet<>()).add(id);
+            }
+        }
+
+        /**
+         * Remove the id from the old value, unless the next version of the document still has it
+         */
+        private void remove(String id, T previous, T next) {
+            Object value = key.apply(previous);
+            if (Objects.isNull(value) || (Objects.nonNull(next) && value.equals(key.apply(next)))) {
+                return;
+            }
+            Set<String> previousIds = ids.get(value);
+            if (Objects.nonNull(previousIds)) {
+                previousIds.remove(id);
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.trentonrush.inventoryservice.repositories.inmemory;
+
+import com.trentonrush.inventoryservice.models.SampleSlab;
+import com.trentonrush.inventoryservice.models.dtos.CollectionWatermark;
+import com.trentonrush.inventoryservice.models.dtos.InventoryCount;
+import com.trentonrush.inventoryservice.models.dtos.SampleFilter;
+import com.trentonrush.inventoryservice.models.dtos.SlabDTO;
+import com.trentonrush.inventoryservice.repositories.SampleSlabRepository;
+import com.trentonrush.inventoryservice.utils.ValidationUtil;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory {@link SampleSlabRepository} for the inmemory profile, indexed by type and color.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-27
+ * @see InMemoryRepository
+ */
+@Profile("inmemory")
+@Repository
+public class InMemorySampleSlabRepository extends InMemoryRepository<SampleSlab> implements SampleSlabRepository {
+
+    public InMemorySampleSlabRepository() {
+        super(SampleSlab.class);
+        index("type", SampleSlab::getType);
+        index("color", SampleSlab::getColor);
+    }
+
+    @Override
+    public Optional<SampleSlab> adjustQuantity(String id, int delta) {
+        return update(id, sampleSlab -> {
+            // Floor guard: only change the sample when there is enough quantity to remove
+            if (delta < 0 && sampleSlab.getQuantity() < -delta) {
+                return null;
+            }
+            sampleSlab.setQuantity(sampleSlab.getQuantity() + delta);
+            sampleSlab.setModificationDate(Instant.now());
+            return sampleSlab;
+        });
+    }
+
+    @Override
+    public List<SampleSlab> findPage(SampleFilter filter, String afterId, int limit, String... fields) {
+        return find(filter, afterId)
+                .limit(limit)
+                .map(this::copy)
+                .toList();
+    }
+
+    @Override
+    public boolean exists(SampleFilter filter) {
+        return find(filter, null).findAny().isPresent();
+    }
+
+    @Override
+    public List<InventoryCount> sumQuantityByTypeAndColor() {
+        Map<List<String>, Long> sums = scan(null, null, null)
+                .collect(Collectors.groupingBy(sampleSlab -> Arrays.asList(sampleSlab.getType(), sampleSlab.getColor()),
+                        Collectors.summingLong(SampleSlab::getQuantity)));
+        return sums.entrySet().stream().map(entry -> {
+            InventoryCount count = new InventoryCount();
+            count.setType(entry.getKey().get(0));
+            count.setColor(entry.getKey().get(1));
+            count.setCount(entry.getValue());
+            return count;
+        }).toList();
+    }
+
+    @Override
+    public Optional<SampleSlab> findVersion(String id) {
+        return findById(id);
+    }
+
+    @Override
+    public Optional<SampleSlab> findAndUpdate(String id, Long version, SlabDTO changes, Instant modificationDate) {
+        return getAndUpdate(id, sampleSlab -> {
+            if (!hasVersion(sampleSlab, version)) {
+                return null;
+            }
+            sampleSlab.applyUpdate(changes, modificationDate);
+            return sampleSlab;
+        });
+    }
+
+    @Override
+    public Optional<SampleSlab> findAndRemove(String id, Long version) {
+        return removeIf(id, sampleSlab -> hasVersion(sampleSlab, version));
+    }
+
+    @Override
+    public CollectionWatermark findWatermark() {
+        return watermark(SampleSlab::getModificationDate);
+    }
+
+    @Override
+    public long backfillImages(int batchSize, UnaryOperator<String> externalize) {
+        List<String> inline = scan(null, null, null)
+                .filter(sampleSlab -> Objects.nonNull(sampleSlab.getImage()) && sampleSlab.getImage().startsWith("data:"))
+                .map(SampleSlab::getId)
+                .toList();
+        return inline.stream()
+                .filter(id -> update(id, sampleSlab -> {
+                    String image = externalize.apply(sampleSlab.getImage());
+                    if (Objects.equals(image, sampleSlab.getImage())) {
+                        return null;
+                    }
+                    sampleSlab.setImage(image);
+                    sampleSlab.setModificationDate(Instant.now());
+                    return sampleSlab;
+                }).isPresent())
+                .count();
+    }
+
+    private Stream<SampleSlab> find(SampleFilter filter, String afterId) {
+        // Read the ids of the most selective index the filter uses
+        Stream<SampleSlab> candidates = !ValidationUtil.isNullOrEmpty(filter.getColor())
+                ? scan(afterId, "color", filter.getColor())
+                : scan(afterId, "type", ValidationUtil.isNullOrEmpty(filter.getType()) ? null : filter.getType());
+        return candidates.filter(sampleSlab -> is(filter.getType(), sampleSlab.getType())
+                && is(filter.getColor(), sampleSlab.getColor())
+                && is(filter.getSupplier(), sampleSlab.getSupplier())
+                && (!filter.isOnlyAvailable() || sampleSlab.getQuantity() > 0));
+    }
+
+    /**
+     * An empty filter value matches everything, the same way the Mongo query skips it
+     */
+    private static boolean is(String expected, String actual) {
+        return ValidationUtil.isNullOrEmpty(expected) || expected.equals(actual);
+    }
+}
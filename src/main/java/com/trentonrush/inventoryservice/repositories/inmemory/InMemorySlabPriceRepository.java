@@ -0,0 +1,116 @@
+package com.trentonrush.inventoryservice.repositories.inmemory;
+
+import com.trentonrush.inventoryservice.models.Slab;
+import com.trentonrush.inventoryservice.models.SlabPrice;
+import com.trentonrush.inventoryservice.models.dtos.RepricedPrice;
+import com.trentonrush.inventoryservice.models.dtos.SlabDTO;
+import com.trentonrush.inventoryservice.repositories.SlabPriceRepository;
+import com.trentonrush.inventoryservice.utils.ValidationUtil;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * In-memory {@link SlabPriceRepository} for the inmemory profile, indexed by type and color.
+ * Type and color are unique together, the same as the type_color index.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-27
+ * @see InMemoryRepository
+ */
+@Profile("inmemory")
+@Repository
+public class InMemorySlabPriceRepository extends InMemoryRepository<SlabPrice> implements SlabPriceRepository {
+
+    public InMemorySlabPriceRepository() {
+        super(SlabPrice.class);
+        index("type", SlabPrice::getType);
+        index("color", SlabPrice::getColor);
+    }
+
+    @Override
+    protected Object uniqueKey(SlabPrice slabPrice) {
+        return priceKey(slabPrice.getType(), slabPrice.getColor());
+    }
+
+    @Override
+    public Optional<SlabPrice> findByTypeAndColor(String type, String color) {
+        return findByUniqueKey(priceKey(type, color));
+    }
+
+    @Override
+    public List<SlabPrice> findAllByFilter(String type, String color) {
+        Stream<SlabPrice> candidates = !ValidationUtil.isNullOrEmpty(color)
+                ? scan(null, "color", color)
+                : scan(null, "type", ValidationUtil.isNullOrEmpty(type) ? null : type);
+        return candidates
+                .filter(slabPrice -> (ValidationUtil.isNullOrEmpty(type) || type.equals(slabPrice.getType()))
+                        && (ValidationUtil.isNullOrEmpty(color) || color.equals(slabPrice.getColor())))
+                .map(this::copy)
+                .toList();
+    }
+
+    @Override
+    public List<SlabPrice> findAllForSlabs(Collection<Slab> slabs) {
+        return slabs.stream()
+                .filter(slab -> !ValidationUtil.isNullOrEmpty(slab.getType()) && !ValidationUtil.isNullOrEmpty(slab.getColor()))
+                .map(slab -> priceKey(slab.getType(), slab.getColor()))
+                .distinct()
+                .map(this::findByUniqueKey)
+                .flatMap(Optional::stream)
+                .toList();
+    }
+
+    @Override
+    public long bulkUpdateAmounts(List<RepricedPrice> prices) {
+        Instant now = Instant.now();
+        return prices.stream()
+                .filter(price -> update(price.getId(), slabPrice -> {
+                    // Guard on the amount that was read so a concurrent edit isn't overwritten
+                    if (!Objects.equals(slabPrice.getAmountPerSqFt(), price.getOldAmountPerSqFt())) {
+                        return null;
+                    }
+                    slabPrice.setAmountPerSqFtAndCurrency(price.getNewAmountPerSqFt(), price.getCurrency());
+                    slabPrice.setModificationDate(now);
+                    return slabPrice;
+                }).isPresent())
+                .count();
+    }
+
+    @Override
+    public Optional<SlabPrice> findVersion(String id) {
+        return findById(id);
+    }
+
+    @Override
+    public Optional<SlabPrice> findAndUpdate(String id, Long version, SlabDTO changes, Instant modificationDate) {
+        return getAndUpdate(id, slabPrice -> {
+            if (!hasVersion(slabPrice, version)) {
+                return null;
+            }
+            slabPrice.applyUpdate(changes, modificationDate);
+            return slabPrice;
+        });
+    }
+
+    @Override
+    public Optional<SlabPrice> findAndRemove(String id, Long version) {
+        return removeIf(id, slabPrice -> hasVersion(slabPrice, version));
+    }
+
+    /**
+     * @return the key of a type and color, or null if either is missing
+     */
+    private static String priceKey(String type, String color) {
+        if (Objects.isNull(type) || Objects.isNull(color)) {
+            return null;
+        }
+        return type + "|" + color;
+    }
+}
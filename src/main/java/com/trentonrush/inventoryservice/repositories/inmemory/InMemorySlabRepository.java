@@ -0,0 +1,249 @@
+package com.trentonrush.inventoryservice.repositories.inmemory;
+
+import com.trentonrush.inventoryservice.models.Slab;
+import com.trentonrush.inventoryservice.models.SlabSize;
+import com.trentonrush.inventoryservice.models.dtos.CollectionWatermark;
+import com.trentonrush.inventoryservice.models.dtos.InventoryCount;
+import com.trentonrush.inventoryservice.models.dtos.SlabDTO;
+import com.trentonrush.inventoryservice.models.dtos.SlabFilter;
+import com.trentonrush.inventoryservice.models.enums.Status;
+import com.trentonrush.inventoryservice.repositories.SlabRepository;
+import com.trentonrush.inventoryservice.repositories.SlabWrite;
+import com.trentonrush.inventoryservice.utils.ValidationUtil;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory {@link SlabRepository} for the inmemory profile, indexed by type, color, and status.
+ * Projections return the whole slab, a superset of the fields the Mongo implementation reads.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-27
+ * @see InMemoryRepository
+ */
+@Profile("inmemory")
+@Repository
+public class InMemorySlabRepository extends InMemoryRepository<Slab> implements SlabRepository {
+
+    public InMemorySlabRepository() {
+        super(Slab.class);
+        index("type", Slab::getType);
+        index("color", Slab::getColor);
+        index("status", Slab::getStatus);
+    }
+
+    @Override
+    public Optional<Slab> compareAndSetStatus(String id, Status expected, Status next) {
+        return update(id, slab -> {
+            if (slab.getStatus() != expected) {
+                return null;
+            }
+            slab.setStatus(next);
+            slab.setModificationDate(Instant.now());
+            return slab;
+        });
+    }
+
+    @Override
+    public List<Slab> findPage(SlabFilter filter, String afterId, int limit, String... fields) {
+        return find(filter, afterId)
+                .limit(limit)
+                .map(this::copy)
+                .toList();
+    }
+
+    @Override
+    public boolean exists(SlabFilter filter) {
+        return find(filter, null).findAny().isPresent();
+    }
+
+    @Override
+    public List<InventoryCount> countByTypeAndColorAndStatus() {
+        Map<List<Object>, Long> counts = streamStored()
+                .collect(Collectors.groupingBy(slab -> Arrays.asList(slab.getType(), slab.getColor(), slab.getStatus()),
+                        Collectors.counting()));
+        return counts.entrySet().stream().map(entry -> {
+            InventoryCount count = new InventoryCount();
+            count.setType((String) entry.getKey().get(0));
+            count.setColor((String) entry.getKey().get(1));
+            count.setStatus((Status) entry.getKey().get(2));
+            count.setCount(entry.getValue());
+            return count;
+        }).toList();
+    }
+
+    @Override
+    public List<Slab> findSummariesByIds(Collection<String> ids) {
+        return findAllById(ids);
+    }
+
+    @Override
+    public List<Slab> findDimensionsByIds(Collection<String> ids) {
+        return findAllById(ids);
+    }
+
+    @Override
+    public List<Slab> findDimensions(SlabFilter filter, int limit) {
+        return findPage(filter, null, limit);
+    }
+
+    @Override
+    public Map<Integer, String> bulkWrite(List<SlabWrite> writes) {
+        Map<Integer, String> errors = new HashMap<>();
+        Instant now = Instant.now();
+        for (int i = 0; i < writes.size(); i++) {
+            SlabWrite write = writes.get(i);
+            try {
+                switch (write.getAction()) {
+                    case CREATE -> bulkInsert(write.getSlab());
+                    case UPDATE -> update(write.getId(), slab -> {
+                        slab.applyUpdate(write.getChanges(), now);
+                        return slab;
+                    });
+                    case DELETE -> deleteById(write.getId());
+                }
+            } catch (DuplicateKeyException e) {
+                // Unordered writes keep going after a failure, so only the failed indexes are reported
+                errors.put(i, e.getMessage());
+            }
+        }
+        return errors;
+    }
+
+    @Override
+    public long backfillSizes(int batchSize) {
+        List<String> missing = streamStored()
+                .filter(slab -> Objects.isNull(slab.getSize()) && Objects.nonNull(SlabSize.of(slab.getDimensions())))
+                .map(Slab::getId)
+                .toList();
+        // Setting the dimensions again derives the size
+        return missing.stream()
+                .filter(id -> update(id, slab -> {
+                    slab.setDimensions(slab.getDimensions());
+                    slab.setModificationDate(Instant.now());
+                    return slab;
+                }).isPresent())
+                .count();
+    }
+
+    @Override
+    public List<Slab> findAvailableRemnants() {
+        return scan(null, "status", Status.AVAILABLE)
+                .filter(Slab::isRemnant)
+                .map(this::copy)
+                .toList();
+    }
+
+    @Override
+    public Optional<Slab> findVersion(String id) {
+        return findById(id);
+    }
+
+    @Override
+    public Optional<Slab> findAndUpdate(String id, Long version, SlabDTO changes, Instant modificationDate) {
+        return getAndUpdate(id, slab -> {
+            if (!hasVersion(slab, version)) {
+                return null;
+            }
+            slab.applyUpdate(changes, modificationDate);
+            return slab;
+        });
+    }
+
+    @Override
+    public Optional<Slab> findAndRemove(String id, Long version) {
+        return removeIf(id, slab -> hasVersion(slab, version));
+    }
+
+    @Override
+    public CollectionWatermark findWatermark() {
+        return watermark(Slab::getModificationDate);
+    }
+
+    @Override
+    public long backfillImages(int batchSize, UnaryOperator<String> externalize) {
+        List<String> inline = streamStored()
+                .filter(slab -> Objects.nonNull(slab.getImage()) && slab.getImage().startsWith("data:"))
+                .map(Slab::getId)
+                .toList();
+        return inline.stream()
+                .filter(id -> update(id, slab -> {
+                    String image = externalize.apply(slab.getImage());
+                    if (Objects.equals(image, slab.getImage())) {
+                        return null;
+                    }
+                    slab.setImage(image);
+                    slab.setModificationDate(Instant.now());
+                    return slab;
+                }).isPresent())
+                .count();
+    }
+
+    private Stream<Slab> streamStored() {
+        return scan(null, null, null);
+    }
+
+    private Stream<Slab> find(SlabFilter filter, String afterId) {
+        Status status = ValidationUtil.isNullOrEmpty(filter.getStatus()) ? null : Status.fromString(filter.getStatus());
+        Stream<Slab> candidates;
+        // Read the ids of the most selective index the filter uses
+        if (!ValidationUtil.isNullOrEmpty(filter.getColor())) {
+            candidates = scan(afterId, "color", filter.getColor());
+        } else if (!ValidationUtil.isNullOrEmpty(filter.getType())) {
+            candidates = scan(afterId, "type", filter.getType());
+        } else {
+            candidates = scan(afterId, "status", status);
+        }
+        return candidates.filter(matches(filter, status));
+    }
+
+    private static Predicate<Slab> matches(SlabFilter filter, Status status) {
+        return slab -> is(filter.getType(), slab.getType())
+                && is(filter.getColor(), slab.getColor())
+                && (Objects.isNull(status) || status == slab.getStatus())
+                && is(filter.getSupplier(), slab.getSupplier())
+                && is(filter.getLocation(), slab.getLocation())
+                && (Objects.isNull(filter.getRemnant()) || filter.getRemnant() == slab.isRemnant())
+                && (Objects.isNull(filter.getDamaged()) || filter.getDamaged() == slab.isDamaged())
+                && range(slab, SlabSize::getLengthInches, filter.getMinLengthInches(), filter.getMaxLengthInches())
+                && range(slab, SlabSize::getWidthInches, filter.getMinWidthInches(), filter.getMaxWidthInches())
+                && range(slab, SlabSize::getThicknessInches, filter.getMinThicknessInches(), filter.getMaxThicknessInches())
+                && range(slab, SlabSize::getAreaSqInches, filter.getMinAreaSqInches(), filter.getMaxAreaSqInches());
+    }
+
+    /**
+     * An empty filter value matches everything, the same way the Mongo query skips it
+     */
+    private static boolean is(String expected, String actual) {
+        return ValidationUtil.isNullOrEmpty(expected) || expected.equals(actual);
+    }
+
+    /**
+     * A slab without a size never matches a bound, the same way Mongo never matches a missing field
+     */
+    private static boolean range(Slab slab, Function<SlabSize, Double> field, Double min, Double max) {
+        if (Objects.isNull(min) && Objects.isNull(max)) {
+            return true;
+        }
+        Double value = Objects.isNull(slab.getSize()) ? null : field.apply(slab.getSize());
+        if (Objects.isNull(value)) {
+            return false;
+        }
+        return (Objects.isNull(min) || value >= min) && (Objects.isNull(max) || value <= max);
+    }
+}
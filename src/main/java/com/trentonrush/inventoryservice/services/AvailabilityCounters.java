@@ -0,0 +1,209 @@
+package com.trentonrush.inventoryservice.services;
+
+import com.trentonrush.inventoryservice.models.dtos.InventoryCount;
+import com.trentonrush.inventoryservice.models.enums.Status;
+import com.trentonrush.inventoryservice.repositories.SampleSlabRepository;
+import com.trentonrush.inventoryservice.repositories.SlabRepository;
+import com.trentonrush.inventoryservice.utils.ValidationUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory counters answering availability checks without a database round trip.
+ * Slabs are counted by type, color, and status and samples are summed by quantity per type and color.
+ * Every count is also kept for type only and color only, so any lookup is a single map read.
+ * <p>
+ * Counters are built from one aggregation per collection at startup, kept up to date by the service write paths,
+ * and periodically rebuilt from the database to correct any drift (e.g. writes made by another instance). A write made
+ * while the database is read may or may not be in what was read, so every count it touched keeps its current value
+ * instead of the rebuilt one and is corrected by a later rebuild it doesn't overlap.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-16
+ * @see SlabService
+ * @see SampleSlabService
+ */
+@Service
+public class AvailabilityCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityCounters.class);
+
+    private static final String ANY = "*";
+
+    private final SlabRepository slabRepository;
+    private final SampleSlabRepository sampleSlabRepository;
+
+    private final AtomicReference<Map<String, LongAdder>> slabCounts = new AtomicReference<>();
+    private final AtomicReference<Map<String, LongAdder>> sampleCounts = new AtomicReference<>();
+    // The writes made while the database is read by a rebuild, null unless a reconcile is running
+    private final AtomicReference<Map<String, LongAdder>> slabWrites = new AtomicReference<>();
+    private final AtomicReference<Map<String, LongAdder>> sampleWrites = new AtomicReference<>();
+    // Held shared by writes and exclusively while the rebuilt counters are swapped in, so no write falls in between
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    public AvailabilityCounters(SlabRepository slabRepository, SampleSlabRepository sampleSlabRepository) {
+        this.slabRepository = slabRepository;
+        this.sampleSlabRepository = sampleSlabRepository;
+    }
+
+    /**
+     * Rebuild every counter from the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${inventory.counters.reconcile-interval:PT5M}", initialDelayString = "${inventory.counters.reconcile-interval:PT5M}")
+    public synchronized void reconcile() {
+        Map<String, LongAdder> slabs = new ConcurrentHashMap<>();
+        Map<String, LongAdder> samples = new ConcurrentHashMap<>();
+        Map<String, LongAdder> slabsWritten = new ConcurrentHashMap<>();
+        Map<String, LongAdder> samplesWritten = new ConcurrentHashMap<>();
+        slabWrites.set(slabsWritten);
+        sampleWrites.set(samplesWritten);
+        try {
+            for (InventoryCount count : slabRepository.countByTypeAndColorAndStatus()) {
+                add(slabs, count.getType(), count.getColor(), count.getStatus(), count.getCount());
+            }
+            for (InventoryCount count : sampleSlabRepository.sumQuantityByTypeAndColor()) {
+                add(samples, count.getType(), count.getColor(), null, count.getCount());
+            }
+
+            swapLock.writeLock().lock();
+            try {
+                merge(slabs, slabCounts.get(), slabsWritten);
+                merge(samples, sampleCounts.get(), samplesWritten);
+                slabCounts.set(slabs);
+                sampleCounts.set(samples);
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+        } finally {
+            slabWrites.set(null);
+            sampleWrites.set(null);
+        }
+        logger.info("Availability counters reconciled: slab keys -> {}, sample keys -> {}", slabs.size(), samples.size());
+    }
+
+    /**
+     * @return true once the counters have been built and can answer checks
+     */
+    public boolean isReady() {
+        return Objects.nonNull(slabCounts.get()) && Objects.nonNull(sampleCounts.get());
+    }
+
+    /**
+     * Record slabs being added to (positive delta) or removed from (negative delta) a type, color, and status
+     */
+    public void recordSlab(String type, String color, Status status, long delta) {
+        record(slabCounts, slabWrites, type, color, status, delta);
+    }
+
+    /**
+     * Record sample quantity being added to (positive delta) or removed from (negative delta) a type and color
+     */
+    public void recordSample(String type, String color, long delta) {
+        record(sampleCounts, sampleWrites, type, color, null, delta);
+    }
+
+    /**
+     * Count slabs with the given status and an optional type and color
+     */
+    public long countSlabs(String type, String color, Status status) {
+        return get(slabCounts.get(), type, color, status);
+    }
+
+    /**
+     * Sum the quantity of samples with an optional type and color
+     */
+    public long countSamples(String type, String color) {
+        return get(sampleCounts.get(), type, color, null);
+    }
+
+    /**
+     * Apply a write to the current counters, and note it for the rebuild if one is reading the database
+     */
+    private void record(AtomicReference<Map<String, LongAdder>> current, AtomicReference<Map<String, LongAdder>> writes,
+                        String type, String color, Status status, long delta) {
+        swapLock.readLock().lock();
+        try {
+            Map<String, LongAdder> counts = current.get();
+            if (Objects.nonNull(counts)) {
+                add(counts, type, color, status, delta);
+                warnIfNegative(counts, type, color, status);
+            }
+            Map<String, LongAdder> written = writes.get();
+            if (Objects.nonNull(written)) {
+                add(written, type, color, status, delta);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Carry the writes made during a rebuild over to the rebuilt counters.
+     * A count that was written keeps its current value, which has every write applied exactly once, while the rebuilt
+     * one may or may not have it. Before the first build there are no current counters, the writes are then added to
+     * the rebuilt ones and one made while the database was read is counted twice until the next reconcile.
+     */
+    private static void merge(Map<String, LongAdder> rebuilt, Map<String, LongAdder> current, Map<String, LongAdder> written) {
+        written.forEach((key, delta) -> {
+            LongAdder count = new LongAdder();
+            if (Objects.nonNull(current)) {
+                count.add(Objects.isNull(current.get(key)) ? 0 : current.get(key).sum());
+            } else {
+                count.add(Objects.isNull(rebuilt.get(key)) ? 0 : rebuilt.get(key).sum());
+                count.add(delta.sum());
+            }
+            rebuilt.put(key, count);
+        });
+    }
+
+    private static void add(Map<String, LongAdder> counts, String type, String color, Status status, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        counts.computeIfAbsent(key(type, color, status), k -> new LongAdder()).add(delta);
+        counts.computeIfAbsent(key(type, ANY, status), k -> new LongAdder()).add(delta);
+        counts.computeIfAbsent(key(ANY, color, status), k -> new LongAdder()).add(delta);
+        counts.computeIfAbsent(key(ANY, ANY, status), k -> new LongAdder()).add(delta);
+    }
+
+    private static long get(Map<String, LongAdder> counts, String type, String color, Status status) {
+        if (Objects.isNull(counts)) {
+            throw new IllegalStateException("Availability counters have not been built yet");
+        }
+        LongAdder count = counts.get(key(valueOrAny(type), valueOrAny(color), status));
+        return Objects.isNull(count) ? 0 : Math.max(count.sum(), 0);
+    }
+
+    /**
+     * A count below zero means a write was recorded that doesn't match the database, it's read as 0 until the next
+     * reconcile
+     */
+    private static void warnIfNegative(Map<String, LongAdder> counts, String type, String color, Status status) {
+        String key = key(type, color, status);
+        LongAdder count = counts.get(key);
+        if (Objects.nonNull(count) && count.sum() < 0) {
+            logger.warn("Availability counter is negative until the next reconcile: {} -> {}", key, count.sum());
+        }
+    }
+
+    private static String valueOrAny(String value) {
+        return ValidationUtil.isNullOrEmpty(value) ? ANY : value;
+    }
+
+    private static String key(String type, String color, Status status) {
+        return type + "|" + color + "|" + status;
+    }
+}
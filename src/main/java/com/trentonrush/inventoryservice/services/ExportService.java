@@ -0,0 +1,105 @@
+package com.trentonrush.inventoryservice.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.trentonrush.inventoryservice.models.SampleSlab;
+import com.trentonrush.inventoryservice.models.Slab;
+import com.trentonrush.inventoryservice.models.SlabPrice;
+import com.trentonrush.inventoryservice.repositories.SampleSlabRepository;
+import com.trentonrush.inventoryservice.repositories.SlabPriceRepository;
+import com.trentonrush.inventoryservice.repositories.SlabRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static com.trentonrush.inventoryservice.utils.InventoryConstants.*;
+
+/**
+ * Service class for exporting the full inventory.
+ * Documents are read from a Mongo cursor and written one at a time as newline delimited JSON,
+ * so memory use stays constant no matter how large the collection is.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-12
+ * @see Slab
+ * @see SampleSlab
+ * @see SlabPrice
+ */
+@Timed(SERVICE_TIMER)
+@Service
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    private final SlabRepository slabRepository;
+    private final SampleSlabRepository sampleSlabRepository;
+    private final SlabPriceRepository slabPriceRepository;
+    private final ObjectWriter objectWriter;
+
+    public ExportService(SlabRepository slabRepository,
+                         SampleSlabRepository sampleSlabRepository,
+                         SlabPriceRepository slabPriceRepository,
+                         ObjectMapper objectMapper) {
+        this.slabRepository = slabRepository;
+        this.sampleSlabRepository = sampleSlabRepository;
+        this.slabPriceRepository = slabPriceRepository;
+        // Let the response buffer decide when to flush instead of flushing after every document
+        this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Write every slab to the output stream as NDJSON
+     * @param out the stream being written to
+     */
+    public void exportSlabs(OutputStream out) throws IOException {
+        export("slabs", slabRepository::streamAllBy, out);
+    }
+
+    /**
+     * Write every sampleSlab to the output stream as NDJSON
+     * @param out the stream being written to
+     */
+    public void exportSamples(OutputStream out) throws IOException {
+        export("sample_slabs", sampleSlabRepository::streamAllBy, out);
+    }
+
+    /**
+     * Write every slabPrice to the output stream as NDJSON
+     * @param out the stream being written to
+     */
+    public void exportPrices(OutputStream out) throws IOException {
+        export("slab_prices", slabPriceRepository::streamAllBy, out);
+    }
+
+    private <T> void export(String collection, Supplier<Stream<T>> source, OutputStream out) throws IOException {
+        logger.info("Export started for collection: {}", collection);
+        long count = 0;
+
+        // The generator must not close the response stream, the caller owns it
+        try (Stream<T> documents = source.get();
+             JsonGenerator generator = objectWriter.getFactory().createGenerator(out)
+                     .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            Iterator<T> iterator = documents.iterator();
+            while (iterator.hasNext()) {
+                objectWriter.writeValue(generator, iterator.next());
+                count++;
+            }
+            if (count > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+
+        logger.info("Export finished for collection: {}, documents: {}", collection, count);
+    }
+}
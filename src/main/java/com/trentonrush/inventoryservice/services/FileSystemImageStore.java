@@ -0,0 +1,65 @@
+package com.trentonrush.inventoryservice.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Optional;
+
+/**
+ * Stores images as files named by their hash under the images directory, fanned out by the first two characters of
+ * the hash so no directory grows too large. Files are served straight from disk, see the image controller.
+ *
+ * @author Trenton Rush
+ * @since 2024-09-01
+ */
+@ConditionalOnProperty(name = "inventory.images.store", havingValue = "filesystem", matchIfMissing = true)
+@Service
+public class FileSystemImageStore implements ImageStore {
+
+    private final Path directory;
+
+    public FileSystemImageStore(@Value("${inventory.images.directory:images}") Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory).toRealPath();
+    }
+
+    @Override
+    public String put(InputStream content) throws IOException {
+        // The hash isn't known until the last byte is read, so the image is written to a temporary file first
+        Path temp = Files.createTempFile(directory, "upload", ".tmp");
+        try {
+            MessageDigest digest = ImageStore.newDigest();
+            Files.copy(new DigestInputStream(content, digest), temp, StandardCopyOption.REPLACE_EXISTING);
+            String hash = ImageStore.hex(digest);
+
+            Path target = path(hash);
+            if (Files.notExists(target)) {
+                Files.createDirectories(target.getParent());
+                // A concurrent upload of the same image renames identical bytes over it, readers never see a partial file
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return hash;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Optional<Resource> get(String hash) {
+        Path file = path(hash);
+        return Files.isRegularFile(file) ? Optional.of(new FileSystemResource(file)) : Optional.empty();
+    }
+
+    private Path path(String hash) {
+        return directory.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+}
@@ -0,0 +1,104 @@
+package com.trentonrush.inventoryservice.services;
+
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.GridFSBuckets;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.mongodb.client.model.Filters;
+import org.bson.types.ObjectId;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Stores images in the images GridFS bucket of the inventory database, named by their hash.
+ * Used when every instance must see the same images without a shared disk.
+ *
+ * @author Trenton Rush
+ * @since 2024-09-01
+ */
+@ConditionalOnProperty(name = "inventory.images.store", havingValue = "gridfs")
+@Service
+public class GridFsImageStore implements ImageStore {
+
+    private static final String BUCKET = "images";
+
+    private final GridFSBucket bucket;
+
+    public GridFsImageStore(MongoDatabaseFactory mongoDatabaseFactory) {
+        this.bucket = GridFSBuckets.create(mongoDatabaseFactory.getMongoDatabase(), BUCKET);
+    }
+
+    @Override
+    public String put(InputStream content) {
+        // The hash isn't known until the last chunk is written, so the file is renamed once it is.
+        // A failed upload is aborted by the driver, which removes its chunks.
+        MessageDigest digest = ImageStore.newDigest();
+        ObjectId id = bucket.uploadFromStream("upload-" + UUID.randomUUID(), new DigestInputStream(content, digest));
+        String hash = ImageStore.hex(digest);
+
+        // Two concurrent uploads of a new image can both be renamed, the copies are identical so either is served
+        if (Objects.nonNull(find(hash))) {
+            bucket.delete(id);
+        } else {
+            bucket.rename(id, hash);
+        }
+        return hash;
+    }
+
+    @Override
+    public Optional<Resource> get(String hash) {
+        return Optional.ofNullable(find(hash)).map(GridFsImageResource::new);
+    }
+
+    private GridFSFile find(String hash) {
+        // Answered by the filename index the driver creates on the files collection
+        return bucket.find(Filters.eq("filename", hash)).first();
+    }
+
+    /**
+     * A stored image with a known length, so range requests are answered by skipping to the requested chunk
+     * instead of sending the whole image
+     */
+    private class GridFsImageResource extends AbstractResource {
+
+        private final GridFSFile file;
+
+        private GridFsImageResource(GridFSFile file) {
+            this.file = file;
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return bucket.openDownloadStream(file.getObjectId());
+        }
+
+        @Override
+        public long contentLength() {
+            return file.getLength();
+        }
+
+        @Override
+        public String getFilename() {
+            return file.getFilename();
+        }
+
+        @Override
+        public String getDescription() {
+            return "GridFS image [" + file.getFilename() + "]";
+        }
+    }
+}
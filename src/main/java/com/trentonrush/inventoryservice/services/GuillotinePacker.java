@@ -0,0 +1,327 @@
+package com.trentonrush.inventoryservice.services;
+
+import com.trentonrush.inventoryservice.models.dtos.LayoutPiece;
+import com.trentonrush.inventoryservice.models.dtos.PiecePlacement;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Guillotine bin packing of rectangular pieces onto slabs.
+ * Every cut runs edge to edge across the free rectangle it's made in, so each layout can be cut with a bridge saw.
+ * Packing is greedy, each {@link Heuristic} picks a different piece order, free rectangle, split, and slab to open,
+ * so several heuristics are run and the best layout is kept.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-24
+ * @see LayoutService
+ */
+final class GuillotinePacker {
+
+    private static final double EPSILON = 1e-6;
+
+    private GuillotinePacker() {
+        throw new AssertionError();
+    }
+
+    enum PieceOrder {
+        AREA(Comparator.comparingDouble(piece -> piece.getLengthInches() * piece.getWidthInches())),
+        LONG_SIDE(Comparator.comparingDouble(piece -> Math.max(piece.getLengthInches(), piece.getWidthInches()))),
+        SHORT_SIDE(Comparator.comparingDouble(piece -> Math.min(piece.getLengthInches(), piece.getWidthInches()))),
+        PERIMETER(Comparator.comparingDouble(piece -> piece.getLengthInches() + piece.getWidthInches()));
+
+        private final Comparator<LayoutPiece> largestFirst;
+
+        PieceOrder(Comparator<LayoutPiece> ascending) {
+            this.largestFirst = ascending.reversed();
+        }
+    }
+
+    enum RectChoice {
+        BEST_AREA_FIT, BEST_SHORT_SIDE_FIT, BEST_LONG_SIDE_FIT
+    }
+
+    enum SplitRule {
+        SHORTER_LEFTOVER_AXIS, LONGER_LEFTOVER_AXIS
+    }
+
+    enum SlabChoice {
+        SMALLEST_FIRST, LARGEST_FIRST
+    }
+
+    static final class Heuristic {
+
+        private final PieceOrder pieceOrder;
+        private final RectChoice rectChoice;
+        private final SplitRule splitRule;
+        private final SlabChoice slabChoice;
+
+        private Heuristic(PieceOrder pieceOrder, RectChoice rectChoice, SplitRule splitRule, SlabChoice slabChoice) {
+            this.pieceOrder = pieceOrder;
+            this.rectChoice = rectChoice;
+            this.splitRule = splitRule;
+            this.slabChoice = slabChoice;
+        }
+
+        /**
+         * @return every combination of piece order, free rectangle choice, split rule, and slab choice
+         */
+        static List<Heuristic> all() {
+            List<Heuristic> heuristics = new ArrayList<>();
+            for (PieceOrder pieceOrder : PieceOrder.values()) {
+                for (RectChoice rectChoice : RectChoice.values()) {
+                    for (SplitRule splitRule : SplitRule.values()) {
+                        for (SlabChoice slabChoice : SlabChoice.values()) {
+                            heuristics.add(new Heuristic(pieceOrder, rectChoice, splitRule, slabChoice));
+                        }
+                    }
+                }
+            }
+            return heuristics;
+        }
+
+        String name() {
+            return String.join("/", pieceOrder.name(), rectChoice.name(), splitRule.name(), slabChoice.name());
+        }
+    }
+
+    /**
+     * A slab that pieces can be packed onto, length is its longer side
+     */
+    static final class Stock {
+
+        private final String id;
+        private final double lengthInches;
+        private final double widthInches;
+
+        Stock(String id, double lengthInches, double widthInches) {
+            this.id = id;
+            this.lengthInches = lengthInches;
+            this.widthInches = widthInches;
+        }
+
+        private double area() {
+            return lengthInches * widthInches;
+        }
+    }
+
+    /**
+     * The layout produced by one heuristic
+     */
+    static final class Packing {
+
+        // Fewest unplaced pieces, then fewest slabs, then least waste
+        static final Comparator<Packing> BEST_FIRST = Comparator.comparingInt((Packing packing) -> packing.unplaced.size())
+                .thenComparingInt(packing -> packing.bins.size())
+                .thenComparingDouble(Packing::waste);
+
+        private final Heuristic heuristic;
+        private final List<Bin> bins;
+        private final List<Integer> unplaced;
+
+        private Packing(Heuristic heuristic, List<Bin> bins, List<Integer> unplaced) {
+            this.heuristic = heuristic;
+            this.bins = bins;
+            this.unplaced = unplaced;
+        }
+
+        Heuristic heuristic() {
+            return heuristic;
+        }
+
+        List<Bin> bins() {
+            return bins;
+        }
+
+        List<Integer> unplaced() {
+            return unplaced;
+        }
+
+        double waste() {
+            return bins.stream().mapToDouble(Bin::waste).sum();
+        }
+    }
+
+    /**
+     * A slab opened by a packing, with the pieces placed on it and the rectangles still free
+     */
+    static final class Bin {
+
+        private final Stock stock;
+        private final List<Rect> free = new ArrayList<>();
+        private final List<PiecePlacement> placements = new ArrayList<>();
+        private double usedArea;
+
+        private Bin(Stock stock) {
+            this.stock = stock;
+            free.add(new Rect(0.0, 0.0, stock.lengthInches, stock.widthInches));
+        }
+
+        String slabId() {
+            return stock.id;
+        }
+
+        double lengthInches() {
+            return stock.lengthInches;
+        }
+
+        double widthInches() {
+            return stock.widthInches;
+        }
+
+        List<PiecePlacement> placements() {
+            return placements;
+        }
+
+        double waste() {
+            return stock.area() - usedArea;
+        }
+
+        private Fit bestFit(LayoutPiece piece, RectChoice rectChoice) {
+            Fit best = null;
+            for (Rect rect : free) {
+                for (boolean rotated : new boolean[]{false, true}) {
+                    double length = rotated ? piece.getWidthInches() : piece.getLengthInches();
+                    double width = rotated ? piece.getLengthInches() : piece.getWidthInches();
+                    if (length > rect.length + EPSILON || width > rect.width + EPSILON) {
+                        continue;
+                    }
+                    double score = score(rectChoice, rect, length, width);
+                    if (best == null || score < best.score) {
+                        best = new Fit(this, rect, length, width, rotated, score);
+                    }
+                }
+            }
+            return best;
+        }
+
+        private void place(Fit fit, int pieceIndex, String label, SplitRule splitRule) {
+            Rect rect = fit.rect;
+            free.remove(rect);
+            placements.add(new PiecePlacement(pieceIndex, label, rect.x, rect.y, fit.length, fit.width, fit.rotated));
+            usedArea += fit.length * fit.width;
+
+            double leftoverLength = rect.length - fit.length;
+            double leftoverWidth = rect.width - fit.width;
+            boolean fullLengthCut = splitRule == SplitRule.SHORTER_LEFTOVER_AXIS
+                    ? leftoverLength < leftoverWidth
+                    : leftoverLength >= leftoverWidth;
+            if (fullLengthCut) {
+                // Cut across the full length of the free rectangle first
+                addFree(rect.x + fit.length, rect.y, leftoverLength, fit.width);
+                addFree(rect.x, rect.y + fit.width, rect.length, leftoverWidth);
+            } else {
+                // Cut across the full width of the free rectangle first
+                addFree(rect.x + fit.length, rect.y, leftoverLength, rect.width);
+                addFree(rect.x, rect.y + fit.width, fit.length, leftoverWidth);
+            }
+        }
+
+        private void addFree(double x, double y, double length, double width) {
+            if (length > EPSILON && width > EPSILON) {
+                free.add(new Rect(x, y, length, width));
+            }
+        }
+
+        private static double score(RectChoice rectChoice, Rect rect, double length, double width) {
+            double leftoverLength = rect.length - length;
+            double leftoverWidth = rect.width - width;
+            return switch (rectChoice) {
+                case BEST_AREA_FIT -> rect.length * rect.width - length * width;
+                case BEST_SHORT_SIDE_FIT -> Math.min(leftoverLength, leftoverWidth);
+                case BEST_LONG_SIDE_FIT -> Math.max(leftoverLength, leftoverWidth);
+            };
+        }
+    }
+
+    private static final class Rect {
+
+        private final double x;
+        private final double y;
+        private final double length;
+        private final double width;
+
+        private Rect(double x, double y, double length, double width) {
+            this.x = x;
+            this.y = y;
+            this.length = length;
+            this.width = width;
+        }
+    }
+
+    private static final class Fit {
+
+        private final Bin bin;
+        private final Rect rect;
+        private final double length;
+        private final double width;
+        private final boolean rotated;
+        private final double score;
+
+        private Fit(Bin bin, Rect rect, double length, double width, boolean rotated, double score) {
+            this.bin = bin;
+            this.rect = rect;
+            this.length = length;
+            this.width = width;
+            this.rotated = rotated;
+            this.score = score;
+        }
+    }
+
+    /**
+     * Pack every piece using one heuristic
+     * @param pieces the pieces to place
+     * @param stock the slabs that can be opened
+     * @param heuristic the heuristic deciding the order and placement of pieces
+     * @param deadline the {@link System#nanoTime()} after which packing is abandoned
+     * @return the packing, or null if the deadline passed first
+     */
+    static Packing pack(List<LayoutPiece> pieces, List<Stock> stock, Heuristic heuristic, long deadline) {
+        List<Integer> order = IntStream.range(0, pieces.size()).boxed()
+                .sorted(Comparator.comparing(pieces::get, heuristic.pieceOrder.largestFirst))
+                .toList();
+        Comparator<Stock> bySize = Comparator.comparingDouble(Stock::area);
+        List<Stock> closed = new ArrayList<>(stock);
+        closed.sort(heuristic.slabChoice == SlabChoice.SMALLEST_FIRST ? bySize : bySize.reversed());
+
+        List<Bin> bins = new ArrayList<>();
+        List<Integer> unplaced = new ArrayList<>();
+        for (int pieceIndex : order) {
+            if (System.nanoTime() - deadline > 0 || Thread.currentThread().isInterrupted()) {
+                return null;
+            }
+            LayoutPiece piece = pieces.get(pieceIndex);
+
+            // Prefer space left on slabs already opened
+            Fit best = null;
+            for (Bin bin : bins) {
+                Fit fit = bin.bestFit(piece, heuristic.rectChoice);
+                if (fit != null && (best == null || fit.score < best.score)) {
+                    best = fit;
+                }
+            }
+
+            // Otherwise open the first slab the piece fits on
+            if (best == null) {
+                for (int i = 0; i < closed.size(); i++) {
+                    Bin bin = new Bin(closed.get(i));
+                    best = bin.bestFit(piece, heuristic.rectChoice);
+                    if (best != null) {
+                        bins.add(bin);
+                        closed.remove(i);
+                        break;
+                    }
+                }
+            }
+
+            if (best == null) {
+                unplaced.add(pieceIndex);
+                continue;
+            }
+            best.bin.place(best, pieceIndex, piece.getLabel(), heuristic.splitRule);
+        }
+        return new Packing(heuristic, bins, unplaced);
+    }
+}
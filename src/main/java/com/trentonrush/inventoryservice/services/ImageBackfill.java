@@ -0,0 +1,62 @@
+package com.trentonrush.inventoryservice.services;
+
+import com.trentonrush.inventoryservice.exceptions.InvalidInputException;
+import com.trentonrush.inventoryservice.exceptions.PayloadTooLargeException;
+import com.trentonrush.inventoryservice.repositories.SampleSlabRepository;
+import com.trentonrush.inventoryservice.repositories.SlabRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.UncheckedIOException;
+
+import static com.trentonrush.inventoryservice.utils.InventoryConstants.*;
+
+/**
+ * Moves images stored inline as data URIs on slabs and samples written before the image store existed into the store,
+ * so reads stop returning them. Runs once at startup, documents without an inline image are never read.
+ *
+ * @author Trenton Rush
+ * @since 2024-09-01
+ * @see ImageService
+ */
+@Service
+public class ImageBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageBackfill.class);
+
+    private final SlabRepository slabRepository;
+    private final SampleSlabRepository sampleSlabRepository;
+    private final ImageService imageService;
+
+    public ImageBackfill(SlabRepository slabRepository, SampleSlabRepository sampleSlabRepository, ImageService imageService) {
+        this.slabRepository = slabRepository;
+        this.sampleSlabRepository = sampleSlabRepository;
+        this.imageService = imageService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            long slabs = slabRepository.backfillImages(MAX_BATCH_SIZE, this::externalize);
+            long samples = sampleSlabRepository.backfillImages(MAX_BATCH_SIZE, this::externalize);
+            logger.info("Inline images backfilled: Slabs -> {}, Samples -> {}", slabs, samples);
+        } catch (DataAccessException | UncheckedIOException e) {
+            // Don't stop the service from starting, inline images are still returned as they were
+            logger.error("Failed to backfill inline images", e);
+        }
+    }
+
+    private String externalize(String image) {
+        try {
+            return imageService.externalize(image);
+        } catch (InvalidInputException | PayloadTooLargeException e) {
+            // Leave images that were accepted before they were validated as they are
+            logger.warn("Inline image left in place: {}", e.getMessage());
+            return image;
+        }
+    }
+}
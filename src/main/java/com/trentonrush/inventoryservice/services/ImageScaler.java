@@ -0,0 +1,120 @@
+package com.trentonrush.inventoryservice.services;
+
+import com.trentonrush.inventoryservice.models.enums.ImageType;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Decoding, downscaling, and encoding of images for renditions with the JDK's ImageIO.
+ * Decoding failures are reported as {@link IIOException}, retrying them won't help.
+ *
+ * @author Trenton Rush
+ * @since 2024-09-02
+ * @see RenditionService
+ */
+final class ImageScaler {
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private ImageScaler() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Decode the first frame of an image, reading only every nth pixel when the image is far larger than needed
+     * @param input the image, closed by the caller
+     * @param longestSide the longest side of the largest rendition, at least twice this is kept before scaling
+     * @param maxPixels the most pixels an image may have, checked from the header before anything is decoded
+     * @return the decoded image
+     */
+    static BufferedImage read(ImageInputStream input, int longestSide, long maxPixels) throws IOException {
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if (!readers.hasNext()) {
+            throw new IIOException("No decoder for image");
+        }
+        ImageReader reader = readers.next();
+        try {
+            reader.setInput(input, true, true);
+            int width = reader.getWidth(0);
+            int height = reader.getHeight(0);
+            if ((long) width * height > maxPixels) {
+                throw new IIOException("Image is too large to render: " + width + "x" + height);
+            }
+            ImageReadParam param = reader.getDefaultReadParam();
+            int subsampling = Math.max(1, Math.max(width, height) / (2 * longestSide));
+            param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+            return reader.read(0, param);
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    /**
+     * Scale an image to fit a square, keeping its aspect ratio. Images that already fit are never enlarged.
+     * @param alpha whether to keep transparency, otherwise transparent pixels are drawn on white
+     */
+    static BufferedImage scale(BufferedImage source, int longestSide, boolean alpha) {
+        double ratio = Math.min(1.0, (double) longestSide / Math.max(source.getWidth(), source.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+        // Halve in steps, a single bilinear pass over more than half the size skips pixels and aliases
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                if (!alpha) {
+                    graphics.setColor(Color.WHITE);
+                    graphics.fillRect(0, 0, width, height);
+                }
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    /**
+     * Encode an image as a JPEG or PNG
+     */
+    static byte[] encode(BufferedImage image, ImageType type) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(type == ImageType.JPEG ? "jpeg" : "png").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (MemoryCacheImageOutputStream output = new MemoryCacheImageOutputStream(bytes)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (type == ImageType.JPEG) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+            }
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+}
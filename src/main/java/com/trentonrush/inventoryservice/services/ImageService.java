@@ -0,0 +1,194 @@
+package com.trentonrush.inventoryservice.services;
+
+import com.trentonrush.inventoryservice.exceptions.InvalidInputException;
+import com.trentonrush.inventoryservice.exceptions.PayloadTooLargeException;
+import com.trentonrush.inventoryservice.exceptions.ResourceNotFoundException;
+import com.trentonrush.inventoryservice.models.dtos.ImageInfo;
+import com.trentonrush.inventoryservice.models.enums.ImageType;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.trentonrush.inventoryservice.utils.InventoryConstants.*;
+
+/**
+ * Service class for slab images.
+ * Images are kept out of the slab and sample documents, which only store a short reference made of the image's
+ * content hash and extension. Images sent inline as data URIs are moved to the image store on write.
+ *
+ * @author Trenton Rush
+ * @since 2024-09-01
+ * @see ImageStore
+ */
+@Timed(SERVICE_TIMER)
+@Service
+public class ImageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageService.class);
+
+    private static final Pattern DATA_URI = Pattern.compile("data:[^,;]*(;[^,]*)?,", Pattern.CASE_INSENSITIVE);
+
+    private final ImageStore imageStore;
+    private final RenditionService renditionService;
+    private final long maxSize;
+
+    public ImageService(ImageStore imageStore, RenditionService renditionService,
+                        @Value("${inventory.images.max-size:10MB}") DataSize maxSize) {
+        this.imageStore = imageStore;
+        this.renditionService = renditionService;
+        this.maxSize = maxSize.toBytes();
+    }
+
+    /**
+     * Store an image and queue its renditions, the type is detected from its content and anything other than a JPEG,
+     * PNG, GIF, or WEBP is rejected
+     * @param content the image bytes, streamed to the store
+     * @return the reference to store on slabs and samples, with the image's type and size
+     */
+    public ImageInfo storeImage(InputStream content) {
+        try {
+            BufferedInputStream buffered = new BufferedInputStream(content);
+            buffered.mark(ImageType.MAGIC_LENGTH);
+            byte[] magic = buffered.readNBytes(ImageType.MAGIC_LENGTH);
+            buffered.reset();
+            ImageType type = ImageType.sniff(magic, magic.length);
+
+            BoundedInputStream bounded = new BoundedInputStream(buffered, maxSize);
+            String hash = imageStore.put(bounded);
+            ImageInfo image = new ImageInfo(hash + "." + type.getExtension(), type.getContentType(), bounded.count);
+            logger.info("Image stored: {} ({} bytes)", image.getImage(), image.getSize());
+            renditionService.enqueue(image.getImage());
+            return image;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store image", e);
+        }
+    }
+
+    /**
+     * Get a stored image. The extension of the reference must name the stored type, so a reference with another
+     * extension can't serve the image under a content type it wasn't stored as.
+     * @param image the image reference returned when the image was stored
+     * @return the image, with a known content length
+     */
+    public Resource getImage(String image) {
+        Matcher reference = reference(image);
+        ImageType type = ImageType.fromExtension(reference.group(2));
+        try {
+            Resource resource = imageStore.get(reference.group(1))
+                    .orElseThrow(() -> new ResourceNotFoundException("Image " + image + " not found"));
+            if (type != storedType(resource)) {
+                logger.warn("Image requested with the wrong extension: {}", image);
+                throw new ResourceNotFoundException("Image " + image + " not found");
+            }
+            return resource;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read image " + image, e);
+        }
+    }
+
+    /**
+     * Get the content type of a stored image from its reference, without reading the image
+     */
+    public ImageType getImageType(String image) {
+        return ImageType.fromExtension(reference(image).group(2));
+    }
+
+    /**
+     * Move an inline image into the image store
+     * @param image the image of a slab or sample, as sent by the client
+     * @return the image reference if the image was a base64 data URI, otherwise the image unchanged
+     */
+    public String externalize(String image) {
+        if (Objects.isNull(image)) {
+            return null;
+        }
+        Matcher dataUri = DATA_URI.matcher(image);
+        if (!dataUri.lookingAt()) {
+            return image;
+        }
+        if (Objects.isNull(dataUri.group(1)) || !dataUri.group(1).toLowerCase().endsWith(";base64")) {
+            throw new InvalidInputException("Image data URI must be base64 encoded");
+        }
+
+        byte[] bytes;
+        try {
+            bytes = Base64.getMimeDecoder().decode(image.substring(dataUri.end()));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException("Image data URI is not valid base64");
+        }
+        return storeImage(new ByteArrayInputStream(bytes)).getImage();
+    }
+
+    private static ImageType storedType(Resource resource) throws IOException {
+        try (InputStream content = resource.getInputStream()) {
+            byte[] magic = content.readNBytes(ImageType.MAGIC_LENGTH);
+            return ImageType.sniff(magic, magic.length);
+        } catch (InvalidInputException e) {
+            // Not an image this service would have stored
+            return null;
+        }
+    }
+
+    private static Matcher reference(String image) {
+        Matcher reference = ImageType.REFERENCE.matcher(Objects.isNull(image) ? "" : image);
+        if (!reference.matches()) {
+            throw new InvalidInputException("Image reference is invalid");
+        }
+        return reference;
+    }
+
+    /**
+     * Counts the bytes read and rejects the image once it passes the maximum size, so an oversized upload is never
+     * read to the end
+     */
+    private static class BoundedInputStream extends FilterInputStream {
+
+        private final long maxSize;
+        private long count;
+
+        private BoundedInputStream(InputStream in, long maxSize) {
+            super(in);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                counted(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                counted(n);
+            }
+            return n;
+        }
+
+        private void counted(int n) {
+            count += n;
+            if (count > maxSize) {
+                throw new PayloadTooLargeException("Image can not be larger than " + maxSize + " bytes");
+            }
+        }
+    }
+}
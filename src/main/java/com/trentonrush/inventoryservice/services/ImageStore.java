@@ -0,0 +1,48 @@
+package com.trentonrush.inventoryservice.services;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Content addressed storage for image bytes. Images are keyed by the SHA-256 of their content, so storing the same
+ * image twice keeps one copy and a stored image never changes.
+ *
+ * @author Trenton Rush
+ * @since 2024-09-01
+ * @see ImageService
+ */
+public interface ImageStore {
+
+    /**
+     * Store an image, streaming it without holding the whole image in memory
+     * @param content the image bytes, read to the end but not closed
+     * @return the lowercase hex SHA-256 of the content
+     */
+    String put(InputStream content) throws IOException;
+
+    /**
+     * Find a stored image
+     * @param hash the hash returned when the image was stored
+     * @return the image, its content length is known without reading it, or empty if no image has the hash
+     */
+    Optional<Resource> get(String hash) throws IOException;
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String hex(MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
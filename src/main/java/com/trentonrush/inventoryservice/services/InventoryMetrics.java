@@ -0,0 +1,114 @@
+package com.trentonrush.inventoryservice.services;
+
+import com.trentonrush.inventoryservice.models.dtos.SampleFilter;
+import com.trentonrush.inventoryservice.models.dtos.SlabFilter;
+import com.trentonrush.inventoryservice.utils.ValidationUtil;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import static com.trentonrush.inventoryservice.utils.InventoryConstants.*;
+
+/**
+ * Metrics that need more context than @Timed has, searches are timed per combination of filters used and
+ * the number of results of every list operation is recorded.
+ * Filter combinations only name the filters, never their values, so the number of tags stays bounded.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-28
+ */
+@Component
+public class InventoryMetrics {
+
+    private static final String NO_FILTERS = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    public InventoryMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Time a search, tagged by the operation and the filters it used
+     * @param operation the name of the search, e.g. slabs.search
+     * @param filters the filters the search used, see {@link #filters(SlabFilter)}
+     * @param search runs the search
+     * @return the result of the search
+     */
+    public <T> T timeSearch(String operation, String filters, Supplier<T> search) {
+        return Timer.builder(SEARCH_TIMER)
+                .description("Time spent searching, by the combination of filters used")
+                .tag("operation", operation)
+                .tag("filters", filters)
+                .register(meterRegistry)
+                .record(search);
+    }
+
+    /**
+     * Record the number of results a list operation returned
+     * @param operation the name of the operation, e.g. slabs.search
+     * @param size the number of results
+     */
+    public void recordResults(String operation, int size) {
+        DistributionSummary.builder(RESULTS_SUMMARY)
+                .description("Number of results returned by list operations")
+                .baseUnit("results")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .record(size);
+    }
+
+    /**
+     * @return the names of the slab filters that are set, joined by +, or none
+     */
+    public static String filters(SlabFilter filter) {
+        List<String> names = new ArrayList<>();
+        addIfSet(names, "type", filter.getType());
+        addIfSet(names, "color", filter.getColor());
+        addIfSet(names, "status", filter.getStatus());
+        addIfSet(names, "supplier", filter.getSupplier());
+        addIfSet(names, "location", filter.getLocation());
+        addIfSet(names, "remnant", filter.getRemnant());
+        addIfSet(names, "damaged", filter.getDamaged());
+        // Every size range is one tag, they're all answered the same way
+        boolean size = Objects.nonNull(filter.getMinLengthInches()) || Objects.nonNull(filter.getMaxLengthInches())
+                || Objects.nonNull(filter.getMinWidthInches()) || Objects.nonNull(filter.getMaxWidthInches())
+                || Objects.nonNull(filter.getMinThicknessInches()) || Objects.nonNull(filter.getMaxThicknessInches())
+                || Objects.nonNull(filter.getMinAreaSqInches()) || Objects.nonNull(filter.getMaxAreaSqInches());
+        if (size) {
+            names.add("size");
+        }
+        return join(names);
+    }
+
+    /**
+     * @return the names of the sample filters that are set, joined by +, or none
+     */
+    public static String filters(SampleFilter filter) {
+        List<String> names = new ArrayList<>();
+        addIfSet(names, "type", filter.getType());
+        addIfSet(names, "color", filter.getColor());
+        addIfSet(names, "supplier", filter.getSupplier());
+        if (filter.isOnlyAvailable()) {
+            names.add("available");
+        }
+        return join(names);
+    }
+
+    private static void addIfSet(List<String> names, String name, Object value) {
+        boolean set = value instanceof String str ? !ValidationUtil.isNullOrEmpty(str) : Objects.nonNull(value);
+        if (set) {
+            names.add(name);
+        }
+    }
+
+    private static String join(List<String> names) {
+        return names.isEmpty() ? NO_FILTERS : String.join("+", names);
+    }
+}
@@ -0,0 +1,153 @@
+package com.trentonrush.inventoryservice.services;
+
+import com.trentonrush.inventoryservice.exceptions.InvalidInputException;
+import com.trentonrush.inventoryservice.exceptions.ServiceUnavailableException;
+import com.trentonrush.inventoryservice.models.Slab;
+import com.trentonrush.inventoryservice.models.SlabSize;
+import com.trentonrush.inventoryservice.models.dtos.CutLayout;
+import com.trentonrush.inventoryservice.models.dtos.LayoutPiece;
+import com.trentonrush.inventoryservice.models.dtos.LayoutRequest;
+import com.trentonrush.inventoryservice.models.dtos.SlabFilter;
+import com.trentonrush.inventoryservice.models.dtos.SlabLayout;
+import com.trentonrush.inventoryservice.models.enums.Status;
+import com.trentonrush.inventoryservice.repositories.SlabRepository;
+import com.trentonrush.inventoryservice.utils.ValidationUtil;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.trentonrush.inventoryservice.utils.InventoryConstants.*;
+
+/**
+ * Service class for planning cut layouts.
+ * Packs the pieces of a job onto available slabs of one type and color, using as few slabs and as little area as
+ * possible. Every packing heuristic runs in parallel and the best layout finished within the time budget is returned.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-24
+ * @see GuillotinePacker
+ */
+@Timed(SERVICE_TIMER)
+@Service
+public class LayoutService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LayoutService.class);
+
+    private final SlabRepository slabRepository;
+    private final ForkJoinPool layoutPool;
+    private final Duration timeBudget;
+    private final InventoryMetrics inventoryMetrics;
+
+    public LayoutService(SlabRepository slabRepository, ForkJoinPool layoutPool,
+                         @Value("${inventory.layouts.time-budget:PT2S}") Duration timeBudget,
+                         InventoryMetrics inventoryMetrics) {
+        this.slabRepository = slabRepository;
+        this.layoutPool = layoutPool;
+        this.timeBudget = timeBudget;
+        this.inventoryMetrics = inventoryMetrics;
+    }
+
+    /**
+     * Plan how to cut the pieces of a job from the available slabs
+     * @param request the type and color of the slabs and the pieces to cut
+     * @return the pieces placed on each slab used, and any pieces that don't fit on an available slab
+     */
+    public CutLayout planLayout(LayoutRequest request) {
+        validate(request);
+        logger.debug("Request received to plan cut layout: Request -> {}", request);
+
+        List<GuillotinePacker.Stock> stock = new ArrayList<>();
+        SlabFilter filter = new SlabFilter(request.getType(), request.getColor(), Status.AVAILABLE.name());
+        for (Slab slab : slabRepository.findDimensions(filter, MAX_LAYOUT_SLABS)) {
+            SlabSize size = SlabSize.of(slab.getDimensions());
+            if (Objects.nonNull(size)) {
+                stock.add(new GuillotinePacker.Stock(slab.getId(), size.getLengthInches(), size.getWidthInches()));
+            }
+        }
+
+        List<GuillotinePacker.Heuristic> heuristics = GuillotinePacker.Heuristic.all();
+        long deadline = System.nanoTime() + timeBudget.toNanos();
+        List<Callable<GuillotinePacker.Packing>> tasks = heuristics.stream()
+                .<Callable<GuillotinePacker.Packing>>map(heuristic -> () -> GuillotinePacker.pack(request.getPieces(), stock, heuristic, deadline))
+                .toList();
+
+        // Heuristics still running when the budget runs out are cancelled
+        List<Future<GuillotinePacker.Packing>> futures;
+        try {
+            futures = layoutPool.invokeAll(tasks, timeBudget.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Cut layout was interrupted");
+        }
+
+        GuillotinePacker.Packing best = null;
+        int evaluated = 0;
+        for (Future<GuillotinePacker.Packing> future : futures) {
+            GuillotinePacker.Packing packing = completed(future);
+            if (Objects.nonNull(packing)) {
+                evaluated++;
+                if (Objects.isNull(best) || GuillotinePacker.Packing.BEST_FIRST.compare(packing, best) < 0) {
+                    best = packing;
+                }
+            }
+        }
+        if (Objects.isNull(best)) {
+            throw new ServiceUnavailableException("Cut layout could not be planned within " + timeBudget);
+        }
+
+        List<SlabLayout> slabs = best.bins().stream()
+                .map(bin -> new SlabLayout(bin.slabId(), bin.lengthInches(), bin.widthInches(), bin.placements(), bin.waste()))
+                .toList();
+        inventoryMetrics.recordResults("layouts", slabs.size());
+        logger.info("Cut layout planned: Slabs -> {}, Unplaced -> {}, Heuristic -> {}, Evaluated -> {}/{}",
+                slabs.size(), best.unplaced().size(), best.heuristic().name(), evaluated, heuristics.size());
+        return new CutLayout(slabs, best.unplaced(), best.waste(), best.heuristic().name(), evaluated);
+    }
+
+    private static GuillotinePacker.Packing completed(Future<GuillotinePacker.Packing> future) {
+        try {
+            return future.get();
+        } catch (CancellationException | ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private static void validate(LayoutRequest request) {
+        if (Objects.isNull(request)) {
+            throw new InvalidInputException("Layout request is null");
+        }
+        if (ValidationUtil.isNullOrEmpty(request.getType())) {
+            throw new InvalidInputException("Type is empty");
+        }
+        if (ValidationUtil.isNullOrEmpty(request.getColor())) {
+            throw new InvalidInputException("Color is empty");
+        }
+        if (Objects.isNull(request.getPieces()) || request.getPieces().isEmpty()) {
+            throw new InvalidInputException("Pieces are empty");
+        }
+        if (request.getPieces().size() > MAX_LAYOUT_PIECES) {
+            throw new InvalidInputException("Layout can not contain more than " + MAX_LAYOUT_PIECES + " pieces");
+        }
+        for (LayoutPiece piece : request.getPieces()) {
+            if (Objects.isNull(piece) || piece.getLengthInches() <= 0.0 || piece.getWidthInches() <= 0.0) {
+                throw new InvalidInputException("Piece length and width must be greater than zero");
+            }
+        }
+    }
+}
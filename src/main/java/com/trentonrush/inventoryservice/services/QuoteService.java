@@ -0,0 +1,151 @@
+package com.trentonrush.inventoryservice.services;
+
+import com.trentonrush.inventoryservice.exceptions.InvalidInputException;
+import com.trentonrush.inventoryservice.models.Dimensions;
+import com.trentonrush.inventoryservice.models.Slab;
+import com.trentonrush.inventoryservice.models.SlabPrice;
+import com.trentonrush.inventoryservice.models.SlabSize;
+import com.trentonrush.inventoryservice.models.dtos.Quote;
+import com.trentonrush.inventoryservice.models.dtos.QuoteRequest;
+import com.trentonrush.inventoryservice.models.dtos.SlabQuote;
+import com.trentonrush.inventoryservice.repositories.SlabPriceRepository;
+import com.trentonrush.inventoryservice.repositories.SlabRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static com.trentonrush.inventoryservice.utils.InventoryConstants.*;
+
+/**
+ * Service class for quoting slabs.
+ * Prices a list of slabs, or every slab matching a filter, with one read for the slabs and one for their prices.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-21
+ * @see Quote
+ */
+@Timed(SERVICE_TIMER)
+@Service
+public class QuoteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuoteService.class);
+
+    private static final BigDecimal SQ_INCHES_PER_SQ_FT = BigDecimal.valueOf(144);
+    private static final int AREA_SCALE = 2;
+
+    private final SlabRepository slabRepository;
+    private final SlabPriceRepository slabPriceRepository;
+    private final InventoryMetrics inventoryMetrics;
+
+    public QuoteService(SlabRepository slabRepository, SlabPriceRepository slabPriceRepository, InventoryMetrics inventoryMetrics) {
+        this.slabRepository = slabRepository;
+        this.slabPriceRepository = slabPriceRepository;
+        this.inventoryMetrics = inventoryMetrics;
+    }
+
+    /**
+     * Quote the area and total price of each requested slab
+     * @param request the ids of the slabs to quote, or a filter matching them
+     * @return the quote for each slab, totals per currency, and any requested ids that weren't found
+     */
+    public Quote quote(QuoteRequest request) {
+        if (Objects.isNull(request)) {
+            throw new InvalidInputException("Quote request is null");
+        }
+        List<Slab> slabs;
+        List<String> notFound = new ArrayList<>();
+        if (Objects.nonNull(request.getSlabIds()) && !request.getSlabIds().isEmpty()) {
+            Set<String> ids = new LinkedHashSet<>(request.getSlabIds());
+            if (ids.size() > MAX_QUOTE_SIZE) {
+                throw new InvalidInputException("Quote can't contain more than " + MAX_QUOTE_SIZE + " slabs");
+            }
+            logger.info("Request received to quote {} slabs by id", ids.size());
+            slabs = inRequestOrder(ids, slabRepository.findDimensionsByIds(ids), notFound);
+        } else if (Objects.nonNull(request.getFilter())) {
+            logger.info("Request received to quote slabs: Filter -> {}", request.getFilter());
+            // Read one extra slab to detect a filter matching too many slabs
+            slabs = slabRepository.findDimensions(request.getFilter(), MAX_QUOTE_SIZE + 1);
+            if (slabs.size() > MAX_QUOTE_SIZE) {
+                throw new InvalidInputException("Filter matches more than " + MAX_QUOTE_SIZE + " slabs");
+            }
+        } else {
+            throw new InvalidInputException("Slab ids or a filter must be provided");
+        }
+
+        Map<String, SlabPrice> prices = new LinkedHashMap<>();
+        for (SlabPrice slabPrice : slabPriceRepository.findAllForSlabs(slabs)) {
+            prices.put(priceKey(slabPrice.getType(), slabPrice.getColor()), slabPrice);
+        }
+
+        List<SlabQuote> quotes = new ArrayList<>(slabs.size());
+        Map<String, BigDecimal> totals = new TreeMap<>();
+        for (Slab slab : slabs) {
+            SlabQuote slabQuote = quoteSlab(slab, prices.get(priceKey(slab.getType(), slab.getColor())));
+            if (Objects.nonNull(slabQuote.getTotal())) {
+                totals.merge(slabQuote.getCurrency().getCurrencyCode(), slabQuote.getTotal(), BigDecimal::add);
+            }
+            quotes.add(slabQuote);
+        }
+        logger.info("Quoted {} slabs with {} prices", quotes.size(), prices.size());
+        inventoryMetrics.recordResults("quotes", quotes.size());
+        return new Quote(quotes, totals, notFound);
+    }
+
+    private static SlabQuote quoteSlab(Slab slab, SlabPrice slabPrice) {
+        BigDecimal area = areaInSqFt(slab.getDimensions());
+        if (Objects.isNull(slabPrice)) {
+            return new SlabQuote(slab.getId(), slab.getType(), slab.getColor(), area, null, null, null);
+        }
+
+        BigDecimal total = null;
+        if (Objects.nonNull(area)) {
+            total = area.multiply(slabPrice.getAmountPerSqFt())
+                    .setScale(slabPrice.getCurrency().getDefaultFractionDigits(), RoundingMode.HALF_EVEN);
+        }
+        return new SlabQuote(slab.getId(), slab.getType(), slab.getColor(), area,
+                slabPrice.getAmountPerSqFt(), slabPrice.getCurrency(), total);
+    }
+
+    /**
+     * Area of a slab in square feet, rounded to hundredths, or null if its length or width is missing
+     */
+    private static BigDecimal areaInSqFt(Dimensions dimensions) {
+        SlabSize size = SlabSize.of(dimensions);
+        if (Objects.isNull(size)) {
+            return null;
+        }
+        return BigDecimal.valueOf(size.getAreaSqInches()).divide(SQ_INCHES_PER_SQ_FT, AREA_SCALE, RoundingMode.HALF_EVEN);
+    }
+
+    private static List<Slab> inRequestOrder(Set<String> ids, List<Slab> found, List<String> notFound) {
+        Map<String, Slab> byId = new LinkedHashMap<>();
+        found.forEach(slab -> byId.put(slab.getId(), slab));
+
+        List<Slab> ordered = new ArrayList<>(found.size());
+        for (String id : ids) {
+            Slab slab = byId.get(id);
+            if (Objects.isNull(slab)) {
+                notFound.add(id);
+            } else {
+                ordered.add(slab);
+            }
+        }
+        return ordered;
+    }
+
+    private static String priceKey(String type, String color) {
+        return type + "|" + color;
+    }
+}
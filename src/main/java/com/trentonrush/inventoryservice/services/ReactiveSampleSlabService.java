@@ -0,0 +1,194 @@
+package com.trentonrush.inventoryservice.services;
+
+import com.trentonrush.inventoryservice.exceptions.InvalidInputException;
+import com.trentonrush.inventoryservice.exceptions.ResourceAlreadyExistsException;
+import com.trentonrush.inventoryservice.exceptions.ResourceConflictException;
+import com.trentonrush.inventoryservice.exceptions.ResourceNotFoundException;
+import com.trentonrush.inventoryservice.exceptions.ServiceUnavailableException;
+import com.trentonrush.inventoryservice.models.SampleSlab;
+import com.trentonrush.inventoryservice.models.dtos.CursorPage;
+import com.trentonrush.inventoryservice.models.dtos.SampleFilter;
+import com.trentonrush.inventoryservice.models.dtos.SlabDTO;
+import com.trentonrush.inventoryservice.repositories.ReactiveSampleSlabRepository;
+import com.trentonrush.inventoryservice.utils.InventoryUtil;
+import com.trentonrush.inventoryservice.utils.ValidationUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Reactive counterpart of {@link SampleSlabService}, used when the service runs on the reactive web stack.
+ * Writes keep the same in-memory availability counters up to date.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-25
+ * @see SampleSlabService
+ * @see ReactiveSampleSlabRepository
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Service
+public class ReactiveSampleSlabService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveSampleSlabService.class);
+
+    private final ReactiveSampleSlabRepository sampleSlabRepository;
+    private final AvailabilityCounters availabilityCounters;
+
+    public ReactiveSampleSlabService(ReactiveSampleSlabRepository sampleSlabRepository, AvailabilityCounters availabilityCounters) {
+        this.sampleSlabRepository = sampleSlabRepository;
+        this.availabilityCounters = availabilityCounters;
+    }
+
+    /**
+     * @see SampleSlabService#addSample(SlabDTO)
+     */
+    public Mono<SampleSlab> addSample(SlabDTO slabDTO) {
+        return Mono.fromRunnable(() -> {
+                    ValidationUtil.validateSlabDTO(slabDTO, false);
+                    logger.debug("Request received to add new sample slab: Request -> {}", slabDTO);
+                })
+                // Prevent adding duplicate samples
+                .then(sampleSlabRepository.exists(new SampleFilter(slabDTO.getType(), slabDTO.getColor(), false)))
+                .flatMap(exists -> {
+                    if (exists) {
+                        return Mono.error(new ResourceAlreadyExistsException("Sample Slab", "type & color", slabDTO.getType() + "," + slabDTO.getColor()));
+                    }
+                    SampleSlab sampleSlab = SampleSlab.build(slabDTO);
+                    Instant now = Instant.now();
+                    sampleSlab.setCreationDate(now);
+                    sampleSlab.setModificationDate(now);
+                    return sampleSlabRepository.save(sampleSlab);
+                })
+                .doOnNext(savedSampleSlab -> {
+                    availabilityCounters.recordSample(savedSampleSlab.getType(), savedSampleSlab.getColor(), savedSampleSlab.getQuantity());
+                    logger.debug("New SampleSlab added to database: {}", savedSampleSlab);
+                });
+    }
+
+    /**
+     * @see SampleSlabService#updateSample(String, SlabDTO, Long)
+     */
+    public Mono<SampleSlab> updateSample(String id, SlabDTO slabDTO) {
+        logger.debug("Request received to update sample slab: SampleSlab ID -> {}, Request -> {}", id, slabDTO);
+        return getSample(id).flatMap(sampleSlab -> {
+            String oldType = sampleSlab.getType();
+            String oldColor = sampleSlab.getColor();
+            int oldQuantity = sampleSlab.getQuantity();
+
+            sampleSlab.applyUpdate(slabDTO, Instant.now());
+            return sampleSlabRepository.save(sampleSlab).doOnNext(savedSampleSlab -> {
+                availabilityCounters.recordSample(oldType, oldColor, -oldQuantity);
+                availabilityCounters.recordSample(savedSampleSlab.getType(), savedSampleSlab.getColor(), savedSampleSlab.getQuantity());
+                logger.debug("SampleSlab modified in database: {}", savedSampleSlab);
+            });
+        }).onErrorMap(OptimisticLockingFailureException.class, e -> changed(id));
+    }
+
+    /**
+     * @see SampleSlabService#deleteSample(String, Long)
+     */
+    public Mono<Void> deleteSample(String id) {
+        return getSample(id).flatMap(sampleSlab -> sampleSlabRepository.delete(sampleSlab).then(Mono.<Void>fromRunnable(() -> {
+            availabilityCounters.recordSample(sampleSlab.getType(), sampleSlab.getColor(), -sampleSlab.getQuantity());
+            logger.info("SampleSlab deleted from database: {}", id);
+        }))).onErrorMap(OptimisticLockingFailureException.class, e -> changed(id));
+    }
+
+    /**
+     * The sample was written by another request between reading and writing it
+     */
+    private ResourceConflictException changed(String id) {
+        logger.warn("SampleSlab changed while being written: SampleSlab ID -> {}", id);
+        return new ResourceConflictException("Sample Slab with id " + id + " was changed by another request");
+    }
+
+    /**
+     * @see SampleSlabService#getSample(String)
+     */
+    public Mono<SampleSlab> getSample(String id) {
+        return sampleSlabRepository.findById(id)
+                .switchIfEmpty(Mono.defer(() -> {
+                    logger.warn("SampleSlab not found with id: {}", id);
+                    return Mono.error(new ResourceNotFoundException("Sample Slab with id " + id + " not found"));
+                }));
+    }
+
+    /**
+     * @see SampleSlabService#listSamples(SampleFilter, String, Integer, com.trentonrush.inventoryservice.models.dtos.SparseFields)
+     */
+    public Mono<CursorPage<SampleSlab>> listSamples(SampleFilter filter, String cursor, Integer limit) {
+        return Mono.fromCallable(() -> InventoryUtil.pageSize(limit))
+                .flatMap(pageSize -> sampleSlabRepository.findPage(filter, InventoryUtil.decodeCursor(cursor), pageSize + 1)
+                        .collectList()
+                        .map(sampleSlabs -> {
+                            // One extra sample is fetched to know whether there is another page
+                            if (sampleSlabs.size() <= pageSize) {
+                                return new CursorPage<>(sampleSlabs, null);
+                            }
+                            return new CursorPage<>(sampleSlabs.subList(0, pageSize), InventoryUtil.encodeCursor(sampleSlabs.get(pageSize - 1).getId()));
+                        }));
+    }
+
+    /**
+     * Stream every sample in the database, samples are read from the database as fast as the client consumes them
+     */
+    public Flux<SampleSlab> exportSamples() {
+        return sampleSlabRepository.findAll();
+    }
+
+    /**
+     * @see SampleSlabService#adjustQuantity(String, int)
+     */
+    public Mono<SampleSlab> adjustQuantity(String id, int delta) {
+        if (delta == 0) {
+            return Mono.error(new InvalidInputException("Quantity delta must not be zero"));
+        }
+        return sampleSlabRepository.adjustQuantity(id, delta)
+                // Only reached on failure, so the extra lookup doesn't cost the happy path
+                .switchIfEmpty(Mono.defer(() -> sampleSlabRepository.existsById(id).flatMap(exists -> {
+                    if (!exists) {
+                        logger.warn("SampleSlab not found with id: {}", id);
+                        return Mono.error(new ResourceNotFoundException("Sample Slab with id " + id + " not found"));
+                    }
+                    logger.warn("SampleSlab {} quantity can not be adjusted by {} without dropping below zero", id, delta);
+                    return Mono.error(new ResourceConflictException("Sample Slab with id " + id + " does not have enough quantity to remove " + -delta));
+                })))
+                .doOnNext(sampleSlab -> {
+                    availabilityCounters.recordSample(sampleSlab.getType(), sampleSlab.getColor(), delta);
+                    logger.info("SampleSlab {} adjusted quantity by {} to {}", sampleSlab.getId(), delta, sampleSlab.getQuantity());
+                });
+    }
+
+    /**
+     * @see SampleSlabService#checkAvailability(String, String)
+     */
+    public Mono<Boolean> checkAvailability(String type, String color) {
+        if (ValidationUtil.isNullOrEmpty(type) && ValidationUtil.isNullOrEmpty(color)) {
+            logger.warn("Neither type nor color provided.");
+            return Mono.just(false);
+        }
+        if (availabilityCounters.isReady()) {
+            return Mono.just(availabilityCounters.countSamples(type, color) > 0);
+        }
+        // Counters are still being built at startup
+        return sampleSlabRepository.exists(new SampleFilter(type, color, true));
+    }
+
+    /**
+     * @see SampleSlabService#countSamples(String, String)
+     */
+    public Mono<Long> countSamples(String type, String color) {
+        return Mono.fromCallable(() -> {
+            if (!availabilityCounters.isReady()) {
+                throw new ServiceUnavailableException("Sample counts are not available yet");
+            }
+            return availabilityCounters.countSamples(type, color);
+        });
+    }
+}
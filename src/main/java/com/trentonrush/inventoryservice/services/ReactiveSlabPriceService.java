@@ -0,0 +1,162 @@
+package com.trentonrush.inventoryservice.services;
+
+import com.trentonrush.inventoryservice.exceptions.InvalidInputException;
+import com.trentonrush.inventoryservice.exceptions.ResourceAlreadyExistsException;
+import com.trentonrush.inventoryservice.exceptions.ResourceConflictException;
+import com.trentonrush.inventoryservice.exceptions.ResourceNotFoundException;
+import com.trentonrush.inventoryservice.models.SlabPrice;
+import com.trentonrush.inventoryservice.models.dtos.SlabDTO;
+import com.trentonrush.inventoryservice.repositories.ReactiveSlabPriceRepository;
+import com.trentonrush.inventoryservice.utils.ValidationUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Objects;
+
+import static com.trentonrush.inventoryservice.utils.InventoryConstants.*;
+
+/**
+ * Reactive counterpart of {@link SlabPriceService}, used when the service runs on the reactive web stack.
+ * Lookups share the same price cache.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-25
+ * @see SlabPriceService
+ * @see ReactiveSlabPriceRepository
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Service
+public class ReactiveSlabPriceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveSlabPriceService.class);
+
+    private final ReactiveSlabPriceRepository slabPriceRepository;
+    private final Cache priceCache;
+
+    public ReactiveSlabPriceService(ReactiveSlabPriceRepository slabPriceRepository, CacheManager cacheManager) {
+        this.slabPriceRepository = slabPriceRepository;
+        this.priceCache = Objects.requireNonNull(cacheManager.getCache(PRICE_CACHE));
+    }
+
+    /**
+     * @see SlabPriceService#addPrice(SlabDTO)
+     */
+    public Mono<SlabPrice> addPrice(SlabDTO slabDTO) {
+        return Mono.fromCallable(() -> {
+                    ValidationUtil.validatePriceDetails(slabDTO);
+                    logger.debug("Request received to add new slabPrice: Request -> {}", slabDTO);
+
+                    SlabPrice slabPrice = SlabPrice.buildSlabPrice(slabDTO);
+                    Instant now = Instant.now();
+                    slabPrice.setCreationDate(now);
+                    slabPrice.setModificationDate(now);
+                    return slabPrice;
+                })
+                .flatMap(this::save)
+                .doOnNext(savedSlabPrice -> {
+                    evict(savedSlabPrice.getType(), savedSlabPrice.getColor());
+                    logger.debug("New SlabPrice added to database: {}", savedSlabPrice);
+                });
+    }
+
+    /**
+     * @see SlabPriceService#updatePrice(String, SlabDTO, Long)
+     */
+    public Mono<SlabPrice> updatePrice(String id, SlabDTO slabDTO) {
+        logger.debug("Request received to update price: SlabPrice ID -> {}, Request -> {}", id, slabDTO);
+        return getPrice(id).flatMap(slabPrice -> {
+            String oldType = slabPrice.getType();
+            String oldColor = slabPrice.getColor();
+
+            slabPrice.applyUpdate(slabDTO, Instant.now());
+            return save(slabPrice).doOnNext(savedSlabPrice -> {
+                // Evict both keys in case the type or color changed
+                evict(oldType, oldColor);
+                evict(savedSlabPrice.getType(), savedSlabPrice.getColor());
+                logger.debug("SlabPrice modified in database: {}", savedSlabPrice);
+            });
+        }).onErrorMap(OptimisticLockingFailureException.class, e -> changed(id));
+    }
+
+    /**
+     * @see SlabPriceService#deletePrice(String, Long)
+     */
+    public Mono<Void> deletePrice(String id) {
+        return getPrice(id).flatMap(slabPrice -> slabPriceRepository.delete(slabPrice).then(Mono.<Void>fromRunnable(() -> {
+            evict(slabPrice.getType(), slabPrice.getColor());
+            logger.info("SlabPrice deleted from database: {}", id);
+        }))).onErrorMap(OptimisticLockingFailureException.class, e -> changed(id));
+    }
+
+    /**
+     * The price was written by another request between reading and writing it
+     */
+    private ResourceConflictException changed(String id) {
+        logger.warn("SlabPrice changed while being written: SlabPrice ID -> {}", id);
+        return new ResourceConflictException("SlabPrice with id " + id + " was changed by another request");
+    }
+
+    /**
+     * @see SlabPriceService#getPrice(String)
+     */
+    public Mono<SlabPrice> getPrice(String id) {
+        return slabPriceRepository.findById(id)
+                .switchIfEmpty(Mono.defer(() -> {
+                    logger.warn("SlabPrice not found with id: {}", id);
+                    return Mono.error(new ResourceNotFoundException("SlabPrice with id " + id + " not found"));
+                }));
+    }
+
+    /**
+     * @see SlabPriceService#searchPrice(String, String)
+     */
+    public Mono<SlabPrice> searchPrice(String type, String color) {
+        if (ValidationUtil.isNullOrEmpty(type) || ValidationUtil.isNullOrEmpty(color)) {
+            return Mono.error(new InvalidInputException("Type and color must not be null or empty"));
+        }
+
+        // Misses are cached too so unknown pairs don't hit the db every time
+        String key = priceKey(type, color);
+        Cache.ValueWrapper cached = priceCache.get(key);
+        Mono<SlabPrice> slabPrice = Objects.nonNull(cached)
+                ? Mono.justOrEmpty((SlabPrice) cached.get())
+                : slabPriceRepository.findByTypeAndColor(type, color).doOnSuccess(found -> priceCache.put(key, found));
+        return slabPrice.switchIfEmpty(Mono.error(
+                () -> new ResourceNotFoundException("SlabPrice with type " + type + " and color " + color + " not found")));
+    }
+
+    /**
+     * Stream every price in the database, prices are read from the database as fast as the client consumes them
+     */
+    public Flux<SlabPrice> exportPrices() {
+        return slabPriceRepository.findAll();
+    }
+
+    /**
+     * Save a price, translating a unique index violation on type & color into a conflict
+     */
+    private Mono<SlabPrice> save(SlabPrice slabPrice) {
+        return slabPriceRepository.save(slabPrice)
+                .onErrorMap(DuplicateKeyException.class, e -> {
+                    logger.warn("SlabPrice already exists with type: {} and color: {}", slabPrice.getType(), slabPrice.getColor());
+                    return new ResourceAlreadyExistsException("SlabPrice", "type & color", slabPrice.getType() + "," + slabPrice.getColor());
+                });
+    }
+
+    private void evict(String type, String color) {
+        priceCache.evict(priceKey(type, color));
+    }
+
+    private static String priceKey(String type, String color) {
+        return type + "|" + color;
+    }
+}
@@ -0,0 +1,217 @@
+package com.trentonrush.inventoryservice.services;
+
+import com.trentonrush.inventoryservice.exceptions.ResourceConflictException;
+import com.trentonrush.inventoryservice.exceptions.ResourceNotFoundException;
+import com.trentonrush.inventoryservice.exceptions.ServiceUnavailableException;
+import com.trentonrush.inventoryservice.models.Slab;
+import com.trentonrush.inventoryservice.models.dtos.CursorPage;
+import com.trentonrush.inventoryservice.models.dtos.SlabDTO;
+import com.trentonrush.inventoryservice.models.dtos.SlabFilter;
+import com.trentonrush.inventoryservice.models.enums.Status;
+import com.trentonrush.inventoryservice.repositories.ReactiveSlabRepository;
+import com.trentonrush.inventoryservice.utils.InventoryUtil;
+import com.trentonrush.inventoryservice.utils.ValidationUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Reactive counterpart of {@link SlabService}, used when the service runs on the reactive web stack.
+ * Writes keep the same in-memory availability counters and remnant index up to date.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-25
+ * @see SlabService
+ * @see ReactiveSlabRepository
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Service
+public class ReactiveSlabService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveSlabService.class);
+
+    private final ReactiveSlabRepository slabRepository;
+    private final AvailabilityCounters availabilityCounters;
+    private final RemnantIndex remnantIndex;
+
+    public ReactiveSlabService(ReactiveSlabRepository slabRepository, AvailabilityCounters availabilityCounters, RemnantIndex remnantIndex) {
+        this.slabRepository = slabRepository;
+        this.availabilityCounters = availabilityCounters;
+        this.remnantIndex = remnantIndex;
+    }
+
+    /**
+     * @see SlabService#addSlab(SlabDTO)
+     */
+    public Mono<Slab> addSlab(SlabDTO slabDTO) {
+        return Mono.fromCallable(() -> {
+                    ValidationUtil.validateSlabDTO(slabDTO, true);
+                    logger.debug("Request received to add new slab: Request -> {}", slabDTO);
+
+                    Slab slab = Slab.build(slabDTO);
+                    slab.setStatus(Status.AVAILABLE);
+                    Instant now = Instant.now();
+                    slab.setCreationDate(now);
+                    slab.setModificationDate(now);
+                    return slab;
+                })
+                .flatMap(slabRepository::save)
+                .doOnNext(savedSlab -> {
+                    availabilityCounters.recordSlab(savedSlab.getType(), savedSlab.getColor(), savedSlab.getStatus(), 1);
+                    remnantIndex.record(savedSlab);
+                    logger.debug("New Slab added to database: {}", savedSlab);
+                });
+    }
+
+    /**
+     * @see SlabService#updateSlab(String, SlabDTO, Long)
+     */
+    public Mono<Slab> updateSlab(String id, SlabDTO slabDTO) {
+        logger.debug("Request received to update slab: Slab ID -> {}, Request -> {}", id, slabDTO);
+        return getSlab(id).flatMap(slab -> {
+            String oldType = slab.getType();
+            String oldColor = slab.getColor();
+            Status oldStatus = slab.getStatus();
+
+            slab.applyUpdate(slabDTO, Instant.now());
+            return slabRepository.save(slab).doOnNext(savedSlab -> {
+                availabilityCounters.recordSlab(oldType, oldColor, oldStatus, -1);
+                availabilityCounters.recordSlab(savedSlab.getType(), savedSlab.getColor(), savedSlab.getStatus(), 1);
+                remnantIndex.record(savedSlab);
+                logger.debug("Slab modified in database: {}", savedSlab);
+            });
+        }).onErrorMap(OptimisticLockingFailureException.class, e -> changed(id));
+    }
+
+    /**
+     * @see SlabService#deleteSlab(String, Long)
+     */
+    public Mono<Void> deleteSlab(String id) {
+        return getSlab(id).flatMap(slab -> slabRepository.delete(slab).then(Mono.<Void>fromRunnable(() -> {
+            availabilityCounters.recordSlab(slab.getType(), slab.getColor(), slab.getStatus(), -1);
+            remnantIndex.remove(id);
+            logger.info("Slab deleted from database: {}", id);
+        }))).onErrorMap(OptimisticLockingFailureException.class, e -> changed(id));
+    }
+
+    /**
+     * Tell a missing slab apart from one that isn't in the expected status,
+     * the extra lookup only happens once a status change has matched nothing
+     */
+    private <T> Mono<T> statusNotChanged(String id, String reason) {
+        return slabRepository.existsById(id).flatMap(exists -> {
+            if (!exists) {
+                logger.warn("Slab not found with id: {}", id);
+                return Mono.error(new ResourceNotFoundException("Slab with id " + id + " not found"));
+            }
+            logger.warn("Slab status could not be changed: Slab ID -> {}", id);
+            return Mono.error(new ResourceConflictException("Slab with id " + id + " " + reason));
+        });
+    }
+
+    /**
+     * The slab was written by another request between reading and writing it
+     */
+    private ResourceConflictException changed(String id) {
+        logger.warn("Slab changed while being written: Slab ID -> {}", id);
+        return new ResourceConflictException("Slab with id " + id + " was changed by another request");
+    }
+
+    /**
+     * @see SlabService#getSlab(String)
+     */
+    public Mono<Slab> getSlab(String id) {
+        return slabRepository.findById(id)
+                .switchIfEmpty(Mono.defer(() -> {
+                    logger.warn("Slab not found with id: {}", id);
+                    return Mono.error(new ResourceNotFoundException("Slab with id " + id + " not found"));
+                }));
+    }
+
+    /**
+     * @see SlabService#listSlabs(SlabFilter, String, Integer, com.trentonrush.inventoryservice.models.dtos.SparseFields)
+     */
+    public Mono<CursorPage<Slab>> listSlabs(SlabFilter filter, String cursor, Integer limit) {
+        return Mono.fromCallable(() -> InventoryUtil.pageSize(limit))
+                .flatMap(pageSize -> slabRepository.findPage(filter, InventoryUtil.decodeCursor(cursor), pageSize + 1)
+                        .collectList()
+                        .map(slabs -> {
+                            // One extra slab is fetched to know whether there is another page
+                            if (slabs.size() <= pageSize) {
+                                return new CursorPage<>(slabs, null);
+                            }
+                            return new CursorPage<>(slabs.subList(0, pageSize), InventoryUtil.encodeCursor(slabs.get(pageSize - 1).getId()));
+                        }));
+    }
+
+    /**
+     * Stream every slab in the database, slabs are read from the database as fast as the client consumes them
+     */
+    public Flux<Slab> exportSlabs() {
+        return slabRepository.findAll();
+    }
+
+    /**
+     * @see SlabService#reserveSlab(String)
+     */
+    public Mono<Void> reserveSlab(String id) {
+        return slabRepository.compareAndSetStatus(id, Status.AVAILABLE, Status.RESERVED)
+                .switchIfEmpty(Mono.defer(() -> statusNotChanged(id, "is not available to be reserved")))
+                .doOnNext(slab -> {
+                    availabilityCounters.recordSlab(slab.getType(), slab.getColor(), Status.AVAILABLE, -1);
+                    availabilityCounters.recordSlab(slab.getType(), slab.getColor(), Status.RESERVED, 1);
+                    remnantIndex.remove(id);
+                    logger.info("Slab reserved in database: Slab ID -> {}", id);
+                })
+                .then();
+    }
+
+    /**
+     * @see SlabService#releaseSlab(String)
+     */
+    public Mono<Void> releaseSlab(String id) {
+        return slabRepository.compareAndSetStatus(id, Status.RESERVED, Status.AVAILABLE)
+                .switchIfEmpty(Mono.defer(() -> statusNotChanged(id, "is not reserved")))
+                .doOnNext(slab -> {
+                    availabilityCounters.recordSlab(slab.getType(), slab.getColor(), Status.RESERVED, -1);
+                    availabilityCounters.recordSlab(slab.getType(), slab.getColor(), Status.AVAILABLE, 1);
+                    remnantIndex.record(slab);
+                    logger.info("Slab released in database: Slab ID -> {}", id);
+                })
+                .then();
+    }
+
+    /**
+     * @see SlabService#checkAvailability(String, String)
+     */
+    public Mono<Boolean> checkAvailability(String type, String color) {
+        if (ValidationUtil.isNullOrEmpty(type) && ValidationUtil.isNullOrEmpty(color)) {
+            logger.warn("Neither type nor color provided.");
+            return Mono.just(false);
+        }
+        if (availabilityCounters.isReady()) {
+            return Mono.just(availabilityCounters.countSlabs(type, color, Status.AVAILABLE) > 0);
+        }
+        // Counters are still being built at startup
+        return slabRepository.exists(new SlabFilter(type, color, Status.AVAILABLE.name()));
+    }
+
+    /**
+     * @see SlabService#countSlabs(String, String, String)
+     */
+    public Mono<Long> countSlabs(String type, String color, String status) {
+        return Mono.fromCallable(() -> {
+            Status statusFilter = ValidationUtil.isNullOrEmpty(status) ? Status.AVAILABLE : Status.fromString(status);
+            if (!availabilityCounters.isReady()) {
+                throw new ServiceUnavailableException("Slab counts are not available yet");
+            }
+            return availabilityCounters.countSlabs(type, color, statusFilter);
+        });
+    }
+}
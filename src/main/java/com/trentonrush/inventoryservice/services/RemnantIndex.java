@@ -0,0 +1,230 @@
+package com.trentonrush.inventoryservice.services;
+
+import com.trentonrush.inventoryservice.models.Slab;
+import com.trentonrush.inventoryservice.models.SlabSize;
+import com.trentonrush.inventoryservice.models.dtos.RemnantFit;
+import com.trentonrush.inventoryservice.models.enums.Status;
+import com.trentonrush.inventoryservice.repositories.SlabRepository;
+import com.trentonrush.inventoryservice.utils.ValidationUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory index of available remnants answering fit searches without a database round trip.
+ * Remnants are kept sorted by area, so walking up from the area of the piece being cut finds the remnants that fit
+ * with the least waste first and the search stops as soon as enough are found.
+ * A piece fits a remnant in either orientation when its longer side fits the remnant's length and its shorter side
+ * fits the remnant's width.
+ * <p>
+ * The index is built from one query at startup, kept up to date by the slab write paths, and periodically rebuilt
+ * from the database to correct any drift (e.g. writes made by another instance). Writes made while the index is rebuilt
+ * are applied to the rebuilt index too, and win over the state of the same slab read from the database.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-23
+ * @see SlabService
+ * @see SlabSize
+ */
+@Service
+public class RemnantIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RemnantIndex.class);
+
+    private static final Comparator<Remnant> BY_AREA = Comparator.comparingDouble((Remnant remnant) -> remnant.areaSqInches)
+            .thenComparing(remnant -> remnant.id);
+
+    private final SlabRepository slabRepository;
+
+    private final AtomicReference<Remnants> remnants = new AtomicReference<>();
+    // The index being rebuilt from the database, null unless a reconcile is running
+    private final AtomicReference<Remnants> nextRemnants = new AtomicReference<>();
+
+    public RemnantIndex(SlabRepository slabRepository) {
+        this.slabRepository = slabRepository;
+    }
+
+    /**
+     * Rebuild the index from the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${inventory.remnants.reconcile-interval:PT5M}", initialDelayString = "${inventory.remnants.reconcile-interval:PT5M}")
+    public synchronized void reconcile() {
+        Remnants rebuilt = new Remnants();
+        nextRemnants.set(rebuilt);
+        try {
+            slabRepository.findAvailableRemnants().forEach(rebuilt::load);
+            remnants.set(rebuilt);
+        } finally {
+            nextRemnants.set(null);
+            rebuilt.written.clear();
+        }
+        logger.info("Remnant index reconciled: remnants -> {}", rebuilt.byId.size());
+    }
+
+    /**
+     * @return true once the index has been built and can answer searches
+     */
+    public boolean isReady() {
+        return Objects.nonNull(remnants.get());
+    }
+
+    /**
+     * Record the current state of a slab, it's indexed if it's an available remnant with a size and removed otherwise
+     */
+    public void record(Slab slab) {
+        // Read the rebuild first, a write that misses it was made before the rebuild started reading the database
+        Remnants rebuilding = nextRemnants.get();
+        Remnants current = remnants.get();
+        Remnant remnant = Remnant.of(slab);
+        if (Objects.nonNull(current)) {
+            current.write(slab.getId(), remnant, false);
+        }
+        if (Objects.nonNull(rebuilding) && rebuilding != current) {
+            rebuilding.write(slab.getId(), remnant, true);
+        }
+    }
+
+    /**
+     * Remove a slab from the index, e.g. once it's deleted
+     */
+    public void remove(String id) {
+        Remnants rebuilding = nextRemnants.get();
+        Remnants current = remnants.get();
+        if (Objects.nonNull(current)) {
+            current.write(id, null, false);
+        }
+        if (Objects.nonNull(rebuilding) && rebuilding != current) {
+            rebuilding.write(id, null, true);
+        }
+    }
+
+    /**
+     * Find the remnants a piece can be cut from, least waste first
+     * @param lengthInches the length of the piece
+     * @param widthInches the width of the piece
+     * @param type the type of the remnant (optional)
+     * @param color the color of the remnant (optional)
+     * @param limit the maximum number of remnants to return
+     * @return the remnants that fit, ordered by waste
+     */
+    public List<RemnantFit> findFits(double lengthInches, double widthInches, String type, String color, int limit) {
+        Remnants current = remnants.get();
+        if (Objects.isNull(current)) {
+            throw new IllegalStateException("Remnant index has not been built yet");
+        }
+        double pieceLength = Math.max(lengthInches, widthInches);
+        double pieceWidth = Math.min(lengthInches, widthInches);
+        double pieceArea = pieceLength * pieceWidth;
+
+        // Remnants smaller than the piece can never fit, so start from the first one at least as large
+        List<RemnantFit> fits = new ArrayList<>(limit);
+        for (Remnant remnant : current.byArea.tailSet(Remnant.probe(pieceArea), true)) {
+            if (remnant.lengthInches >= pieceLength && remnant.widthInches >= pieceWidth && remnant.matches(type, color)) {
+                fits.add(new RemnantFit(remnant.id, remnant.type, remnant.color, remnant.lengthInches, remnant.widthInches,
+                        remnant.areaSqInches, remnant.areaSqInches - pieceArea));
+                if (fits.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return fits;
+    }
+
+    private static final class Remnants {
+
+        private final NavigableSet<Remnant> byArea = new ConcurrentSkipListSet<>(BY_AREA);
+        private final Map<String, Remnant> byId = new ConcurrentHashMap<>();
+        // Slabs written while this index is rebuilt, the state read from the database may be older than the write
+        private final Set<String> written = ConcurrentHashMap.newKeySet();
+
+        /**
+         * Apply a write from the slab write paths
+         * @param remnant the remnant the slab is now, or null if it's no longer an available remnant
+         * @param rebuilding whether this index is being rebuilt, the write then wins over the slab's loaded state
+         */
+        private void write(String id, Remnant remnant, boolean rebuilding) {
+            update(id, remnant, rebuilding, false);
+        }
+
+        /**
+         * Add a slab read from the database, unless it was written since the rebuild started
+         */
+        private void load(Slab slab) {
+            update(slab.getId(), Remnant.of(slab), false, true);
+        }
+
+        private void update(String id, Remnant remnant, boolean track, boolean load) {
+            // Computed per id so writes and loads of the same slab can't interleave and leave byArea out of step
+            byId.compute(id, (key, previous) -> {
+                if (track) {
+                    written.add(key);
+                } else if (load && written.contains(key)) {
+                    return previous;
+                }
+                if (Objects.nonNull(previous)) {
+                    byArea.remove(previous);
+                }
+                if (Objects.nonNull(remnant)) {
+                    byArea.add(remnant);
+                }
+                return remnant;
+            });
+        }
+    }
+
+    private static final class Remnant {
+
+        private final String id;
+        private final String type;
+        private final String color;
+        private final double lengthInches;
+        private final double widthInches;
+        private final double areaSqInches;
+
+        private Remnant(String id, String type, String color, double lengthInches, double widthInches, double areaSqInches) {
+            this.id = id;
+            this.type = type;
+            this.color = color;
+            this.lengthInches = lengthInches;
+            this.widthInches = widthInches;
+            this.areaSqInches = areaSqInches;
+        }
+
+        /**
+         * @return the remnant a slab is, or null if it isn't an available remnant with a size
+         */
+        private static Remnant of(Slab slab) {
+            SlabSize size = Objects.requireNonNullElseGet(slab.getSize(), () -> SlabSize.of(slab.getDimensions()));
+            if (!slab.isRemnant() || slab.getStatus() != Status.AVAILABLE || Objects.isNull(size)) {
+                return null;
+            }
+            return new Remnant(slab.getId(), slab.getType(), slab.getColor(),
+                    size.getLengthInches(), size.getWidthInches(), size.getAreaSqInches());
+        }
+
+        // Sorts before every remnant with the same area
+        private static Remnant probe(double areaSqInches) {
+            return new Remnant("", null, null, 0.0, 0.0, areaSqInches);
+        }
+
+        private boolean matches(String type, String color) {
+            return (ValidationUtil.isNullOrEmpty(type) || type.equals(this.type))
+                    && (ValidationUtil.isNullOrEmpty(color) || color.equals(this.color));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.trentonrush.inventoryservice.services;
+
+import com.trentonrush.inventoryservice.models.RenditionJob;
+import com.trentonrush.inventoryservice.models.enums.ImageType;
+import com.trentonrush.inventoryservice.models.enums.Rendition;
+import com.trentonrush.inventoryservice.models.enums.RenditionStatus;
+import com.trentonrush.inventoryservice.repositories.RenditionJobRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOException;
+import javax.imageio.stream.FileImageInputStream;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.trentonrush.inventoryservice.utils.InventoryConstants.*;
+
+/**
+ * Service class for image renditions.
+ * Every stored image is queued once, by content hash, for a thumbnail and a preview that are stored as images of their
+ * own. Jobs are kept in the database so they survive restarts, and are rendered in the background by the
+ * {@link RenditionWorker}.
+ *
+ * @author Trenton Rush
+ * @since 2024-09-02
+ * @see Rendition
+ * @see ImageScaler
+ */
+@Timed(SERVICE_TIMER)
+@Service
+public class RenditionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RenditionService.class);
+
+    // Multiplied by the attempts so far, a failing image backs off instead of being retried back to back
+    private static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+
+    // Largest first, so each rendition is scaled from the previous one instead of the full image
+    private static final List<Rendition> RENDITIONS = Arrays.stream(Rendition.values())
+            .sorted(Comparator.comparingInt(Rendition::getSize).reversed())
+            .toList();
+
+    private final RenditionJobRepository renditionJobRepository;
+    private final ImageStore imageStore;
+    private final Duration lease;
+
+    public RenditionService(RenditionJobRepository renditionJobRepository, ImageStore imageStore,
+                            @Value("${inventory.renditions.lease:PT5M}") Duration lease) {
+        this.renditionJobRepository = renditionJobRepository;
+        this.imageStore = imageStore;
+        this.lease = lease;
+    }
+
+    /**
+     * Queue an image for its renditions, an image that was already queued isn't queued again
+     * @param image the reference of a stored image
+     */
+    public void enqueue(String image) {
+        try {
+            if (renditionJobRepository.enqueue(hash(image), image)) {
+                logger.debug("Rendition job queued for image: {}", image);
+            }
+        } catch (DataAccessException e) {
+            // The image is stored, it is queued again the first time one of its renditions is requested
+            logger.error("Failed to queue rendition job for image: {}", image, e);
+        }
+    }
+
+    /**
+     * Find a rendition of an image
+     * @param image the reference of a stored image
+     * @param rendition the rendition to find
+     * @return the reference of the stored rendition, or empty if it hasn't been rendered
+     */
+    public Optional<String> findRendition(String image, Rendition rendition) {
+        return renditionJobRepository.findById(hash(image))
+                .filter(job -> job.getStatus() == RenditionStatus.DONE)
+                .map(job -> job.getRenditions().get(rendition.getName()));
+    }
+
+    /**
+     * Claim the next job to render, it's leased to the caller until it's done or the lease runs out
+     * @return the claimed job, or empty if no job is waiting
+     */
+    public Optional<RenditionJob> claimNext() {
+        return renditionJobRepository.claimNext(lease);
+    }
+
+    /**
+     * Render and store every rendition of a claimed job.
+     * Images that can't be decoded fail for good, any other failure is retried until the job is out of attempts.
+     * @param job the claimed job
+     */
+    public void render(RenditionJob job) {
+        try {
+            Map<String, String> renditions = renderAll(job);
+            renditionJobRepository.complete(job.getId(), renditions);
+            logger.debug("Renditions stored for image: {} -> {}", job.getImage(), renditions);
+        } catch (IIOException e) {
+            logger.warn("Image can't be rendered: {} -> {}", job.getImage(), e.getMessage());
+            renditionJobRepository.fail(job.getId(), e.getMessage(), null);
+        } catch (IOException | RuntimeException e) {
+            Instant retryDate = job.getAttempts() < MAX_RENDITION_ATTEMPTS
+                    ? Instant.now().plus(RETRY_DELAY.multipliedBy(job.getAttempts()))
+                    : null;
+            logger.error("Failed to render image: {}, attempt {}", job.getImage(), job.getAttempts(), e);
+            renditionJobRepository.fail(job.getId(), String.valueOf(e.getMessage()), retryDate);
+        }
+    }
+
+    private Map<String, String> renderAll(RenditionJob job) throws IOException {
+        Resource source = imageStore.get(job.getId())
+                .orElseThrow(() -> new FileNotFoundException("Image " + job.getImage() + " not found"));
+        BufferedImage image = read(source);
+
+        // Transparent images stay PNG, everything else is a JPEG a fraction of the size
+        boolean alpha = image.getColorModel().hasAlpha();
+        ImageType type = alpha ? ImageType.PNG : ImageType.JPEG;
+
+        Map<String, String> renditions = new LinkedHashMap<>();
+        for (Rendition rendition : RENDITIONS) {
+            image = ImageScaler.scale(image, rendition.getSize(), alpha);
+            String hash = imageStore.put(new ByteArrayInputStream(ImageScaler.encode(image, type)));
+            renditions.put(rendition.getName(), hash + "." + type.getExtension());
+        }
+        return renditions;
+    }
+
+    private static BufferedImage read(Resource source) throws IOException {
+        int longestSide = RENDITIONS.get(0).getSize();
+        // Files are read in place, anything else is buffered in memory as it is decoded
+        if (source.isFile()) {
+            try (ImageInputStream input = new FileImageInputStream(source.getFile())) {
+                return ImageScaler.read(input, longestSide, MAX_RENDITION_PIXELS);
+            }
+        }
+        try (InputStream in = source.getInputStream(); ImageInputStream input = new MemoryCacheImageInputStream(in)) {
+            return ImageScaler.read(input, longestSide, MAX_RENDITION_PIXELS);
+        }
+    }
+
+    private static String hash(String image) {
+        return image.substring(0, image.indexOf('.'));
+    }
+}
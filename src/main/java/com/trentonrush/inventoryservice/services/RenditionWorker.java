@@ -0,0 +1,75 @@
+package com.trentonrush.inventoryservice.services;
+
+import com.trentonrush.inventoryservice.models.RenditionJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Works the rendition job queue in the background.
+ * Each poll claims one job per idle rendition thread, so jobs wait in the database rather than in memory and any
+ * number of instances can share the queue. A job whose instance dies is claimed again once its lease runs out.
+ *
+ * @author Trenton Rush
+ * @since 2024-09-02
+ * @see RenditionService
+ */
+@Service
+public class RenditionWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(RenditionWorker.class);
+
+    private final RenditionService renditionService;
+    private final ThreadPoolExecutor renditionPool;
+    private final Semaphore idleWorkers;
+
+    public RenditionWorker(RenditionService renditionService, ThreadPoolExecutor renditionPool) {
+        this.renditionService = renditionService;
+        this.renditionPool = renditionPool;
+        this.idleWorkers = new Semaphore(renditionPool.getMaximumPoolSize());
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.renditions.poll-interval:PT1S}")
+    public void poll() {
+        while (idleWorkers.tryAcquire()) {
+            Optional<RenditionJob> job;
+            try {
+                job = renditionService.claimNext();
+            } catch (DataAccessException e) {
+                idleWorkers.release();
+                logger.error("Failed to claim rendition job", e);
+                return;
+            }
+            if (job.isEmpty()) {
+                idleWorkers.release();
+                return;
+            }
+
+            try {
+                renditionPool.execute(() -> work(job.get()));
+            } catch (RejectedExecutionException e) {
+                // Shutting down, the job is claimed again once its lease runs out
+                idleWorkers.release();
+                return;
+            }
+        }
+    }
+
+    private void work(RenditionJob job) {
+        try {
+            renditionService.render(job);
+        } catch (RuntimeException e) {
+            // e.g. the result couldn't be saved, the job is claimed again once its lease runs out
+            logger.error("Failed to finish rendition job: {}", job.getId(), e);
+        } finally {
+            idleWorkers.release();
+        }
+    }
+}
@@ -1,17 +1,33 @@
 package com.trentonrush.inventoryservice.services;
 
+import com.trentonrush.inventoryservice.exceptions.InvalidInputException;
+import com.trentonrush.inventoryservice.exceptions.PreconditionFailedException;
 import com.trentonrush.inventoryservice.exceptions.ResourceAlreadyExistsException;
+import com.trentonrush.inventoryservice.exceptions.ResourceConflictException;
 import com.trentonrush.inventoryservice.exceptions.ResourceNotFoundException;
+import com.trentonrush.inventoryservice.exceptions.ServiceUnavailableException;
 import com.trentonrush.inventoryservice.models.SampleSlab;
+import com.trentonrush.inventoryservice.models.dtos.CollectionWatermark;
+import com.trentonrush.inventoryservice.models.dtos.CursorPage;
+import com.trentonrush.inventoryservice.models.dtos.SampleFilter;
 import com.trentonrush.inventoryservice.models.dtos.SlabDTO;
+import com.trentonrush.inventoryservice.models.dtos.SparseFields;
 import com.trentonrush.inventoryservice.repositories.SampleSlabRepository;
+import com.trentonrush.inventoryservice.utils.InventoryUtil;
+import com.trentonrush.inventoryservice.utils.LogSampler;
+import com.trentonrush.inventoryservice.utils.LogUtil;
 import com.trentonrush.inventoryservice.utils.ValidationUtil;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.trentonrush.inventoryservice.utils.InventoryConstants.*;
 
 /**
  * Service class for managing slabs.
@@ -23,15 +39,24 @@ import java.util.List;
  * @see SlabDTO
  * @see SampleSlabRepository
  */
+@Timed(SERVICE_TIMER)
 @Service
 public class SampleSlabService {
 
     private static final Logger logger = LoggerFactory.getLogger(SampleSlabService.class);
+    private static final LogSampler searchLogSampler = new LogSampler("samples.search", LOG_SAMPLE_RATE);
 
     private final SampleSlabRepository sampleSlabRepository;
+    private final AvailabilityCounters availabilityCounters;
+    private final InventoryMetrics inventoryMetrics;
+    private final ImageService imageService;
 
-    public SampleSlabService(SampleSlabRepository sampleSlabRepository) {
+    public SampleSlabService(SampleSlabRepository sampleSlabRepository, AvailabilityCounters availabilityCounters,
+                             InventoryMetrics inventoryMetrics, ImageService imageService) {
         this.sampleSlabRepository = sampleSlabRepository;
+        this.availabilityCounters = availabilityCounters;
+        this.inventoryMetrics = inventoryMetrics;
+        this.imageService = imageService;
     }
 
     /**
@@ -41,10 +66,12 @@ public class SampleSlabService {
     public SampleSlab addSample(SlabDTO slabDTO) {
         // Validate new Sample Slab details
         ValidationUtil.validateSlabDTO(slabDTO, false);
-        logger.info("Request received to add new sample slab: Request -> {}", slabDTO);
+        // Inline images are moved to the image store, the sample only keeps the reference
+        slabDTO.setImage(imageService.externalize(slabDTO.getImage()));
+        logger.debug("Request received to add new sample slab: Request -> {}", slabDTO);
 
         // Prevent adding duplicate samples
-        if(sampleSlabRepository.existsByTypeAndColor(slabDTO.getType(), slabDTO.getColor())) {
+        if (sampleSlabRepository.exists(new SampleFilter(slabDTO.getType(), slabDTO.getColor(), false))) {
             throw new ResourceAlreadyExistsException("Sample Slab", "type & color", slabDTO.getType() + "," + slabDTO.getColor());
         }
 
@@ -58,53 +85,50 @@ public class SampleSlabService {
 
         // Save new sample slab
         SampleSlab savedSampleSlab = sampleSlabRepository.save(sampleSlab);
-        logger.info("New SampleSlab added to database: {}", savedSampleSlab);
+        availabilityCounters.recordSample(savedSampleSlab.getType(), savedSampleSlab.getColor(), savedSampleSlab.getQuantity());
+        logger.debug("New SampleSlab added to database: {}", savedSampleSlab);
         return savedSampleSlab;
     }
 
     /**
-     * Update an existing sampleSlab in the database
+     * Update an existing sampleSlab in the database.
+     * Only the fields provided are set, in one round trip that also reads the sampleSlab as it was before the update.
      * @param id the id of the sampleSlab being updated
      * @param slabDTO the new fields being updated
+     * @param version the version the sampleSlab must still be at, any version if null
      */
-    public SampleSlab updateSample(String id, SlabDTO slabDTO) {
-        logger.info("Request received to update sample slab: SampleSlab ID -> {}, Request -> {}", id, slabDTO);
-
-        // Get the existing slab from the database
-        SampleSlab sampleSlab = getSample(id);
-        logger.info("Current SampleSlab being updated -> {}", sampleSlab);
+    public SampleSlab updateSample(String id, SlabDTO slabDTO, Long version) {
+        slabDTO.setImage(imageService.externalize(slabDTO.getImage()));
+        logger.debug("Request received to update sample slab: SampleSlab ID -> {}, Version -> {}, Request -> {}", id, version, slabDTO);
 
-        // Update only the fields that are provided and not empty
-        if (!ValidationUtil.isNullOrEmpty(slabDTO.getImage())) {
-            sampleSlab.setImage(slabDTO.getImage());
-        }
-        if (!ValidationUtil.isNullOrEmpty(slabDTO.getColor())) {
-            sampleSlab.setColor(slabDTO.getColor());
-        }
-        if (!ValidationUtil.isNullOrEmpty(slabDTO.getType())) {
-            sampleSlab.setType(slabDTO.getType());
-        }
-        if (!ValidationUtil.isNullOrEmpty(slabDTO.getSupplier())) {
-            sampleSlab.setSupplier(slabDTO.getSupplier());
-        }
-        if (slabDTO.getQuantity() >= 0) {
-            sampleSlab.setQuantity(slabDTO.getQuantity());
-        }
+        // Set only the fields that are provided and not empty, getting back the sampleSlab as it was
+        Instant now = Instant.now();
+        SampleSlab sampleSlab = sampleSlabRepository.findAndUpdate(id, version, slabDTO, now)
+                .orElseThrow(() -> notWritten(id, version));
+        logger.debug("SampleSlab before update -> {}", sampleSlab);
+        String oldType = sampleSlab.getType();
+        String oldColor = sampleSlab.getColor();
+        int oldQuantity = sampleSlab.getQuantity();
 
-        // Update modification date
-        sampleSlab.setModificationDate(Instant.now());
+        // Apply the same update to the sampleSlab that was read instead of reading it again
+        sampleSlab.applyUpdate(slabDTO, now);
+        sampleSlab.setVersion(InventoryUtil.nextVersion(sampleSlab.getVersion()));
 
-        SampleSlab savedSampleSlab = sampleSlabRepository.save(sampleSlab);
-        logger.info("SampleSlab modified in database: {}", savedSampleSlab);
-        return savedSampleSlab;
+        availabilityCounters.recordSample(oldType, oldColor, -oldQuantity);
+        availabilityCounters.recordSample(sampleSlab.getType(), sampleSlab.getColor(), sampleSlab.getQuantity());
+        logger.debug("SampleSlab modified in database: {}", sampleSlab);
+        return sampleSlab;
     }
 
     /**
      * Delete a sampleSlab from the db
      * @param id the id of the sampleSlab to be deleted
+     * @param version the version the sampleSlab must still be at, any version if null
      */
-    public void deleteSample(String id) {
-        sampleSlabRepository.delete(getSample(id));
+    public void deleteSample(String id, Long version) {
+        SampleSlab sampleSlab = sampleSlabRepository.findAndRemove(id, version)
+                .orElseThrow(() -> notWritten(id, version));
+        availabilityCounters.recordSample(sampleSlab.getType(), sampleSlab.getColor(), -sampleSlab.getQuantity());
         logger.info("SampleSlab deleted from database: {}", id);
     }
 
@@ -122,35 +146,52 @@ public class SampleSlabService {
     }
 
     /**
-     * Search for samples based on type, color, and status.
+     * Find the version of a sample and when it was last modified, reading nothing else
+     * @param id the id of the sample
+     * @return the sample with only its version and modification date, or empty if the sample doesn't exist
+     */
+    public Optional<SampleSlab> findSampleVersion(String id) {
+        return sampleSlabRepository.findVersion(id);
+    }
+
+    /**
+     * Get the watermark of every sample, it changes whenever a sample is added, changed, or deleted
+     * @return the current watermark
+     */
+    public CollectionWatermark getSamplesWatermark() {
+        return sampleSlabRepository.findWatermark();
+    }
+
+    /**
+     * Search for one page of samples based on the given filters.
      *
-     * @param type the type of the samples (optional)
-     * @param color the color of the samples (optional)
-     * @param onlyAvailable the boolean value to check for available samples only (optional)
-     * @return a list of SampleSlabs found
+     * @param filter the filters to search by, any unset filter is ignored
+     * @param cursor the cursor returned with the previous page (optional)
+     * @param limit the maximum number of samples to return (optional)
+     * @param fields the only fields to read from the db, every field when ALL
+     * @return a page of SampleSlabs found
      */
-    public List<SampleSlab> listSamples(String type, String color, boolean onlyAvailable) {
-        List<SampleSlab> sampleSlabs;
-        if (!ValidationUtil.isNullOrEmpty(type) && !ValidationUtil.isNullOrEmpty(color) && onlyAvailable) {
-            sampleSlabs = sampleSlabRepository.findAllByTypeAndColorAndQuantityGreaterThan(type, color, 0);
-        } else if (!ValidationUtil.isNullOrEmpty(type) && !ValidationUtil.isNullOrEmpty(color)) {
-            sampleSlabs = sampleSlabRepository.findAllByTypeAndColor(type, color);
-        } else if (!ValidationUtil.isNullOrEmpty(type) && onlyAvailable) {
-            sampleSlabs = sampleSlabRepository.findAllByTypeAndQuantityGreaterThan(type, 0);
-        } else if (!ValidationUtil.isNullOrEmpty(color) && onlyAvailable) {
-            sampleSlabs = sampleSlabRepository.findAllByColorAndQuantityGreaterThan(color, 0);
-        } else if (!ValidationUtil.isNullOrEmpty(type)) {
-            sampleSlabs = sampleSlabRepository.findAllByType(type);
-        } else if (!ValidationUtil.isNullOrEmpty(color)) {
-            sampleSlabs = sampleSlabRepository.findAllByColor(color);
-        } else if (onlyAvailable) {
-            sampleSlabs = sampleSlabRepository.findAllByQuantityGreaterThan(0);
-        } else {
-            logger.info("No specifiers for search. Listing all SampleSlabs.");
-            return sampleSlabRepository.findAll();
+    public CursorPage<SampleSlab> listSamples(SampleFilter filter, String cursor, Integer limit, SparseFields fields) {
+        int pageSize = InventoryUtil.pageSize(limit);
+
+        // Fetch one extra sample to know whether there is another page
+        List<SampleSlab> sampleSlabs = inventoryMetrics.timeSearch("samples.search", InventoryMetrics.filters(filter),
+                () -> sampleSlabRepository.findPage(filter, InventoryUtil.decodeCursor(cursor), pageSize + 1, fields.getDocumentFields()));
+        String nextCursor = null;
+        if (sampleSlabs.size() > pageSize) {
+            sampleSlabs = sampleSlabs.subList(0, pageSize);
+            nextCursor = InventoryUtil.encodeCursor(sampleSlabs.get(pageSize - 1).getId());
         }
-        logger.info("SampleSlabs {} found with type: {}, color: {}, onlyAvailable: {}", sampleSlabs.stream().map(SampleSlab::getId).toList(), type, color, onlyAvailable);
-        return sampleSlabs;
+
+        List<SampleSlab> page = sampleSlabs;
+        inventoryMetrics.recordResults("samples.search", page.size());
+        if (logger.isInfoEnabled() && searchLogSampler.sample()) {
+            logger.atInfo().setMessage("SampleSlabs {} found with filter: {}")
+                    .addArgument(() -> LogUtil.ids(page, SampleSlab::getId))
+                    .addArgument(filter)
+                    .log();
+        }
+        return new CursorPage<>(page, nextCursor);
     }
 
     /**
@@ -159,11 +200,7 @@ public class SampleSlabService {
      * @param id the id of the slab to increment
      */
     public void incrementQuantity(String id) {
-        SampleSlab sampleSlab = getSample(id);
-        sampleSlab.setQuantity(sampleSlab.getQuantity() + 1);
-        sampleSlab.setModificationDate(Instant.now());
-        sampleSlabRepository.save(sampleSlab);
-        logger.info("SampleSlab {} increased quantity to {}", sampleSlab.getId(), sampleSlab.getQuantity());
+        adjustQuantity(id, 1);
     }
 
     /**
@@ -172,11 +209,35 @@ public class SampleSlabService {
      * @param id the id of the slab to decrement
      */
     public void decrementQuantity(String id) {
-        SampleSlab sampleSlab = getSample(id);
-        sampleSlab.setQuantity(sampleSlab.getQuantity() - 1);
-        sampleSlab.setModificationDate(Instant.now());
-        sampleSlabRepository.save(sampleSlab);
-        logger.info("SampleSlab {} decreased quantity to {}", sampleSlab.getId(), sampleSlab.getQuantity());
+        adjustQuantity(id, -1);
+    }
+
+    /**
+     * Atomically adjust the quantity of a specific Sample Slab by the given delta.
+     * The quantity is never allowed to drop below zero.
+     *
+     * @param id the id of the slab to adjust
+     * @param delta the amount to add to the quantity (negative to remove)
+     * @return the SampleSlab with its new quantity
+     */
+    public SampleSlab adjustQuantity(String id, int delta) {
+        if (delta == 0) {
+            throw new InvalidInputException("Quantity delta must not be zero");
+        }
+
+        SampleSlab sampleSlab = sampleSlabRepository.adjustQuantity(id, delta)
+                .orElseThrow(() -> {
+                    // Only reached on failure, so the extra lookup doesn't cost the happy path
+                    if (!sampleSlabRepository.existsById(id)) {
+                        logger.warn("SampleSlab not found with id: {}", id);
+                        return new ResourceNotFoundException("Sample Slab with id " + id + " not found");
+                    }
+                    logger.warn("SampleSlab {} quantity can not be adjusted by {} without dropping below zero", id, delta);
+                    return new ResourceConflictException("Sample Slab with id " + id + " does not have enough quantity to remove " + -delta);
+                });
+        availabilityCounters.recordSample(sampleSlab.getType(), sampleSlab.getColor(), delta);
+        logger.info("SampleSlab {} adjusted quantity by {} to {}", sampleSlab.getId(), delta, sampleSlab.getQuantity());
+        return sampleSlab;
     }
 
     /**
@@ -186,25 +247,48 @@ public class SampleSlabService {
      * @return true if there is a SampleSlab is available, false otherwise
      */
     public boolean checkAvailability(String type, String color) {
-        logger.info("Checking availability with type: '{}' and color: '{}'", type, color);
+        logger.debug("Checking availability with type: '{}' and color: '{}'", type, color);
 
-        boolean isAvailable;
+        if (ValidationUtil.isNullOrEmpty(type) && ValidationUtil.isNullOrEmpty(color)) {
+            logger.warn("Neither type nor color provided.");
+            return false;
+        }
 
-        if (!ValidationUtil.isNullOrEmpty(type) && ValidationUtil.isNullOrEmpty(color)) {
-            logger.debug("Checking availability by type: '{}'", type);
-            isAvailable = sampleSlabRepository.existsByTypeAndQuantityGreaterThan(type, 0);
-        } else if (ValidationUtil.isNullOrEmpty(type) && !ValidationUtil.isNullOrEmpty(color)) {
-            logger.debug("Checking availability by color: '{}'", color);
-            isAvailable = sampleSlabRepository.existsByColorAndQuantityGreaterThan(color, 0);
-        } else if (!ValidationUtil.isNullOrEmpty(type) && !ValidationUtil.isNullOrEmpty(color)) {
-            logger.debug("Checking availability by type: '{}' and color: '{}'", type, color);
-            isAvailable = sampleSlabRepository.existsByTypeAndColorAndQuantityGreaterThan(type, color, 0);
+        boolean isAvailable;
+        if (availabilityCounters.isReady()) {
+            isAvailable = availabilityCounters.countSamples(type, color) > 0;
         } else {
-            logger.warn("Neither type nor color provided.");
-            isAvailable = false;
+            // Counters are still being built at startup
+            isAvailable = sampleSlabRepository.exists(new SampleFilter(type, color, true));
         }
 
-        logger.info("Availability check result for SampleSlab: {}", isAvailable);
+        logger.debug("Availability check result for SampleSlab: {}", isAvailable);
         return isAvailable;
     }
+
+    /**
+     * Sum the quantity of samples, optionally narrowed by type and color
+     * @param type the type of sampleSlab being counted (optional)
+     * @param color the color of sampleSlab being counted (optional)
+     * @return the total quantity of samples matching
+     */
+    public long countSamples(String type, String color) {
+        if (!availabilityCounters.isReady()) {
+            throw new ServiceUnavailableException("Sample counts are not available yet");
+        }
+        return availabilityCounters.countSamples(type, color);
+    }
+
+    /**
+     * Tell a missing sampleSlab apart from one that changed since the version the client read,
+     * the extra lookup only happens once a write has matched nothing
+     */
+    private RuntimeException notWritten(String id, Long version) {
+        if (Objects.nonNull(version) && sampleSlabRepository.existsById(id)) {
+            logger.warn("SampleSlab changed since version {}: SampleSlab ID -> {}", version, id);
+            return new PreconditionFailedException("Sample Slab with id " + id + " has changed since version " + version);
+        }
+        logger.warn("SampleSlab not found with id: {}", id);
+        return new ResourceNotFoundException("Sample Slab with id " + id + " not found");
+    }
 }
@@ -1,18 +1,36 @@
 package com.trentonrush.inventoryservice.services;
 
 import com.trentonrush.inventoryservice.exceptions.InvalidInputException;
+import com.trentonrush.inventoryservice.exceptions.PreconditionFailedException;
+import com.trentonrush.inventoryservice.exceptions.ResourceAlreadyExistsException;
 import com.trentonrush.inventoryservice.exceptions.ResourceNotFoundException;
 import com.trentonrush.inventoryservice.models.SlabPrice;
+import com.trentonrush.inventoryservice.models.dtos.RepriceRequest;
+import com.trentonrush.inventoryservice.models.dtos.RepriceResult;
+import com.trentonrush.inventoryservice.models.dtos.RepricedPrice;
 import com.trentonrush.inventoryservice.models.dtos.SlabDTO;
+import com.trentonrush.inventoryservice.models.enums.RepriceMode;
 import com.trentonrush.inventoryservice.repositories.SlabPriceRepository;
+import com.trentonrush.inventoryservice.utils.InventoryUtil;
 import com.trentonrush.inventoryservice.utils.ValidationUtil;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.Instant;
-import java.util.Currency;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static com.trentonrush.inventoryservice.utils.InventoryConstants.*;
 
@@ -25,15 +43,20 @@ import static com.trentonrush.inventoryservice.utils.InventoryConstants.*;
  * @see SlabPrice
  * @see SlabDTO
  */
+@Timed(SERVICE_TIMER)
 @Service
 public class SlabPriceService {
 
     private static final Logger logger = LoggerFactory.getLogger(SlabPriceService.class);
 
     private final SlabPriceRepository slabPriceRepository;
+    private final Cache priceCache;
+    private final InventoryMetrics inventoryMetrics;
 
-    public SlabPriceService(SlabPriceRepository slabPriceRepository) {
+    public SlabPriceService(SlabPriceRepository slabPriceRepository, CacheManager cacheManager, InventoryMetrics inventoryMetrics) {
         this.slabPriceRepository = slabPriceRepository;
+        this.priceCache = Objects.requireNonNull(cacheManager.getCache(PRICE_CACHE));
+        this.inventoryMetrics = inventoryMetrics;
     }
 
     /**
@@ -43,7 +66,7 @@ public class SlabPriceService {
     public SlabPrice addPrice(SlabDTO slabDTO) {
         // Validate new price details
         ValidationUtil.validatePriceDetails(slabDTO);
-        logger.info("Request received to add new slabPrice: Request -> {}", slabDTO);
+        logger.debug("Request received to add new slabPrice: Request -> {}", slabDTO);
 
         // Create new slabPrice object
         SlabPrice slabPrice = SlabPrice.buildSlabPrice(slabDTO);
@@ -53,51 +76,60 @@ public class SlabPriceService {
         slabPrice.setCreationDate(now);
         slabPrice.setModificationDate(now);
 
-        // Save new slabPrice
-        SlabPrice savedSlabPrice = slabPriceRepository.save(slabPrice);
-        logger.info("New SlabPrice added to database: {}", savedSlabPrice);
+        // Save new slabPrice, type & color are unique so a duplicate is rejected by the index
+        SlabPrice savedSlabPrice = save(slabPrice);
+        evict(savedSlabPrice.getType(), savedSlabPrice.getColor());
+        logger.debug("New SlabPrice added to database: {}", savedSlabPrice);
         return slabPrice;
     }
 
     /**
-     * Update an existing price in the database
+     * Update an existing price in the database.
+     * Only the fields provided are set, in one round trip that also reads the price as it was before the update.
      * @param id the id of the price being updated
      * @param slabDTO the new fields being updated
+     * @param version the version the price must still be at, any version if null
      */
-    public SlabPrice updatePrice(String id, SlabDTO slabDTO) {
-        logger.info("Request received to update price: SlabPrice ID -> {}, Request -> {}", id, slabDTO);
+    public SlabPrice updatePrice(String id, SlabDTO slabDTO, Long version) {
+        logger.debug("Request received to update price: SlabPrice ID -> {}, Version -> {}, Request -> {}", id, version, slabDTO);
 
-        // Get the existing slab from the database
-        SlabPrice slabPrice = getPrice(id);
-        logger.info("Current SlabPrice being updated -> {}", slabPrice);
-
-        // Update only the fields that are provided and not empty
-
-        if (!ValidationUtil.isNullOrEmpty(slabDTO.getColor())) {
-            slabPrice.setColor(slabDTO.getColor());
-        }
-        if (!ValidationUtil.isNullOrEmpty(slabDTO.getType())) {
-            slabPrice.setType(slabDTO.getType());
-        }
-        if (!ValidationUtil.isNullOrEmpty(slabDTO.getSqftPrice())) {
-            slabPrice.setAmountPerSqFtAndCurrency(new BigDecimal(slabDTO.getSqftPrice()), Currency.getInstance(USD_CURRENCY_CODE));
+        // Set only the fields that are provided and not empty, getting back the price as it was
+        Instant now = Instant.now();
+        SlabPrice slabPrice;
+        try {
+            slabPrice = slabPriceRepository.findAndUpdate(id, version, slabDTO, now)
+                    .orElseThrow(() -> notWritten(id, version));
+        } catch (DuplicateKeyException e) {
+            // Only reached on failure, read the price to name the type & color it would have had
+            SlabPrice conflicting = getPrice(id);
+            conflicting.applyUpdate(slabDTO, now);
+            logger.warn("SlabPrice already exists with type: {} and color: {}", conflicting.getType(), conflicting.getColor());
+            throw new ResourceAlreadyExistsException("SlabPrice", "type & color", conflicting.getType() + "," + conflicting.getColor());
         }
+        logger.debug("SlabPrice before update -> {}", slabPrice);
+        String oldType = slabPrice.getType();
+        String oldColor = slabPrice.getColor();
 
-        // Update modification date
-        slabPrice.setModificationDate(Instant.now());
+        // Apply the same update to the price that was read instead of reading it again
+        slabPrice.applyUpdate(slabDTO, now);
+        slabPrice.setVersion(InventoryUtil.nextVersion(slabPrice.getVersion()));
 
-        // Save the updated slab
-        SlabPrice savedSlabPrice = slabPriceRepository.save(slabPrice);
-        logger.info("SlabPrice modified in database: {}", savedSlabPrice);
-        return savedSlabPrice;
+        // Evict both keys in case the type or color changed
+        evict(oldType, oldColor);
+        evict(slabPrice.getType(), slabPrice.getColor());
+        logger.debug("SlabPrice modified in database: {}", slabPrice);
+        return slabPrice;
     }
 
     /**
      * Delete a price from the db
      * @param id the id of the price to be deleted
+     * @param version the version the price must still be at, any version if null
      */
-    public void deletePrice(String id) {
-        slabPriceRepository.delete(getPrice(id));
+    public void deletePrice(String id, Long version) {
+        SlabPrice slabPrice = slabPriceRepository.findAndRemove(id, version)
+                .orElseThrow(() -> notWritten(id, version));
+        evict(slabPrice.getType(), slabPrice.getColor());
         logger.info("SlabPrice deleted from database: {}", id);
     }
 
@@ -114,6 +146,15 @@ public class SlabPriceService {
                 });
     }
 
+    /**
+     * Find the version of a price and when it was last modified, reading nothing else
+     * @param id the id of the price
+     * @return the price with only its version and modification date, or empty if the price doesn't exist
+     */
+    public Optional<SlabPrice> findPriceVersion(String id) {
+        return slabPriceRepository.findVersion(id);
+    }
+
     /**
      * Does a search in the db for price matching the given criteria
      * @param type the type of slabPrice being searched
@@ -125,8 +166,128 @@ public class SlabPriceService {
             throw new InvalidInputException("Type and color must not be null or empty");
         }
 
-        // get the specific slabPrice
-        return slabPriceRepository.findByTypeAndColor(type, color)
-                .orElseThrow(() -> new ResourceNotFoundException("SlabPrice with type " + type + " and color " + color + " not found"));
+        // get the specific slabPrice, misses are cached too so unknown pairs don't hit the db every time
+        SlabPrice slabPrice = priceCache.get(priceKey(type, color),
+                () -> slabPriceRepository.findByTypeAndColor(type, color).orElse(null));
+        if (Objects.isNull(slabPrice)) {
+            throw new ResourceNotFoundException("SlabPrice with type " + type + " and color " + color + " not found");
+        }
+        return slabPrice;
+    }
+
+    /**
+     * Change the price of every slab matching a type and/or color in one bulk write.
+     * New amounts are rounded to the currency's fraction digits.
+     * @param request the prices to match and the change to apply
+     * @return every updated price with its old and new amount, and separately those changed concurrently that were
+     * skipped, nothing is written when the request is a dry run
+     */
+    public RepriceResult repricePrices(RepriceRequest request) {
+        if (Objects.isNull(request)) {
+            throw new InvalidInputException("Reprice request is null");
+        }
+        if (ValidationUtil.isNullOrEmpty(request.getType()) && ValidationUtil.isNullOrEmpty(request.getColor())) {
+            throw new InvalidInputException("Type or color must be provided");
+        }
+        if (ValidationUtil.isNullOrEmpty(request.getAmount())) {
+            throw new InvalidInputException("Amount is empty");
+        }
+        RepriceMode mode = RepriceMode.fromString(request.getMode());
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(request.getAmount());
+        } catch (NumberFormatException e) {
+            throw new InvalidInputException("Amount is not a number");
+        }
+        logger.info("Request received to reprice slabPrices: Request -> {}", request);
+
+        List<RepricedPrice> repriced = new ArrayList<>();
+        for (SlabPrice slabPrice : slabPriceRepository.findAllByFilter(request.getType(), request.getColor())) {
+            BigDecimal oldAmount = slabPrice.getAmountPerSqFt();
+            BigDecimal newAmount = switch (mode) {
+                case ABSOLUTE -> oldAmount.add(amount);
+                case PERCENT -> oldAmount.multiply(BigDecimal.ONE.add(amount.movePointLeft(2)))
+                        .setScale(slabPrice.getCurrency().getDefaultFractionDigits(), RoundingMode.HALF_EVEN);
+            };
+            if (newAmount.signum() <= 0) {
+                throw new InvalidInputException("Reprice would make SlabPrice " + slabPrice.getId() + " zero or negative");
+            }
+
+            // Enforce the same currency scale rule as a single price update
+            slabPrice.setAmountPerSqFtAndCurrency(newAmount, slabPrice.getCurrency());
+            repriced.add(new RepricedPrice(slabPrice.getId(), slabPrice.getType(), slabPrice.getColor(), oldAmount, newAmount, slabPrice.getCurrency()));
+        }
+
+        inventoryMetrics.recordResults("prices.reprice", repriced.size());
+        if (request.isDryRun()) {
+            logger.info("Reprice dry run matched {} slabPrices", repriced.size());
+            return new RepriceResult(true, repriced, List.of());
+        }
+
+        long updated = slabPriceRepository.bulkUpdateAmounts(repriced);
+        repriced.forEach(price -> evict(price.getType(), price.getColor()));
+        logger.info("Reprice updated {} of {} matched slabPrices", updated, repriced.size());
+        if (updated == repriced.size()) {
+            return new RepriceResult(false, repriced, List.of());
+        }
+        Map<Boolean, List<RepricedPrice>> applied = partitionApplied(repriced);
+        logger.warn("Reprice skipped slabPrices changed concurrently: {}", applied.get(false).stream().map(RepricedPrice::getId).toList());
+        return new RepriceResult(false, applied.get(true), applied.get(false));
+    }
+
+    /**
+     * Tell the prices a bulk write updated from those whose guard failed, a bulk write only counts its updates.
+     * The extra read only happens once some of the prices weren't updated.
+     * @param repriced the prices the bulk write was given
+     * @return the prices now at their new amount under true, the rest under false
+     */
+    private Map<Boolean, List<RepricedPrice>> partitionApplied(List<RepricedPrice> repriced) {
+        Map<String, BigDecimal> amounts = new HashMap<>();
+        slabPriceRepository.findAllById(repriced.stream().map(RepricedPrice::getId).toList())
+                .forEach(slabPrice -> amounts.put(slabPrice.getId(), slabPrice.getAmountPerSqFt()));
+        return repriced.stream().collect(Collectors.partitioningBy(price -> {
+            BigDecimal amount = amounts.get(price.getId());
+            return Objects.nonNull(amount) && amount.compareTo(price.getNewAmountPerSqFt()) == 0;
+        }));
+    }
+
+    /**
+     * Save a price, translating a unique index violation on type & color into a conflict
+     * @param slabPrice the price being saved
+     * @return the saved price
+     */
+    private SlabPrice save(SlabPrice slabPrice) {
+        try {
+            return slabPriceRepository.save(slabPrice);
+        } catch (DuplicateKeyException e) {
+            logger.warn("SlabPrice already exists with type: {} and color: {}", slabPrice.getType(), slabPrice.getColor());
+            throw new ResourceAlreadyExistsException("SlabPrice", "type & color", slabPrice.getType() + "," + slabPrice.getColor());
+        }
+    }
+
+    /**
+     * Tell a missing price apart from one that changed since the version the client read,
+     * the extra lookup only happens once a write has matched nothing
+     */
+    private RuntimeException notWritten(String id, Long version) {
+        if (Objects.nonNull(version) && slabPriceRepository.existsById(id)) {
+            logger.warn("SlabPrice changed since version {}: SlabPrice ID -> {}", version, id);
+            return new PreconditionFailedException("SlabPrice with id " + id + " has changed since version " + version);
+        }
+        logger.warn("SlabPrice not found with id: {}", id);
+        return new ResourceNotFoundException("SlabPrice with id " + id + " not found");
+    }
+
+    /**
+     * Remove the cached price for a type & color
+     * @param type the type of the slabPrice
+     * @param color the color of the slabPrice
+     */
+    private void evict(String type, String color) {
+        priceCache.evict(priceKey(type, color));
+    }
+
+    private static String priceKey(String type, String color) {
+        return type + "|" + color;
     }
 }
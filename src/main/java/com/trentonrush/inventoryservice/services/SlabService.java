@@ -1,18 +1,47 @@
 package com.trentonrush.inventoryservice.services;
 
 import com.trentonrush.inventoryservice.exceptions.InvalidInputException;
+import com.trentonrush.inventoryservice.exceptions.PayloadTooLargeException;
+import com.trentonrush.inventoryservice.exceptions.PreconditionFailedException;
+import com.trentonrush.inventoryservice.exceptions.ResourceConflictException;
 import com.trentonrush.inventoryservice.exceptions.ResourceNotFoundException;
+import com.trentonrush.inventoryservice.exceptions.ServiceUnavailableException;
 import com.trentonrush.inventoryservice.models.Slab;
+import com.trentonrush.inventoryservice.models.dtos.CollectionWatermark;
+import com.trentonrush.inventoryservice.models.dtos.CursorPage;
+import com.trentonrush.inventoryservice.models.dtos.RemnantFit;
+import com.trentonrush.inventoryservice.models.dtos.SlabBatchOperation;
+import com.trentonrush.inventoryservice.models.dtos.SlabBatchResult;
 import com.trentonrush.inventoryservice.models.dtos.SlabDTO;
+import com.trentonrush.inventoryservice.models.dtos.SlabFilter;
+import com.trentonrush.inventoryservice.models.dtos.SparseFields;
+import com.trentonrush.inventoryservice.models.enums.BatchAction;
 import com.trentonrush.inventoryservice.models.enums.Status;
 import com.trentonrush.inventoryservice.repositories.SlabRepository;
+import com.trentonrush.inventoryservice.repositories.SlabWrite;
+import com.trentonrush.inventoryservice.utils.InventoryUtil;
+import com.trentonrush.inventoryservice.utils.LogSampler;
+import com.trentonrush.inventoryservice.utils.LogUtil;
 import com.trentonrush.inventoryservice.utils.ValidationUtil;
+import org.bson.types.ObjectId;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.trentonrush.inventoryservice.utils.InventoryConstants.*;
 
 /**
  * Service class for managing slabs.
@@ -24,15 +53,27 @@ import java.util.List;
  * @see SlabDTO
  * @see SlabRepository
  */
+@Timed(SERVICE_TIMER)
 @Service
 public class SlabService {
 
     private static final Logger logger = LoggerFactory.getLogger(SlabService.class);
+    private static final LogSampler searchLogSampler = new LogSampler("slabs.search", LOG_SAMPLE_RATE);
+    private static final LogSampler fitLogSampler = new LogSampler("remnants.fit", LOG_SAMPLE_RATE);
 
     private final SlabRepository slabRepository;
+    private final AvailabilityCounters availabilityCounters;
+    private final RemnantIndex remnantIndex;
+    private final InventoryMetrics inventoryMetrics;
+    private final ImageService imageService;
 
-    public SlabService(SlabRepository slabRepository) {
+    public SlabService(SlabRepository slabRepository, AvailabilityCounters availabilityCounters, RemnantIndex remnantIndex,
+                       InventoryMetrics inventoryMetrics, ImageService imageService) {
         this.slabRepository = slabRepository;
+        this.availabilityCounters = availabilityCounters;
+        this.remnantIndex = remnantIndex;
+        this.inventoryMetrics = inventoryMetrics;
+        this.imageService = imageService;
     }
 
     /**
@@ -42,7 +83,9 @@ public class SlabService {
     public Slab addSlab(SlabDTO slabDTO) {
         // Validate new slab details
         ValidationUtil.validateSlabDTO(slabDTO, true);
-        logger.info("Request received to add new slab: Request -> {}", slabDTO);
+        // Inline images are moved to the image store, the slab only keeps the reference
+        slabDTO.setImage(imageService.externalize(slabDTO.getImage()));
+        logger.debug("Request received to add new slab: Request -> {}", slabDTO);
 
         // Create new slab object
         Slab slab = Slab.build(slabDTO);
@@ -55,73 +98,124 @@ public class SlabService {
 
         // Save new slab
         Slab savedSlab = slabRepository.save(slab);
-        logger.info("New Slab added to database: {}", savedSlab);
+        availabilityCounters.recordSlab(savedSlab.getType(), savedSlab.getColor(), savedSlab.getStatus(), 1);
+        remnantIndex.record(savedSlab);
+        logger.debug("New Slab added to database: {}", savedSlab);
         return savedSlab;
     }
 
     /**
-     * Update an existing slab in the database
+     * Update an existing slab in the database.
+     * Only the fields provided are set, in one round trip that also reads the slab as it was before the update.
      * @param id the id of the slab being updated
      * @param slabDTO the new fields being updated
+     * @param version the version the slab must still be at, any version if null
      */
-    public Slab updateSlab(String id, SlabDTO slabDTO) {
-        logger.info("Request received to update slab: Slab ID -> {}, Request -> {}", id, slabDTO);
+    public Slab updateSlab(String id, SlabDTO slabDTO, Long version) {
+        slabDTO.setImage(imageService.externalize(slabDTO.getImage()));
+        logger.debug("Request received to update slab: Slab ID -> {}, Version -> {}, Request -> {}", id, version, slabDTO);
 
-        // Get the existing slab from the database
-        Slab slab = getSlab(id);
-        logger.info("Current Slab being updated -> {}", slab);
+        // Set only the fields that are provided and not empty, getting back the slab as it was
+        Instant now = Instant.now();
+        Slab slab = slabRepository.findAndUpdate(id, version, slabDTO, now)
+                .orElseThrow(() -> notWritten(id, version));
+        logger.debug("Slab before update -> {}", slab);
+        String oldType = slab.getType();
+        String oldColor = slab.getColor();
+        Status oldStatus = slab.getStatus();
 
-        // Update only the fields that are provided and not empty
-        if (!ValidationUtil.isNullOrEmpty(slabDTO.getImage())) {
-            slab.setImage(slabDTO.getImage());
-        }
-        if (!ValidationUtil.isNullOrEmpty(slabDTO.getDescription())) {
-            slab.setDescription(slabDTO.getDescription());
-        }
-        if (!ValidationUtil.isNullOrEmpty(slabDTO.getColor())) {
-            slab.setColor(slabDTO.getColor());
-        }
-        if (!ValidationUtil.isNullOrEmpty(slabDTO.getType())) {
-            slab.setType(slabDTO.getType());
-        }
-        if (!ValidationUtil.isNullOrEmpty(slabDTO.getLocation())) {
-            slab.setLocation(slabDTO.getLocation());
+        // Apply the same update to the slab that was read instead of reading it again
+        slab.applyUpdate(slabDTO, now);
+        slab.setVersion(InventoryUtil.nextVersion(slab.getVersion()));
+
+        availabilityCounters.recordSlab(oldType, oldColor, oldStatus, -1);
+        availabilityCounters.recordSlab(slab.getType(), slab.getColor(), slab.getStatus(), 1);
+        remnantIndex.record(slab);
+        logger.debug("Slab modified in database: {}", slab);
+        return slab;
+    }
+
+    /**
+     * Create, update, and delete many slabs in one bulk write.
+     * Every operation is validated up front, operations that fail validation are reported and skipped while the
+     * rest are still written.
+     * @param operations the operations to execute
+     * @return one result per operation, in the same order
+     */
+    public List<SlabBatchResult> batchSlabs(List<SlabBatchOperation> operations) {
+        if (Objects.isNull(operations) || operations.isEmpty()) {
+            throw new InvalidInputException("Batch is empty");
         }
-        if (!ValidationUtil.isNullOrEmpty(slabDTO.getSupplier())) {
-            slab.setSupplier(slabDTO.getSupplier());
+        if (operations.size() > MAX_BATCH_SIZE) {
+            throw new InvalidInputException("Batch can not contain more than " + MAX_BATCH_SIZE + " operations");
         }
-        // catch if the dimensions contain any invalid values
-        try {
-            ValidationUtil.validateDimensions(slabDTO.getDimensions());
-            slab.setDimensions(slabDTO.getDimensions());
-        } catch (InvalidInputException ignored) {
-            // do nothing if dimensions are empty
+        logger.info("Request received to execute slab batch: Operations -> {}", operations.size());
+
+        SlabBatchResult[] results = new SlabBatchResult[operations.size()];
+        List<SlabWrite> writes = new ArrayList<>();
+        List<Integer> writeIndexes = new ArrayList<>();
+        Instant now = Instant.now();
+
+        // Validate every operation before anything is written
+        for (int i = 0; i < operations.size(); i++) {
+            SlabBatchOperation operation = operations.get(i);
+            try {
+                SlabWrite write = toWrite(operation, now);
+                writes.add(write);
+                writeIndexes.add(i);
+            } catch (InvalidInputException | PayloadTooLargeException | IllegalArgumentException e) {
+                results[i] = SlabBatchResult.failure(i, Objects.isNull(operation) ? null : operation.getId(), e.getMessage());
+            }
         }
 
-        // Handle booleans directly since they can't be null
-        slab.setRemnant(slabDTO.isRemnant());
-        slab.setDamaged(slabDTO.isDamaged());
+        // Read the current state of every slab being changed in one round trip,
+        // this finds missing slabs and keeps the availability counters and remnant index exact
+        Set<String> changedIds = writes.stream()
+                .filter(write -> write.getAction() != BatchAction.CREATE)
+                .map(SlabWrite::getId)
+                .collect(Collectors.toSet());
+        Map<String, Slab> current = changedIds.isEmpty() ? Map.of() : slabRepository.findSummariesByIds(changedIds).stream()
+                .collect(Collectors.toMap(Slab::getId, Function.identity()));
 
-        // Update status accordingly
-        if (!ValidationUtil.isNullOrEmpty(slabDTO.getStatus())) {
-            slab.setStatus(Status.fromString(slabDTO.getStatus()));
+        List<SlabWrite> found = new ArrayList<>();
+        List<Integer> foundIndexes = new ArrayList<>();
+        for (int i = 0; i < writes.size(); i++) {
+            SlabWrite write = writes.get(i);
+            if (write.getAction() != BatchAction.CREATE && !current.containsKey(write.getId())) {
+                results[writeIndexes.get(i)] = SlabBatchResult.failure(writeIndexes.get(i), write.getId(), "Slab with id " + write.getId() + " not found");
+                continue;
+            }
+            found.add(write);
+            foundIndexes.add(writeIndexes.get(i));
         }
 
-        // Update modification date
-        slab.setModificationDate(Instant.now());
+        Map<Integer, String> errors = slabRepository.bulkWrite(found);
+        for (int i = 0; i < found.size(); i++) {
+            SlabWrite write = found.get(i);
+            int index = foundIndexes.get(i);
+            if (errors.containsKey(i)) {
+                results[index] = SlabBatchResult.failure(index, write.getId(), errors.get(i));
+                continue;
+            }
+            results[index] = SlabBatchResult.success(index, write.getId());
+            recordWrite(write, current.get(write.getId()));
+        }
 
-        // Save the updated slab
-        Slab savedSlab = slabRepository.save(slab);
-        logger.info("Slab modified in database: {}", savedSlab);
-        return savedSlab;
+        logger.info("Slab batch executed: Operations -> {}, Failed -> {}", operations.size(),
+                Arrays.stream(results).filter(result -> !result.isSuccess()).count());
+        return Arrays.asList(results);
     }
 
     /**
      * Delete a slab from the db
      * @param id the id of the slab to be deleted
+     * @param version the version the slab must still be at, any version if null
      */
-    public void deleteSlab(String id) {
-        slabRepository.delete(getSlab(id));
+    public void deleteSlab(String id, Long version) {
+        Slab slab = slabRepository.findAndRemove(id, version)
+                .orElseThrow(() -> notWritten(id, version));
+        availabilityCounters.recordSlab(slab.getType(), slab.getColor(), slab.getStatus(), -1);
+        remnantIndex.remove(id);
         logger.info("Slab deleted from database: {}", id);
     }
 
@@ -139,53 +233,143 @@ public class SlabService {
     }
 
     /**
-     * Does a search in the db for slabs matching the given criteria
-     * @param type the type of slab being searched
-     * @param color the color of slab being searched
-     * @param status the color of the slab being searched
-     * @return a list of slabs found during search
-     */
-    public List<Slab> listSlabs(String type, String color, String status) {
-        List<Slab> slabs;
-        if (!ValidationUtil.isNullOrEmpty(type) && !ValidationUtil.isNullOrEmpty(color) && !ValidationUtil.isNullOrEmpty(status)) {
-            slabs = slabRepository.findAllByTypeAndColorAndStatus(type, color, Status.fromString(status));
-        } else if (!ValidationUtil.isNullOrEmpty(type) && !ValidationUtil.isNullOrEmpty(color)) {
-            slabs = slabRepository.findAllByTypeAndColor(type, color);
-        } else if (!ValidationUtil.isNullOrEmpty(type) && !ValidationUtil.isNullOrEmpty(status)) {
-            slabs = slabRepository.findAllByTypeAndStatus(type, Status.fromString(status));
-        } else if (!ValidationUtil.isNullOrEmpty(color) && !ValidationUtil.isNullOrEmpty(status)) {
-            slabs = slabRepository.findAllByColorAndStatus(color, Status.fromString(status));
-        } else if (!ValidationUtil.isNullOrEmpty(type)) {
-            slabs = slabRepository.findAllByType(type);
-        } else if (!ValidationUtil.isNullOrEmpty(color)) {
-            slabs = slabRepository.findAllByColor(color);
-        } else if (!ValidationUtil.isNullOrEmpty(status)) {
-            slabs = slabRepository.findAllByStatus(Status.fromString(status));
-        } else {
-            logger.info("No specifiers for search. Listing all slabs.");
-            return slabRepository.findAll();
+     * Find the version of a slab and when it was last modified, reading nothing else
+     * @param id the id of the slab
+     * @return the slab with only its version and modification date, or empty if the slab doesn't exist
+     */
+    public Optional<Slab> findSlabVersion(String id) {
+        return slabRepository.findVersion(id);
+    }
+
+    /**
+     * Get the watermark of every slab, it changes whenever a slab is added, changed, or deleted
+     * @return the current watermark
+     */
+    public CollectionWatermark getSlabsWatermark() {
+        return slabRepository.findWatermark();
+    }
+
+    /**
+     * Does a search in the db for one page of slabs matching the given criteria
+     * @param filter the filters to search by, any unset filter is ignored
+     * @param cursor the cursor returned with the previous page (optional)
+     * @param limit the maximum number of slabs to return (optional)
+     * @param fields the only fields to read from the db, every field when ALL
+     * @return a page of slabs found during search
+     */
+    public CursorPage<Slab> listSlabs(SlabFilter filter, String cursor, Integer limit, SparseFields fields) {
+        int pageSize = InventoryUtil.pageSize(limit);
+
+        // Fetch one extra slab to know whether there is another page
+        List<Slab> slabs = inventoryMetrics.timeSearch("slabs.search", InventoryMetrics.filters(filter),
+                () -> slabRepository.findPage(filter, InventoryUtil.decodeCursor(cursor), pageSize + 1, fields.getDocumentFields()));
+        String nextCursor = null;
+        if (slabs.size() > pageSize) {
+            slabs = slabs.subList(0, pageSize);
+            nextCursor = InventoryUtil.encodeCursor(slabs.get(pageSize - 1).getId());
+        }
+
+        List<Slab> page = slabs;
+        inventoryMetrics.recordResults("slabs.search", page.size());
+        if (logger.isInfoEnabled() && searchLogSampler.sample()) {
+            logger.atInfo().setMessage("Slabs {} found with filter: {}")
+                    .addArgument(() -> LogUtil.ids(page, Slab::getId))
+                    .addArgument(filter)
+                    .log();
         }
-        logger.info("Slabs {} found with type: {}, color: {}, status: {}", slabs.stream().map(Slab::getId).toList(), type, color, status);
-        return slabs;
+        return new CursorPage<>(page, nextCursor);
     }
 
     /**
-     * Changes the status of a specified slab to Reserved
+     * Changes the status of a specified slab from Available to Reserved.
+     * The status is only changed if the slab is currently available, so only one caller can win a slab.
      * @param id the id of the slab being reserved
      */
     public void reserveSlab(String id) {
-        Slab slab = getSlab(id);
-        logger.info("Current status of slab: Slab ID -> {}, Current Status -> {}", id, slab.getStatus());
-
-        // Update slab status to RESERVED
-        slab.setStatus(Status.RESERVED);
-        slab.setModificationDate(Instant.now());
-        slabRepository.save(slab);
+        Slab slab = slabRepository.compareAndSetStatus(id, Status.AVAILABLE, Status.RESERVED)
+                .orElseThrow(() -> statusNotChanged(id, "is not available to be reserved"));
+        recordReserved(slab);
 
         // Log the reservation action
         logger.info("Slab reserved in database: Slab ID -> {}", id);
     }
 
+    /**
+     * Changes the status of a specified slab from Reserved back to Available.
+     * The status is only changed if the slab is currently reserved.
+     * @param id the id of the slab being released
+     */
+    public void releaseSlab(String id) {
+        Slab slab = slabRepository.compareAndSetStatus(id, Status.RESERVED, Status.AVAILABLE)
+                .orElseThrow(() -> statusNotChanged(id, "is not reserved"));
+        recordReleased(slab);
+
+        // Log the release action
+        logger.info("Slab released in database: Slab ID -> {}", id);
+    }
+
+    /**
+     * Reserve several slabs together, e.g. every slab in a cut layout.
+     * Slabs are reserved one at a time, if any slab can't be reserved the ones already reserved are released again,
+     * so either every slab is reserved or none are.
+     * @param ids the ids of the slabs being reserved
+     */
+    public void reserveSlabs(List<String> ids) {
+        if (Objects.isNull(ids) || ids.isEmpty()) {
+            throw new InvalidInputException("Slab ids are empty");
+        }
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new InvalidInputException("Can not reserve more than " + MAX_BATCH_SIZE + " slabs at once");
+        }
+        Set<String> distinct = new LinkedHashSet<>(ids);
+        logger.atInfo().setMessage("Request received to reserve slabs: Slab IDs -> {}")
+                .addArgument(() -> LogUtil.ids(distinct, Function.identity()))
+                .log();
+
+        List<String> reserved = new ArrayList<>();
+        for (String id : distinct) {
+            Optional<Slab> slab = slabRepository.compareAndSetStatus(id, Status.AVAILABLE, Status.RESERVED);
+            if (slab.isEmpty()) {
+                logger.warn("Slab could not be reserved, releasing {} reserved slabs: Slab ID -> {}", reserved.size(), id);
+                reserved.forEach(reservedId -> slabRepository.compareAndSetStatus(reservedId, Status.RESERVED, Status.AVAILABLE)
+                        .ifPresent(this::recordReleased));
+                throw statusNotChanged(id, "is not available to be reserved, no slabs were reserved");
+            }
+            recordReserved(slab.get());
+            reserved.add(id);
+        }
+
+        logger.atInfo().setMessage("Slabs reserved in database: Slab IDs -> {}")
+                .addArgument(() -> LogUtil.ids(reserved, Function.identity()))
+                .log();
+    }
+
+    /**
+     * Tell a missing slab apart from one that isn't in the expected status,
+     * the extra lookup only happens once a status change has matched nothing
+     * @param reason why the status couldn't be changed, completing "Slab with id X ..."
+     */
+    private RuntimeException statusNotChanged(String id, String reason) {
+        if (!slabRepository.existsById(id)) {
+            logger.warn("Slab not found with id: {}", id);
+            return new ResourceNotFoundException("Slab with id " + id + " not found");
+        }
+        logger.warn("Slab status could not be changed: Slab ID -> {}", id);
+        return new ResourceConflictException("Slab with id " + id + " " + reason);
+    }
+
+    private void recordReserved(Slab slab) {
+        availabilityCounters.recordSlab(slab.getType(), slab.getColor(), Status.AVAILABLE, -1);
+        availabilityCounters.recordSlab(slab.getType(), slab.getColor(), Status.RESERVED, 1);
+        remnantIndex.remove(slab.getId());
+    }
+
+    private void recordReleased(Slab slab) {
+        availabilityCounters.recordSlab(slab.getType(), slab.getColor(), Status.RESERVED, -1);
+        availabilityCounters.recordSlab(slab.getType(), slab.getColor(), Status.AVAILABLE, 1);
+        remnantIndex.record(slab);
+    }
+
     /**
      * Check if any slabs has the "available" status
      * @param type the type of slab being checked
@@ -193,25 +377,170 @@ public class SlabService {
      * @return true if there is a slab available, false otherwise
      */
     public boolean checkAvailability(String type, String color) {
-        logger.info("Checking availability with type: '{}' and color: '{}'", type, color);
+        logger.debug("Checking availability with type: '{}' and color: '{}'", type, color);
 
-        boolean isAvailable;
+        if (ValidationUtil.isNullOrEmpty(type) && ValidationUtil.isNullOrEmpty(color)) {
+            logger.warn("Neither type nor color provided.");
+            return false;
+        }
 
-        if (!ValidationUtil.isNullOrEmpty(type) && ValidationUtil.isNullOrEmpty(color)) {
-            logger.debug("Checking availability by type: '{}'", type);
-            isAvailable = slabRepository.existsByTypeAndStatus(type, Status.AVAILABLE);
-        } else if (ValidationUtil.isNullOrEmpty(type) && !ValidationUtil.isNullOrEmpty(color)) {
-            logger.debug("Checking availability by color: '{}'", color);
-            isAvailable = slabRepository.existsByColorAndStatus(color, Status.AVAILABLE);
-        } else if (!ValidationUtil.isNullOrEmpty(type) && !ValidationUtil.isNullOrEmpty(color)) {
-            logger.debug("Checking availability by type: '{}' and color: '{}'", type, color);
-            isAvailable = slabRepository.existsByTypeAndColorAndStatus(type, color, Status.AVAILABLE);
+        boolean isAvailable;
+        if (availabilityCounters.isReady()) {
+            isAvailable = availabilityCounters.countSlabs(type, color, Status.AVAILABLE) > 0;
         } else {
-            logger.warn("Neither type nor color provided.");
-            isAvailable = false;
+            // Counters are still being built at startup
+            isAvailable = slabRepository.exists(new SlabFilter(type, color, Status.AVAILABLE.name()));
         }
 
-        logger.info("Availability check result for Slab: {}", isAvailable);
+        logger.debug("Availability check result for Slab: {}", isAvailable);
         return isAvailable;
     }
+
+    /**
+     * Find the available remnants a piece can be cut from, least waste first.
+     * The piece may be rotated, so length and width can be given in either order.
+     * @param lengthInches the length of the piece
+     * @param widthInches the width of the piece
+     * @param type the type of the remnant (optional)
+     * @param color the color of the remnant (optional)
+     * @param limit the maximum number of remnants to return (optional)
+     * @return the remnants that fit, ordered by waste
+     */
+    public List<RemnantFit> findRemnantFits(Double lengthInches, Double widthInches, String type, String color, Integer limit) {
+        if (Objects.isNull(lengthInches) || Objects.isNull(widthInches) || lengthInches <= 0.0 || widthInches <= 0.0) {
+            throw new InvalidInputException("Length and width must be greater than zero");
+        }
+        if (Objects.nonNull(limit) && limit <= 0) {
+            throw new InvalidInputException("Limit must be greater than zero");
+        }
+        if (!remnantIndex.isReady()) {
+            throw new ServiceUnavailableException("Remnant search is not available yet");
+        }
+        int fitLimit = Objects.isNull(limit) ? DEFAULT_FIT_LIMIT : Math.min(limit, MAX_FIT_LIMIT);
+
+        List<RemnantFit> fits = inventoryMetrics.timeSearch("remnants.fit", InventoryMetrics.filters(new SlabFilter(type, color, null)),
+                () -> remnantIndex.findFits(lengthInches, widthInches, type, color, fitLimit));
+        inventoryMetrics.recordResults("remnants.fit", fits.size());
+        if (logger.isInfoEnabled() && fitLogSampler.sample()) {
+            logger.atInfo().setMessage("Remnants {} fit {}x{} with type: '{}' and color: '{}'")
+                    .addArgument(() -> LogUtil.ids(fits, RemnantFit::getSlabId))
+                    .addArgument(lengthInches)
+                    .addArgument(widthInches)
+                    .addArgument(type)
+                    .addArgument(color)
+                    .log();
+        }
+        return fits;
+    }
+
+    /**
+     * Tell a missing slab apart from one that changed since the version the client read,
+     * the extra lookup only happens once a write has matched nothing
+     */
+    private RuntimeException notWritten(String id, Long version) {
+        if (Objects.nonNull(version) && slabRepository.existsById(id)) {
+            logger.warn("Slab changed since version {}: Slab ID -> {}", version, id);
+            return new PreconditionFailedException("Slab with id " + id + " has changed since version " + version);
+        }
+        logger.warn("Slab not found with id: {}", id);
+        return new ResourceNotFoundException("Slab with id " + id + " not found");
+    }
+
+    /**
+     * Validate a batch operation and turn it into a write
+     */
+    private SlabWrite toWrite(SlabBatchOperation operation, Instant now) {
+        if (Objects.isNull(operation)) {
+            throw new InvalidInputException("Operation is null");
+        }
+        BatchAction action = BatchAction.fromString(operation.getAction());
+        if (action != BatchAction.CREATE && !ObjectId.isValid(operation.getId())) {
+            throw new InvalidInputException("Id is invalid");
+        }
+
+        return switch (action) {
+            case CREATE -> {
+                ValidationUtil.validateSlabDTO(operation.getSlab(), true);
+                operation.getSlab().setImage(imageService.externalize(operation.getSlab().getImage()));
+                Slab slab = Slab.build(operation.getSlab());
+                // Ids are assigned up front so each result can report the id of the slab it created
+                slab.setId(new ObjectId().toHexString());
+                // Bulk inserts store the version as given rather than starting it at 0 like a repository insert
+                slab.setVersion(0L);
+                slab.setStatus(Status.AVAILABLE);
+                slab.setCreationDate(now);
+                slab.setModificationDate(now);
+                yield SlabWrite.insert(slab);
+            }
+            case UPDATE -> {
+                if (Objects.isNull(operation.getSlab())) {
+                    throw new InvalidInputException("Slab is null");
+                }
+                if (!ValidationUtil.isNullOrEmpty(operation.getSlab().getStatus())) {
+                    Status.fromString(operation.getSlab().getStatus());
+                }
+                operation.getSlab().setImage(imageService.externalize(operation.getSlab().getImage()));
+                yield SlabWrite.update(operation.getId(), operation.getSlab());
+            }
+            case DELETE -> SlabWrite.delete(operation.getId());
+        };
+    }
+
+    /**
+     * Apply a successful batch write to the availability counters and remnant index
+     * @param write the write that succeeded
+     * @param before the slab before the write, null for creates
+     */
+    private void recordWrite(SlabWrite write, Slab before) {
+        switch (write.getAction()) {
+            case CREATE -> {
+                availabilityCounters.recordSlab(write.getSlab().getType(), write.getSlab().getColor(), write.getSlab().getStatus(), 1);
+                remnantIndex.record(write.getSlab());
+            }
+            case DELETE -> {
+                availabilityCounters.recordSlab(before.getType(), before.getColor(), before.getStatus(), -1);
+                remnantIndex.remove(before.getId());
+            }
+            case UPDATE -> {
+                Slab after = afterUpdate(before, write.getChanges());
+                availabilityCounters.recordSlab(before.getType(), before.getColor(), before.getStatus(), -1);
+                availabilityCounters.recordSlab(after.getType(), after.getColor(), after.getStatus(), 1);
+                remnantIndex.record(after);
+            }
+        }
+    }
+
+    /**
+     * Apply a partial update to the summary of a slab, the same way the bulk write applies it to the document
+     */
+    private static Slab afterUpdate(Slab before, SlabDTO changes) {
+        Slab after = new Slab();
+        after.setId(before.getId());
+        after.setType(ValidationUtil.isNullOrEmpty(changes.getType()) ? before.getType() : changes.getType());
+        after.setColor(ValidationUtil.isNullOrEmpty(changes.getColor()) ? before.getColor() : changes.getColor());
+        after.setStatus(ValidationUtil.isNullOrEmpty(changes.getStatus()) ? before.getStatus() : Status.fromString(changes.getStatus()));
+        after.setRemnant(changes.isRemnant());
+        try {
+            ValidationUtil.validateDimensions(changes.getDimensions());
+            after.setDimensions(changes.getDimensions());
+        } catch (InvalidInputException ignored) {
+            after.setDimensions(before.getDimensions());
+        }
+        return after;
+    }
+
+    /**
+     * Count the slabs with a status, optionally narrowed by type and color
+     * @param type the type of slab being counted (optional)
+     * @param color the color of slab being counted (optional)
+     * @param status the status of slab being counted, defaults to available (optional)
+     * @return the number of slabs matching
+     */
+    public long countSlabs(String type, String color, String status) {
+        Status statusFilter = ValidationUtil.isNullOrEmpty(status) ? Status.AVAILABLE : Status.fromString(status);
+        if (!availabilityCounters.isReady()) {
+            throw new ServiceUnavailableException("Slab counts are not available yet");
+        }
+        return availabilityCounters.countSlabs(type, color, statusFilter);
+    }
 }
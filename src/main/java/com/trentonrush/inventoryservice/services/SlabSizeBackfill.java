@@ -0,0 +1,43 @@
+package com.trentonrush.inventoryservice.services;
+
+import com.trentonrush.inventoryservice.models.SlabSize;
+import com.trentonrush.inventoryservice.repositories.SlabRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import static com.trentonrush.inventoryservice.utils.InventoryConstants.*;
+
+/**
+ * Stores the canonical size of slabs written before sizes were derived at write time, so size searches find them.
+ * Runs once at startup, slabs that already have a size are never read.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-22
+ * @see SlabSize
+ */
+@Service
+public class SlabSizeBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlabSizeBackfill.class);
+
+    private final SlabRepository slabRepository;
+
+    public SlabSizeBackfill(SlabRepository slabRepository) {
+        this.slabRepository = slabRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            long updated = slabRepository.backfillSizes(MAX_BATCH_SIZE);
+            logger.info("Slab sizes backfilled: {}", updated);
+        } catch (DataAccessException e) {
+            // Don't stop the service from starting, unsized slabs are only missing from size searches
+            logger.error("Failed to backfill slab sizes", e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.trentonrush.inventoryservice.services;
+
+import com.trentonrush.inventoryservice.repositories.SampleSlabRepository;
+import com.trentonrush.inventoryservice.repositories.SlabPriceRepository;
+import com.trentonrush.inventoryservice.repositories.SlabRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Stores version 0 on slabs, samples, and prices written before versions were stored.
+ * A versioned document without a version would be inserted again rather than updated when saved, and can't match the
+ * version a client sends in If-Match. Runs once at startup.
+ *
+ * @author Trenton Rush
+ * @since 2024-09-03
+ */
+@Service
+public class VersionBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(VersionBackfill.class);
+
+    private final SlabRepository slabRepository;
+    private final SampleSlabRepository sampleSlabRepository;
+    private final SlabPriceRepository slabPriceRepository;
+
+    public VersionBackfill(SlabRepository slabRepository, SampleSlabRepository sampleSlabRepository,
+                           SlabPriceRepository slabPriceRepository) {
+        this.slabRepository = slabRepository;
+        this.sampleSlabRepository = sampleSlabRepository;
+        this.slabPriceRepository = slabPriceRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            logger.info("Versions backfilled: Slabs -> {}, Samples -> {}, Prices -> {}",
+                    slabRepository.backfillVersions(), sampleSlabRepository.backfillVersions(),
+                    slabPriceRepository.backfillVersions());
+        } catch (DataAccessException e) {
+            // Don't stop the service from starting, unversioned documents can still be written without If-Match
+            logger.error("Failed to backfill versions", e);
+        }
+    }
+}
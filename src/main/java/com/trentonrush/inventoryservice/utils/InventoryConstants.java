@@ -7,4 +7,43 @@ public class InventoryConstants {
     }
 
     public static final String USD_CURRENCY_CODE = "USD";
+
+    // Cursor pagination
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    // Batches
+    public static final int MAX_BATCH_SIZE = 500;
+    public static final int MAX_QUOTE_SIZE = 500;
+
+    // Remnant fit searches
+    public static final int DEFAULT_FIT_LIMIT = 10;
+    public static final int MAX_FIT_LIMIT = 100;
+
+    // Cut layouts
+    public static final int MAX_LAYOUT_PIECES = 50;
+    public static final int MAX_LAYOUT_SLABS = 200;
+
+    // Sparse fieldsets
+    public static final String SPARSE_FIELDS_FILTER = "sparseFields";
+
+    // Renditions
+    public static final int MAX_RENDITION_ATTEMPTS = 3;
+    public static final long MAX_RENDITION_PIXELS = 100_000_000L;
+
+    // Caches
+    public static final String PRICE_CACHE = "slabPrices";
+
+    // Metrics
+    public static final String SERVICE_TIMER = "inventory.service";
+    public static final String REPOSITORY_TIMER = "inventory.repository";
+    public static final String SEARCH_TIMER = "inventory.search";
+    public static final String RESULTS_SUMMARY = "inventory.results";
+    public static final String LOGS_SAMPLED_COUNTER = "inventory.logs.sampled";
+    public static final String LOGS_DROPPED_COUNTER = "inventory.logs.dropped";
+
+    // Logging
+    public static final int LOG_SAMPLE_RATE = 100;
+    public static final int LOG_MAX_IDS = 10;
 }
@@ -1,4 +1,76 @@
 package com.trentonrush.inventoryservice.utils;
 
+import com.trentonrush.inventoryservice.exceptions.InvalidInputException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+import static com.trentonrush.inventoryservice.utils.InventoryConstants.*;
+
+/**
+ * Utility Class for general inventory helpers
+ *
+ * @author Trenton Rush
+ * @since 2024-08-11
+ */
 public class InventoryUtil {
+
+    private InventoryUtil() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Encode the id of the last item on a page into an opaque continuation token
+     * @param lastId the id of the last item returned
+     * @return the cursor to send back to the client
+     */
+    public static String encodeCursor(String lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a continuation token back into the id the next page starts after
+     * @param cursor the cursor sent by the client (optional)
+     * @return the id to resume after, or null to start from the beginning
+     */
+    public static String decodeCursor(String cursor) {
+        if (ValidationUtil.isNullOrEmpty(cursor)) {
+            return null;
+        }
+        String lastId;
+        try {
+            lastId = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException("Cursor is invalid");
+        }
+        if (!lastId.matches("[0-9a-fA-F]{24}")) {
+            throw new InvalidInputException("Cursor is invalid");
+        }
+        return lastId;
+    }
+
+    /**
+     * Clamp a requested page size to the allowed range
+     * @param limit the requested page size (optional)
+     * @return the page size to use
+     */
+    public static int pageSize(Integer limit) {
+        if (Objects.isNull(limit)) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit <= 0) {
+            throw new InvalidInputException("Limit must be greater than zero");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * The version a document has after one more write
+     * @param version the version read before the write, null for a document written before versions were stored
+     * @return the version after the write
+     */
+    public static long nextVersion(Long version) {
+        return Objects.isNull(version) ? 1 : version + 1;
+    }
 }
@@ -0,0 +1,48 @@
+package com.trentonrush.inventoryservice.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.trentonrush.inventoryservice.utils.InventoryConstants.LOGS_SAMPLED_COUNTER;
+
+/**
+ * Lets through one in every n events of a high volume log line.
+ * Skipped events are counted under inventory.logs.sampled, tagged with the line, so the volume is still visible.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-29
+ */
+public class LogSampler {
+
+    private final long rate;
+    private final AtomicLong events = new AtomicLong();
+    private final Counter sampled;
+
+    /**
+     * @param line name of the log line, used as the metric tag
+     * @param rate log one in every rate events
+     */
+    public LogSampler(String line, int rate) {
+        if (rate < 1) {
+            throw new IllegalArgumentException("Sample rate must be at least 1");
+        }
+        this.rate = rate;
+        // Registered on the global registry since samplers are created in static fields, Boot binds it to the app registry
+        this.sampled = Counter.builder(LOGS_SAMPLED_COUNTER)
+                .tag("line", line)
+                .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * @return true when this event should be logged, the first event is always logged
+     */
+    public boolean sample() {
+        if (events.getAndIncrement() % rate == 0) {
+            return true;
+        }
+        sampled.increment();
+        return false;
+    }
+}
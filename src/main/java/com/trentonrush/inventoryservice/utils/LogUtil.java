@@ -0,0 +1,34 @@
+package com.trentonrush.inventoryservice.utils;
+
+import java.util.Collection;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.trentonrush.inventoryservice.utils.InventoryConstants.LOG_MAX_IDS;
+
+/**
+ * Utility Class for building log payloads.
+ * Meant to be passed as a supplier to the fluent slf4j api so nothing is built unless the level is enabled.
+ *
+ * @author Trenton Rush
+ * @since 2024-08-29
+ * @see LogSampler
+ */
+public class LogUtil {
+
+    private LogUtil() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Describe the ids of a collection, keeping only the first few
+     * @param items the items being logged
+     * @param id gets the id of an item
+     * @return the first {@value InventoryConstants#LOG_MAX_IDS} ids and how many were left out
+     */
+    public static <T> String ids(Collection<T> items, Function<T, String> id) {
+        String shown = items.stream().limit(LOG_MAX_IDS).map(id).collect(Collectors.joining(", ", "[", ""));
+        int hidden = items.size() - LOG_MAX_IDS;
+        return hidden > 0 ? shown + ", ... " + hidden + " more]" : shown + "]";
+    }
+}
@@ -0,0 +1,56 @@
+package com.trentonrush.inventoryservice.controllers;
+
+import com.trentonrush.inventoryservice.exceptions.InvalidInputException;
+import com.trentonrush.inventoryservice.exceptions.PreconditionFailedException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Asserts If-Match is read into the version a write is conditional on.
+ */
+class ConditionalRequestsTests {
+
+    @Test
+    void missingOrAnyETagMakesTheWriteUnconditional() {
+        assertThat(ConditionalRequests.ifMatch(null)).isNull();
+        assertThat(ConditionalRequests.ifMatch("")).isNull();
+        assertThat(ConditionalRequests.ifMatch("  ")).isNull();
+        assertThat(ConditionalRequests.ifMatch("*")).isNull();
+        assertThat(ConditionalRequests.ifMatch(" * ")).isNull();
+    }
+
+    @Test
+    void weakAndStrongETagsNameTheSameVersion() {
+        assertThat(ConditionalRequests.ifMatch("W/\"3\"")).isEqualTo(3L);
+        assertThat(ConditionalRequests.ifMatch("\"3\"")).isEqualTo(3L);
+        assertThat(ConditionalRequests.ifMatch(" W/\"0\" ")).isZero();
+        // The ETag sent with a document is read back as its version
+        assertThat(ConditionalRequests.ifMatch(ConditionalRequests.eTag(42L))).isEqualTo(42L);
+        assertThat(ConditionalRequests.ifMatch(ConditionalRequests.eTag(null))).isZero();
+    }
+
+    @Test
+    void listsOfETagsAreRejected() {
+        assertThatThrownBy(() -> ConditionalRequests.ifMatch("W/\"1\", W/\"2\"")).isInstanceOf(InvalidInputException.class);
+        assertThatThrownBy(() -> ConditionalRequests.ifMatch("\"1\",\"2\"")).isInstanceOf(InvalidInputException.class);
+        assertThatThrownBy(() -> ConditionalRequests.ifMatch("*, \"1\"")).isInstanceOf(InvalidInputException.class);
+    }
+
+    @Test
+    void malformedETagsAreRejected() {
+        assertThatThrownBy(() -> ConditionalRequests.ifMatch("3")).isInstanceOf(InvalidInputException.class);
+        assertThatThrownBy(() -> ConditionalRequests.ifMatch("W/3")).isInstanceOf(InvalidInputException.class);
+        assertThatThrownBy(() -> ConditionalRequests.ifMatch("\"3")).isInstanceOf(InvalidInputException.class);
+        assertThatThrownBy(() -> ConditionalRequests.ifMatch("\"")).isInstanceOf(InvalidInputException.class);
+        assertThatThrownBy(() -> ConditionalRequests.ifMatch("W/")).isInstanceOf(InvalidInputException.class);
+    }
+
+    @Test
+    void wellFormedETagsThatAreNotVersionsNeverMatch() {
+        assertThatThrownBy(() -> ConditionalRequests.ifMatch("\"abc\"")).isInstanceOf(PreconditionFailedException.class);
+        assertThatThrownBy(() -> ConditionalRequests.ifMatch("W/\"\"")).isInstanceOf(PreconditionFailedException.class);
+        assertThatThrownBy(() -> ConditionalRequests.ifMatch("\"99999999999999999999\"")).isInstanceOf(PreconditionFailedException.class);
+    }
+}
@@ -0,0 +1,175 @@
+package com.trentonrush.inventoryservice.controllers;
+
+import com.trentonrush.inventoryservice.repositories.inmemory.InMemoryRenditionJobRepository;
+import com.trentonrush.inventoryservice.services.FileSystemImageStore;
+import com.trentonrush.inventoryservice.services.ImageService;
+import com.trentonrush.inventoryservice.services.RenditionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Asserts image uploads and downloads against a store in a temporary directory, no Spring context or database is
+ * needed.
+ */
+class ImageControllerTests {
+
+    private static final int MAX_SIZE = 1024;
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+    @TempDir
+    Path directory;
+
+    private MockMvc mockMvc;
+    private ImageService imageService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        FileSystemImageStore imageStore = new FileSystemImageStore(directory);
+        RenditionService renditionService = new RenditionService(new InMemoryRenditionJobRepository(), imageStore, Duration.ofMinutes(5));
+        imageService = new ImageService(imageStore, renditionService, DataSize.ofBytes(MAX_SIZE));
+        mockMvc = MockMvcBuilders.standaloneSetup(new ImageController(imageService, renditionService)).build();
+    }
+
+    @Test
+    void imagesLargerThanTheLimitAreRejected() throws Exception {
+        mockMvc.perform(post("/v1/images").content(png(MAX_SIZE + 1)))
+                .andExpect(status().isPayloadTooLarge());
+        // The partial upload isn't left behind
+        try (Stream<Path> files = Files.walk(directory)) {
+            assertThat(files.filter(Files::isRegularFile)).isEmpty();
+        }
+
+        mockMvc.perform(post("/v1/images").content(png(MAX_SIZE)))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void contentThatIsNotAnImageIsRejected() throws Exception {
+        mockMvc.perform(post("/v1/images").content("<svg xmlns=\"http://www.w3.org/2000/svg\"/>"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void rangesAreWrittenWithSendfile() throws Exception {
+        byte[] png = png(200);
+        String image = store(png);
+
+        MvcResult whole = mockMvc.perform(get("/v1/images/" + image).requestAttr(SENDFILE_SUPPORT, true))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/png"))
+                .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, "200"))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andReturn();
+        assertSendfile(whole, 0, 200);
+
+        MvcResult range = mockMvc.perform(get("/v1/images/" + image).requestAttr(SENDFILE_SUPPORT, true)
+                        .header(HttpHeaders.RANGE, "bytes=10-19"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-19/200"))
+                .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, "10"))
+                .andReturn();
+        assertSendfile(range, 10, 20);
+
+        MvcResult suffix = mockMvc.perform(get("/v1/images/" + image).requestAttr(SENDFILE_SUPPORT, true)
+                        .header(HttpHeaders.RANGE, "bytes=-50"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 150-199/200"))
+                .andReturn();
+        assertSendfile(suffix, 150, 200);
+    }
+
+    @Test
+    void rangesSendfileCantWriteAreLeftToSpring() throws Exception {
+        byte[] png = png(200);
+        String image = store(png);
+
+        // Without sendfile support
+        mockMvc.perform(get("/v1/images/" + image).header(HttpHeaders.RANGE, "bytes=10-19"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-19/200"))
+                .andExpect(content().bytes(Arrays.copyOfRange(png, 10, 20)));
+
+        // More than one range, answered as multipart/byteranges
+        MvcResult ranges = mockMvc.perform(get("/v1/images/" + image).requestAttr(SENDFILE_SUPPORT, true)
+                        .header(HttpHeaders.RANGE, "bytes=0-9,20-29"))
+                .andExpect(status().isPartialContent())
+                .andReturn();
+        assertThat(ranges.getResponse().getContentType()).startsWith("multipart/byteranges");
+        assertThat(ranges.getRequest().getAttribute("org.apache.tomcat.sendfile.filename")).isNull();
+
+        // Starting past the end of the image
+        mockMvc.perform(get("/v1/images/" + image).requestAttr(SENDFILE_SUPPORT, true)
+                        .header(HttpHeaders.RANGE, "bytes=500-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable());
+    }
+
+    @Test
+    void imagesAreOnlyServedAsTheTypeTheyWereStoredAs() throws Exception {
+        String image = store(png(200));
+        String hash = image.substring(0, image.indexOf('.'));
+
+        mockMvc.perform(get("/v1/images/" + hash + ".jpg"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/v1/images/" + hash + ".svg"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v1/images/" + "0".repeat(64) + ".png"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void downloadsAreCachedAndRevalidatedByHash() throws Exception {
+        String image = store(png(200));
+        String hash = image.substring(0, image.indexOf('.'));
+
+        mockMvc.perform(get("/v1/images/" + image))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"));
+        mockMvc.perform(get("/v1/images/" + image).header(HttpHeaders.IF_NONE_MATCH, "\"" + hash + "\""))
+                .andExpect(status().isNotModified());
+    }
+
+    private String store(byte[] content) {
+        return imageService.storeImage(new ByteArrayInputStream(content)).getImage();
+    }
+
+    private void assertSendfile(MvcResult result, long start, long end) throws Exception {
+        assertThat((String) result.getRequest().getAttribute("org.apache.tomcat.sendfile.filename"))
+                .startsWith(directory.toRealPath().toString());
+        assertThat(result.getRequest().getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(start);
+        assertThat(result.getRequest().getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(end);
+        assertThat(result.getResponse().getContentAsByteArray()).isEmpty();
+    }
+
+    /**
+     * A PNG signature followed by distinct bytes, enough for the type to be detected
+     */
+    private static byte[] png(int size) {
+        byte[] png = new byte[size];
+        for (int i = 0; i < size; i++) {
+            png[i] = (byte) i;
+        }
+        byte[] signature = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A};
+        System.arraycopy(signature, 0, png, 0, signature.length);
+        return png;
+    }
+}
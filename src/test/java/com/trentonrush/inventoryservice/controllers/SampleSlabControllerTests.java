@@ -0,0 +1,99 @@
+package com.trentonrush.inventoryservice.controllers;
+
+import com.trentonrush.inventoryservice.models.SampleSlab;
+import com.trentonrush.inventoryservice.repositories.inmemory.InMemorySampleSlabRepository;
+import com.trentonrush.inventoryservice.repositories.inmemory.InMemorySlabRepository;
+import com.trentonrush.inventoryservice.services.AvailabilityCounters;
+import com.trentonrush.inventoryservice.services.InventoryMetrics;
+import com.trentonrush.inventoryservice.services.SampleSlabService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Asserts the sample quantity endpoints against the in-memory repositories, no Spring context or database is needed.
+ */
+class SampleSlabControllerTests {
+
+    private InMemorySampleSlabRepository sampleSlabRepository;
+    private AvailabilityCounters availabilityCounters;
+    private MockMvc mockMvc;
+    private String id;
+
+    @BeforeEach
+    void setUp() {
+        sampleSlabRepository = new InMemorySampleSlabRepository();
+        id = sampleSlabRepository.save(sample(2)).getId();
+        availabilityCounters = new AvailabilityCounters(new InMemorySlabRepository(), sampleSlabRepository);
+        availabilityCounters.reconcile();
+        SampleSlabService sampleSlabService = new SampleSlabService(sampleSlabRepository, availabilityCounters,
+                new InventoryMetrics(new SimpleMeterRegistry()), null);
+        mockMvc = MockMvcBuilders.standaloneSetup(new SampleSlabController(sampleSlabService)).build();
+    }
+
+    @Test
+    void quantityNeverDropsBelowZero() throws Exception {
+        // Removing more than is in stock is refused as a whole rather than taken down to zero
+        mockMvc.perform(patch("/v1/samples/" + id + "/quantity").param("delta", "-3"))
+                .andExpect(status().isConflict());
+        assertQuantity(2);
+
+        mockMvc.perform(patch("/v1/samples/" + id + "/quantity").param("delta", "-2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(0));
+        assertQuantity(0);
+        mockMvc.perform(get("/v1/samples/check").param("type", "quartz").param("color", "white"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("false"));
+
+        mockMvc.perform(patch("/v1/samples/" + id + "/decrement-quantity"))
+                .andExpect(status().isConflict());
+        assertQuantity(0);
+
+        mockMvc.perform(patch("/v1/samples/" + id + "/increment-quantity"))
+                .andExpect(status().isNoContent());
+        assertQuantity(1);
+    }
+
+    @Test
+    void invalidDeltasAreRejected() throws Exception {
+        mockMvc.perform(patch("/v1/samples/" + id + "/quantity").param("delta", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/v1/samples/" + id + "/quantity").param("delta", "one"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/v1/samples/" + id + "/quantity"))
+                .andExpect(status().isBadRequest());
+        assertQuantity(2);
+    }
+
+    @Test
+    void missingSamplesAreNotFound() throws Exception {
+        mockMvc.perform(patch("/v1/samples/" + new ObjectId().toHexString() + "/quantity").param("delta", "-1"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(patch("/v1/samples/" + new ObjectId().toHexString() + "/quantity").param("delta", "1"))
+                .andExpect(status().isNotFound());
+    }
+
+    private void assertQuantity(int quantity) {
+        assertThat(sampleSlabRepository.findById(id)).map(SampleSlab::getQuantity).contains(quantity);
+        assertThat(availabilityCounters.countSamples("quartz", "white")).isEqualTo(quantity);
+    }
+
+    private static SampleSlab sample(int quantity) {
+        SampleSlab sampleSlab = new SampleSlab();
+        sampleSlab.setType("quartz");
+        sampleSlab.setColor("white");
+        sampleSlab.setQuantity(quantity);
+        return sampleSlab;
+    }
+}
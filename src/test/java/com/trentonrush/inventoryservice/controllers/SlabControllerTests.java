@@ -0,0 +1,177 @@
+package com.trentonrush.inventoryservice.controllers;
+
+import com.jayway.jsonpath.JsonPath;
+import com.trentonrush.inventoryservice.models.Slab;
+import com.trentonrush.inventoryservice.models.enums.Status;
+import com.trentonrush.inventoryservice.repositories.inmemory.InMemoryRenditionJobRepository;
+import com.trentonrush.inventoryservice.repositories.inmemory.InMemorySampleSlabRepository;
+import com.trentonrush.inventoryservice.repositories.inmemory.InMemorySlabRepository;
+import com.trentonrush.inventoryservice.services.AvailabilityCounters;
+import com.trentonrush.inventoryservice.services.FileSystemImageStore;
+import com.trentonrush.inventoryservice.services.ImageService;
+import com.trentonrush.inventoryservice.services.InventoryMetrics;
+import com.trentonrush.inventoryservice.services.RemnantIndex;
+import com.trentonrush.inventoryservice.services.RenditionService;
+import com.trentonrush.inventoryservice.services.SlabService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Asserts the slab endpoints against the in-memory repositories, no Spring context or database is needed.
+ */
+class SlabControllerTests {
+
+    private static final String SLAB = """
+            {"image": "https://images.example.com/slabs/1.jpg", "color": "white", "type": "quartz",
+             "location": "yard", "supplier": "acme", "sqftPrice": "40.50",
+             "dimensions": {"length": {"feet": 10, "inches": 0, "centimeters": 0},
+                            "width": {"feet": 5, "inches": 0, "centimeters": 0},
+                            "thickness": {"feet": 0, "inches": 1.25, "centimeters": 0}}}""";
+
+    @TempDir
+    Path directory;
+
+    private VersionReadCountingRepository slabRepository;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        slabRepository = new VersionReadCountingRepository();
+        AvailabilityCounters availabilityCounters = new AvailabilityCounters(slabRepository, new InMemorySampleSlabRepository());
+        availabilityCounters.reconcile();
+        FileSystemImageStore imageStore = new FileSystemImageStore(directory);
+        RenditionService renditionService = new RenditionService(new InMemoryRenditionJobRepository(), imageStore, Duration.ofMinutes(5));
+        SlabService slabService = new SlabService(slabRepository, availabilityCounters, new RemnantIndex(slabRepository),
+                new InventoryMetrics(new SimpleMeterRegistry()), new ImageService(imageStore, renditionService, DataSize.ofMegabytes(1)));
+        mockMvc = MockMvcBuilders.standaloneSetup(new SlabController(slabService)).build();
+    }
+
+    @Test
+    void slabsCreatedInABatchCanBeUpdatedWithIfMatch() throws Exception {
+        String batch = mockMvc.perform(post("/v1/slabs/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"action\": \"create\", \"slab\": " + SLAB + "}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].success").value(true))
+                .andReturn().getResponse().getContentAsString();
+        String id = JsonPath.read(batch, "$[0].id");
+
+        String eTag = mockMvc.perform(get("/v1/slabs/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"0\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(put("/v1/slabs/" + id).header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"location\": \"rack\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"1\""))
+                .andExpect(jsonPath("$.location").value("rack"));
+
+        // The version the client read is now stale
+        mockMvc.perform(put("/v1/slabs/" + id).header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"location\": \"yard\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void reservingASlabChangesItsETag() throws Exception {
+        String created = mockMvc.perform(post("/v1/slabs").contentType(MediaType.APPLICATION_JSON).content(SLAB))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String id = JsonPath.read(created, "$.id");
+        String eTag = mockMvc.perform(get("/v1/slabs/" + id))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(patch("/v1/slabs/" + id + "/reserve"))
+                .andExpect(status().is2xxSuccessful());
+
+        // A client polling with the ETag it read before the reservation sees the new status
+        mockMvc.perform(get("/v1/slabs/" + id).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"1\""))
+                .andExpect(jsonPath("$.status").value("RESERVED"));
+        // and can't overwrite it with an update based on that read
+        mockMvc.perform(put("/v1/slabs/" + id).header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"location\": \"rack\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void slabsCreatedOneAtATimeCanBeUpdatedWithIfMatch() throws Exception {
+        String created = mockMvc.perform(post("/v1/slabs").contentType(MediaType.APPLICATION_JSON).content(SLAB))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String id = JsonPath.read(created, "$.id");
+
+        mockMvc.perform(put("/v1/slabs/" + id).header(HttpHeaders.IF_MATCH, "W/\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"location\": \"rack\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"1\""));
+    }
+
+    @Test
+    void slabsAreReadOnceWithoutConditionalHeaders() throws Exception {
+        String created = mockMvc.perform(post("/v1/slabs").contentType(MediaType.APPLICATION_JSON).content(SLAB))
+                .andReturn().getResponse().getContentAsString();
+        String id = JsonPath.read(created, "$.id");
+
+        mockMvc.perform(get("/v1/slabs/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"0\""))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+        assertThat(slabRepository.versionReads).isZero();
+    }
+
+    @Test
+    void validatorsAreThoseOfTheSlabReturned() throws Exception {
+        String created = mockMvc.perform(post("/v1/slabs").contentType(MediaType.APPLICATION_JSON).content(SLAB))
+                .andReturn().getResponse().getContentAsString();
+        String id = JsonPath.read(created, "$.id");
+        slabRepository.reserveAfterVersionRead = true;
+
+        // Reserved between the version read and the full read, the ETag must not be the one the version read saw
+        mockMvc.perform(get("/v1/slabs/" + id).header(HttpHeaders.IF_NONE_MATCH, "W/\"5\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"1\""))
+                .andExpect(jsonPath("$.status").value("RESERVED"));
+        assertThat(slabRepository.versionReads).isEqualTo(1);
+    }
+
+    /**
+     * Counts the reads of a slab's version, and can reserve the slab right after one as another request would
+     */
+    private static final class VersionReadCountingRepository extends InMemorySlabRepository {
+
+        private int versionReads;
+        private boolean reserveAfterVersionRead;
+
+        @Override
+        public Optional<Slab> findVersion(String id) {
+            versionReads++;
+            Optional<Slab> version = super.findVersion(id);
+            if (reserveAfterVersionRead) {
+                compareAndSetStatus(id, Status.AVAILABLE, Status.RESERVED);
+            }
+            return version;
+        }
+    }
+}
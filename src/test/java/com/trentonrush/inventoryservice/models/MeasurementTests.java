@@ -0,0 +1,42 @@
+package com.trentonrush.inventoryservice.models;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Asserts measurements convert between units and favor feet/inches over centimeters.
+ */
+class MeasurementTests {
+
+    @Test
+    void imperialOnlyConverts() {
+        Measurement measurement = new Measurement(10, 6, 0);
+        assertThat(measurement.getTotalInInches()).isEqualTo(126);
+        assertThat(measurement.getTotalInFeet()).isEqualTo(10.5);
+        assertThat(measurement.getTotalInCentimeters()).isCloseTo(320.04, within(1e-9));
+
+        assertThat(new Measurement(0, 1.25, 0).getTotalInInches()).isEqualTo(1.25);
+    }
+
+    @Test
+    void metricOnlyConverts() {
+        Measurement measurement = new Measurement(0, 0, 304.8);
+        assertThat(measurement.getTotalInInches()).isCloseTo(120, within(1e-9));
+        assertThat(measurement.getTotalInFeet()).isCloseTo(10, within(1e-9));
+        assertThat(measurement.getTotalInCentimeters()).isEqualTo(304.8);
+    }
+
+    @Test
+    void mixedInputFavorsFeetAndInches() {
+        Measurement feetAndCentimeters = new Measurement(10, 0, 50);
+        assertThat(feetAndCentimeters.getTotalInInches()).isEqualTo(120);
+        assertThat(feetAndCentimeters.getTotalInFeet()).isEqualTo(10);
+        assertThat(feetAndCentimeters.getTotalInCentimeters()).isCloseTo(304.8, within(1e-9));
+
+        Measurement inchesAndCentimeters = new Measurement(0, 30, 50);
+        assertThat(inchesAndCentimeters.getTotalInInches()).isEqualTo(30);
+        assertThat(inchesAndCentimeters.getTotalInCentimeters()).isCloseTo(76.2, within(1e-9));
+    }
+}
@@ -0,0 +1,63 @@
+package com.trentonrush.inventoryservice.models.enums;
+
+import com.trentonrush.inventoryservice.exceptions.InvalidInputException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Asserts image types are detected from their leading bytes alone.
+ */
+class ImageTypeTests {
+
+    @Test
+    void everyTypeIsDetected() {
+        assertThat(sniff(bytes(0xFF, 0xD8, 0xFF, 0xE0, 0, 0x10, 'J', 'F', 'I', 'F', 0, 1))).isEqualTo(ImageType.JPEG);
+        assertThat(sniff(bytes(0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0, 0, 0, 0x0D))).isEqualTo(ImageType.PNG);
+        assertThat(sniff("GIF89a".getBytes(StandardCharsets.US_ASCII))).isEqualTo(ImageType.GIF);
+        assertThat(sniff(bytes('R', 'I', 'F', 'F', 0x24, 0, 0, 0, 'W', 'E', 'B', 'P'))).isEqualTo(ImageType.WEBP);
+    }
+
+    @Test
+    void otherContentIsRejected() {
+        // A RIFF container that isn't WEBP, e.g. a WAV file
+        assertThatThrownBy(() -> sniff(bytes('R', 'I', 'F', 'F', 0x24, 0, 0, 0, 'W', 'A', 'V', 'E')))
+                .isInstanceOf(InvalidInputException.class);
+        assertThatThrownBy(() -> sniff("<svg xmlns=".getBytes(StandardCharsets.US_ASCII)))
+                .isInstanceOf(InvalidInputException.class);
+        assertThatThrownBy(() -> sniff(new byte[0])).isInstanceOf(InvalidInputException.class);
+    }
+
+    @Test
+    void truncatedContentIsRejected() {
+        // Only the first bytes of a PNG signature, or a RIFF header too short to name its format
+        assertThatThrownBy(() -> sniff(bytes(0x89, 'P', 'N', 'G'))).isInstanceOf(InvalidInputException.class);
+        assertThatThrownBy(() -> sniff(bytes('R', 'I', 'F', 'F', 0x24, 0, 0, 0, 'W', 'E')))
+                .isInstanceOf(InvalidInputException.class);
+    }
+
+    @Test
+    void referencesNameAHashAndAnExtension() {
+        String hash = "ab".repeat(32);
+        assertThat(ImageType.isReference(hash + ".png")).isTrue();
+        assertThat(ImageType.isReference(hash)).isFalse();
+        assertThat(ImageType.isReference("https://example.com/" + hash + ".png")).isFalse();
+        assertThat(ImageType.fromExtension("jpg")).isEqualTo(ImageType.JPEG);
+        assertThatThrownBy(() -> ImageType.fromExtension("svg")).isInstanceOf(InvalidInputException.class);
+    }
+
+    private static ImageType sniff(byte[] magic) {
+        return ImageType.sniff(magic, magic.length);
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+}
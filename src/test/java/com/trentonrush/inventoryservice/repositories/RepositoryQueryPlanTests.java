@@ -0,0 +1,243 @@
+package com.trentonrush.inventoryservice.repositories;
+
+import com.trentonrush.inventoryservice.configs.MongoIndexConfig;
+import com.trentonrush.inventoryservice.models.RenditionJob;
+import com.trentonrush.inventoryservice.models.SampleSlab;
+import com.trentonrush.inventoryservice.models.Slab;
+import com.trentonrush.inventoryservice.models.SlabPrice;
+import com.trentonrush.inventoryservice.models.dtos.RepricedPrice;
+import com.trentonrush.inventoryservice.models.dtos.SampleFilter;
+import com.trentonrush.inventoryservice.models.dtos.SlabFilter;
+import com.trentonrush.inventoryservice.models.enums.Status;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.repository.Repository;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Asserts every repository query is answered by an index scan.
+ * Each query method declared on a repository must have an entry here, so a new finder can't silently introduce a
+ * collection scan.
+ */
+@SpringBootTest
+class RepositoryQueryPlanTests {
+
+    private static final String ID = new ObjectId().toHexString();
+
+    // Queries that intentionally read the whole collection, the version backfill only runs at startup
+    private static final Set<String> FULL_SCANS = Set.of("streamAllBy", "countByTypeAndColorAndStatus", "sumQuantityByTypeAndColor",
+            "backfillVersions");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoIndexConfig mongoIndexConfig;
+
+    private QueryMapper queryMapper;
+
+    @BeforeEach
+    void setUp() {
+        mongoIndexConfig.ensureIndexes();
+        queryMapper = new QueryMapper(mongoTemplate.getConverter());
+    }
+
+    @Test
+    void slabQueriesUseIndexes() {
+        Map<String, List<Query>> plans = new LinkedHashMap<>();
+        plans.put("compareAndSetStatus", List.of(SlabRepositoryCustomImpl.statusQuery(ID, Status.AVAILABLE)));
+        plans.put("findSummariesByIds", List.of(Query.query(Criteria.where("id").in(ID, new ObjectId().toHexString()))));
+        plans.put("findDimensionsByIds", List.of(Query.query(Criteria.where("id").in(ID, new ObjectId().toHexString()))));
+        plans.put("findDimensions", List.of(
+                SlabRepositoryCustomImpl.dimensionsQuery(slabFilter("quartz", null, null), 501),
+                SlabRepositoryCustomImpl.dimensionsQuery(slabFilter(null, "white", "available"), 501),
+                SlabRepositoryCustomImpl.dimensionsQuery(slabFilter("quartz", "white", "available"), 501)));
+        plans.put("bulkWrite", List.of(Query.query(Criteria.where("id").is(ID))));
+        plans.put("exists", List.of(
+                SlabRepositoryCustomImpl.existsQuery(slabFilter("quartz", null, "available")),
+                SlabRepositoryCustomImpl.existsQuery(slabFilter(null, "white", "available")),
+                SlabRepositoryCustomImpl.existsQuery(slabFilter("quartz", "white", "available"))));
+        plans.put("findPage", List.of(
+                SlabRepositoryCustomImpl.pageQuery(slabFilter(null, null, null), null, 100),
+                SlabRepositoryCustomImpl.pageQuery(slabFilter(null, null, null), ID, 100),
+                SlabRepositoryCustomImpl.pageQuery(slabFilter("quartz", null, null), ID, 100),
+                SlabRepositoryCustomImpl.pageQuery(slabFilter(null, "white", null), null, 100),
+                SlabRepositoryCustomImpl.pageQuery(slabFilter(null, null, "available"), null, 100),
+                SlabRepositoryCustomImpl.pageQuery(slabFilter("quartz", "white", null), null, 100),
+                SlabRepositoryCustomImpl.pageQuery(slabFilter("quartz", null, "available"), null, 100),
+                SlabRepositoryCustomImpl.pageQuery(slabFilter(null, "white", "available"), null, 100),
+                SlabRepositoryCustomImpl.pageQuery(slabFilter("quartz", "white", "available"), ID, 100),
+                SlabRepositoryCustomImpl.pageQuery(supplierFilter(), null, 100),
+                SlabRepositoryCustomImpl.pageQuery(locationFilter(), null, 100),
+                SlabRepositoryCustomImpl.pageQuery(sizeFilter(110.0, 60.0, null, null), null, 100),
+                SlabRepositoryCustomImpl.pageQuery(sizeFilter(null, null, 1.0, null), ID, 100),
+                SlabRepositoryCustomImpl.pageQuery(sizeFilter(null, null, null, 6600.0), null, 100)));
+        plans.put("findAvailableRemnants", List.of(SlabRepositoryCustomImpl.remnantsQuery()));
+        plans.put("backfillSizes", List.of(
+                SlabRepositoryCustomImpl.missingSizeQuery(null, 500),
+                SlabRepositoryCustomImpl.missingSizeQuery(ID, 500)));
+        plans.put("backfillImages", List.of(
+                InventoryQuery.inlineImages(null, 500),
+                InventoryQuery.inlineImages(ID, 500)));
+        plans.put("findVersion", List.of(InventoryQuery.version(ID)));
+        plans.put("findAndUpdate", List.of(InventoryQuery.atVersion(ID, 3L), InventoryQuery.atVersion(ID, null)));
+        plans.put("findAndRemove", List.of(InventoryQuery.atVersion(ID, 3L), InventoryQuery.atVersion(ID, null)));
+        plans.put("findWatermark", List.of(InventoryQuery.newestModification()));
+
+        assertAllQueriesCovered(SlabRepository.class, plans);
+        plans.values().forEach(queries -> queries.forEach(query -> assertIndexScan(query, Slab.class)));
+    }
+
+    @Test
+    void sampleSlabQueriesUseIndexes() {
+        Map<String, List<Query>> plans = new LinkedHashMap<>();
+        plans.put("adjustQuantity", List.of(
+                SampleSlabRepositoryCustomImpl.quantityQuery(ID, 1),
+                SampleSlabRepositoryCustomImpl.quantityQuery(ID, -1)));
+        plans.put("exists", List.of(
+                SampleSlabRepositoryCustomImpl.existsQuery(new SampleFilter("quartz", "white", false)),
+                SampleSlabRepositoryCustomImpl.existsQuery(new SampleFilter("quartz", null, true)),
+                SampleSlabRepositoryCustomImpl.existsQuery(new SampleFilter(null, "white", true)),
+                SampleSlabRepositoryCustomImpl.existsQuery(new SampleFilter("quartz", "white", true))));
+        plans.put("findPage", List.of(
+                SampleSlabRepositoryCustomImpl.pageQuery(new SampleFilter(null, null, false), null, 100),
+                SampleSlabRepositoryCustomImpl.pageQuery(new SampleFilter(null, null, false), ID, 100),
+                SampleSlabRepositoryCustomImpl.pageQuery(new SampleFilter(null, null, true), null, 100),
+                SampleSlabRepositoryCustomImpl.pageQuery(new SampleFilter("quartz", null, false), null, 100),
+                SampleSlabRepositoryCustomImpl.pageQuery(new SampleFilter(null, "white", true), null, 100),
+                SampleSlabRepositoryCustomImpl.pageQuery(new SampleFilter("quartz", "white", true), ID, 100)));
+        plans.put("findVersion", List.of(InventoryQuery.version(ID)));
+        plans.put("findAndUpdate", List.of(InventoryQuery.atVersion(ID, 3L), InventoryQuery.atVersion(ID, null)));
+        plans.put("findAndRemove", List.of(InventoryQuery.atVersion(ID, 3L), InventoryQuery.atVersion(ID, null)));
+        plans.put("findWatermark", List.of(InventoryQuery.newestModification()));
+        plans.put("backfillImages", List.of(
+                InventoryQuery.inlineImages(null, 500),
+                InventoryQuery.inlineImages(ID, 500)));
+
+        assertAllQueriesCovered(SampleSlabRepository.class, plans);
+        plans.values().forEach(queries -> queries.forEach(query -> assertIndexScan(query, SampleSlab.class)));
+    }
+
+    @Test
+    void slabPriceQueriesUseIndexes() {
+        Map<String, List<Query>> plans = new LinkedHashMap<>();
+        plans.put("findByTypeAndColor", List.of(query(Criteria.where("type").is("quartz").and("color").is("white"))));
+        plans.put("findAllByFilter", List.of(
+                SlabPriceRepositoryCustomImpl.filterQuery("quartz", null),
+                SlabPriceRepositoryCustomImpl.filterQuery(null, "white"),
+                SlabPriceRepositoryCustomImpl.filterQuery("quartz", "white")));
+        plans.put("findAllForSlabs", List.of(SlabPriceRepositoryCustomImpl.slabsQuery(List.of(
+                slab("quartz", "white"), slab("quartz", "black"), slab("granite", "white")))));
+        plans.put("bulkUpdateAmounts", List.of(SlabPriceRepositoryCustomImpl.amountQuery(
+                new RepricedPrice(ID, "quartz", "white", BigDecimal.TEN, BigDecimal.ONE, Currency.getInstance("USD")))));
+        plans.put("findVersion", List.of(InventoryQuery.version(ID)));
+        plans.put("findAndUpdate", List.of(InventoryQuery.atVersion(ID, 3L), InventoryQuery.atVersion(ID, null)));
+        plans.put("findAndRemove", List.of(InventoryQuery.atVersion(ID, 3L), InventoryQuery.atVersion(ID, null)));
+
+        assertAllQueriesCovered(SlabPriceRepository.class, plans);
+        plans.values().forEach(queries -> queries.forEach(query -> assertIndexScan(query, SlabPrice.class)));
+    }
+
+    @Test
+    void renditionJobQueriesUseIndexes() {
+        Map<String, List<Query>> plans = new LinkedHashMap<>();
+        plans.put("enqueue", List.of(RenditionJobRepositoryCustomImpl.idQuery(ID)));
+        plans.put("claimNext", List.of(RenditionJobRepositoryCustomImpl.claimQuery(Instant.now()),
+                RenditionJobRepositoryCustomImpl.exhaustedQuery(Instant.now())));
+        plans.put("complete", List.of(RenditionJobRepositoryCustomImpl.idQuery(ID)));
+        plans.put("fail", List.of(RenditionJobRepositoryCustomImpl.idQuery(ID)));
+
+        assertAllQueriesCovered(RenditionJobRepository.class, plans);
+        plans.values().forEach(queries -> queries.forEach(query -> assertIndexScan(query, RenditionJob.class)));
+    }
+
+    private static Query query(Criteria criteria) {
+        return Query.query(criteria).limit(1);
+    }
+
+    private static SlabFilter slabFilter(String type, String color, String status) {
+        return new SlabFilter(type, color, status);
+    }
+
+    private static Slab slab(String type, String color) {
+        Slab slab = new Slab();
+        slab.setType(type);
+        slab.setColor(color);
+        return slab;
+    }
+
+    private static SlabFilter supplierFilter() {
+        SlabFilter filter = new SlabFilter();
+        filter.setSupplier("msi");
+        return filter;
+    }
+
+    private static SlabFilter sizeFilter(Double minLength, Double minWidth, Double minThickness, Double minArea) {
+        SlabFilter filter = new SlabFilter();
+        filter.setMinLengthInches(minLength);
+        filter.setMinWidthInches(minWidth);
+        filter.setMinThicknessInches(minThickness);
+        filter.setMinAreaSqInches(minArea);
+        return filter;
+    }
+
+    private static SlabFilter locationFilter() {
+        SlabFilter filter = new SlabFilter();
+        filter.setLocation("yard-a");
+        return filter;
+    }
+
+    /**
+     * Every query method declared on the repository (or its custom fragments) must have a plan to check
+     */
+    private static void assertAllQueriesCovered(Class<? extends Repository<?, ?>> repository, Map<String, List<Query>> plans) {
+        Set<String> declared = Arrays.stream(repository.getMethods())
+                .filter(method -> method.getDeclaringClass().getPackage().equals(repository.getPackage()))
+                .map(Method::getName)
+                .filter(name -> !FULL_SCANS.contains(name))
+                .collect(Collectors.toSet());
+
+        assertThat(plans.keySet())
+                .as("query plans checked for %s", repository.getSimpleName())
+                .containsExactlyInAnyOrderElementsOf(declared);
+    }
+
+    private void assertIndexScan(Query query, Class<?> document) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(document);
+        Document filter = queryMapper.getMappedObject(query.getQueryObject(), entity);
+        Document sort = queryMapper.getMappedSort(query.getSortObject(), entity);
+
+        Document explain = mongoTemplate.getCollection(mongoTemplate.getCollectionName(document))
+                .find(filter)
+                .sort(sort)
+                .limit(query.getLimit())
+                .explain();
+        String winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class).toJson();
+
+        assertThat(winningPlan)
+                .as("winning plan for %s on %s", filter.toJson(), document.getSimpleName())
+                .doesNotContain("COLLSCAN")
+                .containsAnyOf("IXSCAN", "IDHACK");
+    }
+}
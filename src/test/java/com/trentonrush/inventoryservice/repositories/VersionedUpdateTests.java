@@ -0,0 +1,75 @@
+package com.trentonrush.inventoryservice.repositories;
+
+import com.trentonrush.inventoryservice.models.SampleSlab;
+import com.trentonrush.inventoryservice.models.Slab;
+import com.trentonrush.inventoryservice.models.enums.Status;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Asserts the status and quantity updates written to Mongo bump the version, which the ETag of a slab or sample is
+ * built from. The updates are captured from a mocked template, no database is needed.
+ */
+class VersionedUpdateTests {
+
+    private static final String ID = new ObjectId().toHexString();
+
+    @Test
+    void statusChangesBumpTheVersion() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        new SlabRepositoryCustomImpl(mongoTemplate).compareAndSetStatus(ID, Status.AVAILABLE, Status.RESERVED);
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class), eq(Slab.class));
+        assertBumpsVersion(update.getValue());
+    }
+
+    @Test
+    void quantityChangesBumpTheVersion() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        new SampleSlabRepositoryCustomImpl(mongoTemplate).adjustQuantity(ID, -1);
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class), eq(SampleSlab.class));
+        assertBumpsVersion(update.getValue());
+    }
+
+    @Test
+    void reactiveStatusAndQuantityChangesBumpTheVersion() {
+        ReactiveMongoTemplate reactiveMongoTemplate = mock(ReactiveMongoTemplate.class);
+        when(reactiveMongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Slab.class)))
+                .thenReturn(Mono.empty());
+        when(reactiveMongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(SampleSlab.class)))
+                .thenReturn(Mono.empty());
+        new ReactiveSlabRepositoryCustomImpl(reactiveMongoTemplate).compareAndSetStatus(ID, Status.RESERVED, Status.AVAILABLE);
+        new ReactiveSampleSlabRepositoryCustomImpl(reactiveMongoTemplate).adjustQuantity(ID, 1);
+
+        ArgumentCaptor<Update> slabUpdate = ArgumentCaptor.forClass(Update.class);
+        verify(reactiveMongoTemplate).findAndModify(any(Query.class), slabUpdate.capture(), any(FindAndModifyOptions.class), eq(Slab.class));
+        assertBumpsVersion(slabUpdate.getValue());
+        ArgumentCaptor<Update> sampleUpdate = ArgumentCaptor.forClass(Update.class);
+        verify(reactiveMongoTemplate).findAndModify(any(Query.class), sampleUpdate.capture(), any(FindAndModifyOptions.class), eq(SampleSlab.class));
+        assertBumpsVersion(sampleUpdate.getValue());
+    }
+
+    private static void assertBumpsVersion(Update update) {
+        Document increments = update.getUpdateObject().get("$inc", Document.class);
+        assertThat(increments).containsEntry("version", 1);
+        assertThat(update.getUpdateObject().get("$set", Document.class)).containsKey("modificationDate");
+    }
+}
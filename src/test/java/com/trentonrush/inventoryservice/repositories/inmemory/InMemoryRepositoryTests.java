@@ -0,0 +1,175 @@
+package com.trentonrush.inventoryservice.repositories.inmemory;
+
+import com.trentonrush.inventoryservice.models.Dimensions;
+import com.trentonrush.inventoryservice.models.Measurement;
+import com.trentonrush.inventoryservice.models.RenditionJob;
+import com.trentonrush.inventoryservice.models.SampleSlab;
+import com.trentonrush.inventoryservice.models.Slab;
+import com.trentonrush.inventoryservice.models.SlabPrice;
+import com.trentonrush.inventoryservice.models.dtos.RepricedPrice;
+import com.trentonrush.inventoryservice.models.dtos.SampleFilter;
+import com.trentonrush.inventoryservice.models.dtos.SlabDTO;
+import com.trentonrush.inventoryservice.models.dtos.SlabFilter;
+import com.trentonrush.inventoryservice.models.enums.RenditionStatus;
+import com.trentonrush.inventoryservice.models.enums.Status;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Currency;
+import java.util.List;
+
+import static com.trentonrush.inventoryservice.utils.InventoryConstants.MAX_RENDITION_ATTEMPTS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Asserts the in-memory repositories keep the semantics of the Mongo ones the services rely on.
+ * No Spring context or database is needed.
+ */
+class InMemoryRepositoryTests {
+
+    private static final Currency USD = Currency.getInstance("USD");
+
+    @Test
+    void slabPagesFollowIdOrderAndIndexes() {
+        InMemorySlabRepository repository = new InMemorySlabRepository();
+        for (int i = 0; i < 10; i++) {
+            repository.save(slab(i % 2 == 0 ? "white" : "black", 60 + i));
+        }
+
+        SlabFilter white = new SlabFilter(null, "white", "available");
+        List<Slab> first = repository.findPage(white, null, 3);
+        List<Slab> second = repository.findPage(white, first.get(2).getId(), 3);
+        assertThat(first).hasSize(3);
+        assertThat(second).hasSize(2);
+        assertThat(first.get(2).getId()).isLessThan(second.get(0).getId());
+
+        SlabFilter wide = new SlabFilter();
+        wide.setMinWidthInches(64.0);
+        assertThat(repository.findPage(wide, null, 100)).hasSize(6);
+        assertThat(repository.exists(new SlabFilter("granite", null, null))).isFalse();
+    }
+
+    @Test
+    void slabsAreCopiedOnReadAndWrite() {
+        InMemorySlabRepository repository = new InMemorySlabRepository();
+        Slab slab = repository.save(slab("white", 60));
+        assertThat(slab.getId()).isNotNull();
+
+        slab.setColor("black");
+        repository.findById(slab.getId()).orElseThrow().setLocation("elsewhere");
+
+        Slab stored = repository.findById(slab.getId()).orElseThrow();
+        assertThat(stored.getColor()).isEqualTo("white");
+        assertThat(stored.getLocation()).isEqualTo("yard");
+    }
+
+    @Test
+    void compareAndSetStatusOnlyMatchesExpectedStatus() {
+        InMemorySlabRepository repository = new InMemorySlabRepository();
+        String id = repository.save(slab("white", 60)).getId();
+
+        assertThat(repository.compareAndSetStatus(id, Status.AVAILABLE, Status.RESERVED)).isPresent();
+        assertThat(repository.compareAndSetStatus(id, Status.AVAILABLE, Status.RESERVED)).isEmpty();
+        assertThat(repository.exists(new SlabFilter(null, null, "available"))).isFalse();
+        assertThat(repository.exists(new SlabFilter(null, "white", "reserved"))).isTrue();
+
+        repository.deleteById(id);
+        assertThat(repository.exists(new SlabFilter(null, null, "reserved"))).isFalse();
+        assertThat(repository.countByTypeAndColorAndStatus()).isEmpty();
+    }
+
+    @Test
+    void writesGuardOnVersion() {
+        InMemorySlabRepository repository = new InMemorySlabRepository();
+        Slab slab = repository.save(slab("white", 60));
+        assertThat(slab.getVersion()).isZero();
+
+        SlabDTO changes = new SlabDTO();
+        changes.setImage("https://example.com/white.jpg");
+        assertThat(repository.findAndUpdate(slab.getId(), 1L, changes, Instant.now())).isEmpty();
+        assertThat(repository.findAndUpdate(slab.getId(), 0L, changes, Instant.now())).map(Slab::getVersion).contains(0L);
+        assertThat(repository.findVersion(slab.getId())).map(Slab::getVersion).contains(1L);
+        assertThatThrownBy(() -> repository.save(slab)).isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(repository.findAndRemove(slab.getId(), 0L)).isEmpty();
+        assertThat(repository.findAndRemove(slab.getId(), 1L)).map(Slab::getImage).contains("https://example.com/white.jpg");
+        assertThat(repository.existsById(slab.getId())).isFalse();
+    }
+
+    @Test
+    void adjustQuantityKeepsFloorGuard() {
+        InMemorySampleSlabRepository repository = new InMemorySampleSlabRepository();
+        SampleSlab sampleSlab = new SampleSlab();
+        sampleSlab.setType("quartz");
+        sampleSlab.setColor("white");
+        sampleSlab.setQuantity(1);
+        String id = repository.save(sampleSlab).getId();
+
+        assertThat(repository.adjustQuantity(id, -2)).isEmpty();
+        assertThat(repository.adjustQuantity(id, -1)).map(SampleSlab::getQuantity).contains(0);
+        assertThat(repository.exists(new SampleFilter("quartz", "white", true))).isFalse();
+        assertThat(repository.exists(new SampleFilter("quartz", "white", false))).isTrue();
+    }
+
+    @Test
+    void pricesAreUniqueByTypeAndColor() {
+        InMemorySlabPriceRepository repository = new InMemorySlabPriceRepository();
+        SlabPrice price = repository.save(price("quartz", "white", "12.50"));
+
+        assertThatThrownBy(() -> repository.save(price("quartz", "white", "10.00")))
+                .isInstanceOf(DuplicateKeyException.class);
+
+        price.setType("granite");
+        repository.save(price);
+        assertThat(repository.findByTypeAndColor("quartz", "white")).isEmpty();
+        assertThat(repository.findByTypeAndColor("granite", "white")).isPresent();
+        assertThat(repository.findAllByFilter("quartz", null)).isEmpty();
+    }
+
+    @Test
+    void bulkUpdateAmountsGuardsOnOldAmount() {
+        InMemorySlabPriceRepository repository = new InMemorySlabPriceRepository();
+        String id = repository.save(price("quartz", "white", "12.50")).getId();
+
+        RepricedPrice fresh = new RepricedPrice(id, "quartz", "white", new BigDecimal("12.50"), new BigDecimal("13.75"), USD);
+        RepricedPrice stale = new RepricedPrice(id, "quartz", "white", new BigDecimal("12.50"), new BigDecimal("14.00"), USD);
+        assertThat(repository.bulkUpdateAmounts(List.of(fresh))).isEqualTo(1);
+        assertThat(repository.bulkUpdateAmounts(List.of(stale))).isZero();
+        assertThat(repository.findById(id).orElseThrow().getAmountPerSqFt()).isEqualByComparingTo("13.75");
+    }
+
+    @Test
+    void renditionJobsOutOfAttemptsAreFailedInsteadOfClaimed() {
+        InMemoryRenditionJobRepository repository = new InMemoryRenditionJobRepository();
+        repository.enqueue("ab".repeat(32), "ab".repeat(32) + ".png");
+
+        // Every lease expires at once, as if each worker died without failing the job
+        for (int attempt = 1; attempt <= MAX_RENDITION_ATTEMPTS; attempt++) {
+            assertThat(repository.claimNext(Duration.ZERO)).map(RenditionJob::getAttempts).contains(attempt);
+        }
+        assertThat(repository.claimNext(Duration.ZERO)).isEmpty();
+        assertThat(repository.findById("ab".repeat(32))).map(RenditionJob::getStatus).contains(RenditionStatus.FAILED);
+    }
+
+    private static Slab slab(String color, int widthInches) {
+        Slab slab = new Slab();
+        slab.setType("quartz");
+        slab.setColor(color);
+        slab.setLocation("yard");
+        slab.setStatus(Status.AVAILABLE);
+        slab.setDimensions(new Dimensions(new Measurement(10, 0, 0), new Measurement(0, 1.25, 0), new Measurement(0, widthInches, 0)));
+        return slab;
+    }
+
+    private static SlabPrice price(String type, String color, String amount) {
+        SlabPrice price = new SlabPrice(new BigDecimal(amount), USD);
+        price.setType(type);
+        price.setColor(color);
+        return price;
+    }
+}
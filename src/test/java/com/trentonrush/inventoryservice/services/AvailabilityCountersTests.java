@@ -0,0 +1,91 @@
+package com.trentonrush.inventoryservice.services;
+
+import com.trentonrush.inventoryservice.models.Slab;
+import com.trentonrush.inventoryservice.models.dtos.InventoryCount;
+import com.trentonrush.inventoryservice.models.enums.Status;
+import com.trentonrush.inventoryservice.repositories.inmemory.InMemorySampleSlabRepository;
+import com.trentonrush.inventoryservice.repositories.inmemory.InMemorySlabRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Asserts the availability counters keep writes made while they are rebuilt, no Spring context or database is needed.
+ */
+class AvailabilityCountersTests {
+
+    @Test
+    void writesDuringReconcileAreKept() {
+        AvailabilityCounters[] counters = new AvailabilityCounters[1];
+        boolean[] reserved = new boolean[1];
+        InMemorySlabRepository slabRepository = new InMemorySlabRepository() {
+            @Override
+            public List<InventoryCount> countByTypeAndColorAndStatus() {
+                List<InventoryCount> counts = super.countByTypeAndColorAndStatus();
+                // A slab is reserved after the database was read but before the rebuilt counters are swapped in
+                if (!reserved[0]) {
+                    reserved[0] = true;
+                    reserve(this, counters[0]);
+                }
+                return counts;
+            }
+        };
+        counters[0] = new AvailabilityCounters(slabRepository, new InMemorySampleSlabRepository());
+        slabRepository.save(slab());
+        slabRepository.save(slab());
+
+        counters[0].reconcile();
+        assertThat(counters[0].countSlabs("quartz", "white", Status.AVAILABLE)).isEqualTo(1);
+        assertThat(counters[0].countSlabs(null, "white", Status.RESERVED)).isEqualTo(1);
+
+        // Swapping in the rebuilt counters doesn't apply the write a second time
+        counters[0].reconcile();
+        assertThat(counters[0].countSlabs("quartz", null, Status.AVAILABLE)).isEqualTo(1);
+        assertThat(counters[0].countSlabs("quartz", "white", Status.RESERVED)).isEqualTo(1);
+    }
+
+    @Test
+    void writesAlreadyReadByReconcileAreNotCountedTwice() {
+        AvailabilityCounters[] counters = new AvailabilityCounters[1];
+        boolean[] rebuilding = new boolean[1];
+        InMemorySlabRepository slabRepository = new InMemorySlabRepository() {
+            @Override
+            public List<InventoryCount> countByTypeAndColorAndStatus() {
+                // A slab is reserved while the rebuild runs, before the database is read
+                if (rebuilding[0]) {
+                    reserve(this, counters[0]);
+                }
+                return super.countByTypeAndColorAndStatus();
+            }
+        };
+        counters[0] = new AvailabilityCounters(slabRepository, new InMemorySampleSlabRepository());
+        slabRepository.save(slab());
+        slabRepository.save(slab());
+        counters[0].reconcile();
+
+        rebuilding[0] = true;
+        counters[0].reconcile();
+        assertThat(counters[0].countSlabs("quartz", "white", Status.AVAILABLE)).isEqualTo(1);
+        assertThat(counters[0].countSlabs(null, null, Status.RESERVED)).isEqualTo(1);
+    }
+
+    private static void reserve(InMemorySlabRepository slabRepository, AvailabilityCounters counters) {
+        Slab slab = slabRepository.findAll().stream()
+                .filter(available -> available.getStatus() == Status.AVAILABLE)
+                .findFirst()
+                .orElseThrow();
+        slabRepository.compareAndSetStatus(slab.getId(), Status.AVAILABLE, Status.RESERVED);
+        counters.recordSlab("quartz", "white", Status.AVAILABLE, -1);
+        counters.recordSlab("quartz", "white", Status.RESERVED, 1);
+    }
+
+    private static Slab slab() {
+        Slab slab = new Slab();
+        slab.setType("quartz");
+        slab.setColor("white");
+        slab.setStatus(Status.AVAILABLE);
+        return slab;
+    }
+}
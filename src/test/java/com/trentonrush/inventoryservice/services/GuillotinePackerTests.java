@@ -0,0 +1,158 @@
+package com.trentonrush.inventoryservice.services;
+
+import com.trentonrush.inventoryservice.models.dtos.LayoutPiece;
+import com.trentonrush.inventoryservice.models.dtos.PiecePlacement;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Asserts every packing heuristic produces layouts that can actually be cut.
+ */
+class GuillotinePackerTests {
+
+    private static final double EPSILON = 1e-6;
+    private static final long NO_DEADLINE = Long.MAX_VALUE / 2;
+
+    @Test
+    void piecesStayOnTheSlabAndDontOverlap() {
+        List<LayoutPiece> pieces = randomPieces(40);
+        List<GuillotinePacker.Stock> stock = List.of(stock("a", 126, 63), stock("b", 120, 55), stock("c", 80, 40), stock("d", 126, 63));
+
+        for (GuillotinePacker.Heuristic heuristic : GuillotinePacker.Heuristic.all()) {
+            GuillotinePacker.Packing packing = GuillotinePacker.pack(pieces, stock, heuristic, System.nanoTime() + NO_DEADLINE);
+            int placed = 0;
+            for (GuillotinePacker.Bin bin : packing.bins()) {
+                List<PiecePlacement> placements = bin.placements();
+                for (PiecePlacement placement : placements) {
+                    assertThat(placement.getX()).as(heuristic.name()).isGreaterThanOrEqualTo(0.0);
+                    assertThat(placement.getY()).as(heuristic.name()).isGreaterThanOrEqualTo(0.0);
+                    assertThat(placement.getX() + placement.getLengthInches()).as(heuristic.name()).isLessThanOrEqualTo(bin.lengthInches() + EPSILON);
+                    assertThat(placement.getY() + placement.getWidthInches()).as(heuristic.name()).isLessThanOrEqualTo(bin.widthInches() + EPSILON);
+                }
+                for (int i = 0; i < placements.size(); i++) {
+                    for (int j = i + 1; j < placements.size(); j++) {
+                        assertThat(overlap(placements.get(i), placements.get(j))).as(heuristic.name()).isFalse();
+                    }
+                }
+                placed += placements.size();
+            }
+            assertThat(placed + packing.unplaced().size()).as(heuristic.name()).isEqualTo(pieces.size());
+        }
+    }
+
+    @Test
+    void everyLayoutCanBeCutEdgeToEdge() {
+        List<LayoutPiece> pieces = randomPieces(40);
+        List<GuillotinePacker.Stock> stock = List.of(stock("a", 126, 63), stock("b", 126, 63), stock("c", 126, 63));
+
+        for (GuillotinePacker.Heuristic heuristic : GuillotinePacker.Heuristic.all()) {
+            GuillotinePacker.Packing packing = GuillotinePacker.pack(pieces, stock, heuristic, System.nanoTime() + NO_DEADLINE);
+            for (GuillotinePacker.Bin bin : packing.bins()) {
+                assertThat(guillotine(bin.placements(), 0.0, 0.0, bin.lengthInches(), bin.widthInches()))
+                        .as(heuristic.name())
+                        .isTrue();
+            }
+        }
+    }
+
+    @Test
+    void piecesAreRotatedWhenTheyOnlyFitRotated() {
+        // Longer than the slab is wide, it only fits along the slab's length
+        List<LayoutPiece> pieces = List.of(new LayoutPiece("island", 30, 100));
+        List<GuillotinePacker.Stock> stock = List.of(stock("a", 120, 40));
+
+        for (GuillotinePacker.Heuristic heuristic : GuillotinePacker.Heuristic.all()) {
+            GuillotinePacker.Packing packing = GuillotinePacker.pack(pieces, stock, heuristic, System.nanoTime() + NO_DEADLINE);
+            assertThat(packing.unplaced()).as(heuristic.name()).isEmpty();
+            PiecePlacement placement = packing.bins().get(0).placements().get(0);
+            assertThat(placement.isRotated()).as(heuristic.name()).isTrue();
+            assertThat(placement.getLengthInches()).isEqualTo(100);
+            assertThat(placement.getWidthInches()).isEqualTo(30);
+        }
+    }
+
+    @Test
+    void packingsAreRankedByUnplacedThenSlabsThenWaste() {
+        GuillotinePacker.Heuristic heuristic = GuillotinePacker.Heuristic.all().get(0);
+        long deadline = System.nanoTime() + NO_DEADLINE;
+        List<LayoutPiece> pieces = List.of(new LayoutPiece("a", 50, 30), new LayoutPiece("b", 50, 30));
+
+        // Both pieces on one tight slab, on one loose slab, on two slabs, and one piece left over
+        GuillotinePacker.Packing tight = GuillotinePacker.pack(pieces, List.of(stock("tight", 100, 30)), heuristic, deadline);
+        GuillotinePacker.Packing loose = GuillotinePacker.pack(pieces, List.of(stock("loose", 120, 40)), heuristic, deadline);
+        GuillotinePacker.Packing twoSlabs = GuillotinePacker.pack(pieces, List.of(stock("x", 60, 30), stock("y", 60, 30)), heuristic, deadline);
+        GuillotinePacker.Packing unplaced = GuillotinePacker.pack(pieces, List.of(stock("small", 60, 30)), heuristic, deadline);
+        assertThat(tight.bins()).hasSize(1);
+        assertThat(loose.bins()).hasSize(1);
+        assertThat(twoSlabs.bins()).hasSize(2);
+        assertThat(twoSlabs.waste()).isLessThan(loose.waste());
+        assertThat(unplaced.unplaced()).hasSize(1);
+        assertThat(unplaced.waste()).isLessThan(loose.waste());
+
+        List<GuillotinePacker.Packing> ranked = Stream.of(unplaced, twoSlabs, loose, tight)
+                .sorted(GuillotinePacker.Packing.BEST_FIRST)
+                .toList();
+        assertThat(ranked).containsExactly(tight, loose, twoSlabs, unplaced);
+    }
+
+    @Test
+    void packingIsAbandonedOnceTheDeadlinePasses() {
+        List<LayoutPiece> pieces = randomPieces(10);
+        List<GuillotinePacker.Stock> stock = List.of(stock("a", 126, 63));
+
+        assertThat(GuillotinePacker.pack(pieces, stock, GuillotinePacker.Heuristic.all().get(0), System.nanoTime() - 1)).isNull();
+    }
+
+    private static GuillotinePacker.Stock stock(String id, double lengthInches, double widthInches) {
+        return new GuillotinePacker.Stock(id, lengthInches, widthInches);
+    }
+
+    private static List<LayoutPiece> randomPieces(int count) {
+        Random random = new Random(42);
+        List<LayoutPiece> pieces = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            pieces.add(new LayoutPiece("piece-" + i, 10 + random.nextInt(60), 8 + random.nextInt(30)));
+        }
+        return pieces;
+    }
+
+    private static boolean overlap(PiecePlacement a, PiecePlacement b) {
+        return a.getX() + a.getLengthInches() > b.getX() + EPSILON && b.getX() + b.getLengthInches() > a.getX() + EPSILON
+                && a.getY() + a.getWidthInches() > b.getY() + EPSILON && b.getY() + b.getWidthInches() > a.getY() + EPSILON;
+    }
+
+    /**
+     * A layout can be cut with a bridge saw when some edge to edge cut splits it without crossing a piece, and the same
+     * holds for both sides of the cut
+     */
+    private static boolean guillotine(List<PiecePlacement> placements, double x, double y, double length, double width) {
+        if (placements.size() <= 1) {
+            return true;
+        }
+        for (PiecePlacement placement : placements) {
+            double cutX = placement.getX() + placement.getLengthInches();
+            if (cutX < x + length - EPSILON && placements.stream().noneMatch(p -> p.getX() < cutX - EPSILON && p.getX() + p.getLengthInches() > cutX + EPSILON)) {
+                List<PiecePlacement> before = placements.stream().filter(p -> p.getX() < cutX - EPSILON).toList();
+                List<PiecePlacement> after = placements.stream().filter(p -> p.getX() >= cutX - EPSILON).toList();
+                if (!before.isEmpty() && !after.isEmpty()) {
+                    return guillotine(before, x, y, cutX - x, width) && guillotine(after, cutX, y, x + length - cutX, width);
+                }
+            }
+            double cutY = placement.getY() + placement.getWidthInches();
+            if (cutY < y + width - EPSILON && placements.stream().noneMatch(p -> p.getY() < cutY - EPSILON && p.getY() + p.getWidthInches() > cutY + EPSILON)) {
+                List<PiecePlacement> before = placements.stream().filter(p -> p.getY() < cutY - EPSILON).toList();
+                List<PiecePlacement> after = placements.stream().filter(p -> p.getY() >= cutY - EPSILON).toList();
+                if (!before.isEmpty() && !after.isEmpty()) {
+                    return guillotine(before, x, y, length, cutY - y) && guillotine(after, x, cutY, length, y + width - cutY);
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,142 @@
+package com.trentonrush.inventoryservice.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trentonrush.inventoryservice.exceptions.ServiceUnavailableException;
+import com.trentonrush.inventoryservice.models.Dimensions;
+import com.trentonrush.inventoryservice.models.Measurement;
+import com.trentonrush.inventoryservice.models.Slab;
+import com.trentonrush.inventoryservice.models.SlabSize;
+import com.trentonrush.inventoryservice.models.dtos.CutLayout;
+import com.trentonrush.inventoryservice.models.dtos.LayoutRequest;
+import com.trentonrush.inventoryservice.models.dtos.SlabFilter;
+import com.trentonrush.inventoryservice.models.enums.Status;
+import com.trentonrush.inventoryservice.repositories.inmemory.InMemorySlabRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.trentonrush.inventoryservice.utils.InventoryConstants.MAX_LAYOUT_SLABS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Asserts the cut layout keeps the best packing finished within the time budget, no Spring context or database is
+ * needed.
+ */
+class LayoutServiceTests {
+
+    private InMemorySlabRepository slabRepository;
+    private LayoutRequest request;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        slabRepository = new InMemorySlabRepository();
+        slabRepository.save(slab(10, 5));
+        slabRepository.save(slab(8, 4));
+        slabRepository.save(slab(10, 5));
+        request = new ObjectMapper().readValue("""
+                {"type": "quartz", "color": "white", "pieces": [
+                  {"label": "island", "lengthInches": 90, "widthInches": 40},
+                  {"label": "counter", "lengthInches": 60, "widthInches": 25},
+                  {"label": "counter", "lengthInches": 45, "widthInches": 25},
+                  {"label": "backsplash", "lengthInches": 60, "widthInches": 4},
+                  {"label": "backsplash", "lengthInches": 45, "widthInches": 4}
+                ]}""", LayoutRequest.class);
+    }
+
+    @Test
+    void bestOfTheFinishedHeuristicsIsReturned() {
+        int finished = 5;
+        CutLayout layout = layoutService(new BudgetedPool(finished)).planLayout(request);
+
+        assertThat(layout.getHeuristicsEvaluated()).isEqualTo(finished);
+        GuillotinePacker.Packing best = GuillotinePacker.Heuristic.all().subList(0, finished).stream()
+                .map(heuristic -> GuillotinePacker.pack(request.getPieces(), stock(), heuristic, System.nanoTime() + Duration.ofMinutes(1).toNanos()))
+                .sorted(GuillotinePacker.Packing.BEST_FIRST)
+                .findFirst()
+                .orElseThrow();
+        assertThat(layout.getSlabs()).hasSize(best.bins().size());
+        assertThat(layout.getUnplaced()).hasSize(best.unplaced().size());
+        assertThat(layout.getWasteSqInches()).isEqualTo(best.waste());
+    }
+
+    @Test
+    void everyHeuristicRunsWithinABudget() {
+        CutLayout layout = layoutService(ForkJoinPool.commonPool()).planLayout(request);
+
+        assertThat(layout.getHeuristicsEvaluated()).isEqualTo(GuillotinePacker.Heuristic.all().size());
+        assertThat(layout.getUnplaced()).isEmpty();
+    }
+
+    @Test
+    void noFinishedHeuristicIsUnavailable() {
+        LayoutService layoutService = layoutService(new BudgetedPool(0));
+
+        assertThatThrownBy(() -> layoutService.planLayout(request)).isInstanceOf(ServiceUnavailableException.class);
+    }
+
+    private LayoutService layoutService(ForkJoinPool layoutPool) {
+        return new LayoutService(slabRepository, layoutPool, Duration.ofSeconds(10), new InventoryMetrics(new SimpleMeterRegistry()));
+    }
+
+    private List<GuillotinePacker.Stock> stock() {
+        // In the order the service reads them, packings depend on the order of the slabs
+        return slabRepository.findDimensions(new SlabFilter("quartz", "white", Status.AVAILABLE.name()), MAX_LAYOUT_SLABS).stream()
+                .map(slab -> {
+                    SlabSize size = SlabSize.of(slab.getDimensions());
+                    return new GuillotinePacker.Stock(slab.getId(), size.getLengthInches(), size.getWidthInches());
+                })
+                .toList();
+    }
+
+    private static Slab slab(double lengthFeet, double widthFeet) {
+        Slab slab = new Slab();
+        slab.setType("quartz");
+        slab.setColor("white");
+        slab.setStatus(Status.AVAILABLE);
+        slab.setDimensions(new Dimensions(new Measurement(lengthFeet, 0, 0), new Measurement(0, 1.25, 0), new Measurement(widthFeet, 0, 0)));
+        return slab;
+    }
+
+    /**
+     * Runs the first tasks and cancels the rest, as if the budget ran out while they were still packing
+     */
+    private static final class BudgetedPool extends ForkJoinPool {
+
+        private final int finished;
+
+        private BudgetedPool(int finished) {
+            super(1);
+            this.finished = finished;
+        }
+
+        @Override
+        public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) {
+            List<Future<T>> futures = new ArrayList<>();
+            for (Callable<T> task : tasks) {
+                CompletableFuture<T> future = new CompletableFuture<>();
+                if (futures.size() < finished) {
+                    try {
+                        future.complete(task.call());
+                    } catch (Exception e) {
+                        future.completeExceptionally(e);
+                    }
+                } else {
+                    future.cancel(true);
+                }
+                futures.add(future);
+            }
+            return futures;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.trentonrush.inventoryservice.services;
+
+import com.trentonrush.inventoryservice.models.Dimensions;
+import com.trentonrush.inventoryservice.models.Measurement;
+import com.trentonrush.inventoryservice.models.Slab;
+import com.trentonrush.inventoryservice.models.dtos.RemnantFit;
+import com.trentonrush.inventoryservice.models.enums.Status;
+import com.trentonrush.inventoryservice.repositories.inmemory.InMemorySlabRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Asserts the remnant index finds fits least waste first and follows slab changes, no Spring context or database
+ * is needed.
+ */
+class RemnantIndexTests {
+
+    private InMemorySlabRepository slabRepository;
+    private RemnantIndex remnantIndex;
+
+    @BeforeEach
+    void setUp() {
+        slabRepository = new InMemorySlabRepository();
+        remnantIndex = new RemnantIndex(slabRepository);
+    }
+
+    @Test
+    void exactFitHasNoWaste() {
+        String id = slabRepository.save(remnant("white", 60, 30)).getId();
+        remnantIndex.reconcile();
+
+        List<RemnantFit> fits = remnantIndex.findFits(60, 30, null, null, 10);
+        assertThat(fits).extracting(RemnantFit::getSlabId).containsExactly(id);
+        assertThat(fits.get(0).getWasteSqInches()).isZero();
+    }
+
+    @Test
+    void piecesFitInEitherOrientation() {
+        // Measured width first, the index keeps the longer side as the length
+        String id = slabRepository.save(remnant("white", 30, 60)).getId();
+        remnantIndex.reconcile();
+
+        assertThat(remnantIndex.findFits(30, 60, null, null, 10)).extracting(RemnantFit::getSlabId).containsExactly(id);
+        assertThat(remnantIndex.findFits(55, 25, null, null, 10)).extracting(RemnantFit::getSlabId).containsExactly(id);
+        assertThat(remnantIndex.findFits(25, 55, null, null, 10)).extracting(RemnantFit::getSlabId).containsExactly(id);
+    }
+
+    @Test
+    void piecesTooLargeDontFit() {
+        slabRepository.save(remnant("white", 60, 30));
+        remnantIndex.reconcile();
+
+        // Larger area, longer than the remnant, and a smaller area that is still too wide
+        assertThat(remnantIndex.findFits(61, 30, null, null, 10)).isEmpty();
+        assertThat(remnantIndex.findFits(70, 10, null, null, 10)).isEmpty();
+        assertThat(remnantIndex.findFits(45, 35, null, null, 10)).isEmpty();
+    }
+
+    @Test
+    void fitsAreOrderedByWasteAndFiltered() {
+        String large = slabRepository.save(remnant("white", 80, 40)).getId();
+        String small = slabRepository.save(remnant("white", 50, 30)).getId();
+        String other = slabRepository.save(remnant("black", 50, 30)).getId();
+        slabRepository.save(remnant("white", 20, 20));
+        remnantIndex.reconcile();
+
+        // Remnants of the same area are ordered by id
+        List<String> sameArea = Stream.of(small, other).sorted().toList();
+        assertThat(remnantIndex.findFits(40, 25, null, null, 10)).extracting(RemnantFit::getSlabId)
+                .containsExactly(sameArea.get(0), sameArea.get(1), large);
+        assertThat(remnantIndex.findFits(40, 25, null, "white", 10)).extracting(RemnantFit::getSlabId).containsExactly(small, large);
+        assertThat(remnantIndex.findFits(40, 25, "quartz", "white", 1)).extracting(RemnantFit::getSlabId).containsExactly(small);
+    }
+
+    @Test
+    void slabsAreReindexedWhenTheirSizeOrStatusChanges() {
+        Slab slab = slabRepository.save(remnant("white", 60, 30));
+        remnantIndex.reconcile();
+
+        // Cut down, it no longer fits the piece
+        slab.setDimensions(dimensions(40, 30));
+        remnantIndex.record(slabRepository.save(slab));
+        assertThat(remnantIndex.findFits(50, 30, null, null, 10)).isEmpty();
+        assertThat(remnantIndex.findFits(40, 30, null, null, 10)).hasSize(1);
+
+        slab.setStatus(Status.RESERVED);
+        remnantIndex.record(slabRepository.save(slab));
+        assertThat(remnantIndex.findFits(40, 30, null, null, 10)).isEmpty();
+
+        slab.setStatus(Status.AVAILABLE);
+        remnantIndex.record(slabRepository.save(slab));
+        assertThat(remnantIndex.findFits(40, 30, null, null, 10)).hasSize(1);
+
+        remnantIndex.remove(slab.getId());
+        assertThat(remnantIndex.findFits(40, 30, null, null, 10)).isEmpty();
+    }
+
+    @Test
+    void reconcileCorrectsDrift() {
+        Slab slab = slabRepository.save(remnant("white", 60, 30));
+        remnantIndex.reconcile();
+
+        // Written by another instance, the index only learns of it on the next reconcile
+        slab.setStatus(Status.RESERVED);
+        slabRepository.save(slab);
+        String added = slabRepository.save(remnant("white", 70, 30)).getId();
+        assertThat(remnantIndex.findFits(60, 30, null, null, 10)).extracting(RemnantFit::getSlabId).containsExactly(slab.getId());
+
+        remnantIndex.reconcile();
+        assertThat(remnantIndex.findFits(60, 30, null, null, 10)).extracting(RemnantFit::getSlabId).containsExactly(added);
+    }
+
+    @Test
+    void writesDuringReconcileAreKept() {
+        RemnantIndex[] index = new RemnantIndex[1];
+        Slab reserved = remnant("white", 60, 30);
+        Slab added = remnant("white", 70, 30);
+        InMemorySlabRepository repository = new InMemorySlabRepository() {
+            @Override
+            public List<Slab> findAvailableRemnants() {
+                List<Slab> remnants = super.findAvailableRemnants();
+                // A remnant is reserved and another added after the database was read but before the rebuilt index
+                // is swapped in, the reserved remnant's stale state is only loaded afterwards
+                Slab write = findById(reserved.getId()).orElseThrow();
+                write.setStatus(Status.RESERVED);
+                index[0].record(save(write));
+                index[0].record(save(added));
+                return remnants;
+            }
+        };
+        index[0] = new RemnantIndex(repository);
+        repository.save(reserved);
+        index[0].reconcile();
+
+        assertThat(index[0].findFits(60, 30, null, null, 10)).extracting(RemnantFit::getSlabId).containsExactly(added.getId());
+    }
+
+    private static Slab remnant(String color, double lengthInches, double widthInches) {
+        Slab slab = new Slab();
+        slab.setType("quartz");
+        slab.setColor(color);
+        slab.setRemnant(true);
+        slab.setStatus(Status.AVAILABLE);
+        slab.setDimensions(dimensions(lengthInches, widthInches));
+        return slab;
+    }
+
+    private static Dimensions dimensions(double lengthInches, double widthInches) {
+        return new Dimensions(new Measurement(0, lengthInches, 0), new Measurement(0, 1.25, 0), new Measurement(0, widthInches, 0));
+    }
+}
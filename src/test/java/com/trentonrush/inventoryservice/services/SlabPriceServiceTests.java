@@ -0,0 +1,173 @@
+package com.trentonrush.inventoryservice.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trentonrush.inventoryservice.exceptions.InvalidInputException;
+import com.trentonrush.inventoryservice.models.SlabPrice;
+import com.trentonrush.inventoryservice.models.dtos.RepriceRequest;
+import com.trentonrush.inventoryservice.models.dtos.RepriceResult;
+import com.trentonrush.inventoryservice.models.dtos.RepricedPrice;
+import com.trentonrush.inventoryservice.repositories.inmemory.InMemorySlabPriceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.List;
+import java.util.Objects;
+
+import static com.trentonrush.inventoryservice.utils.InventoryConstants.PRICE_CACHE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Asserts repricing against the in-memory repositories, no Spring context or database is needed.
+ */
+class SlabPriceServiceTests {
+
+    private static final Currency USD = Currency.getInstance("USD");
+
+    private ConcurrentEditRepository slabPriceRepository;
+    private SlabPriceService slabPriceService;
+
+    @BeforeEach
+    void setUp() {
+        slabPriceRepository = new ConcurrentEditRepository();
+        slabPriceService = new SlabPriceService(slabPriceRepository, new ConcurrentMapCacheManager(PRICE_CACHE),
+                new InventoryMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void pricesChangedConcurrentlyAreReportedAsConflicts() throws Exception {
+        String white = slabPriceRepository.save(price("white", "10.00")).getId();
+        String black = slabPriceRepository.save(price("black", "20.00")).getId();
+        slabPriceRepository.editBeforeWrite = black;
+
+        RepriceResult result = slabPriceService.repricePrices(request("absolute", "1.00", false));
+
+        assertThat(result.getMatched()).isEqualTo(2);
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getPrices()).extracting(RepricedPrice::getId).containsExactly(white);
+        assertThat(result.getConflicts()).extracting(RepricedPrice::getId).containsExactly(black);
+        assertThat(slabPriceRepository.findById(black).orElseThrow().getAmountPerSqFt()).isEqualByComparingTo("25.00");
+    }
+
+    @Test
+    void dryRunsListEveryMatchedPrice() throws Exception {
+        slabPriceRepository.save(price("white", "10.00"));
+        slabPriceRepository.save(price("black", "20.00"));
+
+        RepriceResult result = slabPriceService.repricePrices(request("absolute", "1.00", true));
+
+        assertThat(result.getMatched()).isEqualTo(2);
+        assertThat(result.getUpdated()).isZero();
+        assertThat(result.getPrices()).hasSize(2);
+        assertThat(result.getConflicts()).isEmpty();
+        assertThat(slabPriceRepository.findAllByFilter("quartz", null)).extracting(SlabPrice::getAmountPerSqFt)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactlyInAnyOrder(new BigDecimal("10.00"), new BigDecimal("20.00"));
+    }
+
+    @Test
+    void percentChangesAreRoundedHalfEvenToTheCurrency() throws Exception {
+        String odd = slabPriceRepository.save(price("white", "12.25")).getId();
+        String even = slabPriceRepository.save(price("black", "12.35")).getId();
+        String yen = slabPriceRepository.save(price("grey", "1000", Currency.getInstance("JPY"))).getId();
+
+        // 13.475 and 13.585 are halfway, yen have no fraction digits
+        slabPriceService.repricePrices(request("percent", "10", false));
+        assertAmount(odd, "13.48");
+        assertAmount(even, "13.58");
+        assertAmount(yen, "1100");
+
+        slabPriceService.repricePrices(request("PERCENT", "-12.5", false));
+        assertAmount(odd, "11.80");
+        assertAmount(even, "11.88");
+        assertAmount(yen, "962");
+    }
+
+    @Test
+    void absoluteChangesKeepTheCurrencyScale() throws Exception {
+        String id = slabPriceRepository.save(price("white", "10.00")).getId();
+
+        slabPriceService.repricePrices(request("absolute", "-2.5", false));
+        assertAmount(id, "7.50");
+        assertThatThrownBy(() -> slabPriceService.repricePrices(request("absolute", "0.005", false)))
+                .isInstanceOf(InvalidInputException.class);
+        assertAmount(id, "7.50");
+    }
+
+    @Test
+    void zeroOrNegativeResultsAreRejected() throws Exception {
+        String cheap = slabPriceRepository.save(price("white", "10.00")).getId();
+        String dear = slabPriceRepository.save(price("black", "30.00")).getId();
+
+        // One price that would drop to zero or below fails the whole request, before anything is written
+        for (String[] change : new String[][]{{"absolute", "-10"}, {"absolute", "-20"}, {"percent", "-100"}, {"percent", "-150"}}) {
+            assertThatThrownBy(() -> slabPriceService.repricePrices(request(change[0], change[1], false)))
+                    .isInstanceOf(InvalidInputException.class);
+        }
+        assertThatThrownBy(() -> slabPriceService.repricePrices(request("absolute", "-10", true)))
+                .isInstanceOf(InvalidInputException.class);
+        assertAmount(cheap, "10.00");
+        assertAmount(dear, "30.00");
+    }
+
+    @Test
+    void invalidRequestsAreRejected() throws Exception {
+        slabPriceRepository.save(price("white", "10.00"));
+        RepriceRequest noTypeOrColor = new ObjectMapper().readValue("""
+                {"mode": "absolute", "amount": "1"}""", RepriceRequest.class);
+
+        assertThatThrownBy(() -> slabPriceService.repricePrices(null)).isInstanceOf(InvalidInputException.class);
+        assertThatThrownBy(() -> slabPriceService.repricePrices(noTypeOrColor)).isInstanceOf(InvalidInputException.class);
+        assertThatThrownBy(() -> slabPriceService.repricePrices(request("absolute", "", false)))
+                .isInstanceOf(InvalidInputException.class);
+        assertThatThrownBy(() -> slabPriceService.repricePrices(request("absolute", "ten", false)))
+                .isInstanceOf(InvalidInputException.class);
+        assertThatThrownBy(() -> slabPriceService.repricePrices(request("relative", "1", false)))
+                .isInstanceOf(InvalidInputException.class);
+    }
+
+    private void assertAmount(String id, String amount) {
+        BigDecimal stored = slabPriceRepository.findById(id).orElseThrow().getAmountPerSqFt();
+        assertThat(stored).isEqualByComparingTo(amount);
+        assertThat(stored.scale()).isLessThanOrEqualTo(new BigDecimal(amount).scale());
+    }
+
+    private static RepriceRequest request(String mode, String amount, boolean dryRun) throws Exception {
+        return new ObjectMapper().readValue("""
+                {"type": "quartz", "mode": "%s", "amount": "%s", "dryRun": %s}""".formatted(mode, amount, dryRun),
+                RepriceRequest.class);
+    }
+
+    private static SlabPrice price(String color, String amount) {
+        return price(color, amount, USD);
+    }
+
+    private static SlabPrice price(String color, String amount, Currency currency) {
+        SlabPrice price = new SlabPrice(new BigDecimal(amount), currency);
+        price.setType("quartz");
+        price.setColor(color);
+        return price;
+    }
+
+    /**
+     * Changes one price after it was read for the reprice and before the bulk write, as another request would
+     */
+    private static final class ConcurrentEditRepository extends InMemorySlabPriceRepository {
+
+        private String editBeforeWrite;
+
+        @Override
+        public long bulkUpdateAmounts(List<RepricedPrice> prices) {
+            if (Objects.nonNull(editBeforeWrite)) {
+                SlabPrice price = findById(editBeforeWrite).orElseThrow();
+                price.setAmountPerSqFtAndCurrency(new BigDecimal("25.00"), USD);
+                save(price);
+            }
+            return super.bulkUpdateAmounts(prices);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.trentonrush.inventoryservice.services;
+
+import com.trentonrush.inventoryservice.exceptions.ResourceConflictException;
+import com.trentonrush.inventoryservice.exceptions.ResourceNotFoundException;
+import com.trentonrush.inventoryservice.models.Dimensions;
+import com.trentonrush.inventoryservice.models.Measurement;
+import com.trentonrush.inventoryservice.models.Slab;
+import com.trentonrush.inventoryservice.models.enums.Status;
+import com.trentonrush.inventoryservice.repositories.inmemory.InMemorySampleSlabRepository;
+import com.trentonrush.inventoryservice.repositories.inmemory.InMemorySlabRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Asserts the slab write paths against the in-memory repositories, no Spring context or database is needed.
+ */
+class SlabServiceTests {
+
+    private InMemorySlabRepository slabRepository;
+    private AvailabilityCounters availabilityCounters;
+    private SlabService slabService;
+
+    @BeforeEach
+    void setUp() {
+        slabRepository = new InMemorySlabRepository();
+        availabilityCounters = new AvailabilityCounters(slabRepository, new InMemorySampleSlabRepository());
+        availabilityCounters.reconcile();
+        slabService = new SlabService(slabRepository, availabilityCounters, new RemnantIndex(slabRepository),
+                new InventoryMetrics(new SimpleMeterRegistry()), null);
+    }
+
+    @Test
+    void reserveAndReleaseTellMissingSlabsFromUnavailableOnes() {
+        String missing = new ObjectId().toHexString();
+        assertThatThrownBy(() -> slabService.reserveSlab(missing)).isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> slabService.releaseSlab(missing)).isInstanceOf(ResourceNotFoundException.class);
+
+        String id = slabRepository.save(slab("white")).getId();
+        assertThatThrownBy(() -> slabService.releaseSlab(id)).isInstanceOf(ResourceConflictException.class);
+        slabService.reserveSlab(id);
+        assertThatThrownBy(() -> slabService.reserveSlab(id)).isInstanceOf(ResourceConflictException.class);
+        assertThat(slabRepository.findById(id).orElseThrow().getStatus()).isEqualTo(Status.RESERVED);
+    }
+
+    @Test
+    void reservingSlabsIsAllOrNothing() {
+        String first = slabRepository.save(slab("white")).getId();
+        String second = slabRepository.save(slab("white")).getId();
+        String taken = slabRepository.save(slab("white")).getId();
+        availabilityCounters.reconcile();
+        slabService.reserveSlab(taken);
+
+        // The slabs reserved before the one that is taken are released again
+        assertThatThrownBy(() -> slabService.reserveSlabs(List.of(first, second, taken))).isInstanceOf(ResourceConflictException.class);
+        assertThat(slabRepository.findAllById(List.of(first, second))).extracting(Slab::getStatus)
+                .containsOnly(Status.AVAILABLE);
+        assertThat(availabilityCounters.countSlabs("quartz", "white", Status.AVAILABLE)).isEqualTo(2);
+        assertThat(availabilityCounters.countSlabs("quartz", "white", Status.RESERVED)).isEqualTo(1);
+
+        assertThatThrownBy(() -> slabService.reserveSlabs(List.of(first, new ObjectId().toHexString())))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(slabRepository.findById(first).orElseThrow().getStatus()).isEqualTo(Status.AVAILABLE);
+
+        slabService.reserveSlabs(List.of(first, second, first));
+        assertThat(availabilityCounters.countSlabs("quartz", "white", Status.AVAILABLE)).isZero();
+        assertThat(availabilityCounters.countSlabs("quartz", "white", Status.RESERVED)).isEqualTo(3);
+    }
+
+    private static Slab slab(String color) {
+        Slab slab = new Slab();
+        slab.setType("quartz");
+        slab.setColor(color);
+        slab.setLocation("yard");
+        slab.setStatus(Status.AVAILABLE);
+        slab.setDimensions(new Dimensions(new Measurement(10, 0, 0), new Measurement(0, 1.25, 0), new Measurement(5, 0, 0)));
+        return slab;
+    }
+}